@@ -6,8 +6,11 @@ import java.util.Map;
 import javax.ws.rs.ApplicationPath;
 
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 
 import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.jobs.events.JobEventManager;
 import edu.utexas.tacc.tapis.jobs.events.NotificationLiveness;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.queue.JobQueueManager;
@@ -191,6 +194,9 @@ extends ResourceConfig
        
        // ----- Start the notification liveness thread.
        startNotificationLiveness();  
+       
+       // ----- Write queued job events when the application is shut down.
+       registerShutdownListener();
    }
    
    /** Initialize rabbitmq vhost and our standard queues and exchanges.  VHost initialization
@@ -231,4 +237,25 @@ extends ResourceConfig
    {
 	   NotificationLiveness.getInstance();
    }
+   
+   /** Write any job events queued by the batched event writer before the 
+    * container stops the application.  The worker does the same in its own
+    * shutdown sequence.
+    */
+   private void registerShutdownListener()
+   {
+       register(new ContainerLifecycleListener() {
+           @Override
+           public void onStartup(Container container) {}
+           @Override
+           public void onReload(Container container) {}
+           @Override
+           public void onShutdown(Container container) {
+               try {JobEventManager.getInstance().shutdown();}
+                   catch (Exception e) {
+                       System.out.println("**** FAILURE TO WRITE QUEUED JOB EVENTS ON SHUTDOWN ****\n" + e.getMessage());
+                   }
+           }
+       });
+   }
 }
@@ -0,0 +1,221 @@
+package edu.utexas.tacc.tapis.jobs.api.jaxrs.filters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+
+/** This interceptor compresses JSON and text response bodies with gzip or
+ * deflate when the client's Accept-Encoding header allows it.  Bodies whose
+ * size is known in advance are only compressed if they reach the configured
+ * minimum size; streamed bodies, whose size isn't known, are always compressed.
+ * Binary bodies, such as job output downloads, are never compressed since they
+ * may already be compressed and may be sent as byte ranges.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class ResponseCompressionInterceptor
+ implements WriterInterceptor
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(ResponseCompressionInterceptor.class);
+
+    // Supported content codings.
+    public static final String GZIP    = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    // Compressor buffer size.
+    private static final int BUFFER_SIZE = 8192;
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    @Context
+    private HttpHeaders _httpHeaders;
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* aroundWriteTo:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context)
+     throws IOException, WebApplicationException
+    {
+        // Leave bodies that can't benefit or are already encoded alone.
+        var headers = context.getHeaders();
+        if (!isCompressible(context.getMediaType()) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+
+        // The response depends on the request's encodings from here on.
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = _httpHeaders == null ? null :
+                                _httpHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        String coding = selectEncoding(acceptEncoding);
+        int minBytes = RuntimeParameters.getInstance().getCompressionMinBytes();
+        if (coding == null || !isLargeEnough(context.getEntity(), minBytes)) {
+            context.proceed();
+            return;
+        }
+
+        // Compress the body as it's written.
+        headers.putSingle(HttpHeaders.CONTENT_ENCODING, coding);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        // The compressor is released even when writing fails.
+        var compressor = compressingStream(coding, context.getOutputStream());
+        context.setOutputStream(compressor);
+        try {
+            context.proceed();
+            compressor.finish();
+        }
+        finally {endCompressor(compressor);}
+        if (_log.isTraceEnabled()) _log.trace("Response body compressed with " + coding + ".");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* selectEncoding:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Choose the supported coding with the highest quality value in an
+     * Accept-Encoding header.  Gzip is preferred on ties and is used for the
+     * "*" wildcard.
+     *
+     * @param acceptEncoding the header value or null
+     * @return gzip, deflate or null if the body should not be compressed
+     */
+    public static String selectEncoding(String acceptEncoding)
+    {
+        if (StringUtils.isBlank(acceptEncoding)) return null;
+
+        // Null quality values mean the coding isn't listed.
+        Double gzipQ = null, deflateQ = null, wildcardQ = null;
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parm = parts[i].trim();
+                if (parm.length() > 2 && parm.substring(0, 2).equalsIgnoreCase("q="))
+                    try {q = Double.parseDouble(parm.substring(2).trim());}
+                    catch (NumberFormatException e) {q = 0;}
+            }
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) gzipQ = max(gzipQ, q);
+              else if (coding.equals(DEFLATE)) deflateQ = max(deflateQ, q);
+              else if (coding.equals("*")) wildcardQ = max(wildcardQ, q);
+        }
+
+        // Explicitly listed codings override the wildcard.
+        double gzip = gzipQ != null ? gzipQ : wildcardQ != null ? wildcardQ : 0;
+        double deflate = deflateQ != null ? deflateQ : 0;
+        if (gzip > 0 && gzip >= deflate) return GZIP;
+        if (deflate > 0) return DEFLATE;
+        return null;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isCompressible:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Only JSON and text bodies are compressed. */
+    public static boolean isCompressible(MediaType mediaType)
+    {
+        if (mediaType == null) return false;
+        String type = mediaType.getType(), subtype = mediaType.getSubtype();
+        if ("text".equalsIgnoreCase(type)) return true;
+        return "application".equalsIgnoreCase(type) && subtype != null &&
+               (subtype.equalsIgnoreCase("json") || subtype.toLowerCase().endsWith("+json"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isLargeEnough:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** Decide whether an entity is worth compressing.  Strings and byte arrays
+     * are measured, streamed entities are assumed to be large.
+     *
+     * @param entity the response entity
+     * @param minBytes the minimum size to compress, negative to never compress
+     * @return true to compress the entity
+     */
+    public static boolean isLargeEnough(Object entity, int minBytes)
+    {
+        if (minBytes < 0 || entity == null) return false;
+        if (entity instanceof String) return ((String) entity).length() >= minBytes;
+        if (entity instanceof byte[]) return ((byte[]) entity).length >= minBytes;
+        return entity instanceof StreamingOutput;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* compressingStream:                                                     */
+    /* ---------------------------------------------------------------------- */
+    /** Wrap a stream so that it compresses with the given coding.  Closing the
+     * returned stream releases its compressor.
+     */
+    public static DeflaterOutputStream compressingStream(String coding, OutputStream out)
+     throws IOException
+    {
+        if (GZIP.equals(coding)) return new GzipStream(out);
+        return new DeflateStream(out);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* endCompressor:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** Release the compressor of a stream returned by compressingStream()
+     * without finishing or closing the stream, so that nothing more is written
+     * to the response.  The stream can't be written after this call.
+     */
+    public static void endCompressor(DeflaterOutputStream stream)
+    {
+        if (stream instanceof GzipStream) ((GzipStream)stream).end();
+          else if (stream instanceof DeflateStream) ((DeflateStream)stream).end();
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* max:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    private static Double max(Double current, double q)
+    {
+        return current == null ? q : Math.max(current, q);
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** A gzip stream whose compressor can be released without closing it. */
+    private static final class GzipStream extends GZIPOutputStream
+    {
+        private GzipStream(OutputStream out) throws IOException {super(out, BUFFER_SIZE);}
+        private void end() {def.end();}
+    }
+
+    /** A deflate stream whose compressor can be released without closing it. */
+    private static final class DeflateStream extends DeflaterOutputStream
+    {
+        private DeflateStream(OutputStream out) {super(out);}
+        private void end() {def.end();}
+    }
+}
@@ -11,9 +11,9 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -34,9 +34,11 @@ import edu.utexas.tacc.tapis.apps.client.gen.model.TapisApp;
 import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
 import edu.utexas.tacc.tapis.jobs.api.requestBody.ReqSubmitJob;
 import edu.utexas.tacc.tapis.jobs.api.requestBody.ReqSubscribe;
+import edu.utexas.tacc.tapis.jobs.api.utils.DefinitionCache;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobParmSetMarshaller;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobParmSetMarshaller.ArgTypeEnum;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
+import edu.utexas.tacc.tapis.jobs.api.utils.SubmitFetcher;
 import edu.utexas.tacc.tapis.jobs.model.Job;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobTemplateVariables;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobType;
@@ -47,6 +49,8 @@ import edu.utexas.tacc.tapis.jobs.model.submit.JobSharedAppCtx;
 import edu.utexas.tacc.tapis.jobs.model.submit.JobSharedAppCtx.JobSharedAppCtxEnum;
 import edu.utexas.tacc.tapis.jobs.model.submit.LogConfig;
 import edu.utexas.tacc.tapis.jobs.queue.SelectQueueName;
+import edu.utexas.tacc.tapis.jobs.selection.ExecSystemSelectionPolicyFactory;
+import edu.utexas.tacc.tapis.jobs.selection.ExecSystemSelectionRequest;
 import edu.utexas.tacc.tapis.jobs.utils.MacroResolver;
 import edu.utexas.tacc.tapis.jobs.worker.execjob.JobFileManager;
 import edu.utexas.tacc.tapis.shared.TapisConstants;
@@ -119,12 +123,33 @@ public final class SubmitContext
     // The different types of systems loaded in this class.
     private enum LoadSystemTypes {execution, archive, dtn}
     
+    /* ********************************************************************** */
+    /*                              Interfaces                                */
+    /* ********************************************************************** */
+    /** Supplies the Apps and Systems clients for a user@tenant. */
+    public interface ClientSupplier
+    {
+        AppsClient getAppsClient(String user, String tenant) throws Exception;
+        SystemsClient getSystemsClient(String user, String tenant) throws Exception;
+    }
+    
+    // The default supplier uses the shared service client cache.
+    private static final ClientSupplier _serviceClients = new ClientSupplier() {
+        @Override
+        public AppsClient getAppsClient(String user, String tenant) throws Exception
+        {return ServiceClients.getInstance().getClient(user, tenant, AppsClient.class);}
+        @Override
+        public SystemsClient getSystemsClient(String user, String tenant) throws Exception
+        {return ServiceClients.getInstance().getClient(user, tenant, SystemsClient.class);}
+    };
+    
     /* **************************************************************************** */
     /*                                    Fields                                    */
     /* **************************************************************************** */
     // Constructor input.
     private final ReqSubmitJob       _submitReq;
     private final TapisThreadContext _threadContext;
+    private final ClientSupplier     _clients;
     private final Job                _job;
     
     // The raw sources of job information.
@@ -133,6 +158,9 @@ public final class SubmitContext
     private TapisSystem _dtnSystem;
     private TapisSystem _archiveSystem;
     
+    // The archive system while it's being fetched.
+    private CompletableFuture<TapisSystem> _archiveSystemFuture;
+    
     // Shared application context is initialized after the application is loaded.
     private JobSharedAppCtx _sharedAppCtx;
     
@@ -141,16 +169,30 @@ public final class SubmitContext
     private final TreeMap<String,String> _macros = new TreeMap<String,String>();
     private MacroResolver _macroResolver;
     
+    // Fetch app and system definitions even when cached.
+    private boolean _bypassDefinitionCache;
+    
     /* **************************************************************************** */
     /*                                Constructors                                  */
     /* **************************************************************************** */
     /* ---------------------------------------------------------------------------- */
     /* constructor:                                                                 */
     /* ---------------------------------------------------------------------------- */
-    public SubmitContext(ReqSubmitJob submitReq)
+    public SubmitContext(ReqSubmitJob submitReq) {this(submitReq, _serviceClients);}
+    
+    /* ---------------------------------------------------------------------------- */
+    /* constructor:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    /** Create a context whose definitions are fetched with the supplied clients.
+     * 
+     * @param submitReq the job submission request
+     * @param clients supplies the Apps and Systems clients
+     */
+    public SubmitContext(ReqSubmitJob submitReq, ClientSupplier clients)
     {
         _submitReq = submitReq;
         _threadContext = TapisThreadLocal.tapisThreadContext.get();
+        _clients = clients;
         
         // Create the new job.
         _job = new Job();
@@ -196,6 +238,9 @@ public final class SubmitContext
     public TapisSystem getDtnSystem() {return _dtnSystem;}
     public TapisSystem getArchiveSystem() {return _archiveSystem;}
     public ReqSubmitJob getSubmitReq() {return _submitReq;}
+    
+    public boolean isBypassDefinitionCache() {return _bypassDefinitionCache;}
+    public void setBypassDefinitionCache(boolean bypass) {_bypassDefinitionCache = bypass;}
 
     /* **************************************************************************** */
     /*                               Private Methods                                */
@@ -265,12 +310,51 @@ public final class SubmitContext
      * @throws TapisImplException
      */
     private void assignApp() throws TapisImplException
+    {
+        // Get the application from the cache or the Apps service.
+        final String authz = "READ,EXECUTE";
+        var key = new DefinitionCache.Key(_submitReq.getTenant(), _submitReq.getAppId(), 
+                                          _submitReq.getAppVersion(), _submitReq.getOwner(), authz);
+        _app = DefinitionCache.getAppCache().get(key, () -> fetchApp(authz), _bypassDefinitionCache);
+        
+        // Double-check!  This shouldn't happen, but it's absolutely critical that we have an app.
+        if (_app == null) {
+            String msg = MsgUtils.getMsg("TAPIS_APPCLIENT_INTERNAL_ERROR", _submitReq.getAppId(), 
+                            _submitReq.getAppVersion(), authz, _submitReq.getOwner(), _submitReq.getTenant());
+            throw new TapisImplException(msg, Status.NOT_FOUND.getStatusCode());
+        }
+        
+        // Reject the job early if its application is not available.
+        if (_app.getEnabled() == null || _app.getVersionEnabled() == null || 
+        	!_app.getEnabled() || !_app.getVersionEnabled()) 
+        {
+            String msg = MsgUtils.getMsg("JOBS_APP_NOT_AVAILABLE", _job.getUuid(), _app.getId(), _app.getVersion());
+            throw new TapisImplException(msg, Status.BAD_REQUEST.getStatusCode());
+        }
+        
+        // Check that the runtime has appropriate options selected.
+        validateApp(_app);
+        
+        // Always establish our shared application context.
+        _sharedAppCtx = new JobSharedAppCtx(_app);
+    }
+    
+    /* ---------------------------------------------------------------------------- */
+    /* fetchApp:                                                                    */
+    /* ---------------------------------------------------------------------------- */
+    /** Retrieve the application from the Apps service with read and execute 
+     * permission checking.
+     * 
+     * @param authz the permissions description used in messages
+     * @return the application
+     * @throws TapisImplException
+     */
+    private TapisApp fetchApp(String authz) throws TapisImplException
     {
         // Get the application client for this user@tenant.
         AppsClient appsClient = null;
         try {
-            appsClient = ServiceClients.getInstance().getClient(
-                             _submitReq.getOwner(), _submitReq.getTenant(), AppsClient.class);
+            appsClient = _clients.getAppsClient(_submitReq.getOwner(), _submitReq.getTenant());
         }
         catch (Exception e) {
             String msg = MsgUtils.getMsg("TAPIS_CLIENT_NOT_FOUND", "Apps", _submitReq.getTenant(), _submitReq.getOwner());
@@ -278,9 +362,8 @@ public final class SubmitContext
         }
         
         // Get the application.
-        final String authz = "READ,EXECUTE";
         Boolean execPerm = Boolean.TRUE;
-        try {_app = appsClient.getApp(_submitReq.getAppId(), _submitReq.getAppVersion(), execPerm);}
+        try {return appsClient.getApp(_submitReq.getAppId(), _submitReq.getAppVersion(), execPerm);}
         catch (TapisClientException e) {
             // Determine why we failed.
             String msg;
@@ -311,27 +394,6 @@ public final class SubmitContext
                             _submitReq.getAppVersion(), authz, _submitReq.getOwner(), _submitReq.getTenant());
             throw new TapisImplException(msg, e, Status.INTERNAL_SERVER_ERROR.getStatusCode());
         }
-        
-        // Double-check!  This shouldn't happen, but it's absolutely critical that we have an app.
-        if (_app == null) {
-            String msg = MsgUtils.getMsg("TAPIS_APPCLIENT_INTERNAL_ERROR", _submitReq.getAppId(), 
-                            _submitReq.getAppVersion(), authz, _submitReq.getOwner(), _submitReq.getTenant());
-            throw new TapisImplException(msg, Status.NOT_FOUND.getStatusCode());
-        }
-        
-        // Reject the job early if its application is not available.
-        if (_app.getEnabled() == null || _app.getVersionEnabled() == null || 
-        	!_app.getEnabled() || !_app.getVersionEnabled()) 
-        {
-            String msg = MsgUtils.getMsg("JOBS_APP_NOT_AVAILABLE", _job.getUuid(), _app.getId(), _app.getVersion());
-            throw new TapisImplException(msg, Status.BAD_REQUEST.getStatusCode());
-        }
-        
-        // Check that the runtime has appropriate options selected.
-        validateApp(_app);
-        
-        // Always establish our shared application context.
-        _sharedAppCtx = new JobSharedAppCtx(_app);
     }
 
     /* ---------------------------------------------------------------------------- */
@@ -357,6 +419,9 @@ public final class SubmitContext
         // from the system, app and request definitions.
         resolveParameterSet();
         
+        // Wait for the archive system, which may have been fetched concurrently.
+        awaitArchiveSystem();
+        
         // Resolve directory assignments and their sharing attributes.
         resolveDirectoryPathNames();
         
@@ -639,6 +704,10 @@ public final class SubmitContext
     /** Resolve information relating to the execution, archive and dtn systems.  The
      * request owner and tenant must be valid.
      * 
+     * An archive system that is different from the execution system is fetched
+     * concurrently with the execution system (static selection) or with the dtn 
+     * system (dynamic selection).  Its definition is assigned by awaitArchiveSystem(). 
+     * 
      * Request fields guaranteed to be assigned:
      *  - dynamicExecSystem
      *  - execSystemId
@@ -647,7 +716,7 @@ public final class SubmitContext
      * Context fields guaranteed to be assigned if required:
      *  - _execSystem
      *  - _dtnSystem (can be null)
-     *  - _archiveSsytem 
+     *  - _archiveSystemFuture (null when the archive and execution systems are the same) 
      * 
      * @throws TapisImplException
      */
@@ -669,7 +738,12 @@ public final class SubmitContext
         // Static system selection includes calculating the sharing attribute.
         boolean isDynamicExecSystem = _submitReq.getDynamicExecSystem();
         if (isDynamicExecSystem) resolveDynamicExecSystem(systemsClient);
-          else resolveStaticExecSystem(systemsClient);
+          else assignStaticExecSystemId();
+        
+        // Start fetching the archive system once the execution system id is known.
+        assignArchiveSystemId();
+        _archiveSystemFuture = fetchArchiveSystem(systemsClient);
+        if (!isDynamicExecSystem) resolveStaticExecSystem(systemsClient);
         
         // Make sure the execution system is still executable.
         if (_execSystem.getCanExec() == null || !_execSystem.getCanExec()) {
@@ -760,9 +834,22 @@ public final class SubmitContext
                                                 _app.getJobAttributes().getDtnSystemOutputDir());
         	} // using the dtn
         } // dtn 
-        
-        // --------------------- Archive System ------------------
-        // Assign and load the archive system if one is specified.
+    }
+    
+    /* ---------------------------------------------------------------------------- */
+    /* assignArchiveSystemId:                                                       */
+    /* ---------------------------------------------------------------------------- */
+    /** Assign the archive system id and determine its sharing attribute.  The 
+     * execution system id must already be assigned.
+     * 
+     * Request fields guaranteed to be assigned:
+     *  - archiveSystemId
+     *  
+     * @throws TapisImplException
+     */
+    private void assignArchiveSystemId() throws TapisImplException
+    {
+        // Assign the archive system if one is specified.
         if (StringUtils.isBlank(_submitReq.getArchiveSystemId()))
             _submitReq.setArchiveSystemId(_app.getJobAttributes().getArchiveSystemId());
         
@@ -778,35 +865,57 @@ public final class SubmitContext
         _sharedAppCtx.calcArchiveSystemId(_submitReq.getArchiveSystemId(), 
                                           _app.getJobAttributes().getArchiveSystemId(),
                                           _submitReq.getExecSystemId());
-                
+    }
+    
+    /* ---------------------------------------------------------------------------- */
+    /* fetchArchiveSystem:                                                          */
+    /* ---------------------------------------------------------------------------- */
+    /** Start loading the archive system if it's different from the execution system.
+     * 
+     * @return the future archive system or null if it's the execution system
+     */
+    private CompletableFuture<TapisSystem> fetchArchiveSystem(SystemsClient systemsClient)
+    {
+        // The archive system object is assigned from the execution system.
+        if (_submitReq.getArchiveSystemId().equals(_submitReq.getExecSystemId())) return null;
+        
+        // Load the archive system if it's different from the execution system.
+        final boolean requireExecPerm = false;
+        final String archiveSystemId = _submitReq.getArchiveSystemId();
+        final String sharedAppCtx = _sharedAppCtx.getSharingArchiveSystemAppOwner();
+        return SubmitFetcher.getInstance().fetch(() -> 
+            loadSystemDefinition(systemsClient, archiveSystemId, requireExecPerm, 
+                                 LoadSystemTypes.archive, sharedAppCtx));
+    }
+    
+    /* ---------------------------------------------------------------------------- */
+    /* awaitArchiveSystem:                                                          */
+    /* ---------------------------------------------------------------------------- */
+    /** Assign the archive system, waiting for it to load if it was fetched.
+     * 
+     * Context fields guaranteed to be assigned:
+     *  - _archiveSystem 
+     * 
+     * @throws TapisImplException
+     */
+    private void awaitArchiveSystem() throws TapisImplException
+    {
         // Assign the archive system object if it's the same as the execution system.
-        if (_submitReq.getArchiveSystemId().equals(_submitReq.getExecSystemId()))
-            _archiveSystem = _execSystem;  // Note address equality assigned here
-        else {
-            // Load the archive system if it's different from the execution system,
-            // which is the same as saying that it hasn't been assigned yet.
-            boolean requireExecPerm = false;
-           _archiveSystem = loadSystemDefinition(systemsClient, _submitReq.getArchiveSystemId(), 
-                                                 requireExecPerm, LoadSystemTypes.archive,
-                                                 _sharedAppCtx.getSharingArchiveSystemAppOwner()); 
-        }
+        if (_archiveSystemFuture == null) _archiveSystem = _execSystem;  // Note address equality assigned here
+          else _archiveSystem = SubmitFetcher.join(_archiveSystemFuture);
     }
     
     /* ---------------------------------------------------------------------------- */
-    /* resolveStaticExecSystem:                                                     */
+    /* assignStaticExecSystemId:                                                    */
     /* ---------------------------------------------------------------------------- */
-    /** Assign the execution system from application and/or request input.
+    /** Assign the execution system id from application and/or request input.
      * 
      * Request fields guaranteed to be assigned:
      *  - execSystemId
      *  
-     * Context fields guaranteed to be assigned:
-     *  - _execSystem 
-     * 
      * @throws TapisImplException
      */
-    private void resolveStaticExecSystem(SystemsClient systemsClient) 
-     throws TapisImplException
+    private void assignStaticExecSystemId() throws TapisImplException
     {
         // Use the system specified in the job submission request if it exists.
         String execSystemId = _submitReq.getExecSystemId();
@@ -826,8 +935,23 @@ public final class SubmitContext
     	
         // Determine the shared application context attribute.
         _sharedAppCtx.calcExecSystemId(execSystemId, _app.getJobAttributes().getExecSystemId());
-                
+    }
+    
+    /* ---------------------------------------------------------------------------- */
+    /* resolveStaticExecSystem:                                                     */
+    /* ---------------------------------------------------------------------------- */
+    /** Load the execution system assigned by assignStaticExecSystemId().
+     * 
+     * Context fields guaranteed to be assigned:
+     *  - _execSystem 
+     * 
+     * @throws TapisImplException
+     */
+    private void resolveStaticExecSystem(SystemsClient systemsClient) 
+     throws TapisImplException
+    {
         // Load the system.
+        String execSystemId = _submitReq.getExecSystemId();
         boolean requireExecPerm = true;
         _execSystem = loadSystemDefinition(systemsClient, execSystemId, requireExecPerm, 
                                            LoadSystemTypes.execution, _sharedAppCtx.getSharingExecSystemAppOwner());
@@ -897,10 +1021,10 @@ public final class SubmitContext
             throw new TapisImplException(msg, Status.BAD_REQUEST.getStatusCode());
         }
         
-        // TODO: Invent optimization strategies.
-        // Select the best candidate.  For now, the only selection policy is the 
-        // hardcoded random policy.  This will change in future releases.
-        _execSystem = execSystems.get(new Random().nextInt(execSystems.size()));
+        // Select the best candidate using the configured policy.
+        var selectionReq = new ExecSystemSelectionRequest(_submitReq.getTenant(), _submitReq.getOwner(),
+                                                          _app.getMaxJobs(), _app.getMaxJobsPerUser());
+        _execSystem = ExecSystemSelectionPolicyFactory.getPolicy().select(selectionReq, execSystems);
         _submitReq.setExecSystemId(_execSystem.getId());
     }
     
@@ -2536,8 +2660,7 @@ public final class SubmitContext
         // Get the application client for this user@tenant.
         SystemsClient systemsClient = null;
         try {
-            systemsClient = ServiceClients.getInstance().getClient(
-                    _submitReq.getOwner(), _submitReq.getTenant(), SystemsClient.class);
+            systemsClient = _clients.getSystemsClient(_submitReq.getOwner(), _submitReq.getTenant());
         }
         catch (Exception e) {
             String msg = MsgUtils.getMsg("TAPIS_CLIENT_NOT_FOUND", "Systems", 
@@ -2570,14 +2693,54 @@ public final class SubmitContext
                                              String sharedAppCtx) 
       throws TapisImplException
     {
-        // Load the system definition.
-        TapisSystem system = null;
+        // Load the system definition from the cache or the Systems service.  The
+        // key records the permission check and shared context used on the call.
+        var key = new DefinitionCache.Key(_submitReq.getTenant(), systemId, null, _submitReq.getOwner(),
+                                          (requireExecPerm ? "READ,EXECUTE" : "READ") + 
+                                          (sharedAppCtx == null ? "" : ";sharedAppCtx=" + sharedAppCtx));
+        TapisSystem system = DefinitionCache.getSystemCache().get(key, 
+            () -> fetchSystem(systemsClient, systemId, requireExecPerm, systemType, sharedAppCtx),
+            _bypassDefinitionCache);
+        
+        // Reject the job early if a required system is not available.  A DTN system
+        // may be defined but not used, so we don't check its availability.
+        if (system != null && 
+            systemType != LoadSystemTypes.dtn &&
+            (system.getEnabled() == null || !system.getEnabled())) 
+        {
+            String msg = MsgUtils.getMsg("JOBS_SYSTEM_NOT_AVAILABLE", _job.getUuid(), system.getId());
+            throw new TapisImplException(msg, Status.BAD_REQUEST.getStatusCode());
+        }
+        
+        return system;
+    }
+    
+    /* ---------------------------------------------------------------------------- */
+    /* fetchSystem:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    /** Retrieve the system with its credentials from the Systems service.
+     * 
+     * @param systemsClient
+     * @param systemId
+     * @param requireExecPerm
+     * @param systemType
+     * @param sharedAppCtx
+     * @return the system
+     * @throws TapisImplException
+     */
+    private TapisSystem fetchSystem(SystemsClient systemsClient,
+                                    String systemId, 
+                                    boolean requireExecPerm,
+                                    LoadSystemTypes systemType,
+                                    String sharedAppCtx) 
+      throws TapisImplException
+    {
         final boolean returnCreds = true;
         final AuthnMethod authnMethod = null;
         final String selectAll = "allAttributes";
         final String impersonationId = null;
-        try {system = systemsClient.getSystem(systemId, authnMethod, requireExecPerm, selectAll, 
-                                              returnCreds, impersonationId, sharedAppCtx);} 
+        try {return systemsClient.getSystem(systemId, authnMethod, requireExecPerm, selectAll, 
+                                            returnCreds, impersonationId, sharedAppCtx);} 
         catch (TapisClientException e) {
             // Determine why we failed.
             String msg;
@@ -2608,18 +2771,6 @@ public final class SubmitContext
                                          _submitReq.getTenant(), systemType.name());
             throw new TapisImplException(msg, e, Status.INTERNAL_SERVER_ERROR.getStatusCode());
         }
-        
-        // Reject the job early if a required system is not available.  A DTN system
-        // may be defined but not used, so we don't check its availability.
-        if (system != null && 
-            systemType != LoadSystemTypes.dtn &&
-            (system.getEnabled() == null || !system.getEnabled())) 
-        {
-            String msg = MsgUtils.getMsg("JOBS_SYSTEM_NOT_AVAILABLE", _job.getUuid(), system.getId());
-            throw new TapisImplException(msg, Status.BAD_REQUEST.getStatusCode());
-        }
-        
-        return system;
     }
     
     /* ---------------------------------------------------------------------------- */
@@ -2860,7 +3011,8 @@ public final class SubmitContext
      * with the --tapis-profile argument.  If the argument is not specified or if it is
      * specified and the profile exists, this method simply returns.  If the argument
      * is specified and the profile cannot be retrieved for any reason, this method
-     * throws an expection.
+     * throws an expection.  When more than one profile is specified, they are 
+     * retrieved concurrently and errors are reported in argument order.
      * 
      * @param schedulerOptions a list of scheduler options
      * @throws TapisImplException if a specified scheduler profile is inaccessible
@@ -2875,6 +3027,7 @@ public final class SubmitContext
         final String searchSpec = Job.TAPIS_PROFILE_KEY;
         
         // See if a profile is specified.
+        var profileNames = new ArrayList<String>();
         for (var opt : schedulerOptions) {
             String arg = opt.getArg().strip();
             if (!arg.startsWith(searchSpec)) continue;
@@ -2888,31 +3041,52 @@ public final class SubmitContext
             
             // Get the profile name that is expected to follow 
             // the argument specifier.
-            String profileName = arg.substring(searchSpec.length()+1).strip();
-            
-            // The profile exists if we can retrieve it.
-            var client = getSystemsClient();
-            SchedulerProfile profile = null;
-            try {profile = client.getSchedulerProfile(profileName);}
-                catch (Exception e) {
-                    // Not found error.
-                    if ((e instanceof TapisClientException) && 
-                        ((TapisClientException)e).getCode() == 404) 
-                    { 
-                        String msg = MsgUtils.getMsg("JOBS_SCHEDULER_PROFILE_NOT_FOUND",
-                                _submitReq.getOwner(), _submitReq.getTenant(), profileName);
-                        throw new TapisImplException(msg, Status.NOT_FOUND.getStatusCode());
-                    }
-                    
-                    // All other error cases.
-                    String msg = MsgUtils.getMsg("JOBS_SCHEDULER_PROFILE_ACCESS_ERROR",
-                                _submitReq.getOwner(), _submitReq.getTenant(), profileName, e.getMessage());
-                    throw new TapisImplException(msg, Status.BAD_REQUEST.getStatusCode());
-                }
-            _log.info(MsgUtils.getMsg("JOBS_SCHEDULER_PROFILE_FOUND", profileName, _submitReq.getTenant()));
+            profileNames.add(arg.substring(searchSpec.length()+1).strip());
+        }
+        if (profileNames.isEmpty()) return;
+        
+        // The profile exists if we can retrieve it.
+        var client = getSystemsClient();
+        var futures = new ArrayList<CompletableFuture<SchedulerProfile>>(profileNames.size());
+        for (var profileName : profileNames) 
+            futures.add(SubmitFetcher.getInstance().fetch(() -> loadSchedulerProfile(client, profileName)));
+        for (int i = 0; i < futures.size(); i++) {
+            SubmitFetcher.join(futures.get(i));
+            _log.info(MsgUtils.getMsg("JOBS_SCHEDULER_PROFILE_FOUND", profileNames.get(i), _submitReq.getTenant()));
         }
     }
     
+    /* ---------------------------------------------------------------------------- */
+    /* loadSchedulerProfile:                                                        */
+    /* ---------------------------------------------------------------------------- */
+    /** Retrieve a scheduler profile and map failures to client errors.
+     * 
+     * @param client the systems client
+     * @param profileName the profile to retrieve
+     * @return the profile
+     * @throws TapisImplException if the profile is inaccessible
+     */
+    private SchedulerProfile loadSchedulerProfile(SystemsClient client, String profileName)
+     throws TapisImplException
+    {
+        try {return client.getSchedulerProfile(profileName);}
+            catch (Exception e) {
+                // Not found error.
+                if ((e instanceof TapisClientException) && 
+                    ((TapisClientException)e).getCode() == 404) 
+                { 
+                    String msg = MsgUtils.getMsg("JOBS_SCHEDULER_PROFILE_NOT_FOUND",
+                            _submitReq.getOwner(), _submitReq.getTenant(), profileName);
+                    throw new TapisImplException(msg, Status.NOT_FOUND.getStatusCode());
+                }
+                
+                // All other error cases.
+                String msg = MsgUtils.getMsg("JOBS_SCHEDULER_PROFILE_ACCESS_ERROR",
+                            _submitReq.getOwner(), _submitReq.getTenant(), profileName, e.getMessage());
+                throw new TapisImplException(msg, Status.BAD_REQUEST.getStatusCode());
+            }
+    }
+    
     /* ---------------------------------------------------------------------------- */
     /* validateZipContainerArgs:                                                    */
     /* ---------------------------------------------------------------------------- */
@@ -0,0 +1,54 @@
+package edu.utexas.tacc.tapis.jobs.api.requestBody;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class ReqCancelJobs 
+ implements IReqBody
+{
+    // Constants.
+    public static final int MAX_JOBS = 100;
+    
+    // Fields.
+    private List<String> jobUuids;
+    private List<String> search;
+
+	@Override
+	public String validate()
+	{
+	    // Exactly one way of selecting jobs is allowed.
+	    boolean hasUuids  = jobUuids != null && !jobUuids.isEmpty();
+	    boolean hasSearch = search != null && !search.isEmpty();
+	    if (!hasUuids && !hasSearch)
+	        return MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "validate", "jobUuids");
+	    if (hasUuids && hasSearch)
+	        return MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "validate", "search", 
+	                               "search cannot be specified with jobUuids");
+	    if (hasUuids && jobUuids.size() > MAX_JOBS)
+	        return MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "validate", "jobUuids", 
+	                               jobUuids.size() + " jobs (maximum is " + MAX_JOBS + ")");
+	    
+		// Success.
+		return null; 
+	}
+
+    @Schema(required = false)
+    public List<String> getJobUuids() {
+        return jobUuids;
+    }
+
+    public void setJobUuids(List<String> jobUuids) {
+        this.jobUuids = jobUuids;
+    }
+	
+	@Schema(required = false)
+    public List<String> getSearch() {
+        return search;
+    }
+
+    public void setSearch(List<String> search) {
+        this.search = search;
+    }
+}
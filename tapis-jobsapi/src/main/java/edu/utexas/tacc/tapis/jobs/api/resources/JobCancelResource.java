@@ -1,7 +1,14 @@
 package edu.utexas.tacc.tapis.jobs.api.resources;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -17,17 +24,23 @@ import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import edu.utexas.tacc.tapis.jobs.api.requestBody.ReqCancelJobs;
 import edu.utexas.tacc.tapis.jobs.api.responses.RespCancelJob;
+import edu.utexas.tacc.tapis.jobs.api.responses.RespCancelJobs;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.model.Job;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobCancelDisplay;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobCancelResult;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
 import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+import edu.utexas.tacc.tapis.shared.threadlocal.OrderBy;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
 import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespName;
@@ -36,6 +49,7 @@ import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement; 
 
@@ -47,6 +61,13 @@ public class JobCancelResource extends AbstractResource {
     // Local logger.
     private static final Logger _log = LoggerFactory.getLogger(JobCancelResource.class);
     
+    // Json schema resource files.
+    private static final String FILE_CANCEL_JOBS_REQUEST = 
+        "/edu/utexas/tacc/tapis/jobs/api/jsonschema/CancelJobsRequest.json";
+    
+    // Search condition that limits bulk cancel searches to active jobs.
+    private static final String ACTIVE_JOBS_CONDITION = "status.NIN.FINISHED,CANCELLED,FAILED";
+    
     /* **************************************************************************** */
     /*                                    Fields                                    */
     /* **************************************************************************** */
@@ -201,8 +222,9 @@ public class JobCancelResource extends AbstractResource {
        }
        
        //------------------------- Cancel the Job  -----------------------------
-       // initiate the cancellation.
-       if (!jobsImpl.doCancelJob(jobUuid, threadContext))
+       // Jobs still waiting in a submit queue are cancelled immediately in the
+       // database, otherwise initiate the cancellation through the job's queues.
+       if (!jobsImpl.doCancelPendingJob(job) && !jobsImpl.doCancelJob(jobUuid, threadContext))
            return Response.status(Status.INTERNAL_SERVER_ERROR).
                    entity(TapisRestUtils.createErrorResponse(MsgUtils.getMsg("JOBS_QMGR_POST_CANCEL", jobUuid),
                        prettyPrint)).build();
@@ -218,6 +240,182 @@ public class JobCancelResource extends AbstractResource {
                MsgUtils.getMsg("JOBS_JOB_CANCEL_ACCEPTED_DETAILS", jobUuid), prettyPrint,r)).build();
      }
      
+     /* ---------------------------------------------------------------------------- */
+     /* cancelJobs:                                                                  */
+     /* ---------------------------------------------------------------------------- */
+     @POST
+     @Path("/cancel")
+     @Consumes(MediaType.APPLICATION_JSON)
+     @Produces(MediaType.APPLICATION_JSON)
+     @Operation(
+             description = "Cancel multiple jobs with one request.\n\n"
+                           + "The jobs are specified either as a list of job UUIDs or as a list of "
+                           + "search conditions in the format used by the job search endpoints. "
+                           + "A search only selects the caller's own jobs that have not terminated. "
+                           + "At most " + ReqCancelJobs.MAX_JOBS + " jobs can be cancelled per request; "
+                           + "requests whose search matches more jobs are rejected.\n\n"
+                           + "The response contains a result for each job. A job's cancellation "
+                           + "may be rejected, for example because the job has already terminated "
+                           + "or the caller is not its owner, creator or a tenant administrator, "
+                           + "without affecting the other jobs in the request."
+                           + "",
+             tags = "jobs",
+             security = {@SecurityRequirement(name = "TapisJWT")},
+             requestBody = 
+                 @RequestBody(
+                     required = true,
+                     content = @Content(schema = @Schema(
+                         implementation = edu.utexas.tacc.tapis.jobs.api.requestBody.ReqCancelJobs.class))),
+             responses = 
+                 {
+                  @ApiResponse(responseCode = "200", description = "Job cancellations processed.",
+                      content = @Content(schema = @Schema(
+                         implementation = edu.utexas.tacc.tapis.jobs.api.responses.RespCancelJobs.class))),
+                  @ApiResponse(responseCode = "400", description = "Input error.",
+                      content = @Content(schema = @Schema(
+                         implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class))),
+                  @ApiResponse(responseCode = "401", description = "Not authorized.",
+                      content = @Content(schema = @Schema(
+                         implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class))),
+                  @ApiResponse(responseCode = "500", description = "Server error.",
+                      content = @Content(schema = @Schema(
+                         implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class)))}
+     )
+     public Response cancelJobs(@DefaultValue("false") @QueryParam("pretty") boolean prettyPrint,
+                                InputStream payloadStream)
+     {
+       // Trace this request.
+       if (_log.isTraceEnabled()) {
+         String msg = MsgUtils.getMsg("TAPIS_TRACE_REQUEST", getClass().getSimpleName(), "cancelJobs", 
+                                      "  " + _request.getRequestURL());
+         _log.trace(msg);
+       }
+       
+       // ------------------------- Validate Payload -------------------------
+       // Read the payload into a string.
+       String json = null;
+       try {json = IOUtils.toString(payloadStream, Charset.forName("UTF-8"));}
+         catch (Exception e) {
+           String msg = MsgUtils.getMsg("NET_INVALID_JSON_INPUT", "job cancel", e.getMessage());
+           _log.error(msg, e);
+           return Response.status(Status.BAD_REQUEST).
+                   entity(TapisRestUtils.createErrorResponse(msg, prettyPrint)).build();
+         }
+       
+       // ------------------------- Input Processing -------------------------
+       // Parse and validate the json in the request payload, which must exist.
+       ReqCancelJobs payload = null;
+       try {payload = getPayload(json, FILE_CANCEL_JOBS_REQUEST, ReqCancelJobs.class);} 
+       catch (Exception e) {
+           String msg = MsgUtils.getMsg("NET_REQUEST_PAYLOAD_ERROR", "cancelJobs", e.getMessage());
+           _log.error(msg, e);
+           return Response.status(Status.BAD_REQUEST).
+                   entity(TapisRestUtils.createErrorResponse(msg, prettyPrint)).build();
+       }
+       
+       // ------------------------- Create Context ---------------------------
+       // Validate the threadlocal content here so no subsequent code on this request needs to.
+       TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+       if (!threadContext.validate()) {
+           var msg = MsgUtils.getMsg("TAPIS_INVALID_THREADLOCAL_VALUE", "validate");
+           _log.error(msg);
+           return Response.status(Status.INTERNAL_SERVER_ERROR).
+                   entity(TapisRestUtils.createErrorResponse(msg, prettyPrint)).build();
+       }
+       
+       // ------------------------- Select Jobs ------------------------------
+       // Duplicate uuids are only processed once.
+       var jobsImpl = JobsImpl.getInstance();
+       var jobUuids = new LinkedHashSet<String>();
+       if (payload.getJobUuids() != null) jobUuids.addAll(payload.getJobUuids());
+       else {
+           // Find the caller's active jobs that match the search.  One more than
+           // the maximum is requested so that oversized requests can be detected.
+           var searchList = new ArrayList<String>(payload.getSearch());
+           searchList.add(ACTIVE_JOBS_CONDITION);
+           List<JobListDTO> jobs = null;
+           try {
+               jobs = jobsImpl.getJobSearchListByUsername(threadContext.getOboUser(), 
+                          threadContext.getOboTenantId(), searchList, new ArrayList<OrderBy>(), 
+                          ReqCancelJobs.MAX_JOBS + 1, 0, false);
+           }
+           catch (TapisImplException e) {
+               _log.error(e.getMessage(), e);
+               return Response.status(JobsApiUtils.toHttpStatus(e.condition)).
+                       entity(TapisRestUtils.createErrorResponse(e.getMessage(), prettyPrint)).build();
+           }
+           catch (Exception e) {
+               _log.error(e.getMessage(), e);
+               return Response.status(Status.INTERNAL_SERVER_ERROR).
+                       entity(TapisRestUtils.createErrorResponse(e.getMessage(), prettyPrint)).build();
+           }
+           
+           // Don't cancel part of a selection that's too large.
+           if (jobs.size() > ReqCancelJobs.MAX_JOBS) {
+               String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "cancelJobs", "search", 
+                                "more than " + ReqCancelJobs.MAX_JOBS + " jobs match the search");
+               _log.error(msg);
+               return Response.status(Status.BAD_REQUEST).
+                       entity(TapisRestUtils.createErrorResponse(msg, prettyPrint)).build();
+           }
+           for (var job : jobs) jobUuids.add(job.getUuid());
+       }
+       
+       // ------------------------- Cancel the Jobs --------------------------
+       // Each job is authorized and cancelled independently.
+       var results = new ArrayList<JobCancelResult>(jobUuids.size());
+       int accepted = 0;
+       for (String jobUuid : jobUuids) {
+           var result = cancelOne(jobsImpl, jobUuid, threadContext);
+           if (result.isAccepted()) accepted++;
+           results.add(result);
+       }
+       
+       // ---------------------------- Success -------------------------------
+       // Success.
+       RespCancelJobs r = new RespCancelJobs(results); 
+       return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+               MsgUtils.getMsg("TAPIS_FOUND", "Cancelled jobs", accepted + " of " + results.size() + " items"),
+               prettyPrint, r)).build();
+     }
      
-
+     /* **************************************************************************** */
+     /*                               Private Methods                                */
+     /* **************************************************************************** */
+     /* ---------------------------------------------------------------------------- */
+     /* cancelOne:                                                                   */
+     /* ---------------------------------------------------------------------------- */
+     /** Apply the checks and actions of the single job cancel endpoint to one job of
+      * a bulk cancel request.  Failures are reported in the result. 
+      */
+     private JobCancelResult cancelOne(JobsImpl jobsImpl, String jobUuid, 
+                                       TapisThreadContext threadContext)
+     {
+       // Retrieve the job, which also checks the caller's authorization.
+       Job job = null;
+       try {
+           job = jobsImpl.getJobByUuid(jobUuid, threadContext.getOboUser(),
+                                       threadContext.getOboTenantId());
+       }
+       catch (Exception e) {
+           _log.error(e.getMessage(), e);
+           return new JobCancelResult(jobUuid, false, e.getMessage());
+       }
+       if (job == null) 
+           return new JobCancelResult(jobUuid, false, MsgUtils.getMsg("TAPIS_NOT_FOUND", "Job", jobUuid));
+       
+       // Terminated jobs can't be cancelled.
+       if (job.getStatus().isTerminal()) {
+           String msg = MsgUtils.getMsg("JOBS_JOB_IN_TERMINAL_STATE", jobUuid, threadContext.getOboTenantId(),
+                                        threadContext.getOboUser(), job.getStatus());
+           _log.warn(msg);
+           return new JobCancelResult(jobUuid, false, msg);
+       }
+       
+       // Cancel pending jobs in the database, otherwise go through the job's queues.
+       if (!jobsImpl.doCancelPendingJob(job) && !jobsImpl.doCancelJob(jobUuid, threadContext))
+           return new JobCancelResult(jobUuid, false, MsgUtils.getMsg("JOBS_QMGR_POST_CANCEL", jobUuid));
+       
+       return new JobCancelResult(jobUuid, true, MsgUtils.getMsg("JOBS_JOB_CANCEL_ACCEPTED", jobUuid));
+     }
 }
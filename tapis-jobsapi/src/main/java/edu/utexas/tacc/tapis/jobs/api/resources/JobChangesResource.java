@@ -0,0 +1,189 @@
+package edu.utexas.tacc.tapis.jobs.api.resources;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.jobs.api.responses.RespJobChanges;
+import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
+import edu.utexas.tacc.tapis.jobs.api.utils.JsonStreamingUtils;
+import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobChangesDTO;
+import edu.utexas.tacc.tapis.jobs.utils.JobChangeWatermark;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+import edu.utexas.tacc.tapis.shared.threadlocal.SearchParameters;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadContext;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+
+@Path("/changes")
+public class JobChangesResource 
+ extends AbstractResource
+{
+	/* **************************************************************************** */
+	/*                                   Constants                                  */
+	/* **************************************************************************** */
+	// Local logger.
+	private static final Logger _log = LoggerFactory.getLogger(JobChangesResource.class);
+
+	/* **************************************************************************** */
+	/*                                    Fields                                    */
+	/* **************************************************************************** */
+	/* Jax-RS context dependency injection allows implementations of these abstract
+	 * types to be injected (ch 9, jax-rs 2.0):
+	 * 
+	 *      javax.ws.rs.container.ResourceContext
+	 *      javax.ws.rs.core.Application
+	 *      javax.ws.rs.core.HttpHeaders
+	 *      javax.ws.rs.core.Request
+	 *      javax.ws.rs.core.SecurityContext
+	 *      javax.ws.rs.core.UriInfo
+	 *      javax.ws.rs.core.Configuration
+	 *      javax.ws.rs.ext.Providers
+	 * 
+	 * In a servlet environment, Jersey context dependency injection can also 
+	 * initialize these concrete types (ch 3.6, jersey spec):
+	 * 
+	 *      javax.servlet.HttpServletRequest
+	 *      javax.servlet.HttpServletResponse
+	 *      javax.servlet.ServletConfig
+	 *      javax.servlet.ServletContext
+	 *
+	 * Inject takes place after constructor invocation, so fields initialized in this
+	 * way can not be accessed in constructors.
+	 */ 
+	@Context
+	private HttpHeaders        _httpHeaders;
+
+	@Context
+	private Application        _application;
+
+	@Context
+	private UriInfo            _uriInfo;
+
+	@Context
+	private SecurityContext    _securityContext;
+
+	@Context
+	private ServletContext     _servletContext;
+
+	@Context
+	private HttpServletRequest _request;
+
+	/* **************************************************************************** */
+	/*                                Public Methods                                */
+	/* **************************************************************************** */
+	/* ---------------------------------------------------------------------------- */
+	/* getJobChanges:                                                               */
+	/* ---------------------------------------------------------------------------- */
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	@Operation(
+			description = "Retrieve the caller's jobs that changed since a watermark.\n\n"
+					+ "Jobs owned by the caller are returned in the order they were last changed. "
+					+ "The response metadata contains a nextSince watermark; passing it as the since "
+					+ "parameter on the next call returns only the jobs changed after the ones already "
+					+ "seen. A full page means more changes may be waiting. Omit since to start with "
+					+ "all jobs, or pass an ISO-8601 instant to start with the jobs updated after it. "
+					+ "Watermarks are otherwise opaque strings.\n\n"
+					+ "Updates made while other updates are still in progress are reported on a later "
+					+ "call so that no update is missed. At most 1000 jobs are returned per call. "
+					+ "Hidden jobs and jobs shared with the caller are not included.",
+					tags = "jobs",
+					security = {@SecurityRequirement(name = "TapisJWT")},
+					responses = 
+				{
+						@ApiResponse(responseCode = "200", description = "Changed jobs retrieved.",
+								content = @Content(schema = @Schema(
+										implementation = edu.utexas.tacc.tapis.jobs.api.responses.RespJobChanges.class))),
+						@ApiResponse(responseCode = "400", description = "Input error.",
+						content = @Content(schema = @Schema(
+								implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class))),
+						@ApiResponse(responseCode = "401", description = "Not authorized.",
+						content = @Content(schema = @Schema(
+								implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class))),
+						@ApiResponse(responseCode = "403", description = "Forbidden.",
+						content = @Content(schema = @Schema(
+								implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class))),
+						@ApiResponse(responseCode = "500", description = "Server error.",
+						content = @Content(schema = @Schema(
+								implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class)))}
+			)
+	public Response getJobChanges(
+			@QueryParam("since") String since,
+			@DefaultValue("false") @QueryParam("pretty") boolean prettyPrint)
+
+	{
+		// Trace this request.
+		if (_log.isTraceEnabled()) {
+			String msg = MsgUtils.getMsg("TAPIS_TRACE_REQUEST", getClass().getSimpleName(), "getJobChanges", 
+					"  " + _request.getRequestURL());
+			_log.trace(msg);
+		}
+
+		// ------------------------- Create Context ---------------------------
+		// Validate the threadlocal content here so no subsequent code on this request needs to.
+		TapisThreadContext threadContext = TapisThreadLocal.tapisThreadContext.get();
+		if (!threadContext.validate()) {
+			var msg = MsgUtils.getMsg("TAPIS_INVALID_THREADLOCAL_VALUE", "validate");
+			_log.error(msg);
+			return Response.status(Status.INTERNAL_SERVER_ERROR).
+					entity(TapisRestUtils.createErrorResponse(msg, prettyPrint)).build();
+		}
+
+		// ThreadContext designed to never return null for SearchParameters.
+		// Keyset pages need a positive limit, which is capped.
+		SearchParameters srchParms = threadContext.getSearchParameters();
+		if (srchParms.getLimit() == null || srchParms.getLimit() <= 0) 
+			srchParms.setLimit(SearchParameters.DEFAULT_LIMIT);
+		if (srchParms.getLimit() > JobsImpl.MAX_CHANGES_LIMIT)
+			srchParms.setLimit(JobsImpl.MAX_CHANGES_LIMIT);
+
+		// ------------------------- Retrieve Changes -------------------------
+		JobChangesDTO changes = null;
+		try {
+			changes = JobsImpl.getInstance().getJobChangesByUsername(threadContext.getOboUser(), 
+					threadContext.getOboTenantId(), since, srchParms.getLimit());
+		}
+		catch (TapisImplException e) {
+			_log.error(e.getMessage(), e);
+			return Response.status(JobsApiUtils.toHttpStatus(e.condition)).
+					entity(TapisRestUtils.createErrorResponse(e.getMessage(), prettyPrint)).build();
+		}
+		catch (Exception e) {
+			_log.error(e.getMessage(), e);
+			return Response.status(Status.INTERNAL_SERVER_ERROR).
+					entity(TapisRestUtils.createErrorResponse(e.getMessage(), prettyPrint)).build();
+		}
+
+		// ------------------------- Process Results --------------------------
+		// The next watermark repeats the requested position when nothing changed.
+		String nextSince = new JobChangeWatermark(changes.getLastXid(), changes.getLastId()).encode();
+		RespJobChanges r = new RespJobChanges(changes.getJobs(), srchParms.getLimit(), since, nextSince);
+		String msg = MsgUtils.getMsg("JOBS_LIST_RETRIEVED", threadContext.getOboUser(), threadContext.getOboTenantId());
+		if (r.result.isEmpty())
+			return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(msg, prettyPrint, r)).build();
+		return Response.status(Status.OK).entity(JsonStreamingUtils.createSuccessStream(msg, prettyPrint, r)).build();
+	}
+}
@@ -31,6 +31,7 @@ import edu.utexas.tacc.tapis.jobs.model.dto.JobHistoryDisplayDTO;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobStatusDTO;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobResourceShare;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobTapisPermission;
+import edu.utexas.tacc.tapis.jobs.utils.JobEventCursor;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
 import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
 import edu.utexas.tacc.tapis.shared.threadlocal.SearchParameters;
@@ -108,8 +109,12 @@ public class JobHistoryResource extends AbstractResource {
      @Produces(MediaType.APPLICATION_JSON)
      @Operation(
              description = "Retrieve history of a previously submitted job by its UUID.\n\n"
-                           + "The caller must be the job owner, creator or a tenant administrator."
-                           + "",
+                           + "The caller must be the job owner, creator or a tenant administrator.\n\n"
+                           + "Events are returned in the order they occurred. Pages can be selected "
+                           + "with limit and skip or, more efficiently for long histories, with limit "
+                           + "and startAfter. When a page is full, the response metadata contains a "
+                           + "nextStartAfter cursor that selects the following page when passed as "
+                           + "the startAfter parameter. Cursors are opaque strings.",
              tags = "jobs",
              security = {@SecurityRequirement(name = "TapisJWT")},
              responses = 
@@ -134,7 +139,8 @@ public class JobHistoryResource extends AbstractResource {
                          implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class)))}
      )
      public Response getJobHistory(@PathParam("jobUuid") String jobUuid, @QueryParam("limit") int limit, 
-				@QueryParam("skip") int skip, @DefaultValue("false") @QueryParam("pretty") boolean prettyPrint)
+				@QueryParam("skip") int skip, @QueryParam("startAfter") String startAfter,
+				@DefaultValue("false") @QueryParam("pretty") boolean prettyPrint)
                                
      {
        // Trace this request.
@@ -211,7 +217,11 @@ public class JobHistoryResource extends AbstractResource {
       
        List<JobEvent> events = null;
        try {
-		 events =jobsImpl.getJobEventsByJobUuid(jobUuid, threadContext.getOboUser(), threadContext.getOboTenantId(),srchParms.getLimit(), srchParms.getSkip() );
+         // Use keyset paging when a cursor is provided, otherwise offset paging.
+         if (StringUtils.isBlank(startAfter))
+		   events =jobsImpl.getJobEventsByJobUuid(jobUuid, threadContext.getOboUser(), threadContext.getOboTenantId(),srchParms.getLimit(), srchParms.getSkip() );
+          else events = jobsImpl.getJobEventsByJobUuidAfter(jobUuid, threadContext.getOboUser(), 
+                             threadContext.getOboTenantId(), startAfter, srchParms.getLimit());
         _log.debug("number of events: " + events.size());
        	} catch (TapisImplException e) {
     	   _log.error(e.getMessage(), e);
@@ -240,7 +250,11 @@ public class JobHistoryResource extends AbstractResource {
 	       }
        }
        // Success.
-       RespJobHistory r = new RespJobHistory(jobHists, srchParms.getLimit(), srchParms.getOrderBy(), srchParms.getSkip(), srchParms.getStartAfter(), totalCount);
+       // A full page may be followed by more events, so give the caller a cursor to the next one.
+       String nextStartAfter = null;
+       if (events != null && !events.isEmpty() && events.size() >= srchParms.getLimit())
+           nextStartAfter = JobEventCursor.encode(jobUuid, events.get(events.size() - 1).getId());
+       RespJobHistory r = new RespJobHistory(jobHists, srchParms.getLimit(), srchParms.getOrderBy(), srchParms.getSkip(), startAfter, totalCount, nextStartAfter);
 	     
        return Response.status(Status.OK).entity(TapisRestUtils
     		   .createSuccessResponse(
@@ -28,6 +28,7 @@ import edu.utexas.tacc.tapis.jobs.api.responses.RespGetJobList;
 import edu.utexas.tacc.tapis.jobs.api.responses.RespJobSearch;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobListUtils;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
+import edu.utexas.tacc.tapis.jobs.api.utils.JsonStreamingUtils;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobListType;
@@ -324,8 +325,8 @@ extends AbstractResource
 		// Success.
 		RespGetJobList r = new RespGetJobList(jobList,srchParms.getLimit(),srchParms.getOrderBy(),srchParms.getSkip(),srchParms.getStartAfter(),totalCount);
 
-		return Response.status(Status.OK).entity(TapisRestUtils
-				.createSuccessResponse(
+		return Response.status(Status.OK).entity(JsonStreamingUtils
+				.createSuccessStream(
 						MsgUtils.getMsg("JOBS_LIST_RETRIEVED", threadContext.getOboUser(), threadContext.getOboTenantId()), prettyPrint, r)).build();
 	}
 }
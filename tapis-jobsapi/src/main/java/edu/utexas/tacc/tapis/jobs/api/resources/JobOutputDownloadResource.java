@@ -27,6 +27,9 @@ import edu.utexas.tacc.tapis.files.client.FilesClient.StreamedFile;
 import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
 import edu.utexas.tacc.tapis.files.client.gen.model.FileTypeEnum;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
+import edu.utexas.tacc.tapis.jobs.api.utils.OutputDownloadUtils;
+import edu.utexas.tacc.tapis.jobs.api.utils.OutputDownloadUtils.ByteRange;
+import edu.utexas.tacc.tapis.jobs.api.utils.OutputDownloadUtils.UnsatisfiableRangeException;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.model.Job;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobResourceShare;
@@ -54,9 +57,15 @@ public class JobOutputDownloadResource extends AbstractResource{
     // Local logger.
     private static final Logger _log = LoggerFactory.getLogger(JobOutputDownloadResource.class);
     
-    private static final int ONE_GB_IN_KB = 1000000;
-    private static final int DEFAULT_LIMIT = 100;
-    private static final int DEFAULT_SKIP = 0;
+    // A listing this long distinguishes a single file from a directory.
+    private static final int STAT_LIMIT = 2;
+    
+    // Caching and range request headers not defined by jax-rs.
+    private static final String CACHE_CONTROL = "max-age=3600";
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String IF_RANGE      = "If-Range";
+    private static final String RANGE         = "Range";
     
     
     /* **************************************************************************** */
@@ -121,6 +130,11 @@ public class JobOutputDownloadResource extends AbstractResource{
 		                   + "results--set _allowIfRunning=true_.  \n\n"
                            + "The caller must be the job owner, creator or a tenant administrator. "
             		       + "The _outputPath_ is always relative to the job output directory and must end with a '/'. "
+            		       + "Directories are always downloaded as zip archives. A single file is sent uncompressed "
+            		       + "unless _compress=true_ is specified.\n\n"
+            		       + "Uncompressed single file downloads return an ETag and honor the If-None-Match, "
+            		       + "Range and If-Range headers, so interrupted downloads can be resumed. Only a "
+            		       + "single byte range per request is supported."
                            + "",
              tags = "jobs",
              security = {@SecurityRequirement(name = "TapisJWT")},
@@ -128,6 +142,9 @@ public class JobOutputDownloadResource extends AbstractResource{
                  {
                   @ApiResponse(responseCode = "200", description = "Job's output files downloaded.",content = 
                           @Content(mediaType = "application/octet-stream", schema = @Schema(type = "string", format = "binary"))),
+                  @ApiResponse(responseCode = "206", description = "Requested range of a job's output file downloaded.",content = 
+                          @Content(mediaType = "application/octet-stream", schema = @Schema(type = "string", format = "binary"))),
+                  @ApiResponse(responseCode = "304", description = "Output file not modified."),
                   @ApiResponse(responseCode = "400", description = "Input error.",
                       content = @Content(schema = @Schema(
                          implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class))),
@@ -140,6 +157,7 @@ public class JobOutputDownloadResource extends AbstractResource{
                   @ApiResponse(responseCode = "404", description = "Job not found.",
                       content = @Content(schema = @Schema(
                          implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespName.class))),
+                  @ApiResponse(responseCode = "416", description = "Requested range not satisfiable."),
                   @ApiResponse(responseCode = "500", description = "Server error.",
                       content = @Content(schema = @Schema(
                          implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class)))}
@@ -223,61 +241,73 @@ public class JobOutputDownloadResource extends AbstractResource{
        }
        
       // --------------------------- Check if the the path is a file or Directory ---------------
-       // Do a files listing and check FileInfo
+       // A short non-recursive listing of the path acts as a stat call.  A file path
+       // lists as the file itself, a directory lists its first entries.  The stat
+       // bypasses the listing cache so it never lists a whole archived directory.
        List<FileInfo> filesList = null;
-       boolean recursiveFlag = true;
        try {
-		filesList = jobsImpl.getJobOutputList(job, threadContext.getOboTenantId(), threadContext.getOboUser(), outputPath,
-				DEFAULT_LIMIT,DEFAULT_SKIP, JobResourceShare.JOB_OUTPUT.name(), JobTapisPermission.READ.name(), recursiveFlag);
+		filesList = jobsImpl.statJobOutput(job, threadContext.getOboTenantId(), threadContext.getOboUser(), outputPath,
+				STAT_LIMIT, JobResourceShare.JOB_OUTPUT.name(), JobTapisPermission.READ.name());
 	   } catch (TapisImplException e) {
 		   _log.error(e.getMessage(), e);
            return Response.status(JobsApiUtils.toHttpStatus(e.condition)).
                    entity(TapisRestUtils.createErrorResponse(e.getMessage(), prettyPrint)).build();
 	   }
        
-       String contentDisposition;
        if(filesList == null) {
     	   ResultName missingName = new ResultName();
            missingName.name = jobUuid;
            RespName r = new RespName(missingName);
            return Response.status(Status.NOT_FOUND).entity(TapisRestUtils.createSuccessResponse(
                MsgUtils.getMsg("TAPIS_NOT_FOUND", "Job Output Files List", jobUuid), prettyPrint, r)).build();
-       } else {
+       }
+       
+       // Case I : Empty directory
+       if(filesList.size()== 0){
+    	   ResultName missingName = new ResultName();
+           missingName.name = jobUuid;
+           RespName r = new RespName(missingName);
+    	   return Response.status(Status.OK).
+    			   entity(TapisRestUtils.createSuccessResponse(
+    	                   MsgUtils.getMsg("JOBS_EMPTY_DIR_FOR_DOWNLOAD", jobUuid, outputPath,
+    	                		   threadContext.getOboUser(),threadContext.getOboTenantId()), prettyPrint, r)).build();
+       }
+       
+       // Case II : Single file vs directory.  A directory path may end with a '/' and 
+       // the entries of a directory have its path as a prefix, so a single entry is the 
+       // file itself only if its path ends with the requested path.
+       FileInfo singleFile = null;
+       if (filesList.size() == 1 && filesList.get(0).getType() == FileTypeEnum.FILE &&
+           !StringUtils.isBlank(outputPath) && !outputPath.endsWith("/") &&
+           filesList.get(0).getPath() != null && filesList.get(0).getPath().endsWith(outputPath)) 
+       {
+    	   singleFile = filesList.get(0);
+    	   _log.debug("file path =  " + singleFile.getPath() + ", size = " + singleFile.getSize());
+       }
+       else compress = true;
+       _log.debug("compress value =  " + compress);
+       
+       // ------------------------- Check Validators -------------------------
+       // Uncompressed single files support conditional and range requests.
+       String etag = null;
+       ByteRange range = null;
+       boolean passthrough = singleFile != null && !compress && singleFile.getSize() != null;
+       if (passthrough) {
+    	   etag = OutputDownloadUtils.computeETag(singleFile.getPath(), singleFile.getSize(), 
+    			                                  singleFile.getLastModified());
+    	   if (OutputDownloadUtils.matchesETag(_httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH), etag))
+    		   return Response.notModified().header(HttpHeaders.ETAG, etag)
+    				   .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL).build();
     	   
-    	   // compare outputPath with filesList.get(0).getPath()
-    	   // For directory with single file this path will be different in the suffix.
-    	   // For example, listing on test/ directory returns files on the test directory with their file name
-    	   // appended after the test/ while the outputPath does not have those file names in the path.
-    	   //case I : Empty directory
-    	   if(filesList.size()== 0){
-    		   ResultName missingName = new ResultName();
-               missingName.name = jobUuid;
-               RespName r = new RespName(missingName);
-    		   return Response.status(Status.OK).
-    				   entity(TapisRestUtils.createSuccessResponse(
-    		                   MsgUtils.getMsg("JOBS_EMPTY_DIR_FOR_DOWNLOAD", jobUuid, outputPath,
-    		                		   threadContext.getOboUser(),threadContext.getOboTenantId()), prettyPrint, r)).build();
+    	   if (OutputDownloadUtils.isRangeCurrent(_httpHeaders.getHeaderString(IF_RANGE), etag))
+    		   try {range = OutputDownloadUtils.parseRange(_httpHeaders.getHeaderString(RANGE), singleFile.getSize());}
+    		   catch (UnsatisfiableRangeException e) {
+    			   return Response.status(Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+    					   .header(CONTENT_RANGE, e.getContentRange())
+    					   .header(HttpHeaders.ETAG, etag)
+    					   .build();
     		   }
-    	   // Case II : Directory with one file vs single file
-    	   else if(filesList.size()==1) {
-    		   _log.debug("file type =  " + filesList.get(0).getType());
-        	   _log.debug("file path =  " + filesList.get(0).getPath());
-    		  // get the path for comparison 
-    		  String pathInFileInfo = filesList.get(0).getPath();
-    		  
-    		  // directory with single file
-    		  if((filesList.get(0).getType() == FileTypeEnum.DIR || !pathInFileInfo.endsWith(outputPath))
-    			 || (filesList.get(0).getType() == FileTypeEnum.FILE && filesList.get(0).getSize()> ONE_GB_IN_KB )) {
-    		   compress = true;
-    		  }
-    	     // for single file, default is false
-    	  }
-    	   else {
-    		   compress = true;
-    	   
-           }
-       }  
-       _log.debug("compress value =  " + compress);
+       }
        
        // ------------------------- Locate the output download path and download the file/zipped folder --------------------------
        String mtype = MediaType.APPLICATION_OCTET_STREAM;
@@ -316,13 +346,30 @@ public class JobOutputDownloadResource extends AbstractResource{
     	  if(jobOutputFilesinfo != null) {
     		   StreamedFile streamFromFiles = dataLocator.getJobOutputDownload(jobOutputFilesinfo, threadContext.getOboTenantId(), 
     				   threadContext.getOboUser(), compress, impersonationId,sharedAppCtx );
-    	       contentDisposition = String.format("attachment; filename=%s", streamFromFiles.getName() );
-    	       Response response =  Response
-	               .ok(streamFromFiles.getInputStream(), mtype)
-	               .header("content-disposition",contentDisposition)
-	               .header("cache-control", "max-age=3600")
-	               .build();
-    	       return response;
+    	       String contentDisposition = String.format("attachment; filename=%s", streamFromFiles.getName() );
+    	       
+    	       // Zipped directories are streamed as Files produces them.
+    	       if (!passthrough) 
+    	    	   return Response
+    	               .ok(OutputDownloadUtils.streamingOutput(streamFromFiles.getInputStream(), 0, -1), mtype)
+    	               .header("content-disposition",contentDisposition)
+    	               .header("cache-control", CACHE_CONTROL)
+    	               .build();
+    	       
+    	       // Single files are sent whole or as the requested range.
+    	       long skip   = range == null ? 0 : range.getStart();
+    	       long length = range == null ? singleFile.getSize() : range.getLength();
+    	       var builder = Response
+    	    		   .status(range == null ? Status.OK : Status.PARTIAL_CONTENT)
+    	    		   .entity(OutputDownloadUtils.streamingOutput(streamFromFiles.getInputStream(), skip, length))
+    	    		   .type(mtype)
+    	    		   .header("content-disposition",contentDisposition)
+    	    		   .header("cache-control", CACHE_CONTROL)
+    	    		   .header(ACCEPT_RANGES, OutputDownloadUtils.BYTES_UNIT)
+    	    		   .header(HttpHeaders.ETAG, etag)
+    	    		   .header(HttpHeaders.CONTENT_LENGTH, length);
+    	       if (range != null) builder.header(CONTENT_RANGE, range.getContentRange());
+    	       return builder.build();
     		    } 
        } catch (TapisImplException e) {
     	   _log.error(e.getMessage(), e);
@@ -28,6 +28,7 @@ import edu.utexas.tacc.tapis.jobs.api.responses.RespGetJobOutputList;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.model.Job;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobOutputListPage;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobResourceShare;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobTapisPermission;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
@@ -117,6 +118,13 @@ public class JobOutputListingResource extends AbstractResource{
       		               + "results--set _allowIfRunning=true_.  \n\n"
             		       + "The caller must be the job owner, creator or a tenant administrator. "
             		       + "The _outputPath_ is always relative to the job output directory and must end with a '/'. "
+            		       + "Only the files directly in _outputPath_ are listed unless _recurse=true_ is specified.\n\n"
+            		       + "Results are paged using _limit_ and either _skip_ or _startAfter_. "
+            		       + "Listings of archived outputs of terminated jobs are cached by the service, so "
+            		       + "paging through them does not list the output directory again. When such a "
+            		       + "page is followed by more files, the response metadata contains a nextStartAfter "
+            		       + "cursor that selects the following page when passed as the _startAfter_ parameter. "
+            		       + "Cursors are opaque strings. Other listings are paged with _skip_."
                            + "",
              tags = "jobs",
              security = {@SecurityRequirement(name = "TapisJWT")},
@@ -143,6 +151,8 @@ public class JobOutputListingResource extends AbstractResource{
      )
      public Response getJobOutputList(@PathParam("jobUuid") String jobUuid,@DefaultValue("")@PathParam("outputPath") String outputPath,
     		 						  @QueryParam("limit") int limit,	@QueryParam("skip") int skip,
+    		 						  @QueryParam("startAfter") String startAfter,
+    		 						  @DefaultValue("false") @QueryParam("recurse") boolean recurse,
     		 						  @DefaultValue("false") @QueryParam("allowIfRunning") boolean allowIfRunning,
     		 						  @DefaultValue("false") @QueryParam("pretty") boolean prettyPrint)
                                
@@ -219,31 +229,22 @@ public class JobOutputListingResource extends AbstractResource{
        
        // Set default parameters
        SearchParameters srchParms = threadContext.getSearchParameters();
-       boolean recursiveFlag = true;
-       /* If limit is not specified and (either skip=0 is provided or skip is not specified), 
-        * then recursive listing of output files is returned by default.
-        * If limit is not specified and skip is specified and set to non-zero value, non-recursive 
-        * output files listing is returned
-        * If limit is specified, again non-recursive output files listing is returned
+       /* Listings are non-recursive and limited to the default page size unless
+        * the caller asks for a recursive listing or a different limit.
         */
-       if(srchParms.getLimit() == null) {
-           srchParms.setLimit(SearchParameters.DEFAULT_LIMIT);
-           if (srchParms.getSkip() != SearchParameters.DEFAULT_SKIP) {
-   	          recursiveFlag = false; 
-   	       }
-       }
-       else recursiveFlag = false;
+       if(srchParms.getLimit() == null) srchParms.setLimit(SearchParameters.DEFAULT_LIMIT);
              
-       List<FileInfo> filesList = null;
+       JobOutputListPage page = null;
        
        try {
-		filesList = jobsImpl.getJobOutputList(job, threadContext.getOboTenantId(), threadContext.getOboUser(), outputPath, 
-				srchParms.getLimit(),skip, JobResourceShare.JOB_OUTPUT.name(), JobTapisPermission.READ.name(),recursiveFlag);
+		page = jobsImpl.getJobOutputListPage(job, threadContext.getOboTenantId(), threadContext.getOboUser(), outputPath, 
+				srchParms.getLimit(),skip, startAfter, JobResourceShare.JOB_OUTPUT.name(), JobTapisPermission.READ.name(),recurse);
 	   } catch (TapisImplException e) {
 		   _log.error(e.getMessage(), e);
            return Response.status(JobsApiUtils.toHttpStatus(e.condition)).
                    entity(TapisRestUtils.createErrorResponse(e.getMessage(), prettyPrint)).build();
 	   }
+       List<FileInfo> filesList = page == null ? null : page.getFiles();
        if(filesList == null) {
     	   ResultName missingName = new ResultName();
            missingName.name = jobUuid;
@@ -256,7 +257,9 @@ public class JobOutputListingResource extends AbstractResource{
       
        
        // Success.
-       RespGetJobOutputList r = new RespGetJobOutputList(filesList,srchParms.getLimit(),srchParms.getSkip());
+       // The cursor is only set when the service can serve the next page from its cache.
+       RespGetJobOutputList r = new RespGetJobOutputList(filesList,srchParms.getLimit(),srchParms.getSkip(),
+                                                         startAfter,page.getNextStartAfter());
        return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
                MsgUtils.getMsg("JOBS_OUTPUT_FILES_LIST_RETRIEVED", jobUuid, threadContext.getOboUser(),
             		   threadContext.getOboTenantId()), prettyPrint, r)).build();
@@ -35,6 +35,7 @@ import edu.utexas.tacc.tapis.jobs.api.responses.RespJobSearchAllAttributes;
 import edu.utexas.tacc.tapis.jobs.api.responses.RespJobSearchSelectAttributes;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobListUtils;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
+import edu.utexas.tacc.tapis.jobs.api.utils.JsonStreamingUtils;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.model.Job;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
@@ -392,18 +393,18 @@ public class JobSearchResource extends AbstractResource {
 	       
 	       RespJobSearch r = new RespJobSearch(jobSummaryList, srchParms.getLimit(), srchParms.getOrderBy(),
 	    		   srchParms.getSkip(), srchParms.getStartAfter(),totalCount);
-	       return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+	       return Response.status(Status.OK).entity(JsonStreamingUtils.createSuccessStream(
 	               MsgUtils.getMsg("JOBS_SEARCH_RESULT_LIST_RETRIEVED", threadContext.getOboUser(), threadContext.getOboTenantId()), prettyPrint, r)).build(); 
       
       
       } else {
 	   	   // select is provided by the user,
-	   	   // select all attributes in the sql query to db
+	   	   // select only the requested attributes in the sql query to db
 	   	   // then select the attributes that the user provides 
     	  if((listType.equals(JobListType.MY_JOBS.name())) || (listType.equals(JobListType.ALL_JOBS.name()))) {
     	   try {
 		   	   jobs = jobsImpl.getJobSearchAllAttributesByUsername(threadContext.getOboUser(), threadContext.getOboTenantId(), searchList,
-		        		   srchParms.getOrderByList(), srchParms.getLimit(),srchParms.getSkip(), !(SHARED));  // This is the list of all non-shared jobs                     
+		        		   srchParms.getOrderByList(), srchParms.getLimit(),srchParms.getSkip(), !(SHARED), selectList);  // This is the list of all non-shared jobs                     
 		   } catch (TapisImplException e) {
 	           _log.error(e.getMessage(), e);
 	           return Response.status(JobsApiUtils.toHttpStatus(e.condition)).
@@ -434,7 +435,7 @@ public class JobSearchResource extends AbstractResource {
            if(sharedWithMe && !sharedJobUuidsList.isEmpty()) {
 	    	  try {
 				jobsShared = jobsImpl.getJobSearchAllAttributesByUsername(threadContext.getOboUser(), threadContext.getOboTenantId(), sharedSearchList,
-						   srchParms.getOrderByList(), diffLimit,diffSkip, SHARED);
+						   srchParms.getOrderByList(), diffLimit,diffSkip, SHARED, selectList);
 			  } catch (TapisImplException e) {
 			    	 _log.error(e.getMessage(), e);
 			           return Response.status(JobsApiUtils.toHttpStatus(e.condition)).
@@ -458,7 +459,7 @@ public class JobSearchResource extends AbstractResource {
       if(!selectList.isEmpty() && summaryAttributesInResponse == false && allAttributesInResponse == false ) {
    	  	  RespJobSearchSelectAttributes r = new RespJobSearchSelectAttributes (jobs, selectList, srchParms.getLimit(),
     			  srchParms.getOrderBy(), srchParms.getSkip(), srchParms.getStartAfter(), totalCount);
-          return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+          return Response.status(Status.OK).entity(JsonStreamingUtils.createSuccessStream(
                   MsgUtils.getMsg("JOBS_SEARCH_RESULT_LIST_RETRIEVED", threadContext.getOboUser(), threadContext.getOboTenantId()), prettyPrint, r)).build();
    	   
       }
@@ -466,7 +467,7 @@ public class JobSearchResource extends AbstractResource {
       // Success.
       RespJobSearchAllAttributes r = new RespJobSearchAllAttributes (jobs, srchParms.getLimit(), srchParms.getOrderBy(), 
     		  srchParms.getSkip(), srchParms.getStartAfter(), totalCount);
-      return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+      return Response.status(Status.OK).entity(JsonStreamingUtils.createSuccessStream(
               MsgUtils.getMsg("JOBS_SEARCH_RESULT_LIST_RETRIEVED", threadContext.getOboUser(), threadContext.getOboTenantId()), prettyPrint, r)).build();
 }
   
@@ -772,7 +773,7 @@ public class JobSearchResource extends AbstractResource {
 	    	  
 	    	
 	          RespJobSearch r = new RespJobSearch(jobSummaryList,srchParms.getLimit(), srchParms.getOrderBy(), srchParms.getSkip(),srchParms.getStartAfter(),totalCount);
-	          return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+	          return Response.status(Status.OK).entity(JsonStreamingUtils.createSuccessStream(
 	               MsgUtils.getMsg("JOBS_SEARCH_RESULT_LIST_RETRIEVED", threadContext.getOboUser(), threadContext.getOboTenantId()), prettyPrint, r)).build(); 
          
    	  } else {
@@ -783,7 +784,7 @@ public class JobSearchResource extends AbstractResource {
 	  	   try {
 			   jobs = jobsImpl.getJobSearchAllAttributesByUsernameUsingSqlSearchStr(threadContext.getOboUser(), 
 		        		   threadContext.getOboTenantId(), sqlSearchStr, srchParms.getOrderByList(), 
-		        		   srchParms.getLimit(), srchParms.getSkip(),!SHARED);                       
+		        		   srchParms.getLimit(), srchParms.getSkip(),!SHARED, selectList);                       
 		       }
 		       catch (TapisImplException e) {
 		           _log.error(e.getMessage(), e);
@@ -814,7 +815,7 @@ public class JobSearchResource extends AbstractResource {
          if(sharedWithMe && !sharedJobUuidsList.isEmpty()) {
 	    	  try {
 				jobsShared = jobsImpl.getJobSearchAllAttributesByUsernameUsingSqlSearchStr(threadContext.getOboUser(), threadContext.getOboTenantId(), sqlSearchStrShared,
-						   srchParms.getOrderByList(), diffLimit,diffSkip, SHARED);
+						   srchParms.getOrderByList(), diffLimit,diffSkip, SHARED, selectList);
 			  } catch (TapisImplException e) {
 			    	 _log.error(e.getMessage(), e);
 			           return Response.status(JobsApiUtils.toHttpStatus(e.condition)).
@@ -840,7 +841,7 @@ public class JobSearchResource extends AbstractResource {
      if(!selectList.isEmpty() && summaryAttributesInResponse == false && allAttributesInResponse == false ) {
   	  	  RespJobSearchSelectAttributes r = new RespJobSearchSelectAttributes (jobs, selectList, srchParms.getLimit(),
    			  srchParms.getOrderBy(), srchParms.getSkip(), srchParms.getStartAfter(), totalCount);
-         return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+         return Response.status(Status.OK).entity(JsonStreamingUtils.createSuccessStream(
                  MsgUtils.getMsg("JOBS_SEARCH_RESULT_LIST_RETRIEVED", threadContext.getOboUser(), threadContext.getOboTenantId()), prettyPrint, r)).build();
   	   
      }
@@ -849,7 +850,7 @@ public class JobSearchResource extends AbstractResource {
      RespJobSearchAllAttributes r = new RespJobSearchAllAttributes (jobs,srchParms.getLimit(),
     		 srchParms.getOrderBy(),srchParms.getSkip(),srchParms.getStartAfter(),totalCount);
      
-     return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+     return Response.status(Status.OK).entity(JsonStreamingUtils.createSuccessStream(
              MsgUtils.getMsg("JOBS_SEARCH_RESULT_LIST_RETRIEVED", threadContext.getOboUser(), 
             		 threadContext.getOboTenantId()), prettyPrint, r)).build();
 
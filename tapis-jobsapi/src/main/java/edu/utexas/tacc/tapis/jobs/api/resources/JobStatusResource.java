@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import edu.utexas.tacc.tapis.jobs.api.responses.RespGetJobStatus;
+import edu.utexas.tacc.tapis.jobs.api.utils.ConditionalRequestUtils;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobStatusDTO;
@@ -106,7 +107,10 @@ public class JobStatusResource
      @Produces(MediaType.APPLICATION_JSON)
      @Operation(
              description = "Retrieve status of a previously submitted job by its UUID.\n\n"
-                           + "The caller must be the job owner, creator or a tenant administrator."
+                           + "The caller must be the job owner, creator or a tenant administrator.\n\n"
+                           + "Responses carry an ETag header. Pollers that send it back in an "
+                           + "If-None-Match header receive 304 with no body when the status hasn't "
+                           + "changed."
                            + "",
              tags = "jobs",
              security = {@SecurityRequirement(name = "TapisJWT")},
@@ -115,6 +119,7 @@ public class JobStatusResource
                   @ApiResponse(responseCode = "200", description = "Job status retrieved.",
                       content = @Content(schema = @Schema(
                          implementation = edu.utexas.tacc.tapis.jobs.api.responses.RespGetJobStatus.class))),
+                  @ApiResponse(responseCode = "304", description = "Job status not modified."),
                   @ApiResponse(responseCode = "400", description = "Input error.",
                       content = @Content(schema = @Schema(
                          implementation = edu.utexas.tacc.tapis.sharedapi.responses.RespBasic.class))),
@@ -194,13 +199,21 @@ public class JobStatusResource
             msg, prettyPrint, r)).build();
        }
        
+       // Let pollers whose copy is current skip the body.
+       String etag = ConditionalRequestUtils.computeWeakETag(jobUuid, jobstatus.getStatus(),
+                                                             jobstatus.getCondition(), 
+                                                             jobstatus.getLastUpdated());
+       if (ConditionalRequestUtils.isNotModified(_httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH), etag))
+           return ConditionalRequestUtils.addValidators(Response.notModified(), etag).build();
+       
        // Success.
        JobStatusDisplay resultStatus = new JobStatusDisplay ();
        resultStatus.setStatus(jobstatus.getStatus().toString());
        if (jobstatus.getCondition() != null) 
     	   resultStatus.setCondition(jobstatus.getCondition().name());
        RespGetJobStatus r = new RespGetJobStatus(resultStatus);
-       return Response.status(Status.OK).entity(TapisRestUtils.createSuccessResponse(
+       return ConditionalRequestUtils.addValidators(Response.status(Status.OK), etag).
+               entity(TapisRestUtils.createSuccessResponse(
                MsgUtils.getMsg("JOBS_STATUS_RETRIEVED", jobUuid), prettyPrint, r)).build();
      }
 }
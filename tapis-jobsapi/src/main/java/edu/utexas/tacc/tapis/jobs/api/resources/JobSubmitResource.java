@@ -32,6 +32,7 @@ import edu.utexas.tacc.tapis.jobs.api.requestBody.ReqSubmitJob;
 import edu.utexas.tacc.tapis.jobs.api.requestBody.ReqUserEvent;
 import edu.utexas.tacc.tapis.jobs.api.responses.RespGetResubmit;
 import edu.utexas.tacc.tapis.jobs.api.responses.RespSubmitJob;
+import edu.utexas.tacc.tapis.jobs.api.utils.DefinitionCache;
 import edu.utexas.tacc.tapis.jobs.api.utils.JobsApiUtils;
 import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.jobs.dao.JobResubmitDao;
@@ -590,6 +591,11 @@ public class JobSubmitResource
          // Create the request context object.
          var reqCtx = new SubmitContext(payload);
          
+         // Callers can force app and system definitions to be refetched.
+         if (_httpHeaders != null)
+             reqCtx.setBypassDefinitionCache(
+                 "true".equalsIgnoreCase(_httpHeaders.getHeaderString(DefinitionCache.BYPASS_HEADER)));
+         
          // ------------------------- Initialize the Job -----------------------
          // Initialize job with calculated effective parameters.
          Job job = null;
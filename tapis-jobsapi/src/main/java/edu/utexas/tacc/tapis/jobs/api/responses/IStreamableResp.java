@@ -0,0 +1,12 @@
+package edu.utexas.tacc.tapis.jobs.api.responses;
+
+import java.util.List;
+
+public interface IStreamableResp
+{
+    /** Remove and return the rows of the result list, leaving an empty list in
+     *  its place.  The response can then be serialized without its rows, which
+     *  are written one at a time to the response stream.
+     */
+    public List<?> detachResult();
+}
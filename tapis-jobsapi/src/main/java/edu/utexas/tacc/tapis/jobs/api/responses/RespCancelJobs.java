@@ -0,0 +1,11 @@
+package edu.utexas.tacc.tapis.jobs.api.responses;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.jobs.model.dto.JobCancelResult;
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+
+public final class RespCancelJobs extends RespAbstract{
+	public List<JobCancelResult> result;
+    public  RespCancelJobs(List<JobCancelResult> results)  {result = results;}
+}
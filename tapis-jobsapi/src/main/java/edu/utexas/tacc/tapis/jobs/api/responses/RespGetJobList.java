@@ -8,7 +8,7 @@ import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
 
 
-public final class RespGetJobList extends RespAbstract{
+public final class RespGetJobList extends RespAbstract implements IStreamableResp{
 	//public JsonArray result;
 	
    public List<JobListDTO> result;
@@ -29,6 +29,9 @@ public final class RespGetJobList extends RespAbstract{
 	    meta.totalCount = totalCount;
 	    metadata = meta;
 	  }
+   
+   @Override
+   public List<JobListDTO> detachResult() {var rows = result; result = new ArrayList<>(); return rows;}
 	 
    }
   
\ No newline at end of file
@@ -10,16 +10,28 @@ import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
 public class RespGetJobOutputList extends RespAbstract{
 	public List<FileInfo> result;
 	   public RespGetJobOutputList(List<FileInfo> jobOutputList,int limit, int skip)  {
+		    this(jobOutputList, limit, skip, null, null);
+	   }
+	   
+	   public RespGetJobOutputList(List<FileInfo> jobOutputList,int limit, int skip, String startAfter,
+	                               String nextStartAfter)  {
 		    result = new ArrayList<>();
 		    for (FileInfo fileInfo : jobOutputList)
 		    {
 		      result.add(fileInfo);
 		    }
 
-		    ResultListMetadata meta = new ResultListMetadata();
+		    JobOutputListMetadata meta = new JobOutputListMetadata();
 		    meta.recordCount = result.size();
 		    meta.recordLimit = limit;
 		    meta.recordsSkipped = skip;
+		    meta.startAfter = startAfter;
+		    meta.nextStartAfter = nextStartAfter;
 		    metadata = meta;
 		  }
+	   
+	   // The cursor that selects the next page, null when no more files are expected.
+	   public static final class JobOutputListMetadata extends ResultListMetadata {
+		   public String nextStartAfter;
+	   }
 }
@@ -0,0 +1,34 @@
+package edu.utexas.tacc.tapis.jobs.api.responses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
+
+public final class RespJobChanges extends RespAbstract implements IStreamableResp {
+	public List<JobListDTO> result;
+	   public RespJobChanges(List<JobListDTO> jobList, int limit, String since, String nextSince)  {
+		    result = new ArrayList<>();
+		    if (jobList != null) result.addAll(jobList);
+
+		    JobChangesMetadata meta = new JobChangesMetadata();
+		    meta.recordCount = result.size();
+		    meta.recordLimit = limit;
+		    meta.orderBy = "lastUpdated(asc)";
+		    meta.totalCount = -1;
+		    meta.since = since;
+		    meta.nextSince = nextSince;
+		    metadata = meta;
+		  }
+	   
+	   @Override
+	   public List<JobListDTO> detachResult() {var rows = result; result = new ArrayList<>(); return rows;}
+	   
+	   // The requested watermark and the watermark to pass as since on the next call.
+	   public static final class JobChangesMetadata extends ResultListMetadata {
+		   public String since;
+		   public String nextSince;
+	   }
+}
@@ -10,19 +10,30 @@ import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
 public class RespJobHistory extends RespAbstract {
 	public List<JobHistoryDisplayDTO> result;
 	   public RespJobHistory(List<JobHistoryDisplayDTO> jobHists,int limit, String orderBy, int skip, String startAfter, int totalCount)  {
+		    this(jobHists, limit, orderBy, skip, startAfter, totalCount, null);
+		  }
+	   
+	   public RespJobHistory(List<JobHistoryDisplayDTO> jobHists,int limit, String orderBy, int skip, String startAfter, 
+	                         int totalCount, String nextStartAfter)  {
 		    result = new ArrayList<>();
 		    for (JobHistoryDisplayDTO jobHist : jobHists)
 		    {
 		      result.add(jobHist);
 		    }
 
-		    ResultListMetadata meta = new ResultListMetadata();
+		    JobHistoryMetadata meta = new JobHistoryMetadata();
 		    meta.recordCount = result.size();
 		    meta.recordLimit = limit;
 		    meta.recordsSkipped = skip;
 		    meta.orderBy = orderBy;
 		    meta.startAfter = startAfter;
 		    meta.totalCount = totalCount;
+		    meta.nextStartAfter = nextStartAfter;
 		    metadata = meta;
 		  }
+	   
+	   // The cursor that selects the next page, null when no more events are expected.
+	   public static final class JobHistoryMetadata extends ResultListMetadata {
+		   public String nextStartAfter;
+	   }
 }
@@ -7,7 +7,7 @@ import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
 
-public final class RespJobSearch extends RespAbstract{
+public final class RespJobSearch extends RespAbstract implements IStreamableResp{
 	 public List<JobListDTO> result;
 	public RespJobSearch(List<JobListDTO> jobList, int limit, String orderBy, int skip, String startAfter, int totalCount) {
 		result = new ArrayList<>();
@@ -25,5 +25,8 @@ public final class RespJobSearch extends RespAbstract{
 	    meta.totalCount = totalCount;
 	    metadata = meta;
 	  }
+	
+	@Override
+	public List<JobListDTO> detachResult() {var rows = result; result = new ArrayList<>(); return rows;}
 
 }
@@ -8,7 +8,7 @@ import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
 
 
-public final class RespJobSearchAllAttributes extends RespAbstract{
+public final class RespJobSearchAllAttributes extends RespAbstract implements IStreamableResp{
 	public List<Job> result;
 	public RespJobSearchAllAttributes(List<Job> jobList, int limit, String orderBy, int skip, String startAfter, int totalCount) {
 		result = new ArrayList<>();
@@ -29,5 +29,8 @@ public final class RespJobSearchAllAttributes extends RespAbstract{
 	    metadata = meta;
 	  }
 	
+	@Override
+	public List<Job> detachResult() {var rows = result; result = new ArrayList<>(); return rows;}
+	
 
 }
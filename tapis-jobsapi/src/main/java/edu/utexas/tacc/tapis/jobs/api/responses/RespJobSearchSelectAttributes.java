@@ -15,7 +15,7 @@ import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
 import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
 import edu.utexas.tacc.tapis.sharedapi.responses.results.ResultListMetadata;
 
-public final class RespJobSearchSelectAttributes extends RespAbstract{
+public final class RespJobSearchSelectAttributes extends RespAbstract implements IStreamableResp{
 		public List<JsonObject> result; 
 		public RespJobSearchSelectAttributes(List<Job> jobList, List<String>selectList,  int limit, 
 				String orderBy, int skip, String startAfter, int totalCount) {
@@ -37,6 +37,9 @@ public final class RespJobSearchSelectAttributes extends RespAbstract{
 		    metadata = meta;
 		  }
 		
+		@Override
+		public List<JsonObject> detachResult() {var rows = result; result = new ArrayList<>(); return rows;}
+		
 		public JsonObject addDisplayAttributes(Job job,List<String>selectList) {	
 			String json = "";
 	        String uuid = "";
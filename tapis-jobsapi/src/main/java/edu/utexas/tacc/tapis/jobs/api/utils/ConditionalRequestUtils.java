@@ -0,0 +1,92 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.apache.commons.lang3.StringUtils;
+
+/** Support for conditional GET requests on small, frequently polled resources
+ * such as job status.  Responses carry a weak entity tag; requests whose 
+ * If-None-Match header still matches are answered with 304 Not Modified and 
+ * no body.
+ * 
+ * Last-Modified and If-Modified-Since are deliberately not supported.  HTTP
+ * dates have a resolution of one second, so a client that read a resource 
+ * between two changes in the same second would be told its copy is current 
+ * until the resource changes again.
+ */
+public final class ConditionalRequestUtils
+{
+    /* **************************************************************************** */
+    /*                                   Constants                                  */
+    /* **************************************************************************** */
+    // Polled responses may be stored by clients but must be revalidated on each use.
+    public static final String CACHE_CONTROL = "private, no-cache";
+
+    /* **************************************************************************** */
+    /*                                Constructors                                  */
+    /* **************************************************************************** */
+    private ConditionalRequestUtils() {}
+
+    /* **************************************************************************** */
+    /*                                Public Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* computeWeakETag:                                                             */
+    /* ---------------------------------------------------------------------------- */
+    /** Compute a weak entity tag from the values a response is derived from.  The
+     * tag is weak because the same values can be rendered differently, such as
+     * with and without pretty printing.
+     *
+     * @param parts the values that determine the response, nulls allowed
+     * @return the entity tag including its W/ prefix and quotes
+     */
+    public static String computeWeakETag(Object... parts)
+    {
+        var buf = new StringBuilder();
+        for (Object part : parts) buf.append(part).append('\n');
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                                      .digest(buf.toString().getBytes(StandardCharsets.UTF_8));
+            var tag = new StringBuilder(36).append("W/\"");
+            for (int i = 0; i < 16; i++) tag.append(String.format("%02x", digest[i]));
+            return tag.append('"').toString();
+        }
+        catch (Exception e) {
+            // SHA-256 is always available.
+            return "W/\"" + Integer.toHexString(buf.toString().hashCode()) + "\"";
+        }
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* isNotModified:                                                               */
+    /* ---------------------------------------------------------------------------- */
+    /** Evaluate the If-None-Match request header using weak comparison.
+     *
+     * @param ifNoneMatch the If-None-Match header value or null
+     * @param etag the current entity tag
+     * @return true if the client's copy is current and 304 should be returned
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag)
+    {
+        if (StringUtils.isBlank(ifNoneMatch)) return false;
+        return OutputDownloadUtils.matchesETag(ifNoneMatch, etag);
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* addValidators:                                                               */
+    /* ---------------------------------------------------------------------------- */
+    /** Add the entity tag and cache control headers to a response.
+     *
+     * @param builder a 200 or 304 response
+     * @param etag the current entity tag
+     * @return the builder
+     */
+    public static ResponseBuilder addValidators(ResponseBuilder builder, String etag)
+    {
+        return builder.header(HttpHeaders.ETAG, etag).header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    }
+}
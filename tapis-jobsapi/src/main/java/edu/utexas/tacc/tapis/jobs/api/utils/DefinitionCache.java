@@ -0,0 +1,284 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.apps.client.gen.model.TapisApp;
+import edu.utexas.tacc.tapis.jobs.api.utils.SubmitFetcher.Fetch;
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+/** A short-lived cache of app or system definitions retrieved during job
+ * submission.  Permissions are checked by the Apps and Systems services when
+ * a definition is fetched, so the cache key includes the requesting user and
+ * the permission flags of the call.  A user only receives a cached definition
+ * that the same call on that user's behalf returned earlier.
+ *
+ * Entries expire after the configured number of seconds.  Whenever a definition
+ * is fetched, its updated timestamp is recorded for the tenant, id and version.
+ * Entries for the same definition with a different timestamp are not used
+ * again, so a change seen by one user invalidates the copies cached for others.
+ * Only successful fetches are cached.
+ *
+ * Job submission modifies parts of the definitions it receives, such as the
+ * app's environment variables, so the cache keeps its own copy of each
+ * definition and returns a new copy on every hit.  Definitions that cannot be
+ * copied are not cached.
+ */
+public final class DefinitionCache<T>
+{
+    /* **************************************************************************** */
+    /*                                   Constants                                  */
+    /* **************************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(DefinitionCache.class);
+
+    // Requests with this header set to true always fetch definitions.
+    public static final String BYPASS_HEADER = "X-Tapis-Cache-Bypass";
+
+    // Maximum number of cached definitions of each type.
+    public static final int MAX_ENTRIES = 1000;
+
+    // Shared caches, created on first use.
+    private static DefinitionCache<TapisApp>    _appCache;
+    private static DefinitionCache<TapisSystem> _systemCache;
+
+    /* **************************************************************************** */
+    /*                                    Fields                                    */
+    /* **************************************************************************** */
+    // Constructor input.
+    private final long              _ttlMillis;
+    private final Function<T,Object> _updatedOf;
+    private final UnaryOperator<T>  _copier;
+    private final LongSupplier      _clock;
+
+    // Cached definitions and the latest updated timestamp of each definition,
+    // both in least recently used order and guarded by _entries.
+    private final LinkedHashMap<Key,Entry<T>> _entries = newLruMap();
+    private final LinkedHashMap<String,Object> _latestUpdated = newLruMap();
+
+    /* **************************************************************************** */
+    /*                                Constructors                                  */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* constructor:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    /**
+     * @param ttlSeconds entry lifetime, 0 disables caching
+     * @param updatedOf returns a definition's updated timestamp
+     * @param copier returns a deep copy of a definition
+     */
+    public DefinitionCache(int ttlSeconds, Function<T,Object> updatedOf, UnaryOperator<T> copier)
+    {
+        this(ttlSeconds, updatedOf, copier, System::currentTimeMillis);
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* constructor:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    /** Test constructor with a replaceable clock. */
+    DefinitionCache(int ttlSeconds, Function<T,Object> updatedOf, UnaryOperator<T> copier,
+                    LongSupplier clock)
+    {
+        _ttlMillis = ttlSeconds * 1000L;
+        _updatedOf = updatedOf;
+        _copier = copier;
+        _clock = clock;
+    }
+
+    /* **************************************************************************** */
+    /*                                Public Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* getAppCache:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    public static synchronized DefinitionCache<TapisApp> getAppCache()
+    {
+        if (_appCache == null)
+            _appCache = new DefinitionCache<>(
+                            RuntimeParameters.getInstance().getDefinitionCacheSeconds(),
+                            TapisApp::getUpdated, jsonCopier(TapisApp.class));
+        return _appCache;
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* getSystemCache:                                                              */
+    /* ---------------------------------------------------------------------------- */
+    public static synchronized DefinitionCache<TapisSystem> getSystemCache()
+    {
+        if (_systemCache == null)
+            _systemCache = new DefinitionCache<>(
+                               RuntimeParameters.getInstance().getDefinitionCacheSeconds(),
+                               TapisSystem::getUpdated, jsonCopier(TapisSystem.class));
+        return _systemCache;
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* get:                                                                         */
+    /* ---------------------------------------------------------------------------- */
+    /** Return the cached definition or fetch it.  Exceptions thrown by the loader
+     * are passed through unchanged.
+     *
+     * @param key the definition and the permissions used to fetch it
+     * @param loader fetches the definition from its service
+     * @param bypass true to fetch even if a cached definition exists
+     * @return the definition or null if the loader returns null
+     * @throws TapisImplException the loader's exception
+     */
+    public T get(Key key, Fetch<T> loader, boolean bypass) throws TapisImplException
+    {
+        // Is caching turned off?
+        if (_ttlMillis <= 0) return loader.get();
+
+        // Look for a live entry.
+        if (!bypass) {
+            T cached = null;
+            synchronized (_entries) {
+                var entry = _entries.get(key);
+                if (entry != null && _clock.getAsLong() < entry._expires &&
+                    Objects.equals(entry._updated, _latestUpdated.get(key.getDefinitionId())))
+                    cached = entry._definition;
+            }
+            if (cached != null) return _copier.apply(cached);
+        }
+
+        // Fetch the definition outside the lock.
+        T definition = loader.get();
+        if (definition == null) return null;
+
+        // Save a private copy of the definition and its timestamp.
+        Object updated = _updatedOf.apply(definition);
+        T copy;
+        try {copy = _copier.apply(definition);}
+        catch (Exception e) {
+            // The definition is returned uncached.
+            _log.warn(MsgUtils.getMsg("TAPIS_JSON_SERIALIZATION_ERROR", 
+                                      definition.getClass().getSimpleName(), e.getMessage()), e);
+            synchronized (_entries) {
+                _entries.remove(key);
+                _latestUpdated.put(key.getDefinitionId(), updated);
+            }
+            return definition;
+        }
+        synchronized (_entries) {
+            _latestUpdated.put(key.getDefinitionId(), updated);
+            _entries.put(key, new Entry<T>(copy, updated, _clock.getAsLong() + _ttlMillis));
+        }
+        return definition;
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* size:                                                                        */
+    /* ---------------------------------------------------------------------------- */
+    public int size() {synchronized (_entries) {return _entries.size();}}
+
+    /* ---------------------------------------------------------------------------- */
+    /* clear:                                                                       */
+    /* ---------------------------------------------------------------------------- */
+    public void clear()
+    {
+        synchronized (_entries) {
+            _entries.clear();
+            _latestUpdated.clear();
+        }
+    }
+
+    /* **************************************************************************** */
+    /*                               Private Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* jsonCopier:                                                                  */
+    /* ---------------------------------------------------------------------------- */
+    /** Copy client model objects by serializing them to json and back. */
+    private static <T> UnaryOperator<T> jsonCopier(Class<T> type)
+    {
+        var gson = TapisGsonUtils.getGson();
+        return definition -> gson.fromJson(gson.toJson(definition), type);
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* newLruMap:                                                                   */
+    /* ---------------------------------------------------------------------------- */
+    private static <K,V> LinkedHashMap<K,V> newLruMap()
+    {
+        return new LinkedHashMap<K,V>(64, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K,V> eldest)
+            {return size() > MAX_ENTRIES;}
+        };
+    }
+
+    /* **************************************************************************** */
+    /*                                   Key Class                                  */
+    /* **************************************************************************** */
+    /** Identifies a definition and the permissions with which it was fetched. */
+    public static final class Key
+    {
+        private final String _tenant;
+        private final String _id;
+        private final String _version;
+        private final String _user;
+        private final String _permission;
+
+        /**
+         * @param tenant the definition's tenant
+         * @param id the definition's id
+         * @param version the app version or null for systems or the latest version
+         * @param user the user on whose behalf the definition is fetched
+         * @param permission the permission flags passed on the fetch call
+         */
+        public Key(String tenant, String id, String version, String user, String permission)
+        {
+            _tenant = tenant;
+            _id = id;
+            _version = version;
+            _user = user;
+            _permission = permission;
+        }
+
+        /** The tenant, id and version without the requestor information. */
+        public String getDefinitionId()
+        {return _tenant + "/" + _id + "/" + (_version == null ? "" : _version);}
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            var that = (Key) obj;
+            return Objects.equals(_tenant, that._tenant) && Objects.equals(_id, that._id) &&
+                   Objects.equals(_version, that._version) && Objects.equals(_user, that._user) &&
+                   Objects.equals(_permission, that._permission);
+        }
+
+        @Override
+        public int hashCode() {return Objects.hash(_tenant, _id, _version, _user, _permission);}
+
+        @Override
+        public String toString() {return getDefinitionId() + "@" + _user + "[" + _permission + "]";}
+    }
+
+    /* **************************************************************************** */
+    /*                                  Entry Class                                 */
+    /* **************************************************************************** */
+    private static final class Entry<T>
+    {
+        private final T      _definition;
+        private final Object _updated;
+        private final long   _expires;
+
+        private Entry(T definition, Object updated, long expires)
+        {_definition = definition; _updated = updated; _expires = expires;}
+    }
+}
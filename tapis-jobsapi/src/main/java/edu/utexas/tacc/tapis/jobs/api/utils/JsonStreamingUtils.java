@@ -0,0 +1,90 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import edu.utexas.tacc.tapis.jobs.api.responses.IStreamableResp;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
+
+/** Write list responses directly to the response stream.  The buffered path
+ * serializes a complete response into a string that Jersey then copies into
+ * the stream, so large result lists are held in memory twice in their JSON
+ * form.  Here only the response envelope is serialized in advance; result
+ * rows are serialized one at a time as they are written.
+ *
+ * The streamed JSON is byte-for-byte identical to that of the buffered path.
+ * The envelope is produced by the same TapisRestUtils call, its fields are
+ * written in the same order and the rows are written with the same Gson
+ * configuration.
+ */
+public final class JsonStreamingUtils
+{
+    /* **************************************************************************** */
+    /*                                   Constants                                  */
+    /* **************************************************************************** */
+    // The response field that holds the rows.
+    public static final String RESULT_FIELD = "result";
+
+    // Writer buffer size.
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    /* **************************************************************************** */
+    /*                                Constructors                                  */
+    /* **************************************************************************** */
+    private JsonStreamingUtils() {}
+
+    /* **************************************************************************** */
+    /*                                Public Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* createSuccessStream:                                                         */
+    /* ---------------------------------------------------------------------------- */
+    /** The streaming equivalent of TapisRestUtils.createSuccessResponse().  The
+     * rows are detached from the response, which should not be used afterwards.
+     *
+     * @param message the response message
+     * @param prettyPrint whether to indent the output
+     * @param resp a list response whose result holds the rows
+     * @return the response entity
+     */
+    public static <T extends RespAbstract & IStreamableResp> StreamingOutput
+     createSuccessStream(String message, boolean prettyPrint, T resp)
+    {
+        // Serialize the envelope with an empty result list.
+        List<?> rows = resp.detachResult();
+        String envelope = TapisRestUtils.createSuccessResponse(message, prettyPrint, resp);
+        Gson gson = TapisGsonUtils.getGson(prettyPrint);
+        JsonObject fields = gson.fromJson(envelope, JsonObject.class);
+
+        // Write the envelope fields in their original order, substituting the rows.
+        return out -> {
+            var writer = gson.newJsonWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+            writer.beginObject();
+            for (Map.Entry<String,JsonElement> field : fields.entrySet()) {
+                writer.name(field.getKey());
+                if (RESULT_FIELD.equals(field.getKey())) {
+                    writer.beginArray();
+                    for (Object row : rows)
+                        if (row == null) writer.nullValue();
+                          else gson.toJson(row, row.getClass(), writer);
+                    writer.endArray();
+                }
+                else gson.toJson(field.getValue(), writer);
+            }
+            writer.endObject();
+            writer.flush();
+        };
+    }
+}
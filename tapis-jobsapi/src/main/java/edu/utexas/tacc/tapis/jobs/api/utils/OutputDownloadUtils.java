@@ -0,0 +1,265 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** HTTP support for job output downloads: single byte range requests, entity
+ * tags derived from file metadata and streaming of the bytes received from
+ * the Files service.
+ */
+public final class OutputDownloadUtils
+{
+    /* **************************************************************************** */
+    /*                                   Constants                                  */
+    /* **************************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(OutputDownloadUtils.class);
+
+    // The only range unit supported.
+    public static final String BYTES_UNIT = "bytes";
+
+    // Copy buffer size.
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /* **************************************************************************** */
+    /*                                Constructors                                  */
+    /* **************************************************************************** */
+    private OutputDownloadUtils() {}
+
+    /* **************************************************************************** */
+    /*                                Public Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* parseRange:                                                                  */
+    /* ---------------------------------------------------------------------------- */
+    /** Parse a Range header value for a file of the given size.  Only a single
+     * byte range is supported.  Headers that are absent, malformed or request
+     * multiple ranges are ignored, as allowed by RFC 9110, and the whole file
+     * is sent.
+     *
+     * @param header the Range header value or null
+     * @param size the file size in bytes
+     * @return the range to send, or null to send the whole file
+     * @throws UnsatisfiableRangeException if the range lies outside the file
+     */
+    public static ByteRange parseRange(String header, long size)
+     throws UnsatisfiableRangeException
+    {
+        if (StringUtils.isBlank(header) || size < 0) return null;
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, BYTES_UNIT + "=", 0, BYTES_UNIT.length() + 1)) return null;
+        String spec = value.substring(BYTES_UNIT.length() + 1).trim();
+        if (spec.contains(",")) return null;
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        String first = spec.substring(0, dash).trim();
+        String last  = spec.substring(dash + 1).trim();
+        long start, end;
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes.
+                if (last.isEmpty()) return null;
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) return null;
+                if (suffix == 0 || size == 0) throw new UnsatisfiableRangeException(size);
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || end < start) return null;
+                if (start >= size) throw new UnsatisfiableRangeException(size);
+                end = Math.min(end, size - 1);
+            }
+        }
+        catch (NumberFormatException e) {return null;}
+
+        return new ByteRange(start, end, size);
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* computeETag:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    /** Compute a strong entity tag for a file from its path, size and last
+     * modification time.  A file that is rewritten in place with the same size
+     * and time keeps its tag, which is acceptable for archived job outputs.
+     *
+     * @param path the file path on its system
+     * @param size the file size in bytes
+     * @param lastModified the modification time in any stable text form
+     * @return the quoted entity tag
+     */
+    public static String computeETag(String path, long size, Object lastModified)
+    {
+        String s = path + "\n" + size + "\n" + lastModified;
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            var buf = new StringBuilder(34).append('"');
+            for (int i = 0; i < 16; i++) buf.append(String.format("%02x", digest[i]));
+            return buf.append('"').toString();
+        }
+        catch (Exception e) {
+            // SHA-256 is always available.
+            return "\"" + Integer.toHexString(s.hashCode()) + "-" + Long.toHexString(size) + "\"";
+        }
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* matchesETag:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    /** Evaluate an If-None-Match header using weak comparison.
+     *
+     * @param header the If-None-Match header value or null
+     * @param etag the current entity tag
+     * @return true if the client's copy is current
+     */
+    public static boolean matchesETag(String header, String etag)
+    {
+        if (StringUtils.isBlank(header) || etag == null) return false;
+        String current = stripWeak(etag);
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(current)) return true;
+        }
+        return false;
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* isRangeCurrent:                                                              */
+    /* ---------------------------------------------------------------------------- */
+    /** Evaluate an If-Range header.  A range is only sent if the client's copy
+     * has the current entity tag, which requires strong comparison.  Date
+     * validators are not supported and cause the whole file to be sent.
+     *
+     * @param header the If-Range header value or null
+     * @param etag the current entity tag
+     * @return true if the Range header should be honored
+     */
+    public static boolean isRangeCurrent(String header, String etag)
+    {
+        if (StringUtils.isBlank(header)) return true;
+        String tag = header.trim();
+        return !tag.startsWith("W/") && tag.equals(etag);
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* streamingOutput:                                                             */
+    /* ---------------------------------------------------------------------------- */
+    /** Create a response entity that copies bytes from the input stream as they
+     * arrive.  The first skip bytes are discarded and at most length bytes are
+     * written.  The input stream is always closed, including when the client
+     * disconnects, so the connection to the Files service isn't leaked.
+     *
+     * @param in the stream received from the Files service
+     * @param skip the number of leading bytes to discard
+     * @param length the number of bytes to write, or -1 for all remaining bytes
+     * @return the streaming entity
+     */
+    public static StreamingOutput streamingOutput(InputStream in, long skip, long length)
+    {
+        return out -> {
+            try (in) {copy(in, out, skip, length);}
+            catch (IOException e) {
+                _log.debug("Output download interrupted: " + e.getMessage());
+                throw e;
+            }
+        };
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* copy:                                                                        */
+    /* ---------------------------------------------------------------------------- */
+    /** Copy a section of the input to the output.
+     *
+     * @return the number of bytes written
+     * @throws IOException on error or if the input ends before skip bytes
+     */
+    public static long copy(InputStream in, OutputStream out, long skip, long length)
+     throws IOException
+    {
+        // Discard the bytes before the range.
+        long remaining = skip;
+        var buf = new byte[BUFFER_SIZE];
+        while (remaining > 0) {
+            int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+            if (n < 0) throw new IOException("Stream ended " + remaining + " bytes before range start.");
+            remaining -= n;
+        }
+
+        // Copy the range.
+        long written = 0;
+        while (length < 0 || written < length) {
+            int max = length < 0 ? buf.length : (int) Math.min(buf.length, length - written);
+            int n = in.read(buf, 0, max);
+            if (n < 0) break;
+            out.write(buf, 0, n);
+            written += n;
+        }
+        out.flush();
+        return written;
+    }
+
+    /* **************************************************************************** */
+    /*                               Private Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* stripWeak:                                                                   */
+    /* ---------------------------------------------------------------------------- */
+    private static String stripWeak(String tag)
+    {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /* **************************************************************************** */
+    /*                                ByteRange Class                               */
+    /* **************************************************************************** */
+    /** An inclusive byte range of a file. */
+    public static final class ByteRange
+    {
+        private final long _start;
+        private final long _end;
+        private final long _size;
+
+        public ByteRange(long start, long end, long size)
+        {_start = start; _end = end; _size = size;}
+
+        public long getStart()  {return _start;}
+        public long getEnd()    {return _end;}
+        public long getLength() {return _end - _start + 1;}
+
+        /** The Content-Range header value of a 206 response. */
+        public String getContentRange() {return BYTES_UNIT + " " + _start + "-" + _end + "/" + _size;}
+
+        @Override
+        public String toString() {return getContentRange();}
+    }
+
+    /* **************************************************************************** */
+    /*                       UnsatisfiableRangeException Class                      */
+    /* **************************************************************************** */
+    /** Thrown when a range starts beyond the end of the file. */
+    public static final class UnsatisfiableRangeException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+        private final long _size;
+
+        public UnsatisfiableRangeException(long size)
+        {
+            super("Requested range not satisfiable for size " + size + ".");
+            _size = size;
+        }
+
+        /** The Content-Range header value of a 416 response. */
+        public String getContentRange() {return BYTES_UNIT + " */" + _size;}
+    }
+}
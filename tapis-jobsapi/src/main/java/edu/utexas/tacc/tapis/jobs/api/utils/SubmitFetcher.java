@@ -0,0 +1,144 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.Response.Status;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+
+/** Run the remote fetches of a job submission concurrently.  Each fetch runs
+ * on a bounded thread pool shared by all submissions and is given the
+ * submitting thread's Tapis context.  When the pool and its queue are full,
+ * fetches run on the submitting thread, so submission slows down rather than
+ * fails under load.
+ *
+ * Fetches report errors by throwing TapisImplException with the message and
+ * status code a serial call would have produced.  join() rethrows that same
+ * exception on the submitting thread.
+ */
+public final class SubmitFetcher
+{
+    /* **************************************************************************** */
+    /*                                   Constants                                  */
+    /* **************************************************************************** */
+    // Shared pool limits.
+    private static final int    MAX_THREADS = 16;
+    private static final int    MAX_QUEUED  = 256;
+    private static final long   KEEP_ALIVE_SECONDS = 60;
+    private static final String THREAD_NAME_PREFIX = "JobsSubmitFetch-";
+
+    // Thread numbering.
+    private static final AtomicInteger _threadSeqno = new AtomicInteger(0);
+
+    // The shared instance.
+    private static final SubmitFetcher _instance = new SubmitFetcher(newSharedExecutor());
+
+    /* **************************************************************************** */
+    /*                                  Interfaces                                  */
+    /* **************************************************************************** */
+    /** A remote call whose failures are already mapped to the client response. */
+    @FunctionalInterface
+    public interface Fetch<T>
+    {
+        T get() throws TapisImplException;
+    }
+
+    /* **************************************************************************** */
+    /*                                    Fields                                    */
+    /* **************************************************************************** */
+    private final Executor _executor;
+
+    /* **************************************************************************** */
+    /*                                Constructors                                  */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* constructor:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    public SubmitFetcher(Executor executor) {_executor = executor;}
+
+    /* **************************************************************************** */
+    /*                                Public Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* getInstance:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    public static SubmitFetcher getInstance() {return _instance;}
+
+    /* ---------------------------------------------------------------------------- */
+    /* fetch:                                                                       */
+    /* ---------------------------------------------------------------------------- */
+    /** Start the fetch on the executor.
+     *
+     * @param fetch the remote call
+     * @return the future result, complete with the fetch's exception on failure
+     */
+    public <T> CompletableFuture<T> fetch(Fetch<T> fetch)
+    {
+        var threadContext = TapisThreadLocal.tapisThreadContext.get();
+        return CompletableFuture.supplyAsync(() -> {
+            // Run in the submitter's context when on a pool thread.
+            var savedContext = TapisThreadLocal.tapisThreadContext.get();
+            TapisThreadLocal.tapisThreadContext.set(threadContext);
+            try {return fetch.get();}
+            catch (TapisImplException e) {throw new CompletionException(e);}
+            finally {TapisThreadLocal.tapisThreadContext.set(savedContext);}
+        }, _executor);
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* join:                                                                        */
+    /* ---------------------------------------------------------------------------- */
+    /** Wait for a fetch to complete and return its result.  A TapisImplException
+     * thrown by the fetch is rethrown as is; other failures are reported as
+     * internal errors.
+     *
+     * @param future a future returned by fetch()
+     * @return the fetch result
+     * @throws TapisImplException the fetch's exception or an internal error
+     */
+    public static <T> T join(CompletableFuture<T> future) throws TapisImplException
+    {
+        try {return future.get();}
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", e.getMessage());
+            throw new TapisImplException(msg, e, Status.INTERNAL_SERVER_ERROR.getStatusCode());
+        }
+        catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof TapisImplException) throw (TapisImplException) cause;
+            String msg = MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", cause.getMessage());
+            throw new TapisImplException(msg, cause, Status.INTERNAL_SERVER_ERROR.getStatusCode());
+        }
+    }
+
+    /* **************************************************************************** */
+    /*                               Private Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* newSharedExecutor:                                                           */
+    /* ---------------------------------------------------------------------------- */
+    private static Executor newSharedExecutor()
+    {
+        var executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                           KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                           new LinkedBlockingQueue<Runnable>(MAX_QUEUED),
+                           r -> {
+                               var thread = new Thread(r, THREAD_NAME_PREFIX + _threadSeqno.incrementAndGet());
+                               thread.setDaemon(true);
+                               return thread;
+                           },
+                           new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
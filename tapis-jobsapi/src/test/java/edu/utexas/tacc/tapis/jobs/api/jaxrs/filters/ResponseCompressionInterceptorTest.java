@@ -0,0 +1,125 @@
+package edu.utexas.tacc.tapis.jobs.api.jaxrs.filters;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups={"unit"})
+public class ResponseCompressionInterceptorTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* selectEncodingTest:                                                    */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void selectEncodingTest()
+    {
+        final String gzip = ResponseCompressionInterceptor.GZIP;
+        final String deflate = ResponseCompressionInterceptor.DEFLATE;
+
+        // No header or no supported coding.
+        Assert.assertNull(ResponseCompressionInterceptor.selectEncoding(null));
+        Assert.assertNull(ResponseCompressionInterceptor.selectEncoding(""));
+        Assert.assertNull(ResponseCompressionInterceptor.selectEncoding("identity"));
+        Assert.assertNull(ResponseCompressionInterceptor.selectEncoding("br, zstd"));
+
+        // Gzip is preferred unless deflate has a higher quality.
+        Assert.assertEquals(ResponseCompressionInterceptor.selectEncoding("gzip, deflate, br"), gzip);
+        Assert.assertEquals(ResponseCompressionInterceptor.selectEncoding("deflate, gzip"), gzip);
+        Assert.assertEquals(ResponseCompressionInterceptor.selectEncoding("GZIP"), gzip);
+        Assert.assertEquals(ResponseCompressionInterceptor.selectEncoding("deflate"), deflate);
+        Assert.assertEquals(ResponseCompressionInterceptor.selectEncoding("gzip;q=0.5, deflate;q=0.8"), deflate);
+        Assert.assertEquals(ResponseCompressionInterceptor.selectEncoding("gzip;q=0, deflate"), deflate);
+
+        // Rejected codings aren't restored by the wildcard.
+        Assert.assertEquals(ResponseCompressionInterceptor.selectEncoding("*"), gzip);
+        Assert.assertNull(ResponseCompressionInterceptor.selectEncoding("gzip;q=0, *"));
+        Assert.assertNull(ResponseCompressionInterceptor.selectEncoding("*;q=0"));
+        Assert.assertNull(ResponseCompressionInterceptor.selectEncoding("gzip;q=abc"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* eligibilityTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void eligibilityTest()
+    {
+        // Only json and text are compressed.
+        Assert.assertTrue(ResponseCompressionInterceptor.isCompressible(MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertTrue(ResponseCompressionInterceptor.isCompressible(MediaType.valueOf("application/problem+json")));
+        Assert.assertTrue(ResponseCompressionInterceptor.isCompressible(MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertFalse(ResponseCompressionInterceptor.isCompressible(MediaType.APPLICATION_OCTET_STREAM_TYPE));
+        Assert.assertFalse(ResponseCompressionInterceptor.isCompressible(MediaType.valueOf("application/zip")));
+        Assert.assertFalse(ResponseCompressionInterceptor.isCompressible(null));
+
+        // Small bodies aren't worth compressing, streamed bodies are assumed large.
+        StreamingOutput stream = out -> {};
+        Assert.assertFalse(ResponseCompressionInterceptor.isLargeEnough("{}", 1024));
+        Assert.assertTrue(ResponseCompressionInterceptor.isLargeEnough("x".repeat(1024), 1024));
+        Assert.assertTrue(ResponseCompressionInterceptor.isLargeEnough(new byte[2048], 1024));
+        Assert.assertTrue(ResponseCompressionInterceptor.isLargeEnough(stream, 1024));
+        Assert.assertTrue(ResponseCompressionInterceptor.isLargeEnough("{}", 0));
+        Assert.assertFalse(ResponseCompressionInterceptor.isLargeEnough(stream, -1));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* roundTripTest:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void roundTripTest() throws IOException
+    {
+        byte[] body = "{\"status\":\"success\",\"result\":[{\"uuid\":\"abc\"}]}".repeat(500)
+                      .getBytes(StandardCharsets.UTF_8);
+
+        // Gzip.
+        var out = new ByteArrayOutputStream();
+        try (var zip = ResponseCompressionInterceptor.compressingStream(ResponseCompressionInterceptor.GZIP, out)) {
+            zip.write(body);
+            zip.finish();
+        }
+        Assert.assertTrue(out.size() < body.length / 10, "gzip size " + out.size());
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            Assert.assertEquals(in.readAllBytes(), body);
+        }
+
+        // Deflate uses the zlib format.
+        out = new ByteArrayOutputStream();
+        try (var zip = ResponseCompressionInterceptor.compressingStream(ResponseCompressionInterceptor.DEFLATE, out)) {
+            zip.write(body);
+            zip.finish();
+        }
+        Assert.assertTrue(out.size() < body.length / 10, "deflate size " + out.size());
+        try (var in = new InflaterInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            Assert.assertEquals(in.readAllBytes(), body);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* endCompressorTest:                                                     */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void endCompressorTest() throws IOException
+    {
+        byte[] body = "{\"status\":\"success\"}".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+        // Releasing the compressor of a failed response writes nothing more
+        // and disables the stream.
+        for (var coding : new String[] {ResponseCompressionInterceptor.GZIP, ResponseCompressionInterceptor.DEFLATE}) {
+            var out = new ByteArrayOutputStream();
+            var zip = ResponseCompressionInterceptor.compressingStream(coding, out);
+            zip.write(body);
+            int written = out.size();
+            ResponseCompressionInterceptor.endCompressor(zip);
+            Assert.assertEquals(out.size(), written, coding);
+            Assert.assertThrows(NullPointerException.class, () -> zip.write(body));
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package edu.utexas.tacc.tapis.jobs.api.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.apps.client.AppsClient;
+import edu.utexas.tacc.tapis.apps.client.gen.model.TapisApp;
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.jobs.api.requestBody.ReqSubmitJob;
+import edu.utexas.tacc.tapis.jobs.model.submit.JobArgSpec;
+import edu.utexas.tacc.tapis.jobs.model.submit.JobParameterSet;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+import edu.utexas.tacc.tapis.shared.threadlocal.TapisThreadLocal;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+import edu.utexas.tacc.tapis.systems.client.SystemsClient;
+import edu.utexas.tacc.tapis.systems.client.SystemsClient.AuthnMethod;
+import edu.utexas.tacc.tapis.systems.client.gen.model.SchedulerProfile;
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+/** Drive job submission argument resolution with fake Apps and Systems clients
+ * to check that the system and scheduler profile fetches overlap and that
+ * each fetch failure is reported with the message a serial fetch produced.
+ */
+@Test(groups={"unit"})
+public class SubmitContextFetchTest
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    private static final String TENANT  = "dev";
+    private static final String OWNER   = "testuser";
+    private static final String APP_ID  = "fetchApp";
+    private static final String APP_VER = "1.0";
+    private static final String EXEC_ID = "fetchExec";
+    private static final String ARCH_ID = "fetchArchive";
+
+    // How long fakes wait for their concurrent calls.
+    private static final long   WAIT_SECONDS = 10;
+
+    /* ********************************************************************** */
+    /*                                 Setup                                  */
+    /* ********************************************************************** */
+    @BeforeMethod
+    public void setup()
+    {
+        var threadContext = TapisThreadLocal.tapisThreadContext.get();
+        threadContext.setOboTenantId(TENANT);
+        threadContext.setOboUser(OWNER);
+    }
+
+    /* ********************************************************************** */
+    /*                                 Tests                                  */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* archiveSystemTest:                                                     */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void archiveSystemTest()
+    {
+        // The execution and archive systems only return once both calls are in
+        // progress.  The archive system's failure surfaces when it's awaited.
+        var systems = new FakeSystemsClient(2);
+        systems.systems.put(EXEC_ID, makeExecSystem());
+        systems.errors.put(ARCH_ID, 404);
+        var e = submit(makeRequest(ARCH_ID), systems);
+        Assert.assertEquals(e.getMessage(), MsgUtils.getMsg("TAPIS_SYSCLIENT_NOT_FOUND", ARCH_ID,
+                                                            OWNER, TENANT, "archive"));
+        Assert.assertEquals(systems.systemCalls, 2);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* execSystemTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void execSystemTest()
+    {
+        // The execution system's failure is reported while the archive
+        // system is fetched concurrently.
+        var systems = new FakeSystemsClient(2);
+        systems.errors.put(EXEC_ID, 401);
+        systems.systems.put(ARCH_ID, makeSystem(ARCH_ID));
+        var e = submit(makeRequest(ARCH_ID), systems);
+        Assert.assertEquals(e.getMessage(), MsgUtils.getMsg("TAPIS_SYSCLIENT_AUTHZ_ERROR", EXEC_ID,
+                                                            "READ,EXECUTE", OWNER, TENANT, "execution"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* profileTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void profileTest()
+    {
+        // Both profiles are retrieved at the same time.  The first profile's
+        // failure is reported even though the second one fails too.
+        var systems = new FakeSystemsClient(1);
+        systems.systems.put(EXEC_ID, makeExecSystem());
+        systems.profileLatch = new CountDownLatch(2);
+        systems.errors.put("profile1", 404);
+        systems.errors.put("profile2", 500);
+        var request = makeRequest(EXEC_ID);
+        request.getParameterSet().getSchedulerOptions().add(makeArg("--tapis-profile profile1"));
+        request.getParameterSet().getSchedulerOptions().add(makeArg("--tapis-profile profile2"));
+        var e = submit(request, systems);
+        Assert.assertEquals(e.getMessage(), MsgUtils.getMsg("JOBS_SCHEDULER_PROFILE_NOT_FOUND",
+                                                            OWNER, TENANT, "profile1"));
+        Assert.assertEquals(systems.profileCalls, 2);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* appTest:                                                               */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void appTest()
+    {
+        // The application is fetched before any system.
+        var systems = new FakeSystemsClient(1);
+        var apps = new FakeAppsClient();
+        apps.error = 404;
+        var e = submit(makeRequest(EXEC_ID), apps, systems);
+        Assert.assertEquals(e.getMessage(), MsgUtils.getMsg("TAPIS_APPCLIENT_NOT_FOUND", APP_ID,
+                                                            APP_VER, "READ,EXECUTE", OWNER, TENANT));
+        Assert.assertEquals(systems.systemCalls, 0);
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* submit:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private static TapisImplException submit(ReqSubmitJob request, FakeSystemsClient systems)
+    {
+        return submit(request, new FakeAppsClient(), systems);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* submit:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Resolve the request and return the exception that stopped it. */
+    private static TapisImplException submit(ReqSubmitJob request, FakeAppsClient apps,
+                                             FakeSystemsClient systems)
+    {
+        var ctx = new SubmitContext(request, new SubmitContext.ClientSupplier() {
+            @Override
+            public AppsClient getAppsClient(String user, String tenant) {return apps;}
+            @Override
+            public SystemsClient getSystemsClient(String user, String tenant) {return systems;}
+        });
+        ctx.setBypassDefinitionCache(true);
+        try {ctx.initNewJob();}
+        catch (TapisImplException e) {return e;}
+        Assert.fail("Expected exception");
+        return null;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeRequest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    private static ReqSubmitJob makeRequest(String archiveSystemId)
+    {
+        var request = new ReqSubmitJob();
+        request.setName("fetchTest");
+        request.setAppId(APP_ID);
+        request.setAppVersion(APP_VER);
+        request.setExecSystemId(EXEC_ID);
+        request.setArchiveSystemId(archiveSystemId);
+        var parmSet = new JobParameterSet();
+        parmSet.initAll();
+        request.setParameterSet(parmSet);
+        return request;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeArg:                                                               */
+    /* ---------------------------------------------------------------------- */
+    private static JobArgSpec makeArg(String arg)
+    {
+        var spec = new JobArgSpec();
+        spec.setArg(arg);
+        return spec;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeApp:                                                               */
+    /* ---------------------------------------------------------------------- */
+    private static TapisApp makeApp()
+    {
+        String json = "{\"id\":\"" + APP_ID + "\",\"version\":\"" + APP_VER + "\"," +
+                      "\"enabled\":true,\"versionEnabled\":true,\"runtime\":\"DOCKER\"," +
+                      "\"jobAttributes\":{\"dtnSystemInputDir\":\"!tapis_not_set\"," +
+                      "\"dtnSystemOutputDir\":\"!tapis_not_set\",\"parameterSet\":{}}}";
+        return TapisGsonUtils.getGson().fromJson(json, TapisApp.class);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeSystem:                                                            */
+    /* ---------------------------------------------------------------------- */
+    private static TapisSystem makeSystem(String id)
+    {
+        String json = "{\"id\":\"" + id + "\",\"enabled\":true,\"rootDir\":\"/\"}";
+        return TapisGsonUtils.getGson().fromJson(json, TapisSystem.class);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeExecSystem:                                                        */
+    /* ---------------------------------------------------------------------- */
+    private static TapisSystem makeExecSystem()
+    {
+        String json = "{\"id\":\"" + EXEC_ID + "\",\"enabled\":true,\"rootDir\":\"/\"," +
+                      "\"canExec\":true,\"canRunBatch\":false,\"jobWorkingDir\":\"/work\"," +
+                      "\"jobRuntimes\":[{\"runtimeType\":\"DOCKER\"}]}";
+        return TapisGsonUtils.getGson().fromJson(json, TapisSystem.class);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* clientError:                                                           */
+    /* ---------------------------------------------------------------------- */
+    private static TapisClientException clientError(int code)
+    {
+        return new TapisClientException("fake error " + code) {
+            private static final long serialVersionUID = 1L;
+            @Override public int getCode() {return code;}
+        };
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* await:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Count this call and wait for the others sharing the latch. */
+    private static void await(CountDownLatch latch) throws TapisClientException
+    {
+        latch.countDown();
+        try {
+            if (!latch.await(WAIT_SECONDS, TimeUnit.SECONDS))
+                throw new TapisClientException("calls were not concurrent");
+        }
+        catch (InterruptedException e) {throw new TapisClientException("interrupted");}
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** Returns the test application or fails with a client error. */
+    private static final class FakeAppsClient extends AppsClient
+    {
+        private Integer error;
+
+        @Override
+        public TapisApp getApp(String appId, String appVersion, Boolean requireExecPerm)
+         throws TapisClientException
+        {
+            if (error != null) throw clientError(error);
+            return makeApp();
+        }
+    }
+
+    /** Returns systems and profiles after the expected number of concurrent
+     * calls are in progress, or fails with a client error. */
+    private static final class FakeSystemsClient extends SystemsClient
+    {
+        private final Map<String,TapisSystem> systems = new HashMap<>();
+        private final Map<String,Integer>     errors  = new HashMap<>();
+        private final CountDownLatch          systemLatch;
+        private CountDownLatch                profileLatch = new CountDownLatch(0);
+        private volatile int                  systemCalls;
+        private volatile int                  profileCalls;
+
+        private FakeSystemsClient(int concurrentSystemCalls)
+        {
+            systemLatch = new CountDownLatch(concurrentSystemCalls);
+        }
+
+        @Override
+        public TapisSystem getSystem(String systemId, AuthnMethod authnMethod, boolean requireExecPerm,
+                                     String selectStr, boolean returnCredentials,
+                                     String impersonationId, String sharedAppCtx)
+         throws TapisClientException
+        {
+            synchronized (this) {systemCalls++;}
+            await(systemLatch);
+            if (errors.containsKey(systemId)) throw clientError(errors.get(systemId));
+            return systems.get(systemId);
+        }
+
+        @Override
+        public SchedulerProfile getSchedulerProfile(String name) throws TapisClientException
+        {
+            synchronized (this) {profileCalls++;}
+            await(profileLatch);
+            if (errors.containsKey(name)) throw clientError(errors.get(name));
+            return new SchedulerProfile();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.time.Instant;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups={"unit"})
+public class ConditionalRequestUtilsTest
+{
+    private static final Instant MODIFIED = Instant.parse("2024-03-05T10:15:30.750Z");
+
+    /* ---------------------------------------------------------------------- */
+    /* etagTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void etagTest()
+    {
+        String etag = ConditionalRequestUtils.computeWeakETag("job-1", "RUNNING", null, MODIFIED);
+        Assert.assertTrue(etag.matches("W/\"[0-9a-f]{32}\""), etag);
+        Assert.assertEquals(ConditionalRequestUtils.computeWeakETag("job-1", "RUNNING", null, MODIFIED), etag);
+
+        // Any change to the status produces a new tag.
+        Assert.assertNotEquals(ConditionalRequestUtils.computeWeakETag("job-1", "FINISHED", null, MODIFIED), etag);
+        Assert.assertNotEquals(ConditionalRequestUtils.computeWeakETag("job-1", "RUNNING", null,
+                                                                       MODIFIED.plusMillis(1)), etag);
+        Assert.assertNotEquals(ConditionalRequestUtils.computeWeakETag("job-2", "RUNNING", null, MODIFIED), etag);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* notModifiedTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void notModifiedTest()
+    {
+        String etag = ConditionalRequestUtils.computeWeakETag("job-1", "RUNNING", null, MODIFIED);
+
+        // Unconditional requests always get the body.
+        Assert.assertFalse(ConditionalRequestUtils.isNotModified(null, etag));
+        Assert.assertFalse(ConditionalRequestUtils.isNotModified(" ", etag));
+
+        // Entity tags use weak comparison.
+        Assert.assertTrue(ConditionalRequestUtils.isNotModified(etag, etag));
+        Assert.assertTrue(ConditionalRequestUtils.isNotModified(etag.substring(2), etag));
+        Assert.assertTrue(ConditionalRequestUtils.isNotModified("W/\"old\", " + etag, etag));
+        Assert.assertTrue(ConditionalRequestUtils.isNotModified("*", etag));
+        Assert.assertFalse(ConditionalRequestUtils.isNotModified("W/\"old\"", etag));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* sameSecondTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void sameSecondTest()
+    {
+        // A poller reads the status between two changes in the same second.
+        Instant first = Instant.parse("2024-03-05T10:15:30.100Z");
+        Instant second = Instant.parse("2024-03-05T10:15:30.900Z");
+        String polled = ConditionalRequestUtils.computeWeakETag("job-1", "STAGING_INPUTS", null, first);
+        String current = ConditionalRequestUtils.computeWeakETag("job-1", "STAGING_JOB", null, second);
+
+        // The second change is reported on the next poll.
+        Assert.assertFalse(ConditionalRequestUtils.isNotModified(polled, current));
+        Assert.assertTrue(ConditionalRequestUtils.isNotModified(current, current));
+    }
+}
@@ -0,0 +1,121 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.api.utils.DefinitionCache.Key;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+
+@Test(groups={"unit"})
+public class DefinitionCacheTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* keyTest:                                                               */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void keyTest()
+    {
+        var key = new Key("dev", "app1", "1.0", "alice", "READ,EXECUTE");
+        Assert.assertEquals(key, new Key("dev", "app1", "1.0", "alice", "READ,EXECUTE"));
+        Assert.assertEquals(key.hashCode(), new Key("dev", "app1", "1.0", "alice", "READ,EXECUTE").hashCode());
+
+        // Every component distinguishes keys.
+        Assert.assertNotEquals(key, new Key("prod", "app1", "1.0", "alice", "READ,EXECUTE"));
+        Assert.assertNotEquals(key, new Key("dev", "app2", "1.0", "alice", "READ,EXECUTE"));
+        Assert.assertNotEquals(key, new Key("dev", "app1", "2.0", "alice", "READ,EXECUTE"));
+        Assert.assertNotEquals(key, new Key("dev", "app1", "1.0", "bob", "READ,EXECUTE"));
+        Assert.assertNotEquals(key, new Key("dev", "app1", "1.0", "alice", "READ"));
+
+        // The definition id ignores the requestor.
+        Assert.assertEquals(key.getDefinitionId(), new Key("dev", "app1", "1.0", "bob", "READ").getDefinitionId());
+        Assert.assertNotEquals(key.getDefinitionId(), new Key("dev", "app1", null, "alice", "READ").getDefinitionId());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* expiryTest:                                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void expiryTest() throws TapisImplException
+    {
+        var now = new AtomicLong(1000);
+        var cache = newCache(30, now);
+        var loads = new AtomicInteger();
+        var key = new Key("dev", "sys1", null, "alice", "READ");
+
+        // Hits return copies until the entry expires.
+        var first = cache.get(key, () -> new Def("t1", loads.incrementAndGet()), false);
+        now.addAndGet(29999);
+        var second = cache.get(key, () -> new Def("t1", loads.incrementAndGet()), false);
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertEquals(second.loadCount, 1);
+        Assert.assertNotSame(second, first);
+
+        now.addAndGet(1);
+        Assert.assertEquals(cache.get(key, () -> new Def("t1", loads.incrementAndGet()), false).loadCount, 2);
+
+        // Bypass always loads but refreshes the entry.
+        Assert.assertEquals(cache.get(key, () -> new Def("t1", loads.incrementAndGet()), true).loadCount, 3);
+        Assert.assertEquals(cache.get(key, () -> new Def("t1", loads.incrementAndGet()), false).loadCount, 3);
+
+        // Failures are not cached.
+        var other = new Key("dev", "sys2", null, "alice", "READ");
+        try {
+            cache.get(other, () -> {throw new TapisImplException("not found", Status.NOT_FOUND.getStatusCode());}, false);
+            Assert.fail("Expected exception");
+        }
+        catch (TapisImplException e) {Assert.assertEquals(e.getMessage(), "not found");}
+        Assert.assertEquals(cache.get(other, () -> new Def("t1", 9), false).loadCount, 9);
+
+        // A zero lifetime disables caching.
+        var disabled = newCache(0, now);
+        disabled.get(key, () -> new Def("t1", 1), false);
+        Assert.assertEquals(disabled.get(key, () -> new Def("t1", 2), false).loadCount, 2);
+        Assert.assertEquals(disabled.size(), 0);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* updatedTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void updatedTest() throws TapisImplException
+    {
+        var now = new AtomicLong(0);
+        var cache = newCache(30, now);
+        var alice = new Key("dev", "app1", "1.0", "alice", "READ,EXECUTE");
+        var bob   = new Key("dev", "app1", "1.0", "bob", "READ,EXECUTE");
+        cache.get(alice, () -> new Def("t1", 1), false);
+        cache.get(bob, () -> new Def("t1", 2), false);
+
+        // A newer definition fetched for bob invalidates alice's copy.
+        cache.get(bob, () -> new Def("t2", 3), true);
+        Assert.assertEquals(cache.get(alice, () -> new Def("t2", 4), false).loadCount, 4);
+        Assert.assertEquals(cache.get(alice, () -> new Def("t2", 5), false).loadCount, 4);
+        Assert.assertEquals(cache.get(bob, () -> new Def("t2", 6), false).loadCount, 3);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* newCache:                                                              */
+    /* ---------------------------------------------------------------------- */
+    private static DefinitionCache<Def> newCache(int ttlSeconds, AtomicLong now)
+    {
+        return new DefinitionCache<Def>(ttlSeconds, def -> def.updated,
+                                        def -> new Def(def.updated, def.loadCount), now::get);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* Def:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** A fake definition that records which load produced it. */
+    private static final class Def
+    {
+        private final String updated;
+        private final int    loadCount;
+
+        private Def(String updated, int loadCount) {this.updated = updated; this.loadCount = loadCount;}
+    }
+}
@@ -0,0 +1,165 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.api.responses.IStreamableResp;
+import edu.utexas.tacc.tapis.jobs.api.responses.RespGetJobList;
+import edu.utexas.tacc.tapis.jobs.api.responses.RespJobSearch;
+import edu.utexas.tacc.tapis.jobs.api.responses.RespJobSearchAllAttributes;
+import edu.utexas.tacc.tapis.jobs.api.responses.RespJobSearchSelectAttributes;
+import edu.utexas.tacc.tapis.jobs.model.Job;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+import edu.utexas.tacc.tapis.sharedapi.responses.RespAbstract;
+import edu.utexas.tacc.tapis.sharedapi.utils.TapisRestUtils;
+
+@Test(groups={"unit"})
+public class JsonStreamingUtilsTest
+{
+    private static final String MESSAGE = "Jobs retrieved for <alice> & \"bob\".";
+
+    /* ---------------------------------------------------------------------- */
+    /* identicalJobListTest:                                                  */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void identicalJobListTest() throws IOException
+    {
+        // Both the compact and the indented forms are identical.
+        for (boolean prettyPrint : new boolean[] {false, true}) {
+            String buffered = TapisRestUtils.createSuccessResponse(MESSAGE, prettyPrint,
+                                  new RespGetJobList(jobs(25), 100, "created(desc)", 0, null, 250));
+            String streamed = stream(prettyPrint, new RespGetJobList(jobs(25), 100, "created(desc)", 0, null, 250));
+            Assert.assertEquals(streamed, buffered);
+            Assert.assertTrue(streamed.contains("\"recordCount\""), streamed);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* identicalSearchTest:                                                   */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void identicalSearchTest() throws IOException
+    {
+        // Single row and empty results.
+        for (int count : new int[] {1, 0}) {
+            String buffered = TapisRestUtils.createSuccessResponse(MESSAGE, true,
+                                  new RespJobSearch(jobs(count), 10, null, 5, "job-3", -1));
+            String streamed = stream(true, new RespJobSearch(jobs(count), 10, null, 5, "job-3", -1));
+            Assert.assertEquals(streamed, buffered);
+        }
+
+        // The rows are detached from the response they were streamed from.
+        var resp = new RespJobSearch(jobs(3), 10, null, 0, null, -1);
+        Assert.assertEquals(resp.detachResult().size(), 3);
+        Assert.assertTrue(resp.result.isEmpty());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* identicalAllAttributesTest:                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void identicalAllAttributesTest() throws IOException
+    {
+        // Full job rows in both forms.
+        for (boolean prettyPrint : new boolean[] {false, true}) {
+            String buffered = TapisRestUtils.createSuccessResponse(MESSAGE, prettyPrint,
+                                  new RespJobSearchAllAttributes(fullJobs(5), 10, "name(asc)", 0, null, 5));
+            String streamed = stream(prettyPrint, new RespJobSearchAllAttributes(fullJobs(5), 10, "name(asc)", 0, null, 5));
+            Assert.assertEquals(streamed, buffered);
+            Assert.assertTrue(streamed.contains("\"execSystemId\""), streamed);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* identicalSelectAttributesTest:                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void identicalSelectAttributesTest() throws IOException
+    {
+        // Selected attributes, with and without the uuid, are json object rows.
+        var selects = List.of(List.of("name", "status", "created"), List.of("uuid", "description", "ended"));
+        for (var select : selects)
+            for (boolean prettyPrint : new boolean[] {false, true}) {
+                String buffered = TapisRestUtils.createSuccessResponse(MESSAGE, prettyPrint,
+                                      new RespJobSearchSelectAttributes(fullJobs(4), select, 10, null, 2, null, -1));
+                String streamed = stream(prettyPrint, 
+                                      new RespJobSearchSelectAttributes(fullJobs(4), select, 10, null, 2, null, -1));
+                Assert.assertEquals(streamed, buffered);
+                Assert.assertTrue(streamed.contains("\"uuid\""), streamed);
+            }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* stream:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private static <T extends RespAbstract & IStreamableResp> String stream(boolean prettyPrint, T resp) 
+     throws IOException
+    {
+        var out = new ByteArrayOutputStream();
+        JsonStreamingUtils.createSuccessStream(MESSAGE, prettyPrint, resp).write(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* jobs:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    private static List<JobListDTO> jobs(int count)
+    {
+        // Include characters that are escaped and unset fields that are omitted.
+        var jobs = new ArrayList<JobListDTO>(count);
+        for (int i = 0; i < count; i++) {
+            var job = new JobListDTO();
+            job.setUuid("job-" + i);
+            job.setName("sim <" + i + "> \u00e9t\u00e9 \"run\"");
+            job.setOwner("alice");
+            job.setTenant("dev");
+            job.setAppId("app" + i);
+            job.setAppVersion("1.0");
+            job.setCreated(Instant.ofEpochMilli(1700000000123L + i));
+            job.setStatus(i % 2 == 0 ? JobStatusType.FINISHED : JobStatusType.RUNNING);
+            if (i % 3 == 0) job.setCondition(JobConditionCode.NORMAL_COMPLETION);
+            if (i % 2 == 0) job.setEnded(Instant.ofEpochSecond(1700001000L + i));
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* fullJobs:                                                              */
+    /* ---------------------------------------------------------------------- */
+    private static List<Job> fullJobs(int count)
+    {
+        // Escaped characters, unset fields and json string columns.
+        var jobs = new ArrayList<Job>(count);
+        for (int i = 0; i < count; i++) {
+            var job = new Job();
+            job.setId(i + 1);
+            job.setUuid("job-" + i);
+            job.setName("sim <" + i + "> \u00e9t\u00e9 \"run\"");
+            job.setOwner("alice");
+            job.setTenant("dev");
+            if (i % 2 == 0) job.setDescription("Run & check \\ results\n");
+            job.setAppId("app" + i);
+            job.setAppVersion("1.0");
+            job.setExecSystemId("exec" + i);
+            job.setCreated(Instant.ofEpochMilli(1700000000123L + i));
+            job.setStatus(i % 2 == 0 ? JobStatusType.FINISHED : JobStatusType.RUNNING);
+            if (i % 3 == 0) job.setCondition(JobConditionCode.NORMAL_COMPLETION);
+            if (i % 2 == 0) job.setEnded(Instant.ofEpochSecond(1700001000L + i));
+            job.setParameterSet("{\"appArgs\":[{\"arg\":\"-n " + i + "\"}],\"envVariables\":[]}");
+            job.setTags(new TreeSet<>(List.of("tag" + i, "sim")));
+            jobs.add(job);
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,131 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.api.utils.OutputDownloadUtils.ByteRange;
+import edu.utexas.tacc.tapis.jobs.api.utils.OutputDownloadUtils.UnsatisfiableRangeException;
+
+@Test(groups={"unit"})
+public class OutputDownloadUtilsTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* rangeTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void rangeTest() throws UnsatisfiableRangeException
+    {
+        // Closed, open-ended and suffix ranges.
+        assertRange(OutputDownloadUtils.parseRange("bytes=0-99", 1000), 0, 99, "bytes 0-99/1000");
+        assertRange(OutputDownloadUtils.parseRange("bytes=500-", 1000), 500, 999, "bytes 500-999/1000");
+        assertRange(OutputDownloadUtils.parseRange("bytes=-100", 1000), 900, 999, "bytes 900-999/1000");
+        assertRange(OutputDownloadUtils.parseRange(" Bytes=10-10 ", 1000), 10, 10, "bytes 10-10/1000");
+
+        // Ranges extending past the end are truncated.
+        assertRange(OutputDownloadUtils.parseRange("bytes=990-5000", 1000), 990, 999, "bytes 990-999/1000");
+        assertRange(OutputDownloadUtils.parseRange("bytes=-5000", 1000), 0, 999, "bytes 0-999/1000");
+        Assert.assertEquals(OutputDownloadUtils.parseRange("bytes=999-", 1000).getLength(), 1);
+
+        // Absent, malformed and multiple ranges send the whole file.
+        String[] ignored = {null, "", "items=0-1", "bytes=", "bytes=-", "bytes=a-b", "bytes=5-1",
+                            "bytes=0-1,5-6", "bytes=10", "bytes=--1"};
+        for (String header : ignored)
+            Assert.assertNull(OutputDownloadUtils.parseRange(header, 1000), header);
+
+        // Ranges outside the file can't be satisfied.
+        String[] unsatisfiable = {"bytes=1000-", "bytes=2000-3000", "bytes=-0"};
+        for (String header : unsatisfiable) {
+            try {
+                OutputDownloadUtils.parseRange(header, 1000);
+                Assert.fail("Expected exception for " + header);
+            }
+            catch (UnsatisfiableRangeException e) {Assert.assertEquals(e.getContentRange(), "bytes */1000");}
+        }
+        try {
+            OutputDownloadUtils.parseRange("bytes=0-", 0);
+            Assert.fail("Expected exception for empty file");
+        }
+        catch (UnsatisfiableRangeException e) {Assert.assertEquals(e.getContentRange(), "bytes */0");}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* etagTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void etagTest()
+    {
+        String etag = OutputDownloadUtils.computeETag("/archive/out/a.txt", 1000, "2024-01-01T00:00:00Z");
+        Assert.assertTrue(etag.matches("\"[0-9a-f]{32}\""), etag);
+        Assert.assertEquals(OutputDownloadUtils.computeETag("/archive/out/a.txt", 1000, "2024-01-01T00:00:00Z"), etag);
+
+        // Path, size and modification time all change the tag.
+        Assert.assertNotEquals(OutputDownloadUtils.computeETag("/archive/out/b.txt", 1000, "2024-01-01T00:00:00Z"), etag);
+        Assert.assertNotEquals(OutputDownloadUtils.computeETag("/archive/out/a.txt", 1001, "2024-01-01T00:00:00Z"), etag);
+        Assert.assertNotEquals(OutputDownloadUtils.computeETag("/archive/out/a.txt", 1000, "2024-01-01T00:00:01Z"), etag);
+
+        // If-None-Match uses weak comparison and accepts lists and wildcards.
+        Assert.assertTrue(OutputDownloadUtils.matchesETag(etag, etag));
+        Assert.assertTrue(OutputDownloadUtils.matchesETag("W/" + etag, etag));
+        Assert.assertTrue(OutputDownloadUtils.matchesETag("\"x\", " + etag, etag));
+        Assert.assertTrue(OutputDownloadUtils.matchesETag("*", etag));
+        Assert.assertFalse(OutputDownloadUtils.matchesETag("\"x\"", etag));
+        Assert.assertFalse(OutputDownloadUtils.matchesETag(null, etag));
+
+        // If-Range requires a strong match.
+        Assert.assertTrue(OutputDownloadUtils.isRangeCurrent(null, etag));
+        Assert.assertTrue(OutputDownloadUtils.isRangeCurrent(etag, etag));
+        Assert.assertFalse(OutputDownloadUtils.isRangeCurrent("W/" + etag, etag));
+        Assert.assertFalse(OutputDownloadUtils.isRangeCurrent("Mon, 01 Jan 2024 00:00:00 GMT", etag));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* streamTest:                                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void streamTest() throws IOException
+    {
+        // Copy a range from a stream that returns short reads.
+        var data = new byte[200_000];
+        for (int i = 0; i < data.length; i++) data[i] = (byte) i;
+        var closed = new boolean[1];
+        InputStream in = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {return super.read(b, off, Math.min(len, 1000));}
+            @Override
+            public void close() {closed[0] = true;}
+        };
+        var out = new ByteArrayOutputStream();
+        OutputDownloadUtils.streamingOutput(in, 70_000, 100_000).write(out);
+        Assert.assertEquals(out.toByteArray(), Arrays.copyOfRange(data, 70_000, 170_000));
+        Assert.assertTrue(closed[0]);
+
+        // Unbounded copies stop at the end of the input.
+        out.reset();
+        Assert.assertEquals(OutputDownloadUtils.copy(new ByteArrayInputStream(data), out, 0, -1), data.length);
+
+        // Inputs shorter than the skip are errors.
+        try {
+            OutputDownloadUtils.copy(new ByteArrayInputStream(data), new ByteArrayOutputStream(), data.length + 1, 1);
+            Assert.fail("Expected exception");
+        }
+        catch (IOException e) {}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* assertRange:                                                           */
+    /* ---------------------------------------------------------------------- */
+    private static void assertRange(ByteRange range, long start, long end, String contentRange)
+    {
+        Assert.assertNotNull(range);
+        Assert.assertEquals(range.getStart(), start);
+        Assert.assertEquals(range.getEnd(), end);
+        Assert.assertEquals(range.getLength(), end - start + 1);
+        Assert.assertEquals(range.getContentRange(), contentRange);
+    }
+}
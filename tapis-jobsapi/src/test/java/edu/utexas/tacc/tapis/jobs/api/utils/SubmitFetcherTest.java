@@ -0,0 +1,113 @@
+package edu.utexas.tacc.tapis.jobs.api.utils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+
+@Test(groups={"unit"})
+public class SubmitFetcherTest
+{
+    // Executor sized for the tests.
+    private final ExecutorService _executor = Executors.newFixedThreadPool(4);
+    private final SubmitFetcher   _fetcher  = new SubmitFetcher(_executor);
+
+    @AfterClass
+    public void shutdown() {_executor.shutdownNow();}
+
+    /* ---------------------------------------------------------------------- */
+    /* concurrencyTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void concurrencyTest() throws TapisImplException
+    {
+        // Fake system and profile clients that only return once all three calls
+        // are in progress, which can't happen if they run one at a time.
+        var inProgress = new CountDownLatch(3);
+        var archive = _fetcher.fetch(() -> fakeCall(inProgress, "archiveSystem"));
+        var dtn     = _fetcher.fetch(() -> fakeCall(inProgress, "dtnSystem"));
+        var profile = _fetcher.fetch(() -> fakeCall(inProgress, "profile"));
+
+        Assert.assertEquals(SubmitFetcher.join(archive), "archiveSystem");
+        Assert.assertEquals(SubmitFetcher.join(dtn), "dtnSystem");
+        Assert.assertEquals(SubmitFetcher.join(profile), "profile");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* errorTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void errorTest()
+    {
+        // The mapped exception of a failed call is rethrown unchanged.
+        var notFound = new TapisImplException("TAPIS_SYSCLIENT_NOT_FOUND archive",
+                                              Status.NOT_FOUND.getStatusCode());
+        var failed = _fetcher.fetch(() -> {throw notFound;});
+        try {SubmitFetcher.join(failed); Assert.fail("Expected exception");}
+        catch (TapisImplException e) {Assert.assertSame(e, notFound);}
+
+        // Unexpected runtime exceptions become internal errors.
+        var npe = new NullPointerException("no system");
+        var broken = _fetcher.fetch(() -> {throw npe;});
+        try {SubmitFetcher.join(broken); Assert.fail("Expected exception");}
+        catch (TapisImplException e) {Assert.assertSame(e.getCause(), npe);}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* orderTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void orderTest()
+    {
+        // Joining in request order reports the first request's failure even
+        // when a later request fails sooner.
+        var release = new CountDownLatch(1);
+        var first  = _fetcher.fetch(() -> {
+            await(release);
+            throw new TapisImplException("first", Status.BAD_REQUEST.getStatusCode());
+        });
+        var second = _fetcher.fetch(() -> {
+            try {throw new TapisImplException("second", Status.BAD_REQUEST.getStatusCode());}
+            finally {release.countDown();}
+        });
+        try {
+            SubmitFetcher.join(first);
+            SubmitFetcher.join(second);
+            Assert.fail("Expected exception");
+        }
+        catch (TapisImplException e) {Assert.assertEquals(e.getMessage(), "first");}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* fakeCall:                                                              */
+    /* ---------------------------------------------------------------------- */
+    private static String fakeCall(CountDownLatch inProgress, String result)
+     throws TapisImplException
+    {
+        inProgress.countDown();
+        await(inProgress);
+        return result;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* await:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    private static void await(CountDownLatch latch) throws TapisImplException
+    {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS))
+                throw new TapisImplException("timed out", Status.INTERNAL_SERVER_ERROR.getStatusCode());
+        }
+        catch (InterruptedException e) {
+            throw new TapisImplException("interrupted", e, Status.INTERNAL_SERVER_ERROR.getStatusCode());
+        }
+    }
+}
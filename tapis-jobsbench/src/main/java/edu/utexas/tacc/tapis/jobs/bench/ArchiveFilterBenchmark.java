@@ -0,0 +1,104 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.utexas.tacc.tapis.jobs.worker.execjob.ArchiveFilterMatcher;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.ArchiveTreeCollapser;
+
+/** Archive filtering of a job output directory listing.  The benchmark does
+ * the work JobFileManager performs for each archived job:  it compiles the
+ * includes and excludes filters, applies them to every file of a depth first
+ * listing and collapses fully archived subtrees into directory transfers as
+ * each subtree is completed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveFilterBenchmark
+{
+    // Number of files in the output directory.
+    @Param({"1000", "20000"})
+    public int fileCount;
+
+    // Typical filters mixing globs and regexes.
+    private static final List<String> INCLUDES =
+        List.of("*.out", "*.err", "results/**", "checkpoints/*.h5", "REGEX:^viz/frames/file\\d+\\.png$");
+    private static final List<String> EXCLUDES =
+        List.of("*.tmp", "scratch/**", "REGEX:.*\\.log$");
+
+    // The listing in the order FilesSubtreeIterator returns it.
+    private List<ListingEvent> _listing;
+
+    @Setup
+    public void setup()
+    {
+        // Group the files by directory.
+        var files = BenchFixtures.makeOutputListing(fileCount);
+        var dirFiles = new HashMap<String,List<String>>();
+        var subdirs = new HashMap<String,List<String>>();
+        for (var dir : BenchFixtures.makeDirectories()) {
+            var relDir = dir.substring(0, dir.length() - 1);
+            subdirs.computeIfAbsent(ArchiveTreeCollapser.parentOf(relDir), k -> new ArrayList<>()).add(relDir);
+        }
+        for (var file : files)
+            dirFiles.computeIfAbsent(ArchiveTreeCollapser.parentOf(file), k -> new ArrayList<>()).add(file);
+
+        // Each directory's files are followed by its subdirectories' subtrees
+        // and then by the directory's completion.
+        _listing = new ArrayList<>(fileCount + subdirs.size() + 1);
+        addSubtree(ArchiveTreeCollapser.ROOT, dirFiles, subdirs);
+    }
+
+    @Benchmark
+    public List<ArchiveTreeCollapser.Entry> applyArchiveFilters()
+    {
+        var matcher = ArchiveFilterMatcher.compile(INCLUDES, EXCLUDES);
+        var entries = new ArrayList<ArchiveTreeCollapser.Entry>();
+        var collapser = new ArchiveTreeCollapser.Incremental(entries::add, 
+                                                             ArchiveTreeCollapser.Incremental.DEFAULT_MAX_PENDING);
+        for (var event : _listing) {
+            if (event.size == null) collapser.completeDirectory(event.path);
+              else collapser.addFile(event.path, event.size, matcher.isArchived(event.path));
+        }
+        collapser.finish();
+        return entries;
+    }
+
+    // Append the depth first listing of a directory.
+    private void addSubtree(String dir, Map<String,List<String>> dirFiles,
+                            Map<String,List<String>> subdirs)
+    {
+        for (var file : dirFiles.getOrDefault(dir, List.of())) 
+            _listing.add(new ListingEvent(file, 1024L * (_listing.size() % 97 + 1)));
+        for (var subdir : subdirs.getOrDefault(dir, List.of())) addSubtree(subdir, dirFiles, subdirs);
+        _listing.add(new ListingEvent(dir, null));
+    }
+
+    /** A listed file or, when size is null, a completed directory. */
+    private static final class ListingEvent
+    {
+        private final String path;
+        private final Long   size;
+
+        private ListingEvent(String path, Long size) {this.path = path; this.size = size;}
+    }
+}
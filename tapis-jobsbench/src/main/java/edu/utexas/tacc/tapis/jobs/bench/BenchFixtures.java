@@ -0,0 +1,219 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import edu.utexas.tacc.tapis.jobs.model.Job;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobType;
+
+/** Synthetic data shaped like what the jobs service handles in production.
+ * All generators are deterministic so that results are comparable between
+ * runs and commits.
+ */
+public final class BenchFixtures
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Seed used by all generators.
+    public static final long SEED = 20240501L;
+
+    // A fixed creation time.
+    public static final Instant CREATED = Instant.parse("2024-05-01T10:00:00Z");
+
+    // A typical job uuid.
+    public static final String JOB_UUID = "9c8f6a6e-7b1e-4e3c-9a1e-9f0b7c6d5e4f-007";
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private BenchFixtures() {}
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* makeMacros:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** The macro table SubmitContext builds for a typical HPC job, including
+     * directory macros that reference other macros. */
+    public static Map<String,String> makeMacros()
+    {
+        var macros = new TreeMap<String,String>();
+        macros.put("JobUUID", JOB_UUID);
+        macros.put("Tenant", "designsafe");
+        macros.put("JobOwner", "testuser2");
+        macros.put("EffectiveUserId", "testuser2");
+        macros.put("AppId", "opensees-mp-s3");
+        macros.put("AppVersion", "3.5.0");
+        macros.put("ExecSystemId", "frontera");
+        macros.put("ArchiveSystemId", "designsafe.storage.default");
+        macros.put("DynamicExecSystem", "false");
+        macros.put("ArchiveOnAppError", "true");
+        macros.put("SysRootDir", "/");
+        macros.put("SysHost", "frontera.tacc.utexas.edu");
+        macros.put("Nodes", "2");
+        macros.put("CoresPerNode", "56");
+        macros.put("MemoryMB", "192000");
+        macros.put("MaxMinutes", "120");
+        macros.put("JobCreateTimestamp", CREATED.toString());
+        macros.put("JobCreateDate", "2024-05-01Z");
+        macros.put("JobCreateTime", "10:00:00Z");
+        macros.put("SysBatchScheduler", "SLURM");
+        macros.put("ExecSystemLogicalQueue", "normal");
+        macros.put("ExecSystemHPCQueue", "normal");
+        macros.put("JobName", "opensees-${JobCreateDate}");
+        macros.put("JobWorkingDir", "/scratch1/01234/${JobOwner}");
+        macros.put("ExecSystemInputDir", "${JobWorkingDir}/tapis/jobs/${JobUUID}");
+        macros.put("ExecSystemExecDir", "${ExecSystemInputDir}");
+        macros.put("ExecSystemOutputDir", "${ExecSystemExecDir}/output");
+        macros.put("ArchiveSystemDir", "/${JobOwner}/tapis-jobs-archive/${JobCreateDate}/${JobName}-${JobUUID}");
+        macros.put("StdoutFilename", "tapisjob.out");
+        macros.put("StderrFilename", "tapisjob.out");
+        return macros;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeMacroTexts:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Directory, environment variable and argument values as they appear in
+     * app definitions and job requests. */
+    public static List<String> makeMacroTexts()
+    {
+        return List.of(
+            "${JobWorkingDir}/tapis/jobs/${JobUUID}",
+            "${ExecSystemOutputDir}",
+            "/${JobOwner}/tapis-jobs-archive/${JobCreateDate}/${JobName}-${JobUUID}",
+            "--input ${ExecSystemInputDir}/model.tcl --cores ${CoresPerNode} --nodes ${Nodes}",
+            "${ArchiveSystemDir}/results",
+            "-A ${Tenant}-alloc -p ${ExecSystemHPCQueue} -t ${MaxMinutes}",
+            "OUTPUT_DIR=${ExecSystemOutputDir}/run1",
+            "plain-argument-without-macros");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeOutputListing:                                                     */
+    /* ---------------------------------------------------------------------- */
+    /** Relative paths in a job output directory: per-rank logs, checkpoint
+     * and result files in nested directories, and scratch files.
+     *
+     * @param count the approximate number of files
+     * @return the relative paths of the files
+     */
+    public static List<String> makeOutputListing(int count)
+    {
+        var rand = new Random(SEED);
+        var suffixes = new String[] {".out", ".err", ".h5", ".dat", ".tmp", ".log", ".png", ".json"};
+        var dirs = new String[] {"", "results/", "results/run1/", "results/run2/", "checkpoints/",
+                                 "scratch/", "scratch/rank0/", "logs/", "viz/frames/"};
+        var files = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            String dir = dirs[rand.nextInt(dirs.length)];
+            String suffix = suffixes[rand.nextInt(suffixes.length)];
+            files.add(dir + "file" + i + suffix);
+        }
+        return files;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeDirectories:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** The directories that contain the files of makeOutputListing(). */
+    public static List<String> makeDirectories()
+    {
+        return List.of("results/", "results/run1/", "results/run2/", "checkpoints/",
+                       "scratch/", "scratch/rank0/", "logs/", "viz/", "viz/frames/");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeJob:                                                               */
+    /* ---------------------------------------------------------------------- */
+    /** A finished job with populated json columns. */
+    public static Job makeJob(int index)
+    {
+        var job = new Job();
+        job.setId(index);
+        job.setUuid(JOB_UUID.substring(0, JOB_UUID.length() - 3) + String.format("%03d", index % 1000));
+        job.setName("opensees-run-" + index);
+        job.setOwner("testuser2");
+        job.setTenant("designsafe");
+        job.setDescription("OpenSees multi-processor run " + index + " submitted from the portal");
+        job.setStatus(JobStatusType.FINISHED);
+        job.setCondition(JobConditionCode.NORMAL_COMPLETION);
+        job.setLastMessage("Job completed successfully.");
+        job.setCreated(CREATED);
+        job.setEnded(CREATED.plusSeconds(3600));
+        job.setLastUpdated(CREATED.plusSeconds(3600));
+        job.setAppId("opensees-mp-s3");
+        job.setAppVersion("3.5.0");
+        job.setJobType(JobType.BATCH);
+        job.setExecSystemId("frontera");
+        job.setExecSystemExecDir("/scratch1/01234/testuser2/tapis/jobs/" + job.getUuid());
+        job.setExecSystemInputDir(job.getExecSystemExecDir());
+        job.setExecSystemOutputDir(job.getExecSystemExecDir() + "/output");
+        job.setExecSystemLogicalQueue("normal");
+        job.setArchiveSystemId("designsafe.storage.default");
+        job.setArchiveSystemDir("/testuser2/tapis-jobs-archive/2024-05-01Z/" + job.getName());
+        job.setNodeCount(2);
+        job.setCoresPerNode(56);
+        job.setMemoryMB(192000);
+        job.setMaxMinutes(120);
+        job.setFileInputs("[{\"name\":\"inputDirectory\",\"sourceUrl\":\"tapis://designsafe.storage.default/testuser2/model\","
+                          + "\"targetPath\":\"model\",\"autoMountLocal\":true,\"notes\":\"{}\"}]");
+        job.setParameterSet("{\"appArgs\":[{\"name\":\"mainScript\",\"arg\":\"model.tcl\",\"include\":true}],"
+                            + "\"envVariables\":[{\"key\":\"OMP_NUM_THREADS\",\"value\":\"1\",\"include\":true}],"
+                            + "\"archiveFilter\":{\"includes\":[],\"excludes\":[\"*.tmp\"],\"includeLaunchFiles\":true},"
+                            + "\"schedulerOptions\":[{\"name\":\"allocation\",\"arg\":\"-A DS-alloc\",\"include\":true}],"
+                            + "\"logConfig\":{\"stdoutFilename\":\"tapisjob.out\",\"stderrFilename\":\"tapisjob.out\"}}");
+        job.setSubscriptions("[]");
+        job.setRemoteJobId(Integer.toString(5000000 + index));
+        job.setRemoteQueue("normal");
+        job.setRemoteSubmitted(CREATED.plusSeconds(60));
+        job.setRemoteStarted(CREATED.plusSeconds(300));
+        job.setRemoteEnded(CREATED.plusSeconds(3500));
+        job.setTapisQueue("tapis.jobq.submit.DefaultQueue");
+        job.setVisible(true);
+        job.setCreatedby("testuser2");
+        job.setCreatedbyTenant("designsafe");
+        job.setTags(new TreeSet<>(List.of("opensees", "portal")));
+        job.setNotes("{\"portal\":\"designsafe\"}");
+        return job;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeJobList:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** A page of job listings as returned by the list and search endpoints. */
+    public static List<JobListDTO> makeJobList(int count)
+    {
+        var list = new ArrayList<JobListDTO>(count);
+        for (int i = 0; i < count; i++) {
+            var job = makeJob(i);
+            var dto = new JobListDTO();
+            dto.setUuid(job.getUuid());
+            dto.setName(job.getName());
+            dto.setOwner(job.getOwner());
+            dto.setTenant(job.getTenant());
+            dto.setStatus(job.getStatus());
+            dto.setCondition(job.getCondition());
+            dto.setCreated(job.getCreated());
+            dto.setEnded(job.getEnded());
+            dto.setLastUpdated(job.getLastUpdated());
+            dto.setAppId(job.getAppId());
+            dto.setAppVersion(job.getAppVersion());
+            dto.setExecSystemId(job.getExecSystemId());
+            dto.setArchiveSystemId(job.getArchiveSystemId());
+            dto.setRemoteStarted(job.getRemoteStarted());
+            list.add(dto);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,53 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+import edu.utexas.tacc.tapis.jobs.statemachine.JobFSMUtils;
+
+/** Transition checks as performed on every job status change.  Each
+ * operation checks every ordered pair of statuses.  The threaded variant
+ * shows the effect of contention between workers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobFSMBenchmark
+{
+    private static final JobStatusType[] STATUSES = JobStatusType.values();
+
+    @Benchmark
+    public void hasTransitionAllPairs(Blackhole bh)
+    {
+        checkAllPairs(bh);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void hasTransitionAllPairs4Threads(Blackhole bh)
+    {
+        checkAllPairs(bh);
+    }
+
+    private static void checkAllPairs(Blackhole bh)
+    {
+        for (var from : STATUSES)
+            for (var to : STATUSES)
+                bh.consume(JobFSMUtils.hasTransition(from, to));
+    }
+}
@@ -0,0 +1,70 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+import edu.utexas.tacc.tapis.jobs.model.Job;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+
+/** Serialization of a job and of a page of job listings with the Gson
+ * configuration used for REST responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobJsonBenchmark
+{
+    // Listing page sizes.
+    @Param({"100", "1000"})
+    public int listSize;
+
+    private Gson             _gson;
+    private Gson             _prettyGson;
+    private Job              _job;
+    private List<JobListDTO> _jobList;
+
+    @Setup
+    public void setup()
+    {
+        _gson = TapisGsonUtils.getGson(false);
+        _prettyGson = TapisGsonUtils.getGson(true);
+        _job = BenchFixtures.makeJob(7);
+        _jobList = BenchFixtures.makeJobList(listSize);
+    }
+
+    @Benchmark
+    public String serializeJob()
+    {
+        return _gson.toJson(_job);
+    }
+
+    @Benchmark
+    public String serializeJobPretty()
+    {
+        return _prettyGson.toJson(_job);
+    }
+
+    @Benchmark
+    public String serializeJobList()
+    {
+        return _gson.toJson(_jobList);
+    }
+}
@@ -0,0 +1,149 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.utexas.tacc.tapis.apps.client.gen.model.AppArgSpec;
+import edu.utexas.tacc.tapis.apps.client.gen.model.ArgInputModeEnum;
+import edu.utexas.tacc.tapis.apps.client.gen.model.KeyValueInputModeEnum;
+import edu.utexas.tacc.tapis.jobs.api.utils.JobParmSetMarshaller;
+import edu.utexas.tacc.tapis.jobs.api.utils.JobParmSetMarshaller.ArgTypeEnum;
+import edu.utexas.tacc.tapis.jobs.model.submit.JobArgSpec;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.model.KeyValuePair;
+
+/** Merging of app, system and request arguments and environment variables
+ * as performed on every job submission.  The merge methods update the request
+ * lists in place, so the inputs are rebuilt for each operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobParmSetMarshallerBenchmark
+{
+    // Number of arguments or variables defined by the app.
+    @Param({"12", "48"})
+    public int appCount;
+
+    @Benchmark
+    public List<JobArgSpec> mergeArgSpecList() throws TapisImplException
+    {
+        var reqList = makeReqArgs(appCount);
+        new JobParmSetMarshaller().mergeArgSpecList(reqList, makeAppArgs(appCount), ArgTypeEnum.APP_ARGS);
+        return reqList;
+    }
+
+    @Benchmark
+    public List<KeyValuePair> mergeEnvVariables() throws TapisImplException
+    {
+        var reqList = makeReqEnv(appCount);
+        new JobParmSetMarshaller().mergeEnvVariables(reqList, makeAppEnv(appCount), makeSysEnv(appCount / 2));
+        return reqList;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    // App arguments cycle through the input modes.
+    private static List<AppArgSpec> makeAppArgs(int count)
+    {
+        var modes = ArgInputModeEnum.values();
+        var list = new ArrayList<AppArgSpec>(count);
+        for (int i = 0; i < count; i++) {
+            var arg = new AppArgSpec();
+            arg.setName("arg" + i);
+            arg.setArg("--option" + i + " value" + i);
+            arg.setDescription("Application argument " + i);
+            arg.setInputMode(modes[i % modes.length]);
+            list.add(arg);
+        }
+        return list;
+    }
+
+    // Request arguments override half the non-fixed app arguments and add anonymous ones.
+    private static List<JobArgSpec> makeReqArgs(int appCount)
+    {
+        var list = new ArrayList<JobArgSpec>();
+        var modes = ArgInputModeEnum.values();
+        for (int i = 0; i < appCount; i += 2) {
+            if (modes[i % modes.length] == ArgInputModeEnum.FIXED) continue;
+            var arg = new JobArgSpec();
+            arg.setName("arg" + i);
+            arg.setArg("--option" + i + " override" + i);
+            arg.setInclude(Boolean.TRUE);
+            list.add(arg);
+        }
+        for (int i = 0; i < 4; i++) {
+            var arg = new JobArgSpec();
+            arg.setArg("extra" + i);
+            list.add(arg);
+        }
+        return list;
+    }
+
+    // App variables cycle through the input modes.
+    private static List<edu.utexas.tacc.tapis.apps.client.gen.model.KeyValuePair> makeAppEnv(int count)
+    {
+        var modes = KeyValueInputModeEnum.values();
+        var list = new ArrayList<edu.utexas.tacc.tapis.apps.client.gen.model.KeyValuePair>(count);
+        for (int i = 0; i < count; i++) {
+            var kv = new edu.utexas.tacc.tapis.apps.client.gen.model.KeyValuePair();
+            kv.setKey("APP_VAR_" + i);
+            kv.setValue("value" + i);
+            kv.setDescription("Application variable " + i);
+            kv.setInputMode(modes[i % modes.length]);
+            list.add(kv);
+        }
+        return list;
+    }
+
+    // System variables don't collide with app variables.
+    private static List<edu.utexas.tacc.tapis.systems.client.gen.model.KeyValuePair> makeSysEnv(int count)
+    {
+        var list = new ArrayList<edu.utexas.tacc.tapis.systems.client.gen.model.KeyValuePair>(count);
+        for (int i = 0; i < count; i++) {
+            var kv = new edu.utexas.tacc.tapis.systems.client.gen.model.KeyValuePair();
+            kv.setKey("SYS_VAR_" + i);
+            kv.setValue("/work/01234/sys" + i);
+            kv.setInputMode(edu.utexas.tacc.tapis.systems.client.gen.model.KeyValueInputModeEnum.INCLUDE_BY_DEFAULT);
+            list.add(kv);
+        }
+        return list;
+    }
+
+    // Request variables override half the non-fixed app variables and add new ones.
+    private static List<KeyValuePair> makeReqEnv(int appCount)
+    {
+        var list = new ArrayList<KeyValuePair>();
+        var modes = KeyValueInputModeEnum.values();
+        for (int i = 0; i < appCount; i += 2) {
+            if (modes[i % modes.length] == KeyValueInputModeEnum.FIXED) continue;
+            var kv = new KeyValuePair();
+            kv.setKey("APP_VAR_" + i);
+            kv.setValue("override" + i);
+            list.add(kv);
+        }
+        for (int i = 0; i < 4; i++) {
+            var kv = new KeyValuePair();
+            kv.setKey("REQ_VAR_" + i);
+            kv.setValue("request" + i);
+            list.add(kv);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.jobs.utils.MacroResolver;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** The iterative macro substitution that MacroResolver used before templates
+ * were compiled.  Each iteration rescans the text and replaces its leftmost
+ * macro.  It is kept here only as the baseline for MacroResolverBenchmark.
+ */
+final class LegacyMacroResolver
+{
+    // Maximum number top level iterations allowed when resolving macros.
+    private static final int MAX_ITERATIONS = 16;
+
+    private final Map<String,String> _macros;
+
+    LegacyMacroResolver(Map<String,String> macros) {_macros = macros;}
+
+    /* ---------------------------------------------------------------------- */
+    /* replaceAllMacros:                                                      */
+    /* ---------------------------------------------------------------------- */
+    String replaceAllMacros(String text) throws TapisException
+    {
+        final String originalText = text;
+        var macrosResolved = new ArrayList<String>();
+        int iterations = 1;
+
+        while (true) {
+            if (iterations > MAX_ITERATIONS) {
+                String msg = MsgUtils.getMsg("JOBS_MACRO_TOO_COMPLEX", originalText, MAX_ITERATIONS);
+                throw new TapisException(msg);
+            }
+
+            macrosResolved.clear();
+            String newText = replaceFirstMacro(text, macrosResolved);
+            if (newText == text) break;
+
+            text = newText;
+            iterations++;
+        }
+
+        return text;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* replaceFirstMacro:                                                     */
+    /* ---------------------------------------------------------------------- */
+    private String replaceFirstMacro(String text, ArrayList<String> macrosResolved)
+     throws TapisException
+    {
+        int mstart = text.indexOf(MacroResolver.MACRO_DELIMITER);
+        if (mstart < 0) return text;
+
+        int mend = text.indexOf("}", mstart);
+        if (mend < 0) {
+            String msg = MsgUtils.getMsg("JOBS_MACRO_ILL_FORMED", text);
+            throw new TapisException(msg);
+        }
+        if (mstart+2 >= mend) {
+            String msg = MsgUtils.getMsg("JOBS_MACRO_EMPTY", text);
+            throw new TapisException(msg);
+        }
+
+        String prefix = text.substring(0, mstart);
+        String macroName = text.substring(mstart+2, mend);
+        String suffix = text.substring(mend+1);
+
+        if (macrosResolved.contains(macroName)) {
+            String flatList = String.join(", ", macrosResolved);
+            String msg = MsgUtils.getMsg("JOBS_MACRO_CYCLE_DETECTED", text, macroName, flatList);
+            throw new TapisException(msg);
+        }
+
+        String mvalue = _macros.get(macroName);
+        if (StringUtils.isBlank(mvalue)) {
+            String msg = MsgUtils.getMsg("JOBS_MACRO_MISSING_VALUE", text, macroName);
+            throw new TapisException(msg);
+        }
+
+        macrosResolved.add(macroName);
+        mvalue = replaceFirstMacro(mvalue, macrosResolved);
+
+        return prefix + mvalue + suffix;
+    }
+}
@@ -0,0 +1,65 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.utexas.tacc.tapis.jobs.utils.MacroResolver;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Macro resolution of the directory, argument and environment variable
+ * values of a typical submission.  The legacy benchmark runs the iterative
+ * algorithm that preceded compiled templates on the same inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MacroResolverBenchmark
+{
+    private Map<String,String>  _macros;
+    private List<String>        _texts;
+    private MacroResolver       _resolver;
+    private LegacyMacroResolver _legacyResolver;
+
+    @Setup
+    public void setup()
+    {
+        _macros = BenchFixtures.makeMacros();
+        _texts = BenchFixtures.makeMacroTexts();
+        _resolver = new MacroResolver(null, _macros);
+        _legacyResolver = new LegacyMacroResolver(_macros);
+    }
+
+    @Benchmark
+    public void resolve(Blackhole bh) throws TapisException
+    {
+        for (var text : _texts) bh.consume(_resolver.resolve(text));
+    }
+
+    @Benchmark
+    public void resolveLegacy(Blackhole bh) throws TapisException
+    {
+        for (var text : _texts) bh.consume(_legacyResolver.replaceAllMacros(text));
+    }
+
+    @Benchmark
+    public void replaceMacros(Blackhole bh)
+    {
+        for (var text : _texts) bh.consume(_resolver.replaceMacros(text));
+    }
+}
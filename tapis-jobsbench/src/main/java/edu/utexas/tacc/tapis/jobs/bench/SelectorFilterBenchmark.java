@@ -0,0 +1,62 @@
+package edu.utexas.tacc.tapis.jobs.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.utexas.tacc.tapis.jobs.exceptions.JobQueueFilterException;
+import edu.utexas.tacc.tapis.jobs.queue.SelectorFilter;
+
+/** Evaluation of job queue selector filters against the properties of a
+ * submission, as done when routing each job to a queue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SelectorFilterBenchmark
+{
+    // Filters of increasing complexity.
+    @Param({"tenant = 'designsafe'",
+            "tenant = 'designsafe' AND execSystemId LIKE 'frontera%' AND nodeCount > 1",
+            "(tenant IN ('designsafe', 'tacc', 'cyverse') AND owner NOT LIKE 'test%') OR "
+            + "(appId = 'opensees-mp-s3' AND maxMinutes BETWEEN 60 AND 240 AND isMpi = TRUE)"})
+    public String filter;
+
+    private Map<String,Object> _properties;
+
+    @Setup
+    public void setup()
+    {
+        _properties = new HashMap<>();
+        _properties.put("tenant", "designsafe");
+        _properties.put("owner", "testuser2");
+        _properties.put("appId", "opensees-mp-s3");
+        _properties.put("appVersion", "3.5.0");
+        _properties.put("execSystemId", "frontera");
+        _properties.put("nodeCount", 2);
+        _properties.put("coresPerNode", 56);
+        _properties.put("maxMinutes", 120);
+        _properties.put("isMpi", Boolean.TRUE);
+    }
+
+    @Benchmark
+    public boolean match() throws JobQueueFilterException
+    {
+        return SelectorFilter.match(filter, _properties);
+    }
+}
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import edu.utexas.tacc.tapis.jobs.model.Job;
 import edu.utexas.tacc.tapis.jobs.worker.execjob.JobExecutionContext;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 
 public abstract class AbstractJobCanceler implements JobCanceler{
 	/* ********************************************************************** */
@@ -31,5 +32,23 @@ public abstract class AbstractJobCanceler implements JobCanceler{
         _job    = jobCtx.getJob();
     }
     
-   
+    /* ********************************************************************** */
+    /*                           Protected Methods                            */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getCancelGroupKey:                                                     */
+    /* ---------------------------------------------------------------------- */
+    /** Cancel commands can be combined by the CancelBatcher only when they run
+     * on the same host under the same account.
+     * 
+     * @param cmdPrefix the cancel command text that precedes the ids
+     * @return the batching key for this job's cancel command
+     * @throws TapisException if the execution system cannot be retrieved
+     */
+    protected String getCancelGroupKey(String cmdPrefix) throws TapisException
+    {
+        var execSystem = _jobCtx.getExecutionSystem();
+        return execSystem.getTenant() + "|" + execSystem.getId() + "|" + execSystem.getHost() + 
+               "|" + execSystem.getEffectiveUserId() + "|" + cmdPrefix;
+    }
 }
@@ -0,0 +1,237 @@
+package edu.utexas.tacc.tapis.jobs.cancellers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Combine the remote cancel commands of jobs running on the same host under
+ * the same account.  When many jobs of a parameter sweep are cancelled, each
+ * job's canceller runs in its own worker thread.  Instead of every thread
+ * issuing its own command, such as "scancel <id>", the first thread to arrive
+ * waits for a short window, collects the ids of the other jobs in its group and
+ * issues a single "scancel id1 id2 ..." command on everyone's behalf.
+ *
+ * Commands that exit with a non-zero code or fail are not trusted for any of
+ * their ids.  Each job in the failed command falls back to running its own
+ * single-id command, so one bad id doesn't prevent the other jobs from being
+ * cancelled.  The same fallback applies when the leader's commands don't
+ * complete in time, so a hung connection doesn't block the waiting jobs
+ * indefinitely.  A window of zero disables batching.
+ */
+public final class CancelBatcher
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(CancelBatcher.class);
+
+    // Default time the first canceller in a group waits for others to join.
+    public static final long DEFAULT_WINDOW_MILLIS = 250;
+
+    // Maximum number of ids placed on a single command line.
+    public static final int DEFAULT_MAX_IDS_PER_COMMAND = 100;
+    
+    // Time allowed for each of the leader's commands before waiting 
+    // members give up and run their own command.
+    public static final long DEFAULT_COMMAND_TIMEOUT_MILLIS = 60000;
+
+    // Shared instance, created on first use.
+    private static CancelBatcher _instance;
+
+    /* ********************************************************************** */
+    /*                               Interfaces                               */
+    /* ********************************************************************** */
+    /** Run a command on the remote system and return its exit code. */
+    @FunctionalInterface
+    public interface CommandRunner
+    {
+        int run(String cmd) throws TapisException;
+    }
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Constructor input.
+    private final long _windowMillis;
+    private final int  _maxIdsPerCommand;
+    private final long _commandTimeoutMillis;
+
+    // Groups still collecting ids, guarded by the map itself.
+    private final HashMap<String,Group> _groups = new HashMap<>();
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public CancelBatcher(long windowMillis, int maxIdsPerCommand, long commandTimeoutMillis)
+    {
+        _windowMillis = windowMillis;
+        _maxIdsPerCommand = Math.max(1, maxIdsPerCommand);
+        _commandTimeoutMillis = Math.max(1, commandTimeoutMillis);
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getInstance:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public static synchronized CancelBatcher getInstance()
+    {
+        if (_instance == null)
+            _instance = new CancelBatcher(RuntimeParameters.getInstance().getCancelBatchMillis(),
+                                          DEFAULT_MAX_IDS_PER_COMMAND,
+                                          DEFAULT_COMMAND_TIMEOUT_MILLIS);
+        return _instance;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* cancel:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Cancel a remote job, possibly as part of a command issued by another
+     * thread.  Callers share a group only if any of their runners can execute
+     * the others' commands, so the group key must identify the execution
+     * system, host and account as well as the command prefix.
+     *
+     * @param groupKey identifies the callers whose ids can be combined
+     * @param cmdPrefix the command text that precedes the space separated ids
+     * @param id the remote id of this caller's job
+     * @param runner executes commands on this caller's connection
+     * @return the exit code of the command that included the id
+     * @throws TapisException if this caller's own command fails
+     */
+    public int cancel(String groupKey, String cmdPrefix, String id, CommandRunner runner)
+     throws TapisException
+    {
+        // Is batching turned off?
+        if (_windowMillis <= 0) return runner.run(cmdPrefix + id);
+
+        // Join an existing group or start a new one.
+        Group group;
+        boolean leader = false;
+        int position;
+        synchronized (_groups) {
+            group = _groups.get(groupKey);
+            if (group == null) {
+                group = new Group();
+                _groups.put(groupKey, group);
+                leader = true;
+            }
+            group._ids.add(id);
+            position = group._ids.size() - 1;
+        }
+
+        // The leader issues the combined commands, everyone else waits until
+        // the command that includes their id should have completed.  Commands
+        // are issued in chunk order, one at a time.
+        Set<String> cancelled;
+        if (leader) cancelled = runGroup(groupKey, cmdPrefix, group, runner);
+          else {
+              long waitMillis = _windowMillis + 
+                                (position / _maxIdsPerCommand + 1) * _commandTimeoutMillis;
+              try {cancelled = group._cancelled.get(waitMillis, TimeUnit.MILLISECONDS);}
+              catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  cancelled = Set.of();
+              }
+              catch (TimeoutException e) {
+                  _log.warn("Batched cancel command did not complete in " + waitMillis + 
+                            " milliseconds, retrying id individually: " + cmdPrefix + id);
+                  cancelled = Set.of();
+              }
+              catch (Exception e) {cancelled = Set.of();}
+          }
+
+        // Fall back to a command of our own if the combined one failed.
+        if (cancelled.contains(id)) return 0;
+        return runner.run(cmdPrefix + id);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* pendingGroups:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** The number of groups still collecting ids. */
+    public int pendingGroups() {synchronized (_groups) {return _groups.size();}}
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* runGroup:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Wait for the window to close, then cancel the group's ids in chunks.
+     * The waiting members are always released, even if the leader fails.
+     *
+     * @return the ids cancelled by commands that exited with code 0
+     */
+    private Set<String> runGroup(String groupKey, String cmdPrefix, Group group,
+                                 CommandRunner runner)
+    {
+        var cancelled = new HashSet<String>();
+        try {
+            // Let the other cancellers join.
+            try {Thread.sleep(_windowMillis);}
+            catch (InterruptedException e) {Thread.currentThread().interrupt();}
+
+            // Close the group so that late arrivals start a new one.
+            List<String> ids;
+            synchronized (_groups) {
+                _groups.remove(groupKey, group);
+                ids = new ArrayList<>(group._ids);
+            }
+
+            // Issue one command for each chunk of ids.
+            for (int i = 0; i < ids.size(); i += _maxIdsPerCommand) {
+                var chunk = ids.subList(i, Math.min(i + _maxIdsPerCommand, ids.size()));
+                String cmd = cmdPrefix + String.join(" ", chunk);
+                try {
+                    int rc = runner.run(cmd);
+                    if (rc == 0) cancelled.addAll(chunk);
+                      else _log.warn("Batched cancel command exited with code " + rc +
+                                     ", retrying " + chunk.size() + " ids individually: " + cmd);
+                }
+                catch (Exception e) {
+                    _log.warn("Batched cancel command failed, retrying " + chunk.size() +
+                              " ids individually: " + cmd, e);
+                }
+            }
+
+            if (_log.isDebugEnabled())
+                _log.debug("Cancelled " + cancelled.size() + " of " + ids.size() +
+                           " jobs in group " + groupKey + ".");
+        }
+        finally {
+            // Make sure a failed leader doesn't strand the group.
+            synchronized (_groups) {_groups.remove(groupKey, group);}
+            group._cancelled.complete(cancelled);
+        }
+        return cancelled;
+    }
+
+    /* ********************************************************************** */
+    /*                             Group Class                                */
+    /* ********************************************************************** */
+    private static final class Group
+    {
+        // The ids to cancel in arrival order, guarded by _groups.
+        private final LinkedHashSet<String> _ids = new LinkedHashSet<>();
+
+        // Completed with the ids cancelled by the leader's commands.
+        private final CompletableFuture<Set<String>> _cancelled = new CompletableFuture<>();
+    }
+}
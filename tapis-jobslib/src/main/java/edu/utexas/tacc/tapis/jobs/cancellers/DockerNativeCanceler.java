@@ -54,10 +54,12 @@ public class DockerNativeCanceler extends AbstractJobCanceler{
         // Get the command text for this job's container.
         String cmd = JobExecutionUtils.getDockerRmCommand(_job.getUuid());
         
-        // Query the container.
+        // Remove the container, possibly together with others on the same host.
         String result = null;
         try {
-            int exitCode = runCmd.execute(cmd);
+            int exitCode = CancelBatcher.getInstance().cancel(
+                               getCancelGroupKey(JobExecutionUtils.DOCKER_RM_PREFIX), 
+                               JobExecutionUtils.DOCKER_RM_PREFIX, _job.getUuid(), runCmd::execute);
             _log.debug("Canceller: removeContainer exitCode = " + exitCode);
             if (exitCode != 0 && _log.isWarnEnabled()) 
                 _log.warn(MsgUtils.getMsg("TAPIS_SSH_CMD_ERROR", cmd, 
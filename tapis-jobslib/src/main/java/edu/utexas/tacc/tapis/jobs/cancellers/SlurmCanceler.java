@@ -61,11 +61,13 @@ public class SlurmCanceler extends AbstractJobCanceler{
     	 // Get the command text to terminate this job's singularity instance.
         String cmd = JobExecutionUtils.SLURM_CANCEL + _job.getRemoteJobId();
         
-        // Stop the instance.
+        // Stop the instance, possibly together with other jobs on the same host.
         String result = null;
         try {
-            int rc = runCmd.execute(cmd);
-            runCmd.logNonZeroExitCode();
+            int rc = CancelBatcher.getInstance().cancel(
+                         getCancelGroupKey(JobExecutionUtils.SLURM_CANCEL), 
+                         JobExecutionUtils.SLURM_CANCEL, _job.getRemoteJobId(), 
+                         c -> {int exitCode = runCmd.execute(c); runCmd.logNonZeroExitCode(); return exitCode;});
             result = runCmd.getOutAsString();
         }
         catch (Exception e) {
@@ -1,6 +1,7 @@
 package edu.utexas.tacc.tapis.jobs.config;
 
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Random;
@@ -11,6 +12,15 @@ import org.slf4j.LoggerFactory;
 
 import com.rabbitmq.client.ConnectionFactory;
 
+import edu.utexas.tacc.tapis.jobs.cancellers.CancelBatcher;
+import edu.utexas.tacc.tapis.jobs.dao.JdbcUrlOptions;
+import edu.utexas.tacc.tapis.jobs.events.JobEventWriter;
+import edu.utexas.tacc.tapis.jobs.selection.ExecSystemLoadCache;
+import edu.utexas.tacc.tapis.jobs.selection.ExecSystemSelectionPolicyFactory;
+import edu.utexas.tacc.tapis.jobs.selection.ExecSystemSelectionPolicyFactory.PolicyType;
+import edu.utexas.tacc.tapis.jobs.stagers.zip.ZipAppCache;
+import edu.utexas.tacc.tapis.jobs.utils.JobOutputListCache;
+import edu.utexas.tacc.tapis.jobs.utils.JobStatusCache;
 import edu.utexas.tacc.tapis.shared.TapisConstants;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.exceptions.runtime.TapisRuntimeException;
@@ -70,6 +80,62 @@ public final class RuntimeParameters
     // DB run migration default
     private static final boolean DEFAULT_RUN_DB_MIGRATION = false;
     
+    // Archive chunking parameter names.  These optional parameters are read
+    // from the service's input properties rather than from shared EnvVars.
+    public static final String PARM_ARCHIVE_CHUNK_MAX_ELEMENTS = "tapis.jobs.archive.chunk.max.elements";
+    public static final String PARM_ARCHIVE_CHUNK_MAX_BYTES    = "tapis.jobs.archive.chunk.max.bytes";
+    public static final String PARM_ARCHIVE_CHUNK_CONCURRENCY  = "tapis.jobs.archive.chunk.concurrency";
+    public static final int    DEFAULT_ARCHIVE_CHUNK_MAX_ELEMENTS = 1000;
+    public static final long   DEFAULT_ARCHIVE_CHUNK_MAX_BYTES    = 64L * 1024 * 1024 * 1024;
+    public static final int    DEFAULT_ARCHIVE_CHUNK_CONCURRENCY  = 4;
+    
+    // ZIP runtime app cache parameter names, also read from input properties.
+    public static final String PARM_ZIP_APP_CACHE_ENABLED = "tapis.jobs.zip.app.cache.enabled";
+    public static final String PARM_ZIP_APP_CACHE_DIR     = "tapis.jobs.zip.app.cache.dir";
+    public static final String PARM_ZIP_APP_CACHE_HTTP_HOSTS = "tapis.jobs.zip.app.cache.http.hosts";
+    public static final String PARM_ZIP_APP_CACHE_LINK    = "tapis.jobs.zip.app.cache.link";
+    
+    // Job event writer parameter names, also read from input properties.
+    public static final String PARM_EVENT_WRITER_ENABLED        = "tapis.jobs.event.writer.enabled";
+    public static final String PARM_EVENT_WRITER_QUEUE_CAPACITY = "tapis.jobs.event.writer.queue.capacity";
+    public static final String PARM_EVENT_WRITER_BATCH_SIZE     = "tapis.jobs.event.writer.batch.size";
+    public static final String PARM_EVENT_WRITER_FLUSH_MILLIS   = "tapis.jobs.event.writer.flush.millis";
+    
+    // PgJDBC statement caching parameter names, also read from input properties.
+    // Negative values leave the driver defaults in effect.
+    public static final String PARM_DB_PREPARE_THRESHOLD   = "tapis.db.prepare.threshold";
+    public static final String PARM_DB_STMT_CACHE_QUERIES  = "tapis.db.prepared.statement.cache.queries";
+    public static final String PARM_DB_STMT_CACHE_SIZE_MIB = "tapis.db.prepared.statement.cache.size.mib";
+    
+    // Database maintenance parameter names, also read from input properties.
+    // Terminal jobs are moved to the jobs_archive table only when the age is positive.
+    public static final String PARM_MAINTENANCE_INTERVAL_MINUTES = "tapis.jobs.maintenance.interval.minutes";
+    public static final String PARM_JOBS_ARCHIVE_AGE_DAYS        = "tapis.jobs.table.archive.age.days";
+    public static final String PARM_JOBS_ARCHIVE_BATCH_SIZE      = "tapis.jobs.table.archive.batch.size";
+    public static final int    DEFAULT_MAINTENANCE_INTERVAL_MINUTES = 60;
+    public static final int    DEFAULT_JOBS_ARCHIVE_BATCH_SIZE      = 1000;
+    
+    // Dynamic execution system selection parameter names, also read from input properties.
+    public static final String PARM_EXEC_SYSTEM_SELECTION_POLICY  = "tapis.jobs.exec.system.selection.policy";
+    public static final String PARM_EXEC_SYSTEM_LOAD_CACHE_MILLIS = "tapis.jobs.exec.system.load.cache.millis";
+    
+    // Lifetime of app and system definitions cached by the jobs api, 0 disables caching.
+    public static final String PARM_DEFINITION_CACHE_SECONDS = "tapis.jobs.api.definition.cache.seconds";
+    public static final int    DEFAULT_DEFINITION_CACHE_SECONDS = 30;
+    
+    // Time a worker waits to combine remote cancel commands, 0 disables batching.
+    public static final String PARM_CANCEL_BATCH_MILLIS = "tapis.jobs.cancel.batch.millis";
+    
+    // Maximum number of job output listings cached by the jobs api, 0 disables caching.
+    public static final String PARM_OUTPUT_LIST_CACHE_SIZE = "tapis.jobs.api.output.list.cache.size";
+    
+    // Smallest api response body that's compressed, a negative value disables compression.
+    public static final String PARM_COMPRESSION_MIN_BYTES = "tapis.jobs.api.compression.min.bytes";
+    public static final int    DEFAULT_COMPRESSION_MIN_BYTES = 1024;
+    
+    // Maximum number of terminal job statuses cached by the jobs api, 0 disables caching.
+    public static final String PARM_STATUS_CACHE_SIZE = "tapis.jobs.api.status.cache.size";
+    
     /* ********************************************************************** */
     /*                                 Fields                                 */
     /* ********************************************************************** */
@@ -101,6 +167,9 @@ public final class RuntimeParameters
 	private String  dbPassword;
 	private String  jdbcURL;
 	private int     dbMeterMinutes;
+	private int     dbPrepareThreshold = JdbcUrlOptions.DEFAULT_PREPARE_THRESHOLD;
+	private int     dbStmtCacheQueries = JdbcUrlOptions.DEFAULT_CACHE_QUERIES;
+	private int     dbStmtCacheSizeMiB = JdbcUrlOptions.DEFAULT_CACHE_SIZE_MIB;
 	
     // RabbitMQ configuration.
     private String  queueAdminUser;
@@ -137,6 +206,47 @@ public final class RuntimeParameters
 	//Allow run db migration
 	private boolean runDBMigration = DEFAULT_RUN_DB_MIGRATION;
 	
+	// Archive transfer chunking.
+	private int     archiveChunkMaxElements = DEFAULT_ARCHIVE_CHUNK_MAX_ELEMENTS;
+	private long    archiveChunkMaxBytes = DEFAULT_ARCHIVE_CHUNK_MAX_BYTES;
+	private int     archiveChunkConcurrency = DEFAULT_ARCHIVE_CHUNK_CONCURRENCY;
+	
+	// ZIP runtime app cache.
+	private boolean zipAppCacheEnabled = false;
+	private String  zipAppCacheDir = ZipAppCache.DEFAULT_CACHE_DIR;
+	private List<String> zipAppCacheHttpHosts = new ArrayList<>();
+	private boolean zipAppCacheLink = true;
+	
+	// Batched job event writer.
+	private boolean eventWriterEnabled = false;
+	private int     eventWriterQueueCapacity = JobEventWriter.DEFAULT_QUEUE_CAPACITY;
+	private int     eventWriterBatchSize = JobEventWriter.DEFAULT_MAX_BATCH_SIZE;
+	private long    eventWriterFlushMillis = JobEventWriter.DEFAULT_FLUSH_INTERVAL_MILLIS;
+	
+	// Database maintenance.
+	private int     maintenanceIntervalMinutes = DEFAULT_MAINTENANCE_INTERVAL_MINUTES;
+	private int     jobsArchiveAgeDays = 0;
+	private int     jobsArchiveBatchSize = DEFAULT_JOBS_ARCHIVE_BATCH_SIZE;
+	
+	// Dynamic execution system selection.
+	private PolicyType execSystemSelectionPolicy = ExecSystemSelectionPolicyFactory.DEFAULT_POLICY;
+	private long       execSystemLoadCacheMillis = ExecSystemLoadCache.DEFAULT_TTL_MILLIS;
+	
+	// Api definition cache.
+	private int     definitionCacheSeconds = DEFAULT_DEFINITION_CACHE_SECONDS;
+	
+	// Remote cancel command batching.
+	private long    cancelBatchMillis = CancelBatcher.DEFAULT_WINDOW_MILLIS;
+	
+	// Api output listing cache.
+	private int     outputListCacheSize = JobOutputListCache.DEFAULT_MAX_ENTRIES;
+	
+	// Api response compression.
+	private int     compressionMinBytes = DEFAULT_COMPRESSION_MIN_BYTES;
+	
+	// Api terminal job status cache.
+	private int     statusCacheSize = JobStatusCache.DEFAULT_MAX_ENTRIES;
+	
 	/* ********************************************************************** */
 	/*                              Constructors                              */
 	/* ********************************************************************** */
@@ -332,6 +442,46 @@ public final class RuntimeParameters
           }
       }
     
+    // Statement caching options added to the jdbc url.
+    parm = inputProperties.getProperty(PARM_DB_PREPARE_THRESHOLD);
+    if (!StringUtils.isBlank(parm))
+      try {setDbPrepareThreshold(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "dbPrepareThreshold",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_DB_STMT_CACHE_QUERIES);
+    if (!StringUtils.isBlank(parm))
+      try {setDbStmtCacheQueries(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "dbStmtCacheQueries",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_DB_STMT_CACHE_SIZE_MIB);
+    if (!StringUtils.isBlank(parm))
+      try {setDbStmtCacheSizeMiB(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "dbStmtCacheSizeMiB",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
     // --------------------- RabbitMQ Parameters ----------------------
     // The broker's administrator credentials used to set up vhost.
     parm = inputProperties.getProperty(EnvVar.TAPIS_QUEUE_ADMIN_USER.getEnvName());
@@ -566,6 +716,282 @@ public final class RuntimeParameters
           }
       }
     
+    // ------------------- Archive Chunking --------------------------
+    // Optional. Large archive requests are split into multiple Files transfer
+    // tasks with at most this many elements and estimated bytes per task.
+    parm = inputProperties.getProperty(PARM_ARCHIVE_CHUNK_MAX_ELEMENTS);
+    if (!StringUtils.isBlank(parm))
+      try {setArchiveChunkMaxElements(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "archiveChunkMaxElements",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_ARCHIVE_CHUNK_MAX_BYTES);
+    if (!StringUtils.isBlank(parm))
+      try {setArchiveChunkMaxBytes(Long.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "archiveChunkMaxBytes",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    // The maximum number of chunk transfers a job runs at once.
+    parm = inputProperties.getProperty(PARM_ARCHIVE_CHUNK_CONCURRENCY);
+    if (!StringUtils.isBlank(parm))
+      try {setArchiveChunkConcurrency(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "archiveChunkConcurrency",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    // ------------------- ZIP App Cache -----------------------------
+    // Optional. When enabled, ZIP runtime app archives are extracted once per
+    // archive version into a cache directory relative to the exec system's
+    // rootDir and linked or copied into each job's exec directory.
+    parm = inputProperties.getProperty(PARM_ZIP_APP_CACHE_ENABLED);
+    if (!StringUtils.isBlank(parm))
+      try {setZipAppCacheEnabled(Boolean.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "zipAppCacheEnabled",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_ZIP_APP_CACHE_DIR);
+    if (!StringUtils.isBlank(parm)) setZipAppCacheDir(parm.strip());
+    
+    // Optional. The comma separated names of the web servers that Jobs may 
+    // query to version http and https app archives.  Archives on other 
+    // servers are not cached since Jobs only contacts hosts that have been 
+    // explicitly trusted.  Tapis urls are always versioned through Files.
+    parm = inputProperties.getProperty(PARM_ZIP_APP_CACHE_HTTP_HOSTS);
+    if (!StringUtils.isBlank(parm)) {
+        var hosts = new ArrayList<String>();
+        for (var host : parm.split(",")) 
+            if (!StringUtils.isBlank(host)) hosts.add(host.strip().toLowerCase());
+        setZipAppCacheHttpHosts(hosts);
+    }
+    
+    // Optional. Whether exec directories are populated from the cache with 
+    // hard links to the read-only cached files (the default) or with writable
+    // copies, for apps that modify their own files in place.
+    parm = inputProperties.getProperty(PARM_ZIP_APP_CACHE_LINK);
+    if (!StringUtils.isBlank(parm))
+      try {setZipAppCacheLink(Boolean.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "zipAppCacheLink",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    // ------------------- Job Event Writer --------------------------
+    // Optional. When enabled, job events are written to the database in
+    // batches on a background thread.  Status events are still durable
+    // before the recording thread continues.
+    parm = inputProperties.getProperty(PARM_EVENT_WRITER_ENABLED);
+    if (!StringUtils.isBlank(parm))
+      try {setEventWriterEnabled(Boolean.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "eventWriterEnabled",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_EVENT_WRITER_QUEUE_CAPACITY);
+    if (!StringUtils.isBlank(parm))
+      try {setEventWriterQueueCapacity(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "eventWriterQueueCapacity",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_EVENT_WRITER_BATCH_SIZE);
+    if (!StringUtils.isBlank(parm))
+      try {setEventWriterBatchSize(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "eventWriterBatchSize",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_EVENT_WRITER_FLUSH_MILLIS);
+    if (!StringUtils.isBlank(parm))
+      try {setEventWriterFlushMillis(Long.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "eventWriterFlushMillis",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_MAINTENANCE_INTERVAL_MINUTES);
+    if (!StringUtils.isBlank(parm))
+      try {setMaintenanceIntervalMinutes(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "maintenanceIntervalMinutes",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_JOBS_ARCHIVE_AGE_DAYS);
+    if (!StringUtils.isBlank(parm))
+      try {setJobsArchiveAgeDays(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "jobsArchiveAgeDays",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_JOBS_ARCHIVE_BATCH_SIZE);
+    if (!StringUtils.isBlank(parm))
+      try {setJobsArchiveBatchSize(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "jobsArchiveBatchSize",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_EXEC_SYSTEM_SELECTION_POLICY);
+    if (!StringUtils.isBlank(parm))
+      try {setExecSystemSelectionPolicy(PolicyType.valueOf(parm.trim().toUpperCase()));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "execSystemSelectionPolicy",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_EXEC_SYSTEM_LOAD_CACHE_MILLIS);
+    if (!StringUtils.isBlank(parm))
+      try {setExecSystemLoadCacheMillis(Long.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "execSystemLoadCacheMillis",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_DEFINITION_CACHE_SECONDS);
+    if (!StringUtils.isBlank(parm))
+      try {setDefinitionCacheSeconds(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "definitionCacheSeconds",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_CANCEL_BATCH_MILLIS);
+    if (!StringUtils.isBlank(parm))
+      try {setCancelBatchMillis(Long.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "cancelBatchMillis",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_OUTPUT_LIST_CACHE_SIZE);
+    if (!StringUtils.isBlank(parm))
+      try {setOutputListCacheSize(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "outputListCacheSize",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_COMPRESSION_MIN_BYTES);
+    if (!StringUtils.isBlank(parm))
+      try {setCompressionMinBytes(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "compressionMinBytes",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
+    
+    parm = inputProperties.getProperty(PARM_STATUS_CACHE_SIZE);
+    if (!StringUtils.isBlank(parm))
+      try {setStatusCacheSize(Integer.valueOf(parm));}
+        catch (Exception e) {
+          // Stop on bad input.
+          String msg = MsgUtils.getMsg("TAPIS_SERVICE_PARM_INITIALIZATION_FAILED",
+                                       TapisConstants.SERVICE_NAME_JOBS,
+                                       "statusCacheSize",
+                                       e.getMessage());
+          _log.error(msg, e);
+          throw new TapisRuntimeException(msg, e);
+        }
 	}
 	
 	/* ---------------------------------------------------------------------- */
@@ -618,6 +1044,12 @@ public final class RuntimeParameters
 	    buf.append(this.getDbConnectionPoolSize());
 	    buf.append("\ntapis.db.meter.minutes: ");
 	    buf.append(this.getDbMeterMinutes());
+	    buf.append("\n" + PARM_DB_PREPARE_THRESHOLD + ": ");
+	    buf.append(this.getDbPrepareThreshold());
+	    buf.append("\n" + PARM_DB_STMT_CACHE_QUERIES + ": ");
+	    buf.append(this.getDbStmtCacheQueries());
+	    buf.append("\n" + PARM_DB_STMT_CACHE_SIZE_MIB + ": ");
+	    buf.append(this.getDbStmtCacheSizeMiB());
 	    
         buf.append("\n------- RabbitMQ Configuration --------------------");
         buf.append("\ntapis.queue.host: ");
@@ -705,6 +1137,54 @@ public final class RuntimeParameters
         buf.append("\n------- Jobs DB run migration ------------------------");
         buf.append("\ntapis.jobs.run.db.migration: ");
 	    buf.append(TapisEnv.getBoolean(EnvVar.TAPIS_JOBS_RUN_DB_MIGRATION));
+	    
+        buf.append("\n------- Archive Chunking --------------------------");
+        buf.append("\n" + PARM_ARCHIVE_CHUNK_MAX_ELEMENTS + ": ");
+        buf.append(this.getArchiveChunkMaxElements());
+        buf.append("\n" + PARM_ARCHIVE_CHUNK_MAX_BYTES + ": ");
+        buf.append(this.getArchiveChunkMaxBytes());
+        buf.append("\n" + PARM_ARCHIVE_CHUNK_CONCURRENCY + ": ");
+        buf.append(this.getArchiveChunkConcurrency());
+	    
+        buf.append("\n------- ZIP App Cache -----------------------------");
+        buf.append("\n" + PARM_ZIP_APP_CACHE_ENABLED + ": ");
+        buf.append(this.isZipAppCacheEnabled());
+        buf.append("\n" + PARM_ZIP_APP_CACHE_DIR + ": ");
+        buf.append(this.getZipAppCacheDir());
+        buf.append("\n" + PARM_ZIP_APP_CACHE_HTTP_HOSTS + ": ");
+        buf.append(String.join(",", this.getZipAppCacheHttpHosts()));
+        buf.append("\n" + PARM_ZIP_APP_CACHE_LINK + ": ");
+        buf.append(this.isZipAppCacheLink());
+	    
+        buf.append("\n------- Job Event Writer --------------------------");
+        buf.append("\n" + PARM_EVENT_WRITER_ENABLED + ": ");
+        buf.append(this.isEventWriterEnabled());
+        buf.append("\n" + PARM_EVENT_WRITER_QUEUE_CAPACITY + ": ");
+        buf.append(this.getEventWriterQueueCapacity());
+        buf.append("\n" + PARM_EVENT_WRITER_BATCH_SIZE + ": ");
+        buf.append(this.getEventWriterBatchSize());
+        buf.append("\n" + PARM_EVENT_WRITER_FLUSH_MILLIS + ": ");
+        buf.append(this.getEventWriterFlushMillis());
+        buf.append("\n" + PARM_MAINTENANCE_INTERVAL_MINUTES + ": ");
+        buf.append(this.getMaintenanceIntervalMinutes());
+        buf.append("\n" + PARM_JOBS_ARCHIVE_AGE_DAYS + ": ");
+        buf.append(this.getJobsArchiveAgeDays());
+        buf.append("\n" + PARM_JOBS_ARCHIVE_BATCH_SIZE + ": ");
+        buf.append(this.getJobsArchiveBatchSize());
+        buf.append("\n" + PARM_EXEC_SYSTEM_SELECTION_POLICY + ": ");
+        buf.append(this.getExecSystemSelectionPolicy().name());
+        buf.append("\n" + PARM_EXEC_SYSTEM_LOAD_CACHE_MILLIS + ": ");
+        buf.append(this.getExecSystemLoadCacheMillis());
+        buf.append("\n" + PARM_DEFINITION_CACHE_SECONDS + ": ");
+        buf.append(this.getDefinitionCacheSeconds());
+        buf.append("\n" + PARM_CANCEL_BATCH_MILLIS + ": ");
+        buf.append(this.getCancelBatchMillis());
+        buf.append("\n" + PARM_OUTPUT_LIST_CACHE_SIZE + ": ");
+        buf.append(this.getOutputListCacheSize());
+        buf.append("\n" + PARM_COMPRESSION_MIN_BYTES + ": ");
+        buf.append(this.getCompressionMinBytes());
+        buf.append("\n" + PARM_STATUS_CACHE_SIZE + ": ");
+        buf.append(this.getStatusCacheSize());
 	}
 	
     /* ********************************************************************** */
@@ -881,6 +1361,30 @@ public final class RuntimeParameters
 	    this.dbMeterMinutes = dbMeterMinutes;
 	}
 
+	public int getDbPrepareThreshold() {
+	    return dbPrepareThreshold;
+	}
+
+	private void setDbPrepareThreshold(int dbPrepareThreshold) {
+	    this.dbPrepareThreshold = dbPrepareThreshold;
+	}
+
+	public int getDbStmtCacheQueries() {
+	    return dbStmtCacheQueries;
+	}
+
+	private void setDbStmtCacheQueries(int dbStmtCacheQueries) {
+	    this.dbStmtCacheQueries = dbStmtCacheQueries;
+	}
+
+	public int getDbStmtCacheSizeMiB() {
+	    return dbStmtCacheSizeMiB;
+	}
+
+	private void setDbStmtCacheSizeMiB(int dbStmtCacheSizeMiB) {
+	    this.dbStmtCacheSizeMiB = dbStmtCacheSizeMiB;
+	}
+
     public String getQueueAdminUser() {
         return queueAdminUser;
     }
@@ -1072,4 +1576,150 @@ public final class RuntimeParameters
 		this.runDBMigration = runDBMigration ;
 	}
 	
+	public int getArchiveChunkMaxElements() {
+		return archiveChunkMaxElements;
+	}
+	public void setArchiveChunkMaxElements(int archiveChunkMaxElements) {
+		this.archiveChunkMaxElements = Math.max(1, archiveChunkMaxElements);
+	}
+	
+	public long getArchiveChunkMaxBytes() {
+		return archiveChunkMaxBytes;
+	}
+	public void setArchiveChunkMaxBytes(long archiveChunkMaxBytes) {
+		this.archiveChunkMaxBytes = archiveChunkMaxBytes;
+	}
+	
+	public int getArchiveChunkConcurrency() {
+		return archiveChunkConcurrency;
+	}
+	public void setArchiveChunkConcurrency(int archiveChunkConcurrency) {
+		this.archiveChunkConcurrency = Math.max(1, archiveChunkConcurrency);
+	}
+	
+	public boolean isZipAppCacheEnabled() {
+		return zipAppCacheEnabled;
+	}
+	public void setZipAppCacheEnabled(boolean zipAppCacheEnabled) {
+		this.zipAppCacheEnabled = zipAppCacheEnabled;
+	}
+	
+	public String getZipAppCacheDir() {
+		return zipAppCacheDir;
+	}
+	public void setZipAppCacheDir(String zipAppCacheDir) {
+		this.zipAppCacheDir = zipAppCacheDir;
+	}
+	
+	public List<String> getZipAppCacheHttpHosts() {
+		return zipAppCacheHttpHosts;
+	}
+	public void setZipAppCacheHttpHosts(List<String> zipAppCacheHttpHosts) {
+		this.zipAppCacheHttpHosts = zipAppCacheHttpHosts;
+	}
+	
+	public boolean isZipAppCacheLink() {
+		return zipAppCacheLink;
+	}
+	public void setZipAppCacheLink(boolean zipAppCacheLink) {
+		this.zipAppCacheLink = zipAppCacheLink;
+	}
+	
+	public boolean isEventWriterEnabled() {
+		return eventWriterEnabled;
+	}
+	public void setEventWriterEnabled(boolean eventWriterEnabled) {
+		this.eventWriterEnabled = eventWriterEnabled;
+	}
+	
+	public int getEventWriterQueueCapacity() {
+		return eventWriterQueueCapacity;
+	}
+	public void setEventWriterQueueCapacity(int eventWriterQueueCapacity) {
+		this.eventWriterQueueCapacity = Math.max(1, eventWriterQueueCapacity);
+	}
+	
+	public int getEventWriterBatchSize() {
+		return eventWriterBatchSize;
+	}
+	public void setEventWriterBatchSize(int eventWriterBatchSize) {
+		this.eventWriterBatchSize = Math.max(1, eventWriterBatchSize);
+	}
+	
+	public long getEventWriterFlushMillis() {
+		return eventWriterFlushMillis;
+	}
+	public void setEventWriterFlushMillis(long eventWriterFlushMillis) {
+		this.eventWriterFlushMillis = Math.max(0, eventWriterFlushMillis);
+	}
+	
+	public int getMaintenanceIntervalMinutes() {
+		return maintenanceIntervalMinutes;
+	}
+	public void setMaintenanceIntervalMinutes(int maintenanceIntervalMinutes) {
+		this.maintenanceIntervalMinutes = Math.max(1, maintenanceIntervalMinutes);
+	}
+	
+	public int getJobsArchiveAgeDays() {
+		return jobsArchiveAgeDays;
+	}
+	public void setJobsArchiveAgeDays(int jobsArchiveAgeDays) {
+		this.jobsArchiveAgeDays = jobsArchiveAgeDays;
+	}
+	
+	public int getJobsArchiveBatchSize() {
+		return jobsArchiveBatchSize;
+	}
+	public void setJobsArchiveBatchSize(int jobsArchiveBatchSize) {
+		this.jobsArchiveBatchSize = Math.max(1, jobsArchiveBatchSize);
+	}
+	
+	public PolicyType getExecSystemSelectionPolicy() {
+		return execSystemSelectionPolicy;
+	}
+	public void setExecSystemSelectionPolicy(PolicyType execSystemSelectionPolicy) {
+		this.execSystemSelectionPolicy = execSystemSelectionPolicy;
+	}
+	
+	public long getExecSystemLoadCacheMillis() {
+		return execSystemLoadCacheMillis;
+	}
+	public void setExecSystemLoadCacheMillis(long execSystemLoadCacheMillis) {
+		this.execSystemLoadCacheMillis = Math.max(0, execSystemLoadCacheMillis);
+	}
+	
+	public int getDefinitionCacheSeconds() {
+		return definitionCacheSeconds;
+	}
+	public void setDefinitionCacheSeconds(int definitionCacheSeconds) {
+		this.definitionCacheSeconds = Math.max(0, definitionCacheSeconds);
+	}
+	
+	public long getCancelBatchMillis() {
+		return cancelBatchMillis;
+	}
+	public void setCancelBatchMillis(long cancelBatchMillis) {
+		this.cancelBatchMillis = Math.max(0, cancelBatchMillis);
+	}
+	
+	public int getOutputListCacheSize() {
+		return outputListCacheSize;
+	}
+	public void setOutputListCacheSize(int outputListCacheSize) {
+		this.outputListCacheSize = Math.max(0, outputListCacheSize);
+	}
+	
+	public int getCompressionMinBytes() {
+		return compressionMinBytes;
+	}
+	public void setCompressionMinBytes(int compressionMinBytes) {
+		this.compressionMinBytes = Math.max(-1, compressionMinBytes);
+	}
+	
+	public int getStatusCacheSize() {
+		return statusCacheSize;
+	}
+	public void setStatusCacheSize(int statusCacheSize) {
+		this.statusCacheSize = Math.max(0, statusCacheSize);
+	}
 }
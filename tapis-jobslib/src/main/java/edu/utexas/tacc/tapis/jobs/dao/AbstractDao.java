@@ -57,10 +57,15 @@ public abstract class AbstractDao
       if (ds == null) {
         try {
           // Get a database connection.
+          // The url carries the driver's statement caching options.
           RuntimeParameters parms = RuntimeParameters.getInstance();
+          String jdbcUrl = JdbcUrlOptions.addStatementCacheOptions(parms.getJdbcURL(),
+                                             parms.getDbPrepareThreshold(),
+                                             parms.getDbStmtCacheQueries(),
+                                             parms.getDbStmtCacheSizeMiB());
           ds = TapisDataSource.getDataSource(parms.getInstanceName(),
                                              parms.getDbConnectionPoolName(), 
-                                             parms.getJdbcURL(),
+                                             jdbcUrl,
                                              parms.getDbUser(), 
                                              parms.getDbPassword(), 
                                              parms.getDbConnectionPoolSize(),
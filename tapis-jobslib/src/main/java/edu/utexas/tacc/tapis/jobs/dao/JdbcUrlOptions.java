@@ -0,0 +1,101 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Add PgJDBC statement caching options to the JDBC url used to create the
+ * connection pool.  The pool is created in shared code that only accepts a
+ * url, so driver properties are passed as url query parameters.  Options that
+ * an administrator already placed on the configured url are never overridden.
+ *
+ * With prepareThreshold set, the driver switches a PreparedStatement to a
+ * named server-side statement after it has been executed that many times.
+ * The per-connection cache keeps those server-side statements across calls
+ * to Connection.prepareStatement(), so the DAOs' prepare-per-call style still
+ * skips parsing and planning on frequently issued queries.
+ */
+public final class JdbcUrlOptions
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // PgJDBC url parameter names.
+    public static final String PREPARE_THRESHOLD   = "prepareThreshold";
+    public static final String CACHE_QUERIES       = "preparedStatementCacheQueries";
+    public static final String CACHE_SIZE_MIB      = "preparedStatementCacheSizeMiB";
+
+    // Defaults used by the jobs service, negative values leave the driver defaults.
+    public static final int DEFAULT_PREPARE_THRESHOLD = 3;
+    public static final int DEFAULT_CACHE_QUERIES     = 512;
+    public static final int DEFAULT_CACHE_SIZE_MIB    = 10;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private JdbcUrlOptions() {}
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* addStatementCacheOptions:                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Append the statement caching parameters to a jdbc url.  Negative values
+     * are skipped, as are parameters that already appear on the url.
+     *
+     * @param jdbcUrl the configured url
+     * @param prepareThreshold executions before server-side prepare, 0 disables
+     * @param cacheQueries maximum statements cached per connection
+     * @param cacheSizeMiB maximum cache size per connection in MiB
+     * @return the url with the additional parameters
+     */
+    public static String addStatementCacheOptions(String jdbcUrl, int prepareThreshold,
+                                                  int cacheQueries, int cacheSizeMiB)
+    {
+        if (jdbcUrl == null) return null;
+
+        var options = new LinkedHashMap<String,Integer>();
+        options.put(PREPARE_THRESHOLD, prepareThreshold);
+        options.put(CACHE_QUERIES, cacheQueries);
+        options.put(CACHE_SIZE_MIB, cacheSizeMiB);
+        return addOptions(jdbcUrl, options);
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* addOptions:                                                            */
+    /* ---------------------------------------------------------------------- */
+    private static String addOptions(String jdbcUrl, Map<String,Integer> options)
+    {
+        // Split off any existing query string.
+        int q = jdbcUrl.indexOf('?');
+        String query = q < 0 ? "" : jdbcUrl.substring(q + 1);
+
+        var buf = new StringBuilder(jdbcUrl);
+        boolean first = q < 0;
+        for (var entry : options.entrySet()) {
+            if (entry.getValue() < 0 || hasParameter(query, entry.getKey())) continue;
+            if (first) buf.append('?');
+              else if (buf.charAt(buf.length() - 1) != '?' && buf.charAt(buf.length() - 1) != '&')
+                  buf.append('&');
+            buf.append(entry.getKey()).append('=').append(entry.getValue());
+            first = false;
+        }
+        return buf.toString();
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* hasParameter:                                                          */
+    /* ---------------------------------------------------------------------- */
+    private static boolean hasParameter(String query, String name)
+    {
+        for (var pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (key.equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+}
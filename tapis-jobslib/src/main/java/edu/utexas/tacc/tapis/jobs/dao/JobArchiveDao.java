@@ -0,0 +1,173 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.jobs.dao.sql.SqlStatements;
+import edu.utexas.tacc.tapis.jobs.exceptions.JobException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** Database maintenance operations that keep the active tables small.  Terminal
+ * jobs are moved from the jobs table into the jobs_archive table and monthly
+ * partitions of the job_events table are created ahead of time.
+ */
+public final class JobArchiveDao
+  extends AbstractDao
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(JobArchiveDao.class);
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** The superclass initializes the datasource.
+     *
+     * @throws TapisException on database errors
+     */
+    public JobArchiveDao() throws TapisException {}
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* archiveTerminalJobs:                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Move up to limit terminal jobs that ended before the cutoff time from
+     * the jobs table to the jobs_archive table in a single transaction.  The
+     * jobs' events and resubmission definitions are not affected.
+     *
+     * @param endedBefore the cutoff time
+     * @param limit the maximum number of jobs moved
+     * @return the number of jobs moved
+     * @throws JobException on error
+     */
+    public int archiveTerminalJobs(Instant endedBefore, int limit)
+     throws JobException
+    {
+        // ------------------------- Check Input -------------------------
+        if (endedBefore == null) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "archiveTerminalJobs", "endedBefore");
+            throw new JobException(msg);
+        }
+
+        // ------------------------- Call SQL ----------------------------
+        int rows;
+        Connection conn = null;
+        try
+        {
+            // Get a database connection.
+            conn = getConnection();
+
+            // Prepare the statement and fill in the placeholders.
+            String sql = SqlStatements.ARCHIVE_TERMINAL_JOBS;
+            PreparedStatement pstmt = conn.prepareStatement(sql);
+            pstmt.setTimestamp(1, Timestamp.from(endedBefore));
+            pstmt.setInt(2, limit);
+
+            // Issue the call and commit the move.
+            rows = pstmt.executeUpdate();
+            pstmt.close();
+            conn.commit();
+        }
+        catch (Exception e)
+        {
+            // Rollback transaction.
+            try {if (conn != null) conn.rollback();}
+                catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+
+            String msg = MsgUtils.getMsg("DB_DAO_ERROR", "moving jobs that ended before " + 
+                                         endedBefore + " to jobs_archive: " + e.getMessage());
+            throw new JobException(msg, e);
+        }
+        finally {
+            // Always return the connection back to the connection pool.
+            if (conn != null)
+                try {conn.close();}
+                  catch (Exception e)
+                  {
+                      // If commit worked, we can swallow the exception.
+                      // If not, the commit exception will be thrown.
+                      String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+                      _log.error(msg, e);
+                  }
+        }
+
+        return rows;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* createEventPartitions:                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Create any missing monthly job_events partitions from the current month
+     * through monthsAhead months in the future.
+     *
+     * @param monthsAhead the number of future months that need partitions
+     * @return the number of partitions created
+     * @throws JobException on error
+     */
+    public int createEventPartitions(int monthsAhead)
+     throws JobException
+    {
+        // ------------------------- Call SQL ----------------------------
+        int created = 0;
+        Connection conn = null;
+        try
+        {
+            // Get a database connection.
+            conn = getConnection();
+
+            // Prepare the statement and fill in the placeholders.
+            String sql = SqlStatements.CREATE_JOB_EVENTS_PARTITIONS;
+            PreparedStatement pstmt = conn.prepareStatement(sql);
+            pstmt.setDate(1, Date.valueOf(LocalDate.now(ZoneOffset.UTC)));
+            pstmt.setInt(2, monthsAhead);
+
+            // The function returns the number of new partitions.
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) created = rs.getInt(1);
+            rs.close();
+            pstmt.close();
+            conn.commit();
+        }
+        catch (Exception e)
+        {
+            // Rollback transaction.
+            try {if (conn != null) conn.rollback();}
+                catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+
+            String msg = MsgUtils.getMsg("DB_DAO_ERROR", "creating job_events partitions: " + 
+                                         e.getMessage());
+            throw new JobException(msg, e);
+        }
+        finally {
+            // Always return the connection back to the connection pool.
+            if (conn != null)
+                try {conn.close();}
+                  catch (Exception e)
+                  {
+                      // If commit worked, we can swallow the exception.
+                      // If not, the commit exception will be thrown.
+                      String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+                      _log.error(msg, e);
+                  }
+        }
+
+        return created;
+    }
+}
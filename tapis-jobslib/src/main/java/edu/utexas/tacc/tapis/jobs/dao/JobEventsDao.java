@@ -3,6 +3,7 @@ package edu.utexas.tacc.tapis.jobs.dao;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -181,45 +182,91 @@ public final class JobEventsDao
       
       return list;
   }
-  
+
   /* ---------------------------------------------------------------------- */
-  /* createEvent:                                                           */
+  /* getJobEventsByJobUuidAfter:                                            */
   /* ---------------------------------------------------------------------- */
-  public void createEvent(JobEvent jobEvent, Connection callerConn)
+  /** Keyset version of getJobEventsByJobUUID() that returns up to limit events
+   * whose ids are greater than afterId.  Unlike offset paging, the cost of a
+   * page doesn't grow with its position in the job's history and pages remain
+   * stable when events are added while a client is paging.
+   *
+   * @param jobUuid the job whose events are returned
+   * @param afterId the id of the last event on the previous page, 0 for the first page
+   * @param limit the maximum number of events to return
+   * @return the events in id order, possibly empty
+   * @throws TapisException on error
+   */
+  public List<JobEvent> getJobEventsByJobUUIDAfter(String jobUuid, long afterId, int limit)
     throws TapisException
   {
-      // ------------------------- Complete Input ----------------------
-      // Fill in Job fields that we assure.
-      if (jobEvent.getCreated() == null) jobEvent.setCreated(Instant.now());
-      
-      // ------------------------- Check Input -------------------------
-      if (StringUtils.isBlank(jobEvent.getJobUuid())) {
-          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "jobUuid");
-          throw new JobException(msg);
-      }
-      if (StringUtils.isBlank(jobEvent.getDescription())) {
-          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "description");
-          throw new JobException(msg);
-      }
-      if (StringUtils.isBlank(jobEvent.getTenant())) {
-          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "tenant");
-          throw new JobException(msg);
-      }
-      if (jobEvent.getEvent() == null) {
-          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "event");
-          throw new JobException(msg);
+      // Initialize result.
+      ArrayList<JobEvent> list = new ArrayList<>();
+
+      // ------------------------- Call SQL ----------------------------
+      Connection conn = null;
+      try
+      {
+          // Get a database connection.
+          conn = getConnection();
+
+          // Get the select command.
+          String sql = SqlStatements.SELECT_JOBEVENTS_BY_JOB_UUID_AFTER_ID;
+
+          // Prepare the statement and fill in the placeholders.
+          PreparedStatement pstmt = conn.prepareStatement(sql);
+          pstmt.setString(1, jobUuid);
+          pstmt.setLong(2, afterId);
+          pstmt.setInt(3, limit);
+
+          // Issue the call for the page of results.
+          ResultSet rs = pstmt.executeQuery();
+          JobEvent obj = populateJobEvents(rs);
+          while (obj != null) {
+            list.add(obj);
+            obj = populateJobEvents(rs);
+          }
+
+          // Close the result and statement.
+          rs.close();
+          pstmt.close();
+
+          // Commit the transaction.
+          conn.commit();
       }
-      if (jobEvent.getEventDetail() == null) {
-          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "eventDetail");
-          throw new JobException(msg);
+      catch (Exception e)
+      {
+          // Rollback transaction.
+          try {if (conn != null) conn.rollback();}
+              catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+
+          String msg = MsgUtils.getMsg("DB_SELECT_UUID_ERROR", "JobEvents", jobUuid, e.getMessage());
+          _log.error(msg, e);
+          throw new TapisException(msg, e);
       }
-      if (jobEvent.getEvent() == JobEventType.JOB_INPUT_TRANSACTION_ID ||
-          jobEvent.getEvent() == JobEventType.JOB_ARCHIVE_TRANSACTION_ID) {
-          if (StringUtils.isBlank(jobEvent.getOthUuid())) {
-              String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "othUuid");
-              throw new JobException(msg);
-          }
+      finally {
+          // Always return the connection back to the connection pool.
+          try {if (conn != null) conn.close();}
+            catch (Exception e)
+            {
+              // If commit worked, we can swallow the exception.
+              // If not, the commit exception will be thrown.
+              String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+              _log.error(msg, e);
+            }
       }
+
+      return list;
+  }
+
+  /* ---------------------------------------------------------------------- */
+  /* createEvent:                                                           */
+  /* ---------------------------------------------------------------------- */
+  public void createEvent(JobEvent jobEvent, Connection callerConn)
+    throws TapisException
+  {
+      // ------------------------- Check Input -------------------------
+      checkEvent(jobEvent);
       
       // ------------------------- Call SQL ----------------------------
       boolean usingCallerConn = callerConn != null;
@@ -276,6 +323,126 @@ public final class JobEventsDao
       }
   }
   
+  /* ---------------------------------------------------------------------- */
+  /* createEvents:                                                          */
+  /* ---------------------------------------------------------------------- */
+  /** Insert multiple events in a single transaction using a JDBC batch.  The
+   * events are inserted in list order so their ids reflect that order.  Either
+   * all events are inserted or none are.
+   * 
+   * @param jobEvents the events to insert
+   * @throws TapisException on error
+   */
+  public void createEvents(List<JobEvent> jobEvents)
+    throws TapisException
+  {
+      // ------------------------- Check Input -------------------------
+      if (jobEvents.isEmpty()) return;
+      for (var jobEvent : jobEvents) checkEvent(jobEvent);
+      
+      // ------------------------- Call SQL ----------------------------
+      Connection conn = null;
+      try
+      {
+        // Get a database connection.
+        conn = getConnection();
+
+        // Prepare the statement once and add each event to the batch.
+        String sql = SqlStatements.CREATE_JOB_EVENT;
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        for (var jobEvent : jobEvents) {
+            pstmt.setString(1, jobEvent.getEvent().name());
+            pstmt.setTimestamp(2, Timestamp.from(jobEvent.getCreated()));
+            pstmt.setString(3, jobEvent.getJobUuid());
+            pstmt.setString(4, jobEvent.getEventDetail());
+            pstmt.setString(5, jobEvent.getOthUuid());  // can be null
+            pstmt.setString(6, jobEvent.getDescription());
+            pstmt.setString(7, jobEvent.getTenant());
+            pstmt.addBatch();
+        }
+        
+        // Issue the call and clean up statement.
+        int[] rows = pstmt.executeBatch();
+        for (int i = 0; i < rows.length; i++) 
+            if (rows[i] != 1 && rows[i] != Statement.SUCCESS_NO_INFO) 
+                _log.warn(MsgUtils.getMsg("DB_INSERT_UNEXPECTED_ROWS", "jobEvents", rows[i], 1));
+        pstmt.close();
+  
+        // Commit the transaction.
+        conn.commit();
+      }
+      catch (Exception e)
+      {
+          // Rollback transaction.
+          try {if (conn != null) conn.rollback();}
+              catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+          
+          var first = jobEvents.get(0);
+          String msg = MsgUtils.getMsg("JOBS_CREATE_JOB_EVENT", first.getEvent().name(), 
+                                       first.getJobUuid(), e.getMessage());
+          throw new JobException(msg, e);
+      }
+      finally {
+          // Always return the connection back to the connection pool.
+          if (conn != null) 
+              try {conn.close();}
+                catch (Exception e) 
+                {
+                    // If commit worked, we can swallow the exception.  
+                    // If not, the commit exception will be thrown.
+                    String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+                    _log.error(msg, e);
+                }
+      }
+  }
+  
+  /* ---------------------------------------------------------------------- */
+  /* checkEvent:                                                            */
+  /* ---------------------------------------------------------------------- */
+  /** Validate an event before it's inserted and assign its creation time if
+   * not already set.  Callers that defer insertion use this method to detect
+   * errors and fix the event's timestamp when the event is recorded.
+   * 
+   * @param jobEvent the event to be inserted
+   * @throws JobException if a required field is missing
+   */
+  public void checkEvent(JobEvent jobEvent)
+    throws JobException
+  {
+      // ------------------------- Complete Input ----------------------
+      // Fill in Job fields that we assure.
+      if (jobEvent.getCreated() == null) jobEvent.setCreated(Instant.now());
+      
+      // ------------------------- Check Input -------------------------
+      if (StringUtils.isBlank(jobEvent.getJobUuid())) {
+          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "jobUuid");
+          throw new JobException(msg);
+      }
+      if (StringUtils.isBlank(jobEvent.getDescription())) {
+          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "description");
+          throw new JobException(msg);
+      }
+      if (StringUtils.isBlank(jobEvent.getTenant())) {
+          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "tenant");
+          throw new JobException(msg);
+      }
+      if (jobEvent.getEvent() == null) {
+          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "event");
+          throw new JobException(msg);
+      }
+      if (jobEvent.getEventDetail() == null) {
+          String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "eventDetail");
+          throw new JobException(msg);
+      }
+      if (jobEvent.getEvent() == JobEventType.JOB_INPUT_TRANSACTION_ID ||
+          jobEvent.getEvent() == JobEventType.JOB_ARCHIVE_TRANSACTION_ID) {
+          if (StringUtils.isBlank(jobEvent.getOthUuid())) {
+              String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "createEvent", "othUuid");
+              throw new JobException(msg);
+          }
+      }
+  }
+  
   /* ********************************************************************** */
   /*                             Private Methods                            */
   /* ********************************************************************** */
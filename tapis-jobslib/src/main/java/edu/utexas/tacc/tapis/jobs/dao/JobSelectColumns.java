@@ -0,0 +1,148 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+import edu.utexas.tacc.tapis.search.SearchUtils;
+
+/** Translate the select list of the job search and list endpoints into the
+ * jobs table columns that need to be retrieved.  The select list contains job
+ * attribute names in camel case plus the allAttributes and summaryAttributes
+ * keywords.  Only the columns needed to produce a response are read, which
+ * avoids retrieving large text columns such as parameter_set, file_inputs,
+ * exec_system_constraints and notes when they are not displayed.
+ */
+public final class JobSelectColumns
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Select list keywords.
+    public static final String ALL_ATTRIBUTES     = "allAttributes";
+    public static final String SUMMARY_ATTRIBUTES = "summaryAttributes";
+
+    // Columns that are always retrieved so that results can be identified.
+    public static final List<String> KEY_COLUMNS = Collections.unmodifiableList(Arrays.asList("uuid"));
+
+    // Columns that populate a JobListDTO, in SqlStatements.SELECT_JOBS_BY_USERNAME order.
+    public static final List<String> SUMMARY_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+        "uuid", "tenant", "name", "owner", "status", "condition", "created", "ended",
+        "last_updated", "app_id", "app_version", "exec_system_id", "archive_system_id",
+        "remote_started"));
+
+    // The kinds of responses a select list can request.
+    public enum SelectMode {SUMMARY, ALL, CUSTOM}
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private JobSelectColumns() {}
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getSelectMode:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** Determine the kind of response requested.  The allAttributes keyword
+     * takes precedence over summaryAttributes, and an empty or null list
+     * requests the summary.
+     *
+     * @param selectList the validated select list
+     * @return the select mode
+     */
+    public static SelectMode getSelectMode(List<String> selectList)
+    {
+        if (selectList == null || selectList.isEmpty()) return SelectMode.SUMMARY;
+        if (selectList.contains(ALL_ATTRIBUTES)) return SelectMode.ALL;
+        if (selectList.contains(SUMMARY_ATTRIBUTES)) return SelectMode.SUMMARY;
+        return SelectMode.CUSTOM;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getColumns:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Get the columns to retrieve for a select list.  Custom lists always
+     * include the key columns first followed by the selected attributes'
+     * columns in the order given, without duplicates.
+     *
+     * @param selectList the validated select list
+     * @return the column names or null if all columns are needed
+     */
+    public static List<String> getColumns(List<String> selectList)
+    {
+        switch (getSelectMode(selectList)) {
+            case ALL:     return null;
+            case SUMMARY: return SUMMARY_COLUMNS;
+            default:
+        }
+
+        var columns = new LinkedHashSet<String>(KEY_COLUMNS);
+        for (var attr : selectList) columns.add(SearchUtils.camelCaseToSnakeCase(attr));
+        return new ArrayList<>(columns);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeSelectClause:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Create the column list of a SELECT statement.
+     *
+     * @param columns column names or null for all columns
+     * @return the comma separated column list or *
+     */
+    public static String makeSelectClause(List<String> columns)
+    {
+        if (columns == null || columns.isEmpty()) return "*";
+        return String.join(", ", columns);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* populateSummary:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** Create a listing DTO from the current row of a result set that contains
+     * at least the SUMMARY_COLUMNS.  Columns are accessed by name so the
+     * select statement's column order doesn't matter.
+     *
+     * @param rs a result set positioned on a row
+     * @return the new DTO
+     * @throws SQLException on access or conversion errors
+     */
+    public static JobListDTO populateSummary(ResultSet rs)
+     throws SQLException
+    {
+        var dto = new JobListDTO();
+        dto.setUuid(rs.getString("uuid"));
+        dto.setTenant(rs.getString("tenant"));
+        dto.setName(rs.getString("name"));
+        dto.setOwner(rs.getString("owner"));
+        dto.setStatus(JobStatusType.valueOf(rs.getString("status")));
+
+        // Null in non-terminal states.
+        String condition = rs.getString("condition");
+        if (condition != null) dto.setCondition(JobConditionCode.valueOf(condition));
+
+        Timestamp ts = rs.getTimestamp("created");
+        if (ts != null) dto.setCreated(ts.toInstant());
+        ts = rs.getTimestamp("ended");
+        if (ts != null) dto.setEnded(ts.toInstant());
+        ts = rs.getTimestamp("last_updated");
+        if (ts != null) dto.setLastUpdated(ts.toInstant());
+
+        dto.setAppId(rs.getString("app_id"));
+        dto.setAppVersion(rs.getString("app_version"));
+        dto.setExecSystemId(rs.getString("exec_system_id"));
+        dto.setArchiveSystemId(rs.getString("archive_system_id"));
+        ts = rs.getTimestamp("remote_started");
+        if (ts != null) dto.setRemoteStarted(ts.toInstant());
+        return dto;
+    }
+}
@@ -8,6 +8,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.Instant;
@@ -26,7 +27,7 @@ import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.OrderField;
 import org.jooq.Result;
-import org.jooq.TableField;
+import org.jooq.SelectFieldOrAsterisk;
 import org.jooq.impl.DSL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +39,7 @@ import edu.utexas.tacc.tapis.jobs.gen.jooq.Tables;
 import edu.utexas.tacc.tapis.jobs.gen.jooq.tables.records.JobsRecord;
 import edu.utexas.tacc.tapis.jobs.model.Job;
 import edu.utexas.tacc.tapis.jobs.model.JobEvent;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobChangesDTO;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobStatusDTO;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
@@ -46,6 +48,7 @@ import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobType;
 import edu.utexas.tacc.tapis.jobs.model.submit.JobSharedAppCtx;
 import edu.utexas.tacc.tapis.jobs.model.submit.JobSharedAppCtx.JobSharedAppCtxEnum;
+import edu.utexas.tacc.tapis.jobs.selection.ExecSystemLoad;
 import edu.utexas.tacc.tapis.jobs.statemachine.JobFSMUtils;
 import edu.utexas.tacc.tapis.search.SearchUtils;
 import edu.utexas.tacc.tapis.search.SearchUtils.SearchOperator;
@@ -133,11 +136,11 @@ public final class JobsDao
 	// Message when creating job.
 	private static final String JOB_CREATE_MSG = "Job created";
 	  
-    // Comma-separated string of non active statuses ready for sql query.
-    private final static String _nonActiveWithPendingJobStatuses = JobStatusType.getNonActiveWithPendingSQLString();
+    // Comma-separated string of active statuses ready for sql query.
+    private final static String _activeWithPendingJobStatuses = JobStatusType.getActiveWithPendingSQLString();
     
-    // Comma-separated string of non active statuses ready for sql query.
-    private final static String _nonActiveWithoutPendingJobStatuses = JobStatusType.getNonActiveWithoutPendingSQLString();
+    // Comma-separated string of active statuses ready for sql query.
+    private final static String _activeWithoutPendingJobStatuses = JobStatusType.getActiveWithoutPendingSQLString();
     
     // Comma-separated string of terminal statuses ready for sql query.
     private final static String _terminalStatuses = JobStatusType.getTerminalSQLString();
@@ -151,8 +154,9 @@ public final class JobsDao
     // Default orderBy field value
     private static final String DEFAULT_ORDER_BY = "lastUpdated";
     
-    // Initialize Jobs Table Map with column name and type;
-    public static final Map<String, String> JOB_REQ_DB_MAP = initializeJobFieldMap();
+    // Jobs table column names and types, verified against the live schema
+    // asynchronously when the first JobsDao is constructed.
+    public static final Map<String, String> JOB_REQ_DB_MAP = JobsTableColumns.COLUMNS;
     
     /* ********************************************************************** */
     /*                                 Enums                                  */
@@ -162,7 +166,8 @@ public final class JobsDao
                                    ArchiveTransferId,   ArchiveCorrelationId,
                                    StageAppTransferId,  StageAppCorrelationId,
                                    DtnInputTransferId,  DtnInputCorrelationId,
-                                   DtnOutputTransferId, DtnOutputCorrelationId}
+                                   DtnOutputTransferId, DtnOutputCorrelationId,
+                                   ArchiveTransferState}
     
 	/* ********************************************************************** */
 	/*                              Constructors                              */
@@ -170,11 +175,16 @@ public final class JobsDao
 	/* ---------------------------------------------------------------------- */
 	/* constructor:                                                           */
 	/* ---------------------------------------------------------------------- */
-	/** The superclass initializes the datasource.
+	/** The superclass initializes the datasource.  The first instance also
+	 * starts a background check of the static jobs column table against the
+	 * live schema.
 	 * 
 	 * @throws TapisException on database errors
 	 */
-	public JobsDao() throws TapisException {}
+	public JobsDao() throws TapisException 
+	{
+	    JobsTableColumns.verifyAsync(() -> getDBJobColumnAndType(JOBS_TABLENAME));
+	}
 	  
 	/* ********************************************************************** */
 	/*                             Public Methods                             */
@@ -306,36 +316,8 @@ public final class JobsDao
 	  	      }
 	  	      
 	          // JobList for specific user.
-	  	      JobListDTO jobListObject ;
 	  	      do {
-                jobListObject = new JobListDTO();
-                jobListObject.setUuid(rs.getString(1));
-                jobListObject.setTenant(tenant);
-                jobListObject.setName(rs.getString(3));
-                jobListObject.setOwner(rs.getString(4));
-                jobListObject.setStatus(JobStatusType.valueOf(rs.getString(5)));
-                var condition = rs.getString(6); // null in non-terminal states
-                if (condition != null) jobListObject.setCondition(JobConditionCode.valueOf(condition));
-                Timestamp ts = rs.getTimestamp(7);
-                if (ts != null) 
-                    jobListObject.setCreated(ts.toInstant());
-                
-                ts = rs.getTimestamp(8);
-                if (ts != null) jobListObject.setEnded(ts.toInstant());
-                
-                ts = rs.getTimestamp(9);
-                if (ts != null) jobListObject.setLastUpdated(ts.toInstant());
-                
-                jobListObject.setAppId(rs.getString(10));
-                jobListObject.setAppVersion(rs.getString(11));
-                jobListObject.setExecSystemId(rs.getString(12));
-                jobListObject.setArchiveSystemId(rs.getString(13));
-                ts = rs.getTimestamp(14);
-                
-                if (ts != null) jobListObject.setRemoteStarted(ts.toInstant());
-                
-                jobList.add(jobListObject);
-                
+                jobList.add(JobSelectColumns.populateSummary(rs));
              } while(rs.next()) ;
                      
               // Close the result and statement.
@@ -369,6 +351,95 @@ public final class JobsDao
 	      return jobList;
 	}
 	
+	/* ---------------------------------------------------------------------- */
+	/* getJobsChangedSince:                                                   */
+	/* ---------------------------------------------------------------------- */
+	/** Select a page of the user's visible jobs whose (change_xid, id) follows
+	 * the watermark, in (change_xid, id) order.  A job's change_xid is the id of
+	 * the transaction that last wrote it.  Jobs written by transactions that may
+	 * still be followed by an earlier commit are not selected; see 
+	 * SELECT_JOBS_CHANGED_SINCE.
+	 * 
+	 * @param tenant the jobs' tenant
+	 * @param owner the jobs' owner
+	 * @param afterXid the watermark's transaction id
+	 * @param afterId the watermark's job id
+	 * @param updatedAfter select only jobs last updated after this instant or null
+	 * @param limit the maximum number of jobs to select
+	 * @return the page and the watermark that follows it
+	 * @throws JobException on error
+	 */
+	public JobChangesDTO getJobsChangedSince(String tenant, String owner, 
+	                                         long afterXid, long afterId,
+	                                         Instant updatedAfter, int limit)
+	 throws JobException
+	{
+	    // Initialize result with the requested watermark.
+	    var changes = new JobChangesDTO();
+	    var jobList = new ArrayList<JobListDTO>();
+	    changes.setJobs(jobList);
+	    changes.setLastXid(afterXid);
+	    changes.setLastId(afterId);
+     
+	    // ------------------------- Call SQL ----------------------------
+	    Connection conn = null;
+	    try
+	    {
+	          // Get a database connection.
+	          conn = getConnection();
+	          
+	          // Prepare the statement and fill in the placeholders.
+	          PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_JOBS_CHANGED_SINCE);
+	          pstmt.setString(1, tenant);
+	          pstmt.setString(2, owner);
+	          pstmt.setLong(3, afterXid);
+	          pstmt.setLong(4, afterId);
+	          if (updatedAfter == null) pstmt.setNull(5, Types.TIMESTAMP);
+	            else pstmt.setTimestamp(5, Timestamp.from(updatedAfter));
+	          pstmt.setBoolean(6, true); //visible is set to true
+	          pstmt.setInt(7, limit);
+	                      
+	          // Issue the call for the page of results and 
+	          // advance the watermark past each job.
+	          ResultSet rs = pstmt.executeQuery();
+	          while (rs.next()) {
+	              var job = JobSelectColumns.populateSummary(rs);
+	              jobList.add(job);
+	              changes.setLastXid(rs.getLong("change_xid"));
+	              changes.setLastId(rs.getLong("id"));
+	          }
+                     
+              // Close the result and statement.
+	          rs.close();
+	          pstmt.close();
+	    
+	          // Commit the transaction.
+	          conn.commit();
+	      }
+	      catch (Exception e)
+	      {
+	          // Rollback transaction.
+	          try {if (conn != null) conn.rollback();}
+	              catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+	          
+	          String msg = MsgUtils.getMsg("JOBS_SEARCHLIST_ERROR", owner, tenant, e);
+	          throw new JobException(msg, e);
+	      }
+	      finally {
+	          // Always return the connection back to the connection pool.
+	          try {if (conn != null) conn.close();}
+	            catch (Exception e) 
+	            {
+	              // If commit worked, we can swallow the exception.  
+	              // If not, the commit exception will be thrown.
+	              String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+	              _log.error(msg, e);
+	            }
+	      }
+	      
+	      return changes;
+	}
+	
 	/* ---------------------------------------------------------------------- */
 	/* getJobsSearchListCountByUsername:                                      */
 	/* ---------------------------------------------------------------------- */
@@ -611,20 +682,8 @@ public final class JobsDao
          }
 	 
       	// Build list of attributes we will be returning.
-        List<TableField> fieldList = new ArrayList<>();
-        fieldList.add(Tables.JOBS.UUID);
-        fieldList.add(Tables.JOBS.TENANT);
-        fieldList.add(Tables.JOBS.NAME);
-        fieldList.add(Tables.JOBS.OWNER);
-        fieldList.add(Tables.JOBS.STATUS);
-        fieldList.add(Tables.JOBS.CREATED);
-        fieldList.add(Tables.JOBS.ENDED);
-        fieldList.add(Tables.JOBS.LAST_UPDATED);
-        fieldList.add(Tables.JOBS.APP_ID);
-        fieldList.add(Tables.JOBS.APP_VERSION);
-        fieldList.add(Tables.JOBS.EXEC_SYSTEM_ID);
-        fieldList.add(Tables.JOBS.ARCHIVE_SYSTEM_ID);
-        fieldList.add(Tables.JOBS.REMOTE_STARTED);
+        // The summary columns populate the listing DTO.
+        List<SelectFieldOrAsterisk> fieldList = getSelectFields(JobSelectColumns.SUMMARY_COLUMNS);
 	    
 	    // ------------------------- Build and execute SQL ----------------------------
 	    Connection conn = null;
@@ -755,20 +814,8 @@ public final class JobsDao
             }
 	 
         // Build list of attributes we will be returning.
-        List<TableField> fieldList = new ArrayList<>();
-        fieldList.add(Tables.JOBS.UUID);
-        fieldList.add(Tables.JOBS.TENANT);
-        fieldList.add(Tables.JOBS.NAME);
-        fieldList.add(Tables.JOBS.OWNER);
-        fieldList.add(Tables.JOBS.STATUS);
-        fieldList.add(Tables.JOBS.CREATED);
-        fieldList.add(Tables.JOBS.ENDED);
-        fieldList.add(Tables.JOBS.LAST_UPDATED);
-        fieldList.add(Tables.JOBS.APP_ID);
-        fieldList.add(Tables.JOBS.APP_VERSION);
-        fieldList.add(Tables.JOBS.EXEC_SYSTEM_ID);
-        fieldList.add(Tables.JOBS.ARCHIVE_SYSTEM_ID);
-        fieldList.add(Tables.JOBS.REMOTE_STARTED);
+        // The summary columns populate the listing DTO.
+        List<SelectFieldOrAsterisk> fieldList = getSelectFields(JobSelectColumns.SUMMARY_COLUMNS);
 	    
 	    // ------------------------- Build and execute SQL ----------------------------
 	    Connection conn = null;
@@ -844,6 +891,24 @@ public final class JobsDao
 	public List<Job> getJobSearchAllAttributesByUsername(String username, String tenant, List<String>searchList, 
 			List<OrderBy> orderByList,Integer limit, Integer skip, boolean shared) 
 	  throws TapisException
+	{
+	    return getJobSearchAllAttributesByUsername(username, tenant, searchList, orderByList, 
+	                                               limit, skip, shared, null);
+	}
+	
+	/* ---------------------------------------------------------------------- */
+	/* getJobSearchAllAttributesByUsername:                                   */
+	/*  selected attributes                                                   */
+	/* ---------------------------------------------------------------------- */
+	/** Retrieve the jobs matching the search list, populating only the fields
+	 * whose columns are listed.  Unlisted fields have their default values.
+	 * 
+	 * @param columns the jobs table columns to retrieve or null for all columns
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public List<Job> getJobSearchAllAttributesByUsername(String username, String tenant, List<String>searchList, 
+			List<OrderBy> orderByList,Integer limit, Integer skip, boolean shared, List<String> columns) 
+	  throws TapisException
 	{
 	    // Initialize result.
 	    ArrayList<Job> jobs = new ArrayList<>();
@@ -906,7 +971,7 @@ public final class JobsDao
 	          // NOTE: LIMIT + OFFSET is not standard among DBs and often very difficult to get right.
 	          //       Jooq claims to handle it well.
 	          Result<JobsRecord> results;
-	          org.jooq.SelectConditionStep condStep = db.select(DSL.asterisk()).from(Tables.JOBS).where(whereCondition);
+	          org.jooq.SelectConditionStep condStep = db.select(getSelectFields(columns)).from(Tables.JOBS).where(whereCondition);
 	          if(orderByList != null && limit >= 0) {
 	        	  results = condStep.orderBy(orderList).limit(limit).offset(skip).fetchInto(Tables.JOBS);  
 	          } else if (limit >= 0) {
@@ -963,6 +1028,24 @@ public final class JobsDao
 	public List<Job> getJobSearchAllAttributesByUsernameUsingSqlSearchStr(String username, String tenant, ASTNode searchAST, 
 			List<OrderBy> orderByList,Integer limit, Integer skip, boolean shared) 
 	  throws TapisException
+	{
+	    return getJobSearchAllAttributesByUsernameUsingSqlSearchStr(username, tenant, searchAST, orderByList, 
+	                                                                limit, skip, shared, null);
+	}
+	
+	/* ---------------------------------------------------------------------- */
+	/* getJobSearchAllAttributesByUsernameUsingSqlSearchStr:                  */
+	/*  selected attributes                                                   */
+	/* ---------------------------------------------------------------------- */
+	/** Retrieve the jobs matching the search expression, populating only the 
+	 * fields whose columns are listed.  Unlisted fields have their default values.
+	 * 
+	 * @param columns the jobs table columns to retrieve or null for all columns
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public List<Job> getJobSearchAllAttributesByUsernameUsingSqlSearchStr(String username, String tenant, ASTNode searchAST, 
+			List<OrderBy> orderByList,Integer limit, Integer skip, boolean shared, List<String> columns) 
+	  throws TapisException
 	{
 	    // Initialize result.
 	    ArrayList<Job> jobs = new ArrayList<>();
@@ -1029,7 +1112,7 @@ public final class JobsDao
 	          // NOTE: LIMIT + OFFSET is not standard among DBs and often very difficult to get right.
 	          //       Jooq claims to handle it well.
 	          Result<JobsRecord> results;
-	          org.jooq.SelectConditionStep condStep = db.select(DSL.asterisk()).from(Tables.JOBS).where(whereCondition);
+	          org.jooq.SelectConditionStep condStep = db.select(getSelectFields(columns)).from(Tables.JOBS).where(whereCondition);
 	          if(orderByList != null && limit >= 0) {
 	        	  results = condStep.orderBy(orderList).limit(limit).offset(skip).fetchInto(Tables.JOBS);  
 	          } else if (limit >= 0) {
@@ -1105,6 +1188,9 @@ public final class JobsDao
      * then the TapisNotFoundException exception is thrown.  If the flag is false
      * and the job is not found, null is returned.
      * 
+     * Jobs not found in the jobs table are looked up in the jobs_archive table,
+     * which contains terminal jobs moved there by the maintenance task.
+     * 
      * @param uuid the job to retrieve
      * @param throwNotFound on not found condition, true means throw exception, 
      *                      false means return null
@@ -1145,6 +1231,16 @@ public final class JobsDao
 	          // Close the result and statement.
 	          rs.close();
 	          pstmt.close();
+	          
+	          // Old terminal jobs may have been moved to the archive table.
+	          if (result == null) {
+	              pstmt = conn.prepareStatement(SqlStatements.SELECT_JOBS_ARCHIVE_BY_UUID);
+	              pstmt.setString(1, uuid);
+	              rs = pstmt.executeQuery();
+	              result = populateJob(rs);
+	              rs.close();
+	              pstmt.close();
+	          }
 	    
 	          // Commit the transaction.
 	          conn.commit();
@@ -1179,6 +1275,85 @@ public final class JobsDao
 	    return result;
 	}
 
+	/* ---------------------------------------------------------------------- */  
+	/* getJobsByUUIDs:                                                        */
+	/* ---------------------------------------------------------------------- */
+    /** Get the specified jobs in a single round trip.  The uuids are bound as
+     * one text array parameter so the statement text is the same no matter how 
+     * many jobs are requested, which lets the driver's prepared statement cache 
+     * reuse it.  Jobs that don't exist are not included in the result.
+     * 
+     * @param uuids the jobs to retrieve
+     * @return the jobs found in id order, possibly empty
+     * @throws JobException on error
+     */
+	public List<Job> getJobsByUUIDs(List<String> uuids) 
+	  throws JobException
+	{
+	    // ------------------------- Check Input -------------------------
+	    if (uuids == null) {
+	        String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobsByUUIDs", "uuids");
+	        throw new JobException(msg);
+	    }
+	      
+	    // Initialize result.
+	    ArrayList<Job> list = new ArrayList<>(uuids.size());
+	    if (uuids.isEmpty()) return list;
+
+	    // ------------------------- Call SQL ----------------------------
+	    Connection conn = null;
+	    try
+	      {
+	          // Get a database connection.
+	          conn = getConnection();
+	          
+	          // Get the select command.
+	          String sql = SqlStatements.SELECT_JOBS_BY_UUIDS;
+	          
+	          // Prepare the statement and fill in the placeholders.
+	          PreparedStatement pstmt = conn.prepareStatement(sql);
+	          pstmt.setArray(1, conn.createArrayOf("text", uuids.toArray(new String[0])));
+	                      
+	          // Issue the call for the multi-row result set.
+	          ResultSet rs = pstmt.executeQuery();
+	          Job obj = populateJob(rs);
+	          while (obj != null) {
+	            list.add(obj);
+	            obj = populateJob(rs);
+	          }
+	          
+	          // Close the result and statement.
+	          rs.close();
+	          pstmt.close();
+	    
+	          // Commit the transaction.
+	          conn.commit();
+	      }
+	      catch (Exception e)
+	      {
+	          // Rollback transaction.
+	          try {if (conn != null) conn.rollback();}
+	              catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+	          
+	          String msg = MsgUtils.getMsg("DB_SELECT_UUID_ERROR", "Jobs", 
+	                                       StringUtils.join(uuids, ","), e.getMessage());
+	          throw new JobException(msg, e);
+	      }
+	      finally {
+	          // Always return the connection back to the connection pool.
+	          try {if (conn != null) conn.close();}
+	            catch (Exception e) 
+	            {
+	              // If commit worked, we can swallow the exception.  
+	              // If not, the commit exception will be thrown.
+	              String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+	              _log.error(msg, e);
+	            }
+	      }
+	      
+	    return list;
+	}
+
 	/* ---------------------------------------------------------------------- */  
 	/* getJobStatusByUUID:                                                    */
 	/* ---------------------------------------------------------------------- */
@@ -1205,8 +1380,10 @@ public final class JobsDao
 	          String sql = SqlStatements.SELECT_JOBS_STATUS_INFO_BY_UUID;
 	          
 	          // Prepare the statement and fill in the placeholders.
+	          // The second placeholder selects from the archive table.
 	          PreparedStatement pstmt = conn.prepareStatement(sql);
 	          pstmt.setString(1, uuid);
+	          pstmt.setString(2, uuid);
 	                      
 	          // Issue the call for the 1 row result set.
 	          ResultSet rs = pstmt.executeQuery();
@@ -1236,6 +1413,8 @@ public final class JobsDao
 	          jobStatus.setCreatedBy(rs.getString(7));
 	          jobStatus.setVisible(rs.getBoolean(8));
 	          jobStatus.setCreatedByTenant(rs.getString(9));
+	          Timestamp lastUpdated = rs.getTimestamp(10);
+	          if (lastUpdated != null) jobStatus.setLastUpdated(lastUpdated.toInstant());
 	          
 	          // Close the result and statement.
 	          rs.close();
@@ -1732,6 +1911,291 @@ public final class JobsDao
         return now;
     }
     
+    /* ---------------------------------------------------------------------- */
+    /* setStatusBatch:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Set the status of a group of jobs in one transaction.  The jobs' rows
+     * are selected and locked with a single array-parameter query and the 
+     * updates for all jobs are sent as JDBC batches, so the number of round 
+     * trips doesn't grow with the number of jobs.  
+     * 
+     * Each job is subject to the same transition checking, timestamp updates
+     * and status event recording as in setStatus().  Jobs that don't exist in 
+     * the tenant or that cannot legally transition to the new status are 
+     * skipped and not returned.  A database error rolls back all updates.
+     * 
+     * The condition code is assigned to jobs that transition to a terminal 
+     * state; when null, the default condition for the new status is used.
+     * 
+     * @param tenant the jobs' tenant
+     * @param uuids the jobs whose status is to change
+     * @param newStatus the jobs' new status
+     * @param message the status message to be saved in the job records or null
+     * @param cond the condition code to be assigned to terminated jobs or null
+     * @return the updated jobs
+     * @throws JobException if the statuses could not be updated
+     */
+    public List<Job> setStatusBatch(String tenant, List<String> uuids, JobStatusType newStatus,
+                                    String message, JobConditionCode cond)
+     throws JobException
+    {
+        // ------------------------- Check Input -------------------------
+        if (StringUtils.isBlank(tenant)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "setStatusBatch", "tenant");
+            throw new JobException(msg);
+        }
+        if (uuids == null) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "setStatusBatch", "uuids");
+            throw new JobException(msg);
+        }
+        if (newStatus == null) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "setStatusBatch", "newStatus");
+            throw new JobException(msg);
+        }
+        
+        // Initialize result.
+        var updated = new ArrayList<Job>(uuids.size());
+        if (uuids.isEmpty()) return updated;
+        
+        // Assign standard status message if none is provided and truncate
+        // the message if it's longer than the database field length.
+        if (StringUtils.isBlank(message)) 
+            message = "Setting job status to " + newStatus.name() + ".";
+        if (message.length() > Job.MAX_LAST_MESSAGE_LEN) 
+            message = message.substring(0, Job.MAX_LAST_MESSAGE_LEN - 1);
+        
+        // All jobs get the same update time.
+        Instant updateTime = Instant.now();
+        Timestamp ts = Timestamp.from(updateTime);
+        
+        // ------------------------- Call SQL ----------------------------
+        Connection conn = null;
+        try
+        {
+            // Get a database connection.
+            conn = getConnection();
+            
+            // --------- Get and lock current jobs
+            String sql = SqlStatements.SELECT_JOBS_BY_UUIDS_FOR_UPDATE;
+            PreparedStatement pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, tenant);
+            pstmt.setArray(2, conn.createArrayOf("text", uuids.toArray(new String[0])));
+            
+            // Keep the jobs that can legally transition with their current status.
+            var curStatuses = new ArrayList<JobStatusType>(uuids.size());
+            ResultSet rs = pstmt.executeQuery();
+            Job job = populateJob(rs);
+            while (job != null) {
+                JobStatusType curStatus = job.getStatus();
+                if (JobFSMUtils.hasTransition(curStatus, newStatus)) {
+                    updated.add(job);
+                    curStatuses.add(curStatus);
+                } 
+                else if (_log.isDebugEnabled()) 
+                    _log.debug(MsgUtils.getMsg("JOBS_STATE_NO_TRANSITION", job.getUuid(), 
+                                               curStatus.name(), newStatus.name()));
+                job = populateJob(rs);
+            }
+            rs.close();
+            pstmt.close();
+            
+            // --------- Set new statuses
+            sql = SqlStatements.UPDATE_JOB_STATUS;
+            pstmt = conn.prepareStatement(sql);
+            for (int i = 0; i < updated.size(); i++) {
+                job = updated.get(i);
+                pstmt.setString(1, newStatus.name());
+                pstmt.setString(2, message);
+                pstmt.setTimestamp(3, ts);
+                pstmt.setInt(4, getBlockedIncrement(curStatuses.get(i), newStatus));
+                pstmt.setString(5, job.getTenant());
+                pstmt.setString(6, job.getUuid());
+                pstmt.addBatch();
+            }
+            
+            // Issue the batch and check that each job was updated.
+            int[] counts = pstmt.executeBatch();
+            for (int i = 0; i < counts.length; i++) 
+                if (counts[i] != 1 && counts[i] != Statement.SUCCESS_NO_INFO) {
+                    String parms = StringUtils.joinWith(", ", newStatus.name(), message, ts, 
+                                                        tenant, updated.get(i).getUuid());
+                    String msg = MsgUtils.getMsg("DB_UPDATE_UNEXPECTED_ROWS", 1, counts[i], sql, parms);
+                    _log.error(msg);
+                    throw new JobException(msg);
+                }
+            pstmt.close();
+            
+            // --------- Set transition timestamps
+            // The same timestamp updates as setStatus() issued as batches.
+            if (newStatus == JobStatusType.RUNNING) 
+                executeUuidBatch(conn, SqlStatements.UPDATE_REMOTE_STARTED, ts, null, updated);
+            else if (newStatus.isTerminal()) {
+                for (var j : updated) {
+                    if (cond != null) j.setCondition(cond);
+                    assignEndedCondition(j, newStatus);
+                }
+                executeUuidBatch(conn, SqlStatements.UPDATE_JOB_ENDED, ts, newStatus, updated);
+            }
+            else if (newStatus == JobStatusType.QUEUED) {
+                var submitted = new ArrayList<Job>();
+                for (int i = 0; i < updated.size(); i++)
+                    if (curStatuses.get(i) == JobStatusType.SUBMITTING_JOB) 
+                        submitted.add(updated.get(i));
+                executeUuidBatch(conn, SqlStatements.UPDATE_REMOTE_SUBMITTED, ts, null, submitted);
+            }
+            
+            // Write the event table and optionally send notifications (asynchronously).
+            var eventMgr = JobEventManager.getInstance();
+            for (int i = 0; i < updated.size(); i++)
+                eventMgr.recordStatusEvent(updated.get(i), newStatus, curStatuses.get(i), conn);
+            
+            // Commit the transaction.
+            conn.commit();
+            
+            // Update the in-memory job objects.
+            for (int i = 0; i < updated.size(); i++) {
+                job = updated.get(i);
+                job.setStatus(newStatus);
+                job.setLastMessage(message);
+                job.setLastUpdated(updateTime);
+                job.setBlockedCount(job.getBlockedCount() + 
+                                    getBlockedIncrement(curStatuses.get(i), newStatus));
+                if (newStatus == JobStatusType.RUNNING && job.getRemoteStarted() == null) 
+                    job.setRemoteStarted(updateTime);
+                else if (newStatus.isTerminal() && job.getEnded() == null) 
+                    job.setEnded(updateTime);
+                else if (newStatus == JobStatusType.QUEUED && job.getRemoteSubmitted() == null &&
+                         curStatuses.get(i) == JobStatusType.SUBMITTING_JOB)
+                    job.setRemoteSubmitted(updateTime);
+            }
+        }
+        catch (Exception e)
+        {
+            // Rollback transaction.
+            try {if (conn != null) conn.rollback();}
+                catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+            
+            String msg = MsgUtils.getMsg("DB_SELECT_UUID_ERROR", "Jobs", 
+                                         StringUtils.join(uuids, ","), e.getMessage());
+            throw new JobException(msg, e);
+        }
+        finally {
+            // Always return the connection back to the connection pool.
+            if (conn != null) 
+                try {conn.close();}
+                  catch (Exception e) 
+                  {
+                      // If commit worked, we can swallow the exception.  
+                      // If not, the commit exception will be thrown.
+                      String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+                      _log.error(msg, e);
+                  }
+        }
+        
+        return updated;
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* cancelPendingJob:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Cancel a job that no worker has started to process.  The job's status is
+     * changed to CANCELLED with a single conditional update that only succeeds 
+     * if the job is still PENDING in the database.  Workers leave the PENDING 
+     * state through setStatus(), which locks the job's row, so either this 
+     * update or the worker's transition takes effect, never both.  A worker that
+     * loses the race fails to change the job's status and discards the job.
+     * 
+     * When the job is cancelled, the ended time and condition are set and the 
+     * status event is recorded in the same transaction, just as in setStatus().
+     * The in-memory job is updated to reflect the changes.
+     * 
+     * @param job the job to cancel
+     * @param message the status message to be saved in the job record or null
+     * @return true if the job was cancelled, false if it was no longer pending
+     * @throws JobException if the database could not be updated
+     */
+    public boolean cancelPendingJob(Job job, String message)
+     throws JobException
+    {
+        // ------------------------- Check Input -------------------------
+        if (job == null) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "cancelPendingJob", "job");
+            throw new JobException(msg);
+        }
+        
+        // Assign standard status message if none is provided and truncate
+        // the message if it's longer than the database field length.
+        final JobStatusType newStatus = JobStatusType.CANCELLED;
+        if (StringUtils.isBlank(message)) 
+            message = "Setting job status to " + newStatus.name() + ".";
+        if (message.length() > Job.MAX_LAST_MESSAGE_LEN) 
+            message = message.substring(0, Job.MAX_LAST_MESSAGE_LEN - 1);
+        
+        // The job's update time.
+        Instant updateTime = Instant.now();
+        Timestamp ts = Timestamp.from(updateTime);
+        
+        // ------------------------- Call SQL ----------------------------
+        Connection conn = null;
+        try
+        {
+            // Get a database connection.
+            conn = getConnection();
+            
+            // Cancel the job only if it's still pending.
+            String sql = SqlStatements.CANCEL_PENDING_JOB;
+            PreparedStatement pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, message);
+            pstmt.setTimestamp(2, ts);
+            pstmt.setString(3, job.getTenant());
+            pstmt.setString(4, job.getUuid());
+            int rows = pstmt.executeUpdate();
+            pstmt.close();
+            
+            // A worker has already moved the job along or the job has ended.
+            if (rows == 0) {
+                conn.rollback();
+                return false;
+            }
+            
+            // Set the ended time and condition, and record the status event.
+            updateEnded(conn, job, ts, newStatus);
+            JobEventManager.getInstance().recordStatusEvent(job, newStatus, JobStatusType.PENDING, conn);
+            
+            // Commit the transaction.
+            conn.commit();
+            
+            // Update the in-memory job object.
+            job.setStatus(newStatus);
+            job.setLastMessage(message);
+            job.setLastUpdated(updateTime);
+        }
+        catch (Exception e)
+        {
+            // Rollback transaction.
+            try {if (conn != null) conn.rollback();}
+                catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+            
+            String msg = MsgUtils.getMsg("JOBS_JOB_SELECT_UUID_ERROR", job.getUuid(), 
+                                         job.getTenant(), job.getOwner(), e.getMessage());
+            throw new JobException(msg, e);
+        }
+        finally {
+            // Always return the connection back to the connection pool.
+            if (conn != null) 
+                try {conn.close();}
+                  catch (Exception e) 
+                  {
+                      // If commit worked, we can swallow the exception.  
+                      // If not, the commit exception will be thrown.
+                      String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+                      _log.error(msg, e);
+                  }
+        }
+        
+        return true;
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* updateInputTransferTag:                                                */
     /* ---------------------------------------------------------------------- */
@@ -1771,6 +2235,7 @@ public final class JobsDao
               case DtnInputCorrelationId  -> SqlStatements.UPDATE_DTN_IN_CORR_ID;
               case DtnOutputTransferId    -> SqlStatements.UPDATE_DTN_OUT_TRANSFER_ID;
               case DtnOutputCorrelationId -> SqlStatements.UPDATE_DTN_OUT_CORR_ID;
+              case ArchiveTransferState   -> SqlStatements.UPDATE_ARCHIVE_TRANSFER_STATE;
           };
           
           // Prepare the chosen statement.
@@ -1958,6 +2423,95 @@ public final class JobsDao
         }
     }
     
+    /* ---------------------------------------------------------------------- */
+    /* getActiveSystemLoad:                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Retrieve the number of active jobs on every execution system in a tenant
+     * along with the number of those jobs owned by the specified user.  Pending
+     * jobs are not considered active, which is consistent with quota checking.
+     * Systems without active jobs do not appear in the result.
+     * 
+     * @param tenantId the non-null tenant id
+     * @param owner the non-null job owner
+     * @return the load on each system with active jobs
+     * @throws JobException on error
+     */
+    public ExecSystemLoad getActiveSystemLoad(String tenantId, String owner) 
+     throws JobException
+    {
+        // ------------------------- Check Input -------------------------
+        if (StringUtils.isBlank(tenantId)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getActiveSystemLoad", "tenantId");
+            _log.error(msg);
+            throw new JobException(msg);
+        }
+        if (StringUtils.isBlank(owner)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getActiveSystemLoad", "owner");
+            _log.error(msg);
+            throw new JobException(msg);
+        }
+        
+        // The results.
+        var systemJobs = new HashMap<String,Integer>();
+        var userJobs   = new HashMap<String,Integer>();
+        
+        // ------------------------- Call SQL ----------------------------
+        Connection conn = null;
+        try
+        {
+            // Get a database connection.
+            conn = getConnection();
+            
+            // Prepare the statement and fill in the placeholders.
+            String sql = SqlStatements.COUNT_ACTIVE_JOBS_BY_SYSTEM.replace(":statusList", 
+                                                                           _activeWithoutPendingJobStatuses);
+            PreparedStatement pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, owner);
+            pstmt.setString(2, tenantId);
+                        
+            // Issue the call and collect one row per system.
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                String systemId = rs.getString(1);
+                systemJobs.put(systemId, rs.getInt(2));
+                int count = rs.getInt(3);
+                if (count > 0) userJobs.put(systemId, count);
+            }
+            
+            // Close the result and statement.
+            rs.close();
+            pstmt.close();
+      
+            // Commit the transaction.
+            conn.commit();
+        }
+        catch (Exception e)
+        {
+            // Rollback transaction.
+            try {if (conn != null) conn.rollback();}
+                catch (Exception e1){_log.error(MsgUtils.getMsg("DB_FAILED_ROLLBACK"), e1);}
+            
+            String msg = MsgUtils.getMsg("JOBS_COUNT_ACTIVE_SYSTEM_JOBS", tenantId, "*", 
+                                         owner, "*", e.getMessage());
+            _log.error(msg, e);
+            throw new JobException(msg, e);
+        }
+        finally {
+            // Always return the connection back to the connection pool.
+            if (conn != null) 
+                try {conn.close();}
+                  catch (Exception e) 
+                  {
+                      // If commit worked, we can swallow the exception.  
+                      // If not, the commit exception will be thrown.
+                      String msg = MsgUtils.getMsg("DB_FAILED_CONNECTION_CLOSE");
+                      _log.error(msg, e);
+                  }
+        }
+        
+        return new ExecSystemLoad(systemJobs, userJobs);
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* countActiveSystemJobs:                                                 */
     /* ---------------------------------------------------------------------- */
@@ -2203,6 +2757,7 @@ public final class JobsDao
                   result.dtnInputCorrelationId  = rs.getString(8);
                   result.dtnOutputTransactionId = rs.getString(9);
                   result.dtnOutputCorrelationId = rs.getString(10);
+                  result.archiveTransferState   = rs.getString(11);
               }
               
               // Close the result and statement.
@@ -2589,9 +3144,7 @@ public final class JobsDao
                message = message.substring(0, Job.MAX_LAST_MESSAGE_LEN - 1);
             
             // Increment the blocked counter if we are transitioning to the blocked state.
-            int blockedIncrement = 0;
-            if (newStatus == JobStatusType.BLOCKED && curStatus != JobStatusType.BLOCKED)
-                blockedIncrement = 1;
+            int blockedIncrement = getBlockedIncrement(curStatus, newStatus);
             
             // --------- Set new status
             sql = SqlStatements.UPDATE_JOB_STATUS;
@@ -2756,24 +3309,8 @@ public final class JobsDao
     private void updateEnded(Connection conn, Job job, Timestamp ts, JobStatusType newStatus) 
      throws SQLException
     {
-    	// Set the condition code if not set.  Only failures incidents set
-    	// the condition, so the other two terminal states will have a null
-    	// condition when processing gets here.
-        if (job.getCondition() == null)
-        	if (newStatus == JobStatusType.FINISHED) {
-        		job.setCondition(JobConditionCode.NORMAL_COMPLETION);
-        	}
-        	else if (newStatus == JobStatusType.CANCELLED) {
-        		job.setCondition(JobConditionCode.CANCELLED_BY_USER);
-        	}
-        	else {
-        		// Failed jobs should already have a condition code set. This
-        		// branch also acts as a catch all, which should never happen.
-        		job.setCondition(JobConditionCode.JOB_INTERNAL_ERROR);
-                String msg = MsgUtils.getMsg("JOBS_MISSING_CONDITION_CODE", 
-                		                     job.getUuid(), newStatus.name());
-                _log.error(msg);
-        	}
+    	// Set the condition code if not set.
+        assignEndedCondition(job, newStatus);
         
         // Set the sql command.
         String sql = SqlStatements.UPDATE_JOB_ENDED;
@@ -2791,6 +3328,78 @@ public final class JobsDao
         job.setEnded(ts.toInstant());
     }
     
+    /* ---------------------------------------------------------------------- */
+    /* executeUuidBatch:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Issue one of the conditional timestamp updates used by setStatus() for
+     * each of the jobs as a single JDBC batch.  The statement's placeholders are 
+     * the timestamp, the condition when a terminal status is given, and the uuid.
+     * The conditional updates may legitimately affect no rows.
+     * 
+     * @param conn the connection with the in-progress transaction
+     * @param sql one of the UPDATE_REMOTE_*, UPDATE_JOB_ENDED statements
+     * @param ts the timestamp to assign
+     * @param terminalStatus the terminal status for UPDATE_JOB_ENDED, otherwise null
+     * @param jobs the jobs to update
+     * @throws SQLException
+     */
+    private void executeUuidBatch(Connection conn, String sql, Timestamp ts,
+                                  JobStatusType terminalStatus, List<Job> jobs) 
+     throws SQLException
+    {
+        // Don't bother the database when there's nothing to do.
+        if (jobs.isEmpty()) return;
+        
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        for (var job : jobs) {
+            int index = 1;
+            pstmt.setTimestamp(index++, ts);
+            if (terminalStatus != null) pstmt.setString(index++, job.getCondition().name());
+            pstmt.setString(index, job.getUuid());
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+        pstmt.close();
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* getBlockedIncrement:                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Increment the blocked counter if we are transitioning to the blocked state. */
+    private static int getBlockedIncrement(JobStatusType curStatus, JobStatusType newStatus)
+    {
+        return newStatus == JobStatusType.BLOCKED && curStatus != JobStatusType.BLOCKED ? 1 : 0;
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* assignEndedCondition:                                                  */
+    /* ---------------------------------------------------------------------- */
+    /** Set the condition code if not set.  Only failures incidents set the 
+     * condition, so the other two terminal states will have a null condition 
+     * when processing gets here.
+     * 
+     * @param job the terminating job
+     * @param newStatus the job's new, terminal status
+     */
+    private void assignEndedCondition(Job job, JobStatusType newStatus)
+    {
+        if (job.getCondition() == null)
+        	if (newStatus == JobStatusType.FINISHED) {
+        		job.setCondition(JobConditionCode.NORMAL_COMPLETION);
+        	}
+        	else if (newStatus == JobStatusType.CANCELLED) {
+        		job.setCondition(JobConditionCode.CANCELLED_BY_USER);
+        	}
+        	else {
+        		// Failed jobs should already have a condition code set. This
+        		// branch also acts as a catch all, which should never happen.
+        		job.setCondition(JobConditionCode.JOB_INTERNAL_ERROR);
+                String msg = MsgUtils.getMsg("JOBS_MISSING_CONDITION_CODE", 
+                		                     job.getUuid(), newStatus.name());
+                _log.error(msg);
+        	}
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* countActiveSystemJobs:                                                 */
     /* ---------------------------------------------------------------------- */
@@ -2823,26 +3432,11 @@ public final class JobsDao
         
         // Select the query case based on the owner and logicalQueue values.  
         int queryCase;
-        String sql;
-        if (owner == null && logicalQueue == null) {
-            queryCase = 1;
-            sql = SqlStatements.COUNT_ACTIVE_SYSTEM_JOBS;
-        } else if (owner != null && logicalQueue == null) {
-            queryCase = 2;
-            sql = SqlStatements.COUNT_ACTIVE_SYSTEM_USER_JOBS;
-        } else if (owner == null && logicalQueue != null) {
-            queryCase = 3;
-            sql = SqlStatements.COUNT_ACTIVE_SYSTEM_QUEUE_JOBS;
-        } else {
-            queryCase = 4;
-            sql = SqlStatements.COUNT_ACTIVE_SYSTEM_USER_QUEUE_JOBS;
-        }
-
-        // Substitute the comma-separated non-active 
-        // status list for the placeholder text.
-        String nonActiveJobStatuses = 
-            pendingActive ? _nonActiveWithoutPendingJobStatuses : _nonActiveWithPendingJobStatuses;
-        sql = sql.replace(":statusList", nonActiveJobStatuses);
+        if (owner == null && logicalQueue == null) queryCase = 1;
+        else if (owner != null && logicalQueue == null) queryCase = 2;
+        else if (owner == null && logicalQueue != null) queryCase = 3;
+        else queryCase = 4;
+        String sql = getCountActiveJobsSql(owner != null, logicalQueue != null, pendingActive);
         
         // The result.
         int count = 0;
@@ -2908,6 +3502,32 @@ public final class JobsDao
         return count;
     }
 
+    /* ---------------------------------------------------------------------- */
+    /* getCountActiveJobsSql:                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Create the count query for the combination of filters with the active 
+     * status list substituted for the placeholder text.  The query's status
+     * predicate is implied by that of the jobs_active_quota_idx partial index.
+     * 
+     * @param hasOwner true if the query filters on owner
+     * @param hasLogicalQueue true if the query filters on the remote queue
+     * @param pendingActive true means Pending is considered an active state
+     * @return the sql text
+     */
+    static String getCountActiveJobsSql(boolean hasOwner, boolean hasLogicalQueue,
+                                        boolean pendingActive)
+    {
+        String sql;
+        if (!hasOwner && !hasLogicalQueue) sql = SqlStatements.COUNT_ACTIVE_SYSTEM_JOBS;
+        else if (hasOwner && !hasLogicalQueue) sql = SqlStatements.COUNT_ACTIVE_SYSTEM_USER_JOBS;
+        else if (!hasOwner && hasLogicalQueue) sql = SqlStatements.COUNT_ACTIVE_SYSTEM_QUEUE_JOBS;
+        else sql = SqlStatements.COUNT_ACTIVE_SYSTEM_USER_QUEUE_JOBS;
+        
+        String activeJobStatuses = 
+            pendingActive ? _activeWithPendingJobStatuses : _activeWithoutPendingJobStatuses;
+        return sql.replace(":statusList", activeJobStatuses);
+    }
+
     /* ---------------------------------------------------------------------- */
     /* setRemoteJobId:                                                        */
     /* ---------------------------------------------------------------------- */
@@ -3102,6 +3722,35 @@ public final class JobsDao
 		}
 	}
 	
+	/* ---------------------------------------------------------------------- */
+	/* getSelectFields:                                                       */
+	/* ---------------------------------------------------------------------- */
+	/** Convert jobs table column names into jOOQ select fields.
+	 * 
+	 * @param columns the column names or null for all columns
+	 * @return the fields to select
+	 * @throws TapisException if a column doesn't exist
+	 */
+	private static List<SelectFieldOrAsterisk> getSelectFields(List<String> columns)
+	 throws TapisException
+	{
+	    var fields = new ArrayList<SelectFieldOrAsterisk>();
+	    if (columns == null) {
+	        fields.add(DSL.asterisk());
+	        return fields;
+	    }
+	    
+	    for (var column : columns) {
+	        Field<?> field = Tables.JOBS.field(DSL.name(column));
+	        if (field == null) {
+	            String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "getSelectFields", "select", column);
+	            throw new TapisException(msg);
+	        }
+	        fields.add(field);
+	    }
+	    return fields;
+	}
+	
 	/* ---------------------------------------------------------------------- */
 	/* populateJob:                                                           */
 	/* ---------------------------------------------------------------------- */
@@ -3616,17 +4265,6 @@ public final class JobsDao
         
     }
     
-    /* ************************************* */
-    /*            Initialize Jobs Map        */
-    /* ************************************* */ 
-    public static Map<String,String> initializeJobFieldMap(){
-        // Map<String,String> jmap = new HashMap<String,String>(80);
-        Map<String, String> jmap;
-        jmap = getDBJobColumnAndType(JOBS_TABLENAME);
-                
-        return Collections.unmodifiableMap(jmap);
-    }
-    
     /* ********************************************************************** */
     /*                          JobTransferInfo class                         */
     /* ********************************************************************** */
@@ -3643,6 +4281,7 @@ public final class JobsDao
         public String dtnInputCorrelationId;
         public String dtnOutputTransactionId;
         public String dtnOutputCorrelationId;
+        public String archiveTransferState;   // json chunked archive progress
     }
 
     /* ********************************************************************** */
@@ -0,0 +1,228 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** The column names and types of the jobs table as defined by the migrations
+ * in tapis-jobsmigrate.  Types are the postgres udt_name values reported by
+ * information_schema.columns, which is what the search code compares against.
+ *
+ * The table is static so that loading JobsDao never requires a database round
+ * trip.  JobsTableColumnsTest checks the table against the migration scripts,
+ * and verifyAsync() compares it to the live schema on a background thread
+ * after startup, logging any differences rather than failing.  When a
+ * migration adds, drops, renames or retypes a jobs column, update COLUMNS.
+ */
+public final class JobsTableColumns
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(JobsTableColumns.class);
+
+    // The table described here.
+    public static final String TABLE_NAME = "jobs";
+
+    // The verification thread's name.
+    private static final String THREAD_NAME = "JobsTableColumnsVerifier";
+
+    // Column name to udt_name in table order, current through V018.
+    public static final Map<String,String> COLUMNS = initColumns();
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Only verify the live schema once per process.
+    private static final AtomicBoolean _verifyStarted = new AtomicBoolean();
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private JobsTableColumns() {}
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* verifyAsync:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Compare the static column table to the live schema on a daemon thread.
+     * Only the first call in a process starts verification; subsequent calls
+     * return false immediately.
+     *
+     * @param liveColumns retrieves the live column names and types, an empty
+     *                    map indicates the schema could not be read
+     * @return true if this call started verification
+     */
+    public static boolean verifyAsync(Supplier<Map<String,String>> liveColumns)
+    {
+        if (!_verifyStarted.compareAndSet(false, true)) return false;
+
+        var thread = new Thread(() -> verify(liveColumns), THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* verify:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Compare the static column table to the live schema and log the result.
+     *
+     * @param liveColumns retrieves the live column names and types
+     * @return the differences, empty if the tables match or the live schema
+     *         could not be read
+     */
+    public static Map<String,String> verify(Supplier<Map<String,String>> liveColumns)
+    {
+        Map<String,String> live;
+        try {live = liveColumns.get();}
+        catch (Exception e) {
+            _log.warn(MsgUtils.getMsg("DB_TABLE_INFORMATION_SCHEMA_ERROR"), e);
+            return Collections.emptyMap();
+        }
+
+        // The reader logs its own errors.
+        if (live == null || live.isEmpty()) {
+            _log.warn("Skipping verification of the " + TABLE_NAME + " table columns, no columns were read.");
+            return Collections.emptyMap();
+        }
+
+        var diffs = findMismatches(COLUMNS, live);
+        if (diffs.isEmpty()) {
+            if (_log.isDebugEnabled())
+                _log.debug("Verified the " + COLUMNS.size() + " columns of the " + TABLE_NAME + " table.");
+        }
+        else _log.error("Found " + diffs.size() + " column differences between the static and live " + 
+                        TABLE_NAME + " table definitions: " + diffs);
+        return diffs;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* findMismatches:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Compare two column tables.  The result maps each column that is
+     * missing from either table or whose types differ to a description of the
+     * difference, sorted by column name.
+     *
+     * @param expected the expected columns and types
+     * @param actual the actual columns and types
+     * @return the differences, empty if the tables match
+     */
+    public static Map<String,String> findMismatches(Map<String,String> expected,
+                                                    Map<String,String> actual)
+    {
+        var diffs = new TreeMap<String,String>();
+        for (var entry : expected.entrySet()) {
+            String actualType = actual.get(entry.getKey());
+            if (actualType == null)
+                diffs.put(entry.getKey(), "expected " + entry.getValue() + " but not found");
+            else if (!actualType.equals(entry.getValue()))
+                diffs.put(entry.getKey(), "expected " + entry.getValue() + " but found " + actualType);
+        }
+        for (var entry : actual.entrySet())
+            if (!expected.containsKey(entry.getKey()))
+                diffs.put(entry.getKey(), "found " + entry.getValue() + " but not expected");
+        return diffs;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* initColumns:                                                           */
+    /* ---------------------------------------------------------------------- */
+    private static Map<String,String> initColumns()
+    {
+        var map = new LinkedHashMap<String,String>(96);
+
+        // V001__InitializeJobsDB.
+        map.put("id", "int4");
+        map.put("name", "varchar");
+        map.put("owner", "varchar");
+        map.put("tenant", "varchar");
+        map.put("description", "varchar");
+        map.put("status", "job_status_enum");
+        map.put("last_message", "varchar");
+        map.put("created", "timestamp");
+        map.put("ended", "timestamp");
+        map.put("last_updated", "timestamp");
+        map.put("uuid", "varchar");
+        map.put("app_id", "varchar");
+        map.put("app_version", "varchar");
+        map.put("archive_on_app_error", "bool");
+        map.put("dynamic_exec_system", "bool");
+        map.put("exec_system_id", "varchar");
+        map.put("exec_system_exec_dir", "varchar");
+        map.put("exec_system_input_dir", "varchar");
+        map.put("exec_system_output_dir", "varchar");
+        map.put("exec_system_logical_queue", "varchar");
+        map.put("archive_system_id", "varchar");
+        map.put("archive_system_dir", "varchar");
+        map.put("dtn_system_id", "varchar");
+        map.put("dtn_system_input_dir", "varchar");   // renamed in V016
+        map.put("dtn_system_output_dir", "varchar");  // renamed in V016
+        map.put("node_count", "int4");
+        map.put("cores_per_node", "int4");
+        map.put("memory_mb", "int4");
+        map.put("max_minutes", "int4");
+        map.put("file_inputs", "jsonb");
+        map.put("parameter_set", "jsonb");
+        map.put("exec_system_constraints", "varchar");
+        map.put("subscriptions", "jsonb");
+        map.put("blocked_count", "int4");
+        map.put("remote_job_id", "varchar");
+        map.put("remote_job_id2", "varchar");
+        map.put("remote_outcome", "job_remote_outcome_enum");
+        map.put("remote_result_info", "varchar");
+        map.put("remote_queue", "varchar");
+        map.put("remote_submitted", "timestamp");
+        map.put("remote_started", "timestamp");
+        map.put("remote_ended", "timestamp");
+        map.put("remote_submit_retries", "int4");
+        map.put("remote_checks_success", "int4");
+        map.put("remote_checks_failed", "int4");
+        map.put("remote_last_status_check", "timestamp");
+        map.put("input_transaction_id", "varchar");
+        map.put("input_correlation_id", "varchar");
+        map.put("archive_transaction_id", "varchar");
+        map.put("archive_correlation_id", "varchar");
+        map.put("tapis_queue", "varchar");
+        map.put("visible", "bool");
+        map.put("createdby", "varchar");
+        map.put("createdby_tenant", "varchar");
+        map.put("tags", "_text");
+
+        // V002 - V018.
+        map.put("job_type", "varchar");
+        map.put("is_mpi", "bool");
+        map.put("mpi_cmd", "varchar");
+        map.put("cmd_prefix", "varchar");
+        map.put("shared_app_ctx", "varchar");         // retyped in V014
+        map.put("shared_app_ctx_attribs", "_text");
+        map.put("notes", "jsonb");
+        map.put("stageapp_transaction_id", "varchar");
+        map.put("stageapp_correlation_id", "varchar");
+        map.put("dtn_in_transaction_id", "varchar");
+        map.put("dtn_in_correlation_id", "varchar");
+        map.put("dtn_out_transaction_id", "varchar");
+        map.put("dtn_out_correlation_id", "varchar");
+        map.put("condition", "varchar");
+        map.put("archive_transfer_state", "text");
+
+        // V025.
+        map.put("change_xid", "int8");
+
+        return Collections.unmodifiableMap(map);
+    }
+}
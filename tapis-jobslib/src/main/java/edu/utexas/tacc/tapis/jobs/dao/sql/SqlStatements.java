@@ -59,6 +59,75 @@ public class SqlStatements
             + "FROM jobs "
             + "WHERE uuid = ?";
         
+    // Fallback lookup of jobs moved to the archive table.
+    public static final String SELECT_JOBS_ARCHIVE_BY_UUID =
+        "SELECT id, name, owner, tenant, description, status, "
+            + "last_message, created, ended, last_updated, uuid, app_id, app_version, "
+            + "archive_on_app_error, dynamic_exec_system, exec_system_id, exec_system_exec_dir, "
+            + "exec_system_input_dir, exec_system_output_dir, exec_system_logical_queue, "
+            + "archive_system_id, archive_system_dir, "
+            + "dtn_system_id, dtn_system_input_dir, dtn_system_output_dir, "
+            + "node_count, cores_per_node, memory_mb, max_minutes, file_inputs, parameter_set, "
+            + "exec_system_constraints, subscriptions, "
+            + "blocked_count, remote_job_id, remote_job_id2, "
+            + "remote_outcome, remote_result_info, remote_queue, remote_submitted, "
+            + "remote_started, remote_ended, remote_submit_retries, remote_checks_success, "
+            + "remote_checks_failed, remote_last_status_check, "
+            + "input_transaction_id, input_correlation_id, archive_transaction_id, archive_correlation_id, "
+            + "tapis_queue, visible, createdby, createdby_tenant, tags, job_type, "
+            + "is_mpi, mpi_cmd, cmd_prefix, shared_app_ctx, shared_app_ctx_attribs, notes,"
+            + "stageapp_transaction_id, stageapp_correlation_id, "
+        	+ "dtn_in_transaction_id, dtn_in_correlation_id, dtn_out_transaction_id, dtn_out_correlation_id,"
+        	+ "condition "
+            + "FROM jobs_archive "
+            + "WHERE uuid = ?";
+        
+    // Bulk retrieval with a text[] parameter.
+    public static final String SELECT_JOBS_BY_UUIDS =
+        "SELECT id, name, owner, tenant, description, status, "
+            + "last_message, created, ended, last_updated, uuid, app_id, app_version, "
+            + "archive_on_app_error, dynamic_exec_system, exec_system_id, exec_system_exec_dir, "
+            + "exec_system_input_dir, exec_system_output_dir, exec_system_logical_queue, "
+            + "archive_system_id, archive_system_dir, "
+            + "dtn_system_id, dtn_system_input_dir, dtn_system_output_dir, "
+            + "node_count, cores_per_node, memory_mb, max_minutes, file_inputs, parameter_set, "
+            + "exec_system_constraints, subscriptions, "
+            + "blocked_count, remote_job_id, remote_job_id2, "
+            + "remote_outcome, remote_result_info, remote_queue, remote_submitted, "
+            + "remote_started, remote_ended, remote_submit_retries, remote_checks_success, "
+            + "remote_checks_failed, remote_last_status_check, "
+            + "input_transaction_id, input_correlation_id, archive_transaction_id, archive_correlation_id, "
+            + "tapis_queue, visible, createdby, createdby_tenant, tags, job_type, "
+            + "is_mpi, mpi_cmd, cmd_prefix, shared_app_ctx, shared_app_ctx_attribs, notes,"
+            + "stageapp_transaction_id, stageapp_correlation_id, "
+        	+ "dtn_in_transaction_id, dtn_in_correlation_id, dtn_out_transaction_id, dtn_out_correlation_id,"
+        	+ "condition "
+            + "FROM jobs "
+            + "WHERE uuid = ANY(?) ORDER BY id";
+        
+    // Bulk locking retrieval, rows are locked in id order to avoid deadlocks.
+    public static final String SELECT_JOBS_BY_UUIDS_FOR_UPDATE =
+        "SELECT id, name, owner, tenant, description, status, "
+            + "last_message, created, ended, last_updated, uuid, app_id, app_version, "
+            + "archive_on_app_error, dynamic_exec_system, exec_system_id, exec_system_exec_dir, "
+            + "exec_system_input_dir, exec_system_output_dir, exec_system_logical_queue, "
+            + "archive_system_id, archive_system_dir, "
+            + "dtn_system_id, dtn_system_input_dir, dtn_system_output_dir, "
+            + "node_count, cores_per_node, memory_mb, max_minutes, file_inputs, parameter_set, "
+            + "exec_system_constraints, subscriptions, "
+            + "blocked_count, remote_job_id, remote_job_id2, "
+            + "remote_outcome, remote_result_info, remote_queue, remote_submitted, "
+            + "remote_started, remote_ended, remote_submit_retries, remote_checks_success, "
+            + "remote_checks_failed, remote_last_status_check, "
+            + "input_transaction_id, input_correlation_id, archive_transaction_id, archive_correlation_id, "
+            + "tapis_queue, visible, createdby, createdby_tenant, tags, job_type, "
+            + "is_mpi, mpi_cmd, cmd_prefix, shared_app_ctx, shared_app_ctx_attribs, notes,"
+            + "stageapp_transaction_id, stageapp_correlation_id, "
+        	+ "dtn_in_transaction_id, dtn_in_correlation_id, dtn_out_transaction_id, dtn_out_correlation_id,"
+        	+ "condition "
+            + "FROM jobs "
+            + "WHERE tenant = ? AND uuid = ANY(?) ORDER BY id FOR UPDATE";
+        
     public static final String SELECT_JOBS_BY_USERNAME =
         "SELECT uuid, tenant, name, owner, status, condition, "
          	+ "created, ended, last_updated, app_id,"
@@ -67,10 +136,36 @@ public class SqlStatements
             + " FROM jobs "
            	+ " WHERE owner = ? AND tenant = ? AND visible = ?"
            	+ " ORDER BY :orderby LIMIT ? OFFSET ?";
+
+    // Keyset page of a user's jobs changed after a (change_xid, id) watermark.  The
+    // row comparison and sort match the jobs_tenant_owner_xid_idx key.  change_xid is
+    // the id of the transaction that last wrote the job (see V025).
+    //
+    // Jobs written by transactions at or above the xmin of this query's snapshot are
+    // left for a later page.  A transaction still open below them may yet commit a job
+    // that sorts before the rows we can already see, and the watermark must not move
+    // past it.  Only transactions that have written hold back the page.  The optional
+    // last_updated bound selects the first page of a listing that starts at an instant.
+    public static final String SELECT_JOBS_CHANGED_SINCE =
+        "SELECT id, uuid, tenant, name, owner, status, condition, "
+            + "created, ended, last_updated, app_id, "
+            + "app_version, exec_system_id, archive_system_id, "
+            + "remote_started, change_xid "
+            + " FROM jobs "
+            + " WHERE tenant = ? AND owner = ? AND (change_xid, id) > (?, ?)"
+            + " AND change_xid < txid_snapshot_xmin(txid_current_snapshot())"
+            + " AND last_updated > COALESCE(?, '-infinity'::timestamp)"
+            + " AND visible = ?"
+            + " ORDER BY change_xid, id LIMIT ?";
    
+    // At most one of the two selects returns a row since archived jobs are moved.
     public static final String SELECT_JOBS_STATUS_INFO_BY_UUID =
-            "SELECT uuid, id,  owner, tenant, status, condition, createdby, visible, createdby_tenant"
+            "SELECT uuid, id,  owner, tenant, status, condition, createdby, visible, createdby_tenant, last_updated"
             + " FROM jobs"
+            + " WHERE uuid = ?"
+            + " UNION ALL "
+            + "SELECT uuid, id,  owner, tenant, status, condition, createdby, visible, createdby_tenant, last_updated"
+            + " FROM jobs_archive"
             + " WHERE uuid = ?";
     
     public static final String SELECT_JOBS_STATUS_BY_UUID =
@@ -115,6 +210,11 @@ public class SqlStatements
         "UPDATE jobs SET status = ?::job_status_enum, last_message = ?, last_updated = ?, blocked_count = blocked_count + ?"
         + " WHERE tenant = ? AND uuid = ?";
     
+    // Cancel a job only if no worker has moved it out of the pending state.
+    public static final String CANCEL_PENDING_JOB =
+        "UPDATE jobs SET status = 'CANCELLED'::job_status_enum, last_message = ?, last_updated = ?"
+        + " WHERE tenant = ? AND uuid = ? AND status = 'PENDING'::job_status_enum";
+    
     public static final String UPDATE_JOB_ENDED =
         "UPDATE jobs SET ended = ?, condition = ? WHERE ended IS NULL AND uuid = ?";
       
@@ -128,25 +228,34 @@ public class SqlStatements
         "UPDATE jobs SET last_message = ?, last_updated = ?"
         + " WHERE tenant = ? AND id = ?";
       
+    // The active status list is substituted as literals rather than bound so 
+    // that the planner can match the jobs_active_quota_idx partial index.
     public static final String COUNT_ACTIVE_SYSTEM_JOBS = 
         "SELECT count(*) FROM jobs"
         + " WHERE tenant = ? AND exec_system_id = ?"
-        + " AND status NOT IN (:statusList)";
+        + " AND status = ANY(ARRAY[:statusList]::job_status_enum[])";
 
     public static final String COUNT_ACTIVE_SYSTEM_USER_JOBS = 
         "SELECT count(*) FROM jobs"
         + " WHERE tenant = ? AND exec_system_id = ? AND owner = ?"
-        + " AND status NOT IN (:statusList)";
+        + " AND status = ANY(ARRAY[:statusList]::job_status_enum[])";
 
     public static final String COUNT_ACTIVE_SYSTEM_QUEUE_JOBS = 
         "SELECT count(*) FROM jobs"
         + " WHERE tenant = ? AND exec_system_id = ? AND exec_system_logical_queue = ?"
-        + " AND status NOT IN (:statusList)";
+        + " AND status = ANY(ARRAY[:statusList]::job_status_enum[])";
 
     public static final String COUNT_ACTIVE_SYSTEM_USER_QUEUE_JOBS = 
         "SELECT count(*) FROM jobs"
         + " WHERE tenant = ? AND exec_system_id = ? AND owner = ? AND exec_system_logical_queue = ?"
-        + " AND status NOT IN (:statusList)";
+        + " AND status = ANY(ARRAY[:statusList]::job_status_enum[])";
+
+    // Active jobs per execution system in a tenant, with the count owned by one user.
+    public static final String COUNT_ACTIVE_JOBS_BY_SYSTEM = 
+        "SELECT exec_system_id, count(*), count(*) FILTER (WHERE owner = ?) FROM jobs"
+        + " WHERE tenant = ?"
+        + " AND status = ANY(ARRAY[:statusList]::job_status_enum[])"
+        + " GROUP BY exec_system_id";
     
     public static final String UPDATE_INPUT_TRANSFER_ID = 
         "UPDATE jobs SET last_updated = ?, input_transaction_id = ? WHERE id = ? AND tenant = ?";
@@ -178,10 +287,14 @@ public class SqlStatements
     public static final String UPDATE_DTN_OUT_CORR_ID = 
       	"UPDATE jobs SET last_updated = ?, dtn_out_correlation_id = ? WHERE id = ? AND tenant = ?";
 
+    public static final String UPDATE_ARCHIVE_TRANSFER_STATE = 
+        "UPDATE jobs SET last_updated = ?, archive_transfer_state = ? WHERE id = ? AND tenant = ?";
+
     public static final String SELECT_JOB_TRANSFER_INFO = 
         "SELECT input_transaction_id, input_correlation_id, archive_transaction_id, archive_correlation_id,"
         + " stageapp_transaction_id, stageapp_correlation_id,"
-        + " dtn_in_transaction_id, dtn_in_correlation_id, dtn_out_transaction_id, dtn_out_correlation_id"
+        + " dtn_in_transaction_id, dtn_in_correlation_id, dtn_out_transaction_id, dtn_out_correlation_id,"
+        + " archive_transfer_state"
         + " FROM jobs WHERE uuid = ?"; 
     
     public static final String UPDATE_SUCCESS_STATUS_CHECKS =
@@ -207,6 +320,24 @@ public class SqlStatements
     public static final String SET_JOB_VISIBLE =
         "UPDATE jobs SET visible = ?, last_updated = ? WHERE uuid = ?";
 	
+    /* ---------------------------------------------------------------------- */
+    /* jobs_archive table:                                                    */
+    /* ---------------------------------------------------------------------- */
+    // Move up to a limited number of terminal jobs that ended before a cutoff
+    // into the archive in one statement.  Rows locked by others are skipped.
+    public static final String ARCHIVE_TERMINAL_JOBS =
+        "WITH moved AS ("
+        + " DELETE FROM jobs WHERE id IN ("
+        + "  SELECT id FROM jobs"
+        + "  WHERE status IN ('FINISHED', 'CANCELLED', 'FAILED') AND ended < ?"
+        + "  ORDER BY ended LIMIT ? FOR UPDATE SKIP LOCKED)"
+        + " RETURNING *) "
+        + "INSERT INTO jobs_archive SELECT * FROM moved";
+    
+    // Create the job_events monthly partitions through a number of months ahead.
+    public static final String CREATE_JOB_EVENTS_PARTITIONS =
+        "SELECT job_events_create_partitions(CAST(? AS date), ?)";
+    
     /* ---------------------------------------------------------------------- */
 	/* job_resubmit table:                                                    */
 	/* ---------------------------------------------------------------------- */
@@ -304,6 +435,11 @@ public class SqlStatements
             + " FROM job_events "
             + " WHERE job_uuid = ? "		
             + " ORDER BY id  LIMIT ? OFFSET ?";
+    public static final String SELECT_JOBEVENTS_BY_JOB_UUID_AFTER_ID =
+            "SELECT id, event, created, job_uuid, event_detail, oth_uuid, description, tenant"
+            + " FROM job_events "
+            + " WHERE job_uuid = ? AND id > ? "
+            + " ORDER BY id  LIMIT ?";
     
 }	
 	
@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import edu.utexas.tacc.tapis.files.client.gen.model.TransferStatusEnum;
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.jobs.dao.JobEventsDao;
 import edu.utexas.tacc.tapis.jobs.dao.JobsDao;
 import edu.utexas.tacc.tapis.jobs.model.Job;
@@ -51,6 +52,9 @@ public final class JobEventManager
     // so we leave room for other event data.
     private static final int MAX_EVENT_MESSAGE = 16384 - 1024; 
     
+    // Maximum time to wait for queued events to be written on shutdown.
+    private static final long EVENT_WRITER_SHUTDOWN_MILLIS = 10000;
+    
     /* ********************************************************************** */
     /*                                Enums                                   */
     /* ********************************************************************** */
@@ -59,8 +63,11 @@ public final class JobEventManager
     /* ********************************************************************** */
     /*                                Fields                                  */
     /* ********************************************************************** */
-    private final JobEventsDao _jobEventsDao;
-    private final JobsDao      _jobsDao;
+    private final JobEventsDao   _jobEventsDao;
+    private final JobsDao        _jobsDao;
+    
+    // Batched event writer, null when events are written directly.
+    private final JobEventWriter _eventWriter;
     
     /* ********************************************************************** */
     /*                       SingletonInitializer class                       */
@@ -87,6 +94,17 @@ public final class JobEventManager
             catch (Exception e) {
                 throw new TapisRuntimeException(e.getMessage(), e);
             }
+        
+        // Optionally write events in batches on a background thread.
+        var parms = RuntimeParameters.getInstance();
+        if (parms.isEventWriterEnabled()) {
+            _eventWriter = new JobEventWriter(_jobEventsDao::createEvents,
+                                              parms.getEventWriterQueueCapacity(),
+                                              parms.getEventWriterBatchSize(),
+                                              parms.getEventWriterFlushMillis());
+            _eventWriter.start();
+        }
+        else _eventWriter = null;
     }
     
     /* ********************************************************************** */
@@ -97,6 +115,15 @@ public final class JobEventManager
     /* ---------------------------------------------------------------------- */
     public static JobEventManager getInstance() {return SingletonInitializer._instance;}
 
+    /* ---------------------------------------------------------------------- */
+    /* shutdown:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Write any queued events before the program exits. */
+    public void shutdown()
+    {
+        if (_eventWriter != null) _eventWriter.shutdown(EVENT_WRITER_SHUTDOWN_MILLIS);
+    }
+
     /* ---------------------------------------------------------------------- */
     /* recordStatusEvent:                                                     */
     /* ---------------------------------------------------------------------- */
@@ -131,7 +158,8 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, conn);
+        // Status events are durable before we return.
+        saveEvent(jobEvent, conn, true);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -174,7 +202,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, null);
+        saveEvent(jobEvent, null, false);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -217,7 +245,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, null);
+        saveEvent(jobEvent, null, false);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -247,7 +275,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
 		
 		// Save in db.
-		_jobEventsDao.createEvent(jobEvent, null);
+		saveEvent(jobEvent, null, false);
 		postEventToNotificationService(jobEvent);
 		return jobEvent;
     }
@@ -277,7 +305,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
 		// Save in db.
-		_jobEventsDao.createEvent(jobEvent, null);
+		saveEvent(jobEvent, null, false);
 		postEventToNotificationService(jobEvent);
 		return jobEvent;
    }
@@ -313,7 +341,7 @@ public final class JobEventManager
        jobEvent.setDescription(data);
        
        // Save in db and send to notifications service asynchronously.
-       _jobEventsDao.createEvent(jobEvent, null);
+       saveEvent(jobEvent, null, false);
        postEventToNotificationService(jobEvent);
        return jobEvent;
    }
@@ -369,7 +397,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, conn);
+        saveEvent(jobEvent, conn, false);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -412,7 +440,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, null);
+        saveEvent(jobEvent, null, false);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -448,7 +476,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, null);
+        saveEvent(jobEvent, null, false);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -486,7 +514,7 @@ public final class JobEventManager
         jobEvent.setDescription(data);
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, null);
+        saveEvent(jobEvent, null, false);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -521,7 +549,7 @@ public final class JobEventManager
         jobEvent.setEventDetail(eventDetail); 
         
         // Save in db and send to notifications service asynchronously.
-        _jobEventsDao.createEvent(jobEvent, conn);
+        saveEvent(jobEvent, conn, true);
         postEventToNotificationService(jobEvent);
         return jobEvent;
     }
@@ -565,6 +593,37 @@ public final class JobEventManager
     /* ********************************************************************** */
     /*                            Private Methods                             */
     /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* saveEvent:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Write the event to the database directly or using the batched writer. 
+     * Events that are part of the caller's transaction are always written
+     * directly on the caller's connection.  We don't wait for the writer here
+     * since the caller may hold row locks that queued writes need, and 
+     * waiting would serialize every transaction behind the queue.  Only 
+     * events written outside of a transaction are batched.
+     * 
+     * @param jobEvent the event to save
+     * @param conn existing connection or null
+     * @param durable true if the event must be committed before returning
+     * @throws TapisException on error
+     */
+    private void saveEvent(JobEvent jobEvent, Connection conn, boolean durable)
+     throws TapisException
+    {
+        // Write directly when there's no writer or when the event 
+        // is part of the caller's transaction.
+        if (_eventWriter == null || conn != null) {
+            _jobEventsDao.createEvent(jobEvent, conn);
+            return;
+        }
+        
+        // Detect errors and timestamp the event now.
+        _jobEventsDao.checkEvent(jobEvent);
+        if (durable) _eventWriter.writeSync(jobEvent);
+        else _eventWriter.write(jobEvent);
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* postEventToNotificationService:                                        */
     /* ---------------------------------------------------------------------- */
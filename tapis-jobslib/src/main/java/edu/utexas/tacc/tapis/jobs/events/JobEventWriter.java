@@ -0,0 +1,346 @@
+package edu.utexas.tacc.tapis.jobs.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.jobs.model.JobEvent;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** This class writes job events to the database on a background thread so that
+ * job processing threads don't pay for a connection and commit per event.
+ * Events are placed on a bounded queue and written in batches, each batch in a
+ * single transaction.  A batch is written when it reaches the maximum batch
+ * size, when the flush interval has elapsed since its first event was queued,
+ * or immediately when it contains an event whose caller is waiting.
+ *
+ * Events are written in the order they were queued.  Callers that need an event
+ * to be durable before proceeding, such as status transitions, use writeSync(),
+ * which blocks until the event's batch commits; since the queue is FIFO all
+ * events queued before it are also committed by then.  When the queue is full
+ * callers block until the writer thread makes room.
+ *
+ * If a batch fails its events are retried one at a time so that a single bad
+ * event doesn't cause the others to be lost.  Asynchronous failures are logged,
+ * synchronous failures are thrown to the waiting caller.
+ */
+public final class JobEventWriter
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(JobEventWriter.class);
+
+    // Defaults.
+    public static final int  DEFAULT_QUEUE_CAPACITY        = 10000;
+    public static final int  DEFAULT_MAX_BATCH_SIZE        = 100;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 250;
+
+    // The writer thread's name.
+    private static final String THREAD_NAME = "JobEventWriter";
+
+    // How long the writer thread waits for work before checking for shutdown.
+    private static final long IDLE_POLL_MILLIS = 1000;
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // The database insert operation.
+    private final BatchInserter        _inserter;
+
+    // Events waiting to be written.
+    private final BlockingQueue<Entry> _queue;
+
+    // Batching configuration.
+    private final int                  _maxBatchSize;
+    private final long                 _flushIntervalMillis;
+
+    // The background thread.
+    private final Thread               _thread;
+
+    // Set when no more events are accepted onto the queue.
+    private volatile boolean           _shutdown;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Create a writer.  Call start() to begin writing.
+     *
+     * @param inserter the operation that inserts a batch of events in one transaction
+     * @param queueCapacity the maximum number of queued events
+     * @param maxBatchSize the maximum number of events in a batch
+     * @param flushIntervalMillis the maximum time an event waits for its batch to fill
+     */
+    public JobEventWriter(BatchInserter inserter, int queueCapacity, int maxBatchSize,
+                          long flushIntervalMillis)
+    {
+        _inserter = inserter;
+        _queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        _maxBatchSize = Math.max(1, maxBatchSize);
+        _flushIntervalMillis = Math.max(0, flushIntervalMillis);
+        _thread = new Thread(this::run, THREAD_NAME);
+        _thread.setDaemon(true);
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* start:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    public void start() {_thread.start();}
+
+    /* ---------------------------------------------------------------------- */
+    /* write:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Queue an event to be written asynchronously, blocking while the queue is
+     * full.  After shutdown the event is written on the calling thread.
+     *
+     * @param jobEvent a validated event
+     * @throws TapisException if interrupted or, after shutdown, if the write fails
+     */
+    public void write(JobEvent jobEvent) throws TapisException
+    {
+        if (!enqueue(new Entry(jobEvent, null)))
+            _inserter.insert(Collections.singletonList(jobEvent));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* writeSync:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Queue an event and wait until it and all previously queued events have
+     * been committed.
+     *
+     * @param jobEvent a validated event
+     * @throws TapisException if the event could not be written
+     */
+    public void writeSync(JobEvent jobEvent) throws TapisException
+    {
+        var entry = new Entry(jobEvent, new CompletableFuture<>());
+        if (enqueue(entry)) await(entry.done);
+          else _inserter.insert(Collections.singletonList(jobEvent));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* flush:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Wait until all previously queued events have been written.  Don't call
+     * this while holding database locks, since queued writes may need them.
+     *
+     * @throws TapisException if interrupted
+     */
+    public void flush() throws TapisException
+    {
+        var marker = new Entry(null, new CompletableFuture<>());
+        if (enqueue(marker)) await(marker.done);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* shutdown:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Stop accepting events and wait for the queued events to be written.
+     * Events still queued when the timeout expires are written on the calling
+     * thread.
+     *
+     * @param timeoutMillis the maximum time to wait for the writer thread
+     */
+    public void shutdown(long timeoutMillis)
+    {
+        _shutdown = true;
+        try {_thread.join(Math.max(1, timeoutMillis));}
+            catch (InterruptedException e) {Thread.currentThread().interrupt();}
+        if (_thread.isAlive()) _thread.interrupt();
+        drain();
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getQueuedCount:                                                        */
+    /* ---------------------------------------------------------------------- */
+    public int getQueuedCount() {return _queue.size();}
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* enqueue:                                                               */
+    /* ---------------------------------------------------------------------- */
+    /** Put the entry on the queue, blocking while it's full.
+     *
+     * @return true if queued, false if the writer is shut down
+     */
+    private boolean enqueue(Entry entry) throws TapisException
+    {
+        try {
+            while (!_shutdown)
+                if (_queue.offer(entry, IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // Don't strand the entry if shutdown raced with the put.
+                    if (_shutdown && !_thread.isAlive()) drain();
+                    return true;
+                }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TapisException(MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", e.getMessage()), e);
+        }
+        return false;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* await:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    private void await(CompletableFuture<Void> done) throws TapisException
+    {
+        try {done.get();}
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TapisException(MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", e.getMessage()), e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof TapisException) throw (TapisException) e.getCause();
+            throw new TapisException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* run:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** The writer thread's main loop. */
+    private void run()
+    {
+        var batch = new ArrayList<Entry>(_maxBatchSize);
+        try {
+            while (true) {
+                // Wait for the first entry of the next batch.
+                Entry first = _queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (_shutdown && _queue.isEmpty()) break;
+                    continue;
+                }
+
+                // Fill the batch until it's full, it's time to flush or a caller is waiting.
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(_flushIntervalMillis);
+                boolean urgent = first.done != null;
+                while (batch.size() < _maxBatchSize && !urgent) {
+                    // Take what's immediately available, otherwise wait until the deadline.
+                    Entry next = _queue.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0 || _shutdown) break;
+                        next = _queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                    }
+                    batch.add(next);
+                    urgent = next.done != null;
+                }
+
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        catch (InterruptedException e) {
+            // Whatever remains is written by shutdown.
+            _log.warn(MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", e.getMessage()));
+        }
+        catch (Exception e) {
+            _log.error(e.getMessage(), e);
+        }
+        finally {
+            // Don't lose entries that were removed from the queue.
+            if (!batch.isEmpty()) writeBatch(batch);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* drain:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Write all queued entries on the calling thread. */
+    private void drain()
+    {
+        var batch = new ArrayList<Entry>(_maxBatchSize);
+        while (_queue.drainTo(batch, _maxBatchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* writeBatch:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Insert the batch's events and complete their waiting callers.  If the
+     * batch insert fails each event is retried on its own.
+     */
+    private void writeBatch(List<Entry> batch)
+    {
+        // Flush markers don't contain events.
+        var events = new ArrayList<JobEvent>(batch.size());
+        for (var entry : batch) if (entry.event != null) events.add(entry.event);
+
+        try {
+            if (!events.isEmpty()) _inserter.insert(events);
+            for (var entry : batch) if (entry.done != null) entry.done.complete(null);
+            return;
+        }
+        catch (Exception e) {
+            if (events.size() == 1) {fail(batch, e); return;}
+            _log.error(e.getMessage(), e);
+        }
+
+        // Isolate the failing events.
+        for (var entry : batch) {
+            if (entry.event != null)
+                try {_inserter.insert(Collections.singletonList(entry.event));}
+                catch (Exception e) {fail(Collections.singletonList(entry), e); continue;}
+            if (entry.done != null) entry.done.complete(null);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* fail:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    private void fail(List<Entry> entries, Exception e)
+    {
+        // Flush markers are always released, asynchronous failures are only logged.
+        for (var entry : entries) {
+            if (entry.event == null) {if (entry.done != null) entry.done.complete(null);}
+            else if (entry.done != null) entry.done.completeExceptionally(e);
+            else _log.error(e.getMessage(), e);
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** A queued event or flush marker with an optional completion signal. */
+    private static final class Entry
+    {
+        private final JobEvent                event;
+        private final CompletableFuture<Void> done;
+
+        private Entry(JobEvent event, CompletableFuture<Void> done)
+        {
+            this.event = event;
+            this.done = done;
+        }
+    }
+
+    /** Inserts a list of events in a single transaction. */
+    @FunctionalInterface
+    public interface BatchInserter
+    {
+        void insert(List<JobEvent> jobEvents) throws TapisException;
+    }
+}
@@ -406,6 +406,16 @@ public class Jobs extends TableImpl<JobsRecord> {
      */
     public final TableField<JobsRecord, String> CONDITION = createField(DSL.name("condition"), SQLDataType.VARCHAR(40), this, "");
 
+    /**
+     * The column <code>public.jobs.archive_transfer_state</code>.
+     */
+    public final TableField<JobsRecord, String> ARCHIVE_TRANSFER_STATE = createField(DSL.name("archive_transfer_state"), SQLDataType.CLOB, this, "");
+
+    /**
+     * The column <code>public.jobs.change_xid</code>.
+     */
+    public final TableField<JobsRecord, Long> CHANGE_XID = createField(DSL.name("change_xid"), SQLDataType.BIGINT.nullable(false).defaultValue(DSL.field("0", SQLDataType.BIGINT)), this, "");
+
     private Jobs(Name alias, Table<JobsRecord> aliased) {
         this(alias, aliased, null);
     }
@@ -992,6 +992,34 @@ public class JobsRecord extends UpdatableRecordImpl<JobsRecord> {
         return (String) get(68);
     }
 
+    /**
+     * Setter for <code>public.jobs.archive_transfer_state</code>.
+     */
+    public void setArchiveTransferState(String value) {
+        set(69, value);
+    }
+
+    /**
+     * Getter for <code>public.jobs.archive_transfer_state</code>.
+     */
+    public String getArchiveTransferState() {
+        return (String) get(69);
+    }
+
+    /**
+     * Setter for <code>public.jobs.change_xid</code>.
+     */
+    public void setChangeXid(Long value) {
+        set(70, value);
+    }
+
+    /**
+     * Getter for <code>public.jobs.change_xid</code>.
+     */
+    public Long getChangeXid() {
+        return (Long) get(70);
+    }
+
     // -------------------------------------------------------------------------
     // Primary key information
     // -------------------------------------------------------------------------
@@ -1015,7 +1043,7 @@ public class JobsRecord extends UpdatableRecordImpl<JobsRecord> {
     /**
      * Create a detached, initialised JobsRecord
      */
-    public JobsRecord(Integer id, String name, String owner, String tenant, String description, JobStatusType status, String lastMessage, LocalDateTime created, LocalDateTime ended, LocalDateTime lastUpdated, String uuid, String appId, String appVersion, Boolean archiveOnAppError, Boolean dynamicExecSystem, String execSystemId, String execSystemExecDir, String execSystemInputDir, String execSystemOutputDir, String execSystemLogicalQueue, String archiveSystemId, String archiveSystemDir, String dtnSystemId, String dtnSystemInputDir, String dtnSystemOutputDir, Integer nodeCount, Integer coresPerNode, Integer memoryMb, Integer maxMinutes, JSONB fileInputs, JsonElement parameterSet, String execSystemConstraints, JsonElement subscriptions, Integer blockedCount, String remoteJobId, String remoteJobId2, JobRemoteOutcome remoteOutcome, String remoteResultInfo, String remoteQueue, LocalDateTime remoteSubmitted, LocalDateTime remoteStarted, LocalDateTime remoteEnded, Integer remoteSubmitRetries, Integer remoteChecksSuccess, Integer remoteChecksFailed, LocalDateTime remoteLastStatusCheck, String inputTransactionId, String inputCorrelationId, String archiveTransactionId, String archiveCorrelationId, String tapisQueue, Boolean visible, String createdby, String createdbyTenant, TreeSet tags, String jobType, Boolean isMpi, String mpiCmd, String cmdPrefix, String sharedAppCtx, String[] sharedAppCtxAttribs, JsonElement notes, String stageappTransactionId, String stageappCorrelationId, String dtnInTransactionId, String dtnInCorrelationId, String dtnOutTransactionId, String dtnOutCorrelationId, String condition) {
+    public JobsRecord(Integer id, String name, String owner, String tenant, String description, JobStatusType status, String lastMessage, LocalDateTime created, LocalDateTime ended, LocalDateTime lastUpdated, String uuid, String appId, String appVersion, Boolean archiveOnAppError, Boolean dynamicExecSystem, String execSystemId, String execSystemExecDir, String execSystemInputDir, String execSystemOutputDir, String execSystemLogicalQueue, String archiveSystemId, String archiveSystemDir, String dtnSystemId, String dtnSystemInputDir, String dtnSystemOutputDir, Integer nodeCount, Integer coresPerNode, Integer memoryMb, Integer maxMinutes, JSONB fileInputs, JsonElement parameterSet, String execSystemConstraints, JsonElement subscriptions, Integer blockedCount, String remoteJobId, String remoteJobId2, JobRemoteOutcome remoteOutcome, String remoteResultInfo, String remoteQueue, LocalDateTime remoteSubmitted, LocalDateTime remoteStarted, LocalDateTime remoteEnded, Integer remoteSubmitRetries, Integer remoteChecksSuccess, Integer remoteChecksFailed, LocalDateTime remoteLastStatusCheck, String inputTransactionId, String inputCorrelationId, String archiveTransactionId, String archiveCorrelationId, String tapisQueue, Boolean visible, String createdby, String createdbyTenant, TreeSet tags, String jobType, Boolean isMpi, String mpiCmd, String cmdPrefix, String sharedAppCtx, String[] sharedAppCtxAttribs, JsonElement notes, String stageappTransactionId, String stageappCorrelationId, String dtnInTransactionId, String dtnInCorrelationId, String dtnOutTransactionId, String dtnOutCorrelationId, String condition, String archiveTransferState, Long changeXid) {
         super(Jobs.JOBS);
 
         setId(id);
@@ -1087,5 +1115,7 @@ public class JobsRecord extends UpdatableRecordImpl<JobsRecord> {
         setDtnOutTransactionId(dtnOutTransactionId);
         setDtnOutCorrelationId(dtnOutCorrelationId);
         setCondition(condition);
+        setArchiveTransferState(archiveTransferState);
+        setChangeXid(changeXid);
     }
 }
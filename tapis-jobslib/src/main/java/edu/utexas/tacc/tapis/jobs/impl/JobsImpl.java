@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
 import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
 import edu.utexas.tacc.tapis.jobs.dao.JobQueuesDao;
+import edu.utexas.tacc.tapis.jobs.dao.JobSelectColumns;
 import edu.utexas.tacc.tapis.jobs.dao.JobsDao;
 import edu.utexas.tacc.tapis.jobs.events.JobEventManager;
 import edu.utexas.tacc.tapis.jobs.exceptions.JobException;
@@ -19,11 +20,14 @@ import edu.utexas.tacc.tapis.jobs.model.Job;
 import edu.utexas.tacc.tapis.jobs.model.JobEvent;
 import edu.utexas.tacc.tapis.jobs.model.JobQueue;
 import edu.utexas.tacc.tapis.jobs.model.JobShared;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobChangesDTO;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobHistoryDisplayDTO;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobOutputListPage;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobShareListDTO;
 import edu.utexas.tacc.tapis.jobs.model.dto.JobStatusDTO;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobResourceShare;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobTapisPermission;
 import edu.utexas.tacc.tapis.jobs.model.submit.JobSharedAppCtx.JobSharedAppCtxEnum;
 import edu.utexas.tacc.tapis.jobs.queue.JobQueueManager;
@@ -31,7 +35,12 @@ import edu.utexas.tacc.tapis.jobs.queue.JobQueueManagerNames;
 import edu.utexas.tacc.tapis.jobs.queue.messages.cmd.JobCancelMsg;
 import edu.utexas.tacc.tapis.jobs.queue.messages.recover.JobCancelRecoverMsg;
 import edu.utexas.tacc.tapis.jobs.utils.DataLocator;
+import edu.utexas.tacc.tapis.jobs.utils.JobChangeWatermark;
+import edu.utexas.tacc.tapis.jobs.utils.JobEventCursor;
 import edu.utexas.tacc.tapis.jobs.utils.JobOutputInfo;
+import edu.utexas.tacc.tapis.jobs.utils.JobOutputListCache;
+import edu.utexas.tacc.tapis.jobs.utils.JobOutputListCursor;
+import edu.utexas.tacc.tapis.jobs.utils.JobStatusCache;
 import edu.utexas.tacc.tapis.jobs.utils.SelectTuple;
 import edu.utexas.tacc.tapis.notifications.client.NotificationsClient;
 import edu.utexas.tacc.tapis.notifications.client.gen.model.ReqPostSubscription;
@@ -70,6 +79,9 @@ public final class JobsImpl
     private static final Logger _log = LoggerFactory.getLogger(JobsImpl.class);
     public static final int HTTP_INTERNAL_SERVER_ERROR = 500;
     
+    // Maximum number of jobs returned by one changes listing call.
+    public static final int MAX_CHANGES_LIMIT = 1000;
+    
     
     /* ********************************************************************** */
     /*                                Fields                                  */
@@ -133,6 +145,50 @@ public final class JobsImpl
     }
     
     
+    /* ---------------------------------------------------------------------- */
+    /* getJobChangesByUsername:                                               */
+    /* ---------------------------------------------------------------------- */
+    /** Return up to limit of the user's visible jobs that were updated after the
+     * since watermark, in the order of their updates.  Passing the returned 
+     * watermark back as since selects the following page.  Updates made while
+     * older database transactions that have written are still open are 
+     * reported once those transactions end.
+     * 
+     * @param user the jobs' owner
+     * @param tenant the jobs' tenant
+     * @param since a watermark from a previous call, an ISO-8601 instant or blank
+     * @param limit the maximum number of jobs to return, at most MAX_CHANGES_LIMIT
+     * @return the jobs and the watermark after the last one
+     * @throws TapisImplException on error
+     */
+    public JobChangesDTO getJobChangesByUsername(String user, String tenant, String since, int limit) 
+     throws TapisImplException
+    {
+        // ----- Check input.
+        if (StringUtils.isBlank(user)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobChangesByUsername", "user");
+            throw new TapisImplException(msg, Condition.BAD_REQUEST);
+        }
+        if (StringUtils.isBlank(tenant)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobChangesByUsername", "tenant");
+            throw new TapisImplException(msg, Condition.BAD_REQUEST);
+        }
+        if (limit <= 0) {
+            String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "getJobChangesByUsername", "limit", limit);
+            throw new TapisImplException(msg, Condition.BAD_REQUEST);
+        }
+        var watermark = JobChangeWatermark.decode(since);
+        limit = Math.min(limit, MAX_CHANGES_LIMIT);
+        
+        // ----- Get the page of changed jobs.
+        try {return getJobsDao().getJobsChangedSince(tenant, user, watermark.getXid(), watermark.getId(), 
+                                                     watermark.getUpdatedAfter(), limit);}
+        catch (Exception e) {
+            String msg = MsgUtils.getMsg("JOBS_SELECT_BY_USERNAME_ERROR", user, tenant,e);
+            throw new TapisImplException(msg, e, Condition.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* getJobListCountByUsername:                                             */
     /* ---------------------------------------------------------------------- */
@@ -328,6 +384,19 @@ public final class JobsImpl
     public List<Job>  getJobSearchAllAttributesByUsername(String user, String tenant, List<String>searchList,
     		List<OrderBy> orderByList, Integer limit,Integer skip, boolean shared) 
      throws TapisImplException
+    {
+        return getJobSearchAllAttributesByUsername(user, tenant, searchList, orderByList, limit, skip, shared, null);
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* getJobSearchAllAttributesByUsername:                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Only the fields named in the select list are populated in the returned
+     * jobs.  A null or allAttributes select list populates all fields.
+     */
+    public List<Job>  getJobSearchAllAttributesByUsername(String user, String tenant, List<String>searchList,
+    		List<OrderBy> orderByList, Integer limit,Integer skip, boolean shared, List<String> selectList) 
+     throws TapisImplException
     {
         // ----- Check input.
         
@@ -363,7 +432,8 @@ public final class JobsImpl
         // ----- Get the job list.
         List<Job> jobList = null;
        
-        try {jobList = getJobsDao().getJobSearchAllAttributesByUsername(user, tenant, verifiedSearchList,orderByList,limit,skip,shared);}
+        try {jobList = getJobsDao().getJobSearchAllAttributesByUsername(user, tenant, verifiedSearchList,orderByList,limit,skip,shared,
+                                                                   getSelectColumns(selectList));}
         catch (Exception e) {
             String msg = MsgUtils.getMsg("JOBS_SEARCHLIST_ERROR", user, tenant, e);
             throw new TapisImplException(msg, e, Condition.INTERNAL_SERVER_ERROR);
@@ -414,6 +484,21 @@ public final class JobsImpl
     public List<Job>  getJobSearchAllAttributesByUsernameUsingSqlSearchStr(String user, String tenant,
     		String sqlSearchStr , List<OrderBy> orderByList, Integer limit,Integer skip, boolean sharedWithMe) 
      throws TapisImplException
+    {
+        return getJobSearchAllAttributesByUsernameUsingSqlSearchStr(user, tenant, sqlSearchStr, orderByList, 
+                                                                    limit, skip, sharedWithMe, null);
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* getJobSearchAllAttributesByUsernameUsingSqlSearchStr:                  */
+    /* ---------------------------------------------------------------------- */
+    /** Only the fields named in the select list are populated in the returned
+     * jobs.  A null or allAttributes select list populates all fields.
+     */
+    public List<Job>  getJobSearchAllAttributesByUsernameUsingSqlSearchStr(String user, String tenant,
+    		String sqlSearchStr , List<OrderBy> orderByList, Integer limit,Integer skip, boolean sharedWithMe,
+    		List<String> selectList) 
+     throws TapisImplException
     {
         // ----- Check input.
         
@@ -437,7 +522,8 @@ public final class JobsImpl
      
         // ----- Get the job list.
         List<Job> jobList = null;
-        try {jobList = getJobsDao().getJobSearchAllAttributesByUsernameUsingSqlSearchStr(user, tenant, searchAST,orderByList,limit,skip, sharedWithMe);}
+        try {jobList = getJobsDao().getJobSearchAllAttributesByUsernameUsingSqlSearchStr(user, tenant, searchAST,orderByList,limit,skip, sharedWithMe,
+                                                                                    getSelectColumns(selectList));}
         catch (Exception e) {
             String msg = MsgUtils.getMsg("JOBS_SEARCHLIST_ERROR", user, tenant, e);
             throw new TapisImplException(msg, e, Condition.INTERNAL_SERVER_ERROR);
@@ -564,46 +650,20 @@ public final class JobsImpl
     public JobStatusDTO getJobStatusByUuid(String jobUuid, String user, String tenant) 
      throws TapisImplException
     {  
-    
-        // ----- Check input.
-        if (StringUtils.isBlank(jobUuid)) {
-            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobByUuid", "jobUuid");
-            throw new TapisImplException(msg, Condition.BAD_REQUEST);
-        }
-        if (StringUtils.isBlank(user)) {
-            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobByUuid", "user");
-            throw new TapisImplException(msg, Condition.BAD_REQUEST);
-        }
-        if (StringUtils.isBlank(tenant)) {
-            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobByUuid", "tenant");
-            throw new TapisImplException(msg, Condition.BAD_REQUEST);
-        }
-        
         // ----- Get the job status, job owner, createdby, createdby tenant and visible information
-        JobStatusDTO jobstatus = null;
-        try {jobstatus = getJobsDao().getJobStatusByUUID(jobUuid);}
-        catch (Exception e) {
-            String msg = MsgUtils.getMsg("JOBS_JOB_SELECT_UUID_ERROR", jobUuid, user, tenant,e);
-            throw new TapisImplException(msg, e, Condition.INTERNAL_SERVER_ERROR);
-        }
+        JobStatusDTO jobstatus = loadJobStatus(jobUuid, user, tenant);
         
         // ----- Authorization checks.
         // Make sure the user and tenant are authorized.
        if(jobstatus != null) {
-	        if (!tenant.equals(jobstatus.getTenant())) {
-	            String msg = MsgUtils.getMsg("JOBS_MISMATCHED_TENANT", tenant, jobstatus.getTenant());
-	            throw new TapisImplException(msg, Condition.UNAUTHORIZED);
-	        }
+	        checkJobStatusTenant(jobstatus, tenant);
 	        
 	        /**
 	         * Check if the user is the job owner, or the tenant admin or the one who created the job
 	         * If none of the above is true, then the user is not authorized
 	         * */
 	        
-	        if (!user.equals(jobstatus.getOwner()) && 
-	        	!user.equals(jobstatus.getCreatedBy()) && 
-	        	!isAdminSafe(user, tenant))
-	        	
+	        if (!isJobStatusOwner(jobstatus, user, tenant))
 	        {
 	            String msg = MsgUtils.getMsg("JOBS_MISMATCHED_OWNER", user, jobstatus.getOwner());
 	            throw new TapisImplException(msg, Condition.UNAUTHORIZED);
@@ -624,38 +684,22 @@ public final class JobsImpl
      throws TapisImplException
     {  
         // ----- Get the job status, job owner, createdby, createdby tenant and visible information
-        JobStatusDTO jobstatus = null;
-        boolean checkShare = false;
-        String jobOwner = "";
-        try {jobstatus = getJobStatusByUuid(jobUuid, user, tenant);}
-        catch (Exception e) {
-        	   if (!e.getMessage().startsWith("JOBS_MISMATCHED_OWNER")) 
-        		   throw new TapisImplException(e.getMessage(), e, Condition.INTERNAL_SERVER_ERROR);
-        	   // get jobowner information from the exception message
-        	   String[] parseMsg = e.getMessage().split("\\(");
-        	   jobOwner = parseMsg[2].substring(0,parseMsg[2].length()-2);
-        	   _log.debug("Parsed jobOwner from the message = " + jobOwner);
-               checkShare = true;
-         }
+        // The status record is read once and used for all authorization checks.
+        JobStatusDTO jobstatus = loadJobStatus(jobUuid, user, tenant);
+        if (jobstatus == null) return null;
+        checkJobStatusTenant(jobstatus, tenant);
+        if (isJobStatusOwner(jobstatus, user, tenant)) return jobstatus;
            
         // ----- Share Authorization checks.
-        if(checkShare) {    
-	        /**
-	         * If the user is not the job owner or not admin or not the one who created the job, we need to check if the job has been shared with the user.
-	         * */
-    	    if(!isJobShared(jobUuid, user, tenant, jobResourceShareType, privilege)) {
-	       		String msg = MsgUtils.getMsg("JOBS_MISMATCHED_OWNER", user, jobOwner);
-	       		 _log.error(msg);
-	       		throw new TapisImplException(msg, Condition.UNAUTHORIZED);
-            }
-    	    try {jobstatus = getJobsDao().getJobStatusByUUID(jobUuid);}
-            catch (Exception e) {
-                String msg = MsgUtils.getMsg("JOBS_JOB_SELECT_UUID_ERROR", jobUuid, user, tenant,e);
-                throw new TapisImplException(msg, e, Condition.INTERNAL_SERVER_ERROR);
-            }
-	    }
+        /**
+         * If the user is not the job owner or not admin or not the one who created the job, we need to check if the job has been shared with the user.
+         * */
+        if(!isJobShared(jobUuid, user, tenant, jobResourceShareType, privilege)) {
+            String msg = MsgUtils.getMsg("JOBS_MISMATCHED_OWNER", user, jobstatus.getOwner());
+            _log.error(msg);
+            throw new TapisImplException(msg, Condition.UNAUTHORIZED);
+        }
         
-        // Could be null if not found.
         return jobstatus;
     }
     
@@ -698,6 +742,54 @@ public final class JobsImpl
     		                               boolean recursiveFlag) 
      throws TapisImplException
     {
+        return getJobOutputList(job, tenant, user, pathName, limit, skip, null, 
+                                jobResourceShareType, privilege, recursiveFlag);
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* getJobOutputList:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Return a page of a job output directory listing.
+     * 
+     * @param startAfter the cursor returned with the previous page, which
+     *                   takes precedence over skip, or null
+     */
+    public List<FileInfo> getJobOutputList(Job job, String tenant, String user, 
+                                           String pathName, int limit, int skip, 
+                                           String startAfter, String jobResourceShareType, 
+                                           String privilege, boolean recursiveFlag) 
+     throws TapisImplException
+    {
+        return getJobOutputListPage(job, tenant, user, pathName, limit, skip, startAfter,
+                                    jobResourceShareType, privilege, recursiveFlag).getFiles();
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* getJobOutputListPage:                                                  */
+    /* ---------------------------------------------------------------------- */
+    /** Return a page of a job output directory listing.  Complete listings of
+     * archived outputs are cached, so their pages are served without calling
+     * the Files service again.  Other listings are retrieved from Files one
+     * page at a time, unless the caller pages by file path.
+     * 
+     * A cursor to the next page is returned only when the listing is cached
+     * and more files follow, since only then can the cursor be served without
+     * listing the whole directory again.  Callers without a cursor page with
+     * skip.
+     * 
+     * @param startAfter the cursor returned with the previous page, which
+     *                   takes precedence over skip, or null
+     */
+    public JobOutputListPage getJobOutputListPage(Job job, String tenant, String user, 
+                                                  String pathName, int limit, int skip, 
+                                                  String startAfter, String jobResourceShareType, 
+                                                  String privilege, boolean recursiveFlag) 
+     throws TapisImplException
+    {
+        // Validate the cursor before doing any remote work.
+        boolean keyset = !StringUtils.isBlank(startAfter);
+        String afterPath = keyset ? JobOutputListCursor.decode(job.getUuid(), startAfter) : null;
+        
         // ----- Get the job output files list.
         DataLocator dataLocator = new DataLocator(job);
         
@@ -715,11 +807,88 @@ public final class JobsImpl
         if(skipTapisAuthorization == true) {
         	impersonationId = job.getOwner();
         }
-        List<FileInfo> outputList = dataLocator.getJobOutputListings(
-                jobOutputFilesinfo, tenant, user, limit, skip, impersonationId,
-                sharedAppCtx, recursiveFlag);
-               
-        return outputList;
+        // Archived outputs of terminated jobs don't change and can be cached.
+        var cache = JobOutputListCache.getInstance();
+        boolean cacheable = cache.isEnabled() && job.getStatus().isTerminal() &&
+                            jobOutputFilesinfo.isArchiveSystem();
+        var key = new JobOutputListCache.Key(tenant, user, job.getUuid(), 
+                                             jobOutputFilesinfo.getSystemUrl(), recursiveFlag);
+        
+        // Get the complete listing when it's needed and not known to be too large.
+        JobOutputListCache.Listing listing = null;
+        if (cacheable) listing = cache.get(key, job.getLastUpdated());
+        if (listing == null && (keyset || cacheable) && 
+            !(cacheable && cache.isOversized(key, job.getLastUpdated())))
+        {
+            listing = dataLocator.getCompleteJobOutputListing(
+                jobOutputFilesinfo, tenant, user, impersonationId, sharedAppCtx, 
+                recursiveFlag, JobOutputListCache.MAX_LISTING_FILES);
+            if (cacheable) cache.put(key, job.getLastUpdated(), listing);
+        }
+        
+        // Page through the Files service when we don't have the complete listing.
+        if (listing == null) {
+            if (keyset) {
+                String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "getJobOutputList", "startAfter",
+                                 "listing exceeds " + JobOutputListCache.MAX_LISTING_FILES + " files, use skip");
+                throw new TapisImplException(msg, Condition.BAD_REQUEST);
+            }
+            var files = dataLocator.getJobOutputListings(
+                    jobOutputFilesinfo, tenant, user, limit, skip, impersonationId,
+                    sharedAppCtx, recursiveFlag);
+            return new JobOutputListPage(files, null);
+        }
+        
+        // Find the page in the complete listing.
+        int offset = skip;
+        if (keyset) {
+            offset = listing.indexAfter(afterPath);
+            if (offset < 0) {
+                String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "getJobOutputList", "startAfter",
+                                             startAfter);
+                throw new TapisImplException(msg, Condition.BAD_REQUEST);
+            }
+        }
+        var files = new ArrayList<FileInfo>(listing.getPage(offset, limit));
+        
+        // Only a cached listing can serve the cursor to the next page.
+        String nextStartAfter = null;
+        if (cacheable && !files.isEmpty() && offset + files.size() < listing.size())
+            nextStartAfter = JobOutputListCursor.encode(job.getUuid(), 
+                                                        files.get(files.size() - 1).getPath());
+        return new JobOutputListPage(files, nextStartAfter);
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* statJobOutput:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** Return the first entries of a non-recursive listing of a job output path.
+     * A file path lists as the file itself and a directory lists its first 
+     * entries.  The listing is always retrieved from the Files service with a
+     * single call and never uses or populates the listing cache, so callers 
+     * that only need to know what a path refers to don't pay for the complete
+     * listing of large archived directories.
+     */
+    public List<FileInfo> statJobOutput(Job job, String tenant, String user, 
+                                        String pathName, int limit, 
+                                        String jobResourceShareType, String privilege) 
+     throws TapisImplException
+    {
+        // ----- Get the job output location.
+        DataLocator dataLocator = new DataLocator(job);
+        JobOutputInfo jobOutputFilesinfo = dataLocator.getJobOutputSystemInfo(pathName);
+        
+        // Determine the user on whose behalf the listing is made as above.
+        boolean isSharedAppCtx = checkSharedAppCtx(job, jobOutputFilesinfo);
+        String sharedAppCtx = Job.DEFAULT_SHARED_APP_CTX;
+        if (isSharedAppCtx) sharedAppCtx = job.getSharedAppCtx();
+        
+        boolean skipTapisAuthorization = isJobShared(job.getUuid(), user, tenant, jobResourceShareType, privilege) || isSharedAppCtx;
+        String impersonationId = null;
+        if (skipTapisAuthorization) impersonationId = job.getOwner();
+        
+        return dataLocator.getJobOutputListings(jobOutputFilesinfo, tenant, user, limit, 0, 
+                                                impersonationId, sharedAppCtx, false);
     }
     
     /* ---------------------------------------------------------------------- */
@@ -804,6 +973,31 @@ public final class JobsImpl
         return jobEvents;
     }
     
+    /* ---------------------------------------------------------------------- */
+    /* getJobEventsByJobUuidAfter:                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Return up to limit events that follow the position recorded in the
+     * startAfter cursor, which was created by JobEventCursor.encode().
+     */
+    public List<JobEvent> getJobEventsByJobUuidAfter(String jobUuid, String user, String tenant, 
+                                                     String startAfter, int limit) 
+     throws TapisImplException
+    {
+        // ----- Check input.
+        if (StringUtils.isBlank(jobUuid)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobEventsByJobUuidAfter", "jobUuid");
+            throw new TapisImplException(msg, Condition.BAD_REQUEST);
+        }
+        long afterId = JobEventCursor.decode(jobUuid, startAfter);
+        
+        // ----- Get the job events.
+        try {return getJobEventsDao().getJobEventsByJobUUIDAfter(jobUuid, afterId, limit);}
+        catch (Exception e) {
+            String msg = MsgUtils.getMsg("JOBS_JOBEVENT_SELECT_UUID_ERROR", tenant, user, jobUuid, e);
+            throw new TapisImplException(msg, e, Condition.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* getJobEventsSummary:                                                   */
     /* ---------------------------------------------------------------------- */
@@ -877,6 +1071,32 @@ public final class JobsImpl
         return result;
     }
     
+    /* ---------------------------------------------------------------------------- */
+    /* doCancelPendingJob:                                                          */
+    /* ---------------------------------------------------------------------------- */
+    /** Cancel a job that is still waiting in a submit queue directly in the 
+     * database.  Jobs that have already been picked up by a worker or that
+     * are not pending are left unchanged, in which case the caller should 
+     * fall back to doCancelJob().  The stale queue message is discarded when
+     * a worker eventually reads it.
+     * 
+     * @param job the job to be cancelled
+     * @return true if the job was cancelled, false otherwise 
+     */
+    public boolean doCancelPendingJob(Job job)
+    {
+        // Only pending jobs qualify.
+        if (job == null || job.getStatus() != JobStatusType.PENDING) return false;
+        
+        try {return getJobsDao().cancelPendingJob(job, null);}
+        catch (Exception e) {
+            // Let the caller use the queue-based cancellation.
+            String msg = MsgUtils.getMsg("JOBS_QMGR_POST_CANCEL", job.getUuid());
+            _log.error(msg, e);
+            return false;
+        }
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* doHideJob:                                                             */
     /* ---------------------------------------------------------------------- */
@@ -884,6 +1104,7 @@ public final class JobsImpl
     {
         try { 
         	getJobsDao().setJobVisibility(jobUuid, tenant, user,false);
+        	JobStatusCache.getInstance().invalidate(jobUuid);
         }
         catch (Exception e) {
             String msg = MsgUtils.getMsg("JOBS_JOB_VISIBILITY_UPDATE_ERROR", jobUuid, user, tenant,e);
@@ -902,6 +1123,7 @@ public final class JobsImpl
     {
         try { 
         	getJobsDao().setJobVisibility(jobUuid, tenant, user,true);
+        	JobStatusCache.getInstance().invalidate(jobUuid);
         }
         catch (Exception e) {
             String msg = MsgUtils.getMsg("JOBS_JOB_VISIBILITY_UPDATE_ERROR", jobUuid, user,
@@ -1341,6 +1563,79 @@ public final class JobsImpl
     /* ********************************************************************** */
 	/*                             Private Methods                            */
 	/* ********************************************************************** */
+
+    /* ---------------------------------------------------------------------- */
+    /* loadJobStatus:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** Read a job's status record using the narrow status query.  The records
+     * of terminal jobs are served from the status cache.
+     * 
+     * @return the status record or null if the job doesn't exist
+     */
+    private JobStatusDTO loadJobStatus(String jobUuid, String user, String tenant)
+     throws TapisImplException
+    {
+        // ----- Check input.
+        if (StringUtils.isBlank(jobUuid)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobByUuid", "jobUuid");
+            throw new TapisImplException(msg, Condition.BAD_REQUEST);
+        }
+        if (StringUtils.isBlank(user)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobByUuid", "user");
+            throw new TapisImplException(msg, Condition.BAD_REQUEST);
+        }
+        if (StringUtils.isBlank(tenant)) {
+            String msg = MsgUtils.getMsg("TAPIS_NULL_PARAMETER", "getJobByUuid", "tenant");
+            throw new TapisImplException(msg, Condition.BAD_REQUEST);
+        }
+        
+        // Terminal statuses never change.
+        var cache = JobStatusCache.getInstance();
+        JobStatusDTO jobstatus = cache.get(jobUuid);
+        if (jobstatus != null) return jobstatus;
+        
+        try {jobstatus = getJobsDao().getJobStatusByUUID(jobUuid);}
+        catch (Exception e) {
+            String msg = MsgUtils.getMsg("JOBS_JOB_SELECT_UUID_ERROR", jobUuid, user, tenant,e);
+            throw new TapisImplException(msg, e, Condition.INTERNAL_SERVER_ERROR);
+        }
+        cache.put(jobstatus);
+        return jobstatus;
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* checkJobStatusTenant:                                                  */
+    /* ---------------------------------------------------------------------- */
+    private void checkJobStatusTenant(JobStatusDTO jobstatus, String tenant)
+     throws TapisImplException
+    {
+        if (!tenant.equals(jobstatus.getTenant())) {
+            String msg = MsgUtils.getMsg("JOBS_MISMATCHED_TENANT", tenant, jobstatus.getTenant());
+            throw new TapisImplException(msg, Condition.UNAUTHORIZED);
+        }
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* isJobStatusOwner:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Is the user the job owner, the job creator or a tenant administrator? */
+    private boolean isJobStatusOwner(JobStatusDTO jobstatus, String user, String tenant)
+    {
+        return user.equals(jobstatus.getOwner()) || 
+               user.equals(jobstatus.getCreatedBy()) || 
+               isAdminSafe(user, tenant);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getSelectColumns:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Get the jobs table columns needed to satisfy a select list, null for all. */
+    private List<String> getSelectColumns(List<String> selectList)
+    {
+        if (selectList == null) return null;
+        return JobSelectColumns.getColumns(selectList);
+    }
+    
     private  void validateNewSharedJob(JobShared jobShared) throws TapisException
     {
      
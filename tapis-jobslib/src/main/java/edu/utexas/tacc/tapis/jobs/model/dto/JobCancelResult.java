@@ -0,0 +1,41 @@
+package edu.utexas.tacc.tapis.jobs.model.dto;
+
+/** The outcome of cancelling one job in a bulk cancel request. */
+public class JobCancelResult {
+	
+	String  uuid;
+	boolean accepted;
+	String  message;
+	
+	public JobCancelResult() {}
+	
+	public JobCancelResult(String uuid, boolean accepted, String message) {
+		this.uuid = uuid;
+		this.accepted = accepted;
+		this.message = message;
+	}
+	
+	public String getUuid() {
+		return uuid;
+	}
+	
+	public void setUuid(String uuid) {
+		this.uuid = uuid;
+	}
+	
+	public boolean isAccepted() {
+		return accepted;
+	}
+	
+	public void setAccepted(boolean accepted) {
+		this.accepted = accepted;
+	}
+	
+	public String getMessage(){
+		return message;
+	}
+	
+    public void setMessage(String message) {
+    	this.message = message;
+    }
+}
@@ -0,0 +1,35 @@
+package edu.utexas.tacc.tapis.jobs.model.dto;
+
+import java.util.List;
+
+/** A page of jobs changed after a watermark, in (lastXid, id) order, where a
+ * job's xid identifies the database transaction that last wrote it.  The 
+ * lastXid and lastId fields identify the last job on the page, or repeat
+ * the requested watermark when the page is empty, so they always form the
+ * watermark from which the next page starts.
+ */
+public final class JobChangesDTO 
+{
+	private List<JobListDTO> jobs;
+	private long             lastXid;
+	private long             lastId;
+	
+	public List<JobListDTO> getJobs() {
+		return jobs;
+	}
+	public void setJobs(List<JobListDTO> jobs) {
+		this.jobs = jobs;
+	}
+	public long getLastXid() {
+		return lastXid;
+	}
+	public void setLastXid(long lastXid) {
+		this.lastXid = lastXid;
+	}
+	public long getLastId() {
+		return lastId;
+	}
+	public void setLastId(long lastId) {
+		this.lastId = lastId;
+	}
+}
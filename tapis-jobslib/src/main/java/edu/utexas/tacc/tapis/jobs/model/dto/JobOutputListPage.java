@@ -0,0 +1,38 @@
+package edu.utexas.tacc.tapis.jobs.model.dto;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
+
+/** A page of a job output listing.  The cursor to the following page is only
+ * set when the page was taken from a cached listing that can serve the cursor
+ * and more files follow; otherwise clients page with skip.
+ */
+public class JobOutputListPage {
+
+	List<FileInfo> files;
+	String         nextStartAfter;
+
+	public JobOutputListPage() {}
+
+	public JobOutputListPage(List<FileInfo> files, String nextStartAfter) {
+		this.files = files;
+		this.nextStartAfter = nextStartAfter;
+	}
+
+	public List<FileInfo> getFiles() {
+		return files;
+	}
+
+	public void setFiles(List<FileInfo> files) {
+		this.files = files;
+	}
+
+	public String getNextStartAfter() {
+		return nextStartAfter;
+	}
+
+	public void setNextStartAfter(String nextStartAfter) {
+		this.nextStartAfter = nextStartAfter;
+	}
+}
@@ -1,5 +1,7 @@
 package edu.utexas.tacc.tapis.jobs.model.dto;
 
+import java.time.Instant;
+
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
 
@@ -13,6 +15,7 @@ public class JobStatusDTO {
 	private String tenant;
 	private String createdby;
 	private String createdbyTenant;
+	private Instant lastUpdated;
 	
 	public JobStatusDTO() {};
 
@@ -70,4 +73,10 @@ public class JobStatusDTO {
 	public void setCreatedByTenant(String createdbyTenant) {
 		this.createdbyTenant = createdbyTenant;
 	}
+	public Instant getLastUpdated() {
+		return lastUpdated;
+	}
+	public void setLastUpdated(Instant lastUpdated) {
+		this.lastUpdated = lastUpdated;
+	}
 }
@@ -80,6 +80,23 @@ public enum JobStatusType
                    + PAUSED.name()    + "'";
     }
 
+    // Construct the string of active statuses to be used in SQL
+    // IN clauses and ARRAY constructors.  Note PENDING is considered 
+    // active in this context.  The list is in declaration order and
+    // must match the jobs_active_quota_idx partial index predicate.
+    public static String getActiveWithPendingSQLString()
+    {
+        return getActiveSQLString(true);
+    }
+
+    // Construct the string of active statuses to be used in SQL
+    // IN clauses and ARRAY constructors.  Note PENDING is considered 
+    // non active in this context.
+    public static String getActiveWithoutPendingSQLString()
+    {
+        return getActiveSQLString(false);
+    }
+
 	// Construct the string on terminal to be used
 	// SQL IN clauses.
 	public static String getTerminalSQLString()
@@ -90,4 +107,15 @@ public enum JobStatusType
 					+ CANCELLED.name() + "'";
 	}
 
-}
\ No newline at end of file
+    // Construct the quoted string with commas of the active statuses.
+    private static String getActiveSQLString(boolean includePending)
+    {
+        var buf = new StringBuilder();
+        for (var status : values()) {
+            if (!isActive(status) || (status == PENDING && !includePending)) continue;
+            if (buf.length() > 0) buf.append(", ");
+            buf.append("'").append(status.name()).append("'");
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,172 @@
+package edu.utexas.tacc.tapis.jobs.reader;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** This class periodically performs database maintenance on a background thread.
+ * Each cycle creates the job_events monthly partitions needed in the coming
+ * months and, when an archive age is configured, moves terminal jobs that
+ * ended more than that many days ago from the jobs table to the jobs_archive
+ * table.  Jobs are moved in batches so that each transaction stays short; a
+ * cycle keeps moving batches until fewer than a full batch remain.
+ *
+ * The task is hosted by the RecoveryReader, of which only one instance runs.
+ * The archive statement skips locked rows, so concurrent runs are harmless.
+ * Failures are logged and retried on the next cycle.
+ */
+public final class JobMaintenanceTask
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(JobMaintenanceTask.class);
+
+    // The number of future months that always have event partitions.
+    public static final int PARTITION_MONTHS_AHEAD = 3;
+
+    // Maximum batches moved in one cycle so that a large backlog
+    // doesn't monopolize the database.
+    private static final int MAX_BATCHES_PER_CYCLE = 100;
+
+    // The maintenance thread's name.
+    private static final String THREAD_NAME = "JobMaintenanceTask";
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Database operations.
+    private final PartitionCreator _partitionCreator;
+    private final JobArchiver      _archiver;
+
+    // Configuration.
+    private final int              _archiveAgeDays;
+    private final int              _archiveBatchSize;
+    private final long             _intervalMillis;
+
+    // The background thread.
+    private final Thread           _thread;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Create a task.  Call start() to begin periodic maintenance.
+     *
+     * @param partitionCreator creates missing event partitions
+     * @param archiver moves terminal jobs to the archive table
+     * @param archiveAgeDays days after ending that jobs are archived, 0 or less disables archiving
+     * @param archiveBatchSize maximum jobs moved per transaction
+     * @param intervalMillis time between maintenance cycles
+     */
+    public JobMaintenanceTask(PartitionCreator partitionCreator, JobArchiver archiver,
+                              int archiveAgeDays, int archiveBatchSize, long intervalMillis)
+    {
+        _partitionCreator = partitionCreator;
+        _archiver = archiver;
+        _archiveAgeDays = archiveAgeDays;
+        _archiveBatchSize = Math.max(1, archiveBatchSize);
+        _intervalMillis = Math.max(1000, intervalMillis);
+
+        _thread = new Thread(this::run, THREAD_NAME);
+        _thread.setDaemon(true);
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* start:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    public void start() {_thread.start();}
+
+    /* ---------------------------------------------------------------------- */
+    /* shutdown:                                                              */
+    /* ---------------------------------------------------------------------- */
+    public void shutdown() {_thread.interrupt();}
+
+    /* ---------------------------------------------------------------------- */
+    /* runCycle:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Perform one maintenance cycle.  Partition creation and archiving are
+     * attempted independently so that a failure in one doesn't skip the other.
+     *
+     * @param now the current time
+     * @return the number of jobs archived
+     */
+    public int runCycle(Instant now)
+    {
+        // Make sure event inserts never fall into the default partition.
+        try {
+            int created = _partitionCreator.createPartitions(PARTITION_MONTHS_AHEAD);
+            if (created > 0 && _log.isInfoEnabled())
+                _log.info("Job maintenance created " + created + " job_events partitions.");
+        }
+        catch (Exception e) {
+            _log.error("Job maintenance failed to create job_events partitions: " + e.getMessage(), e);
+        }
+
+        // Archiving is optional.
+        if (_archiveAgeDays <= 0) return 0;
+
+        // Move full batches until the old jobs are exhausted.
+        Instant cutoff = now.minus(Duration.ofDays(_archiveAgeDays));
+        int total = 0;
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_CYCLE; i++) {
+                int moved = _archiver.archive(cutoff, _archiveBatchSize);
+                total += moved;
+                if (moved < _archiveBatchSize || Thread.currentThread().isInterrupted()) break;
+            }
+        }
+        catch (Exception e) {
+            _log.error("Job maintenance failed to archive jobs that ended before " + cutoff + 
+                       ": " + e.getMessage(), e);
+        }
+
+        if (total > 0 && _log.isInfoEnabled())
+            _log.info("Job maintenance archived " + total + " jobs that ended before " + cutoff + ".");
+        return total;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* run:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    private void run()
+    {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                runCycle(Instant.now());
+                Thread.sleep(_intervalMillis);
+            }
+        }
+        catch (InterruptedException e) {/* shutting down */}
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** Creates missing event partitions and returns how many were created. */
+    @FunctionalInterface
+    public interface PartitionCreator
+    {
+        int createPartitions(int monthsAhead) throws TapisException;
+    }
+
+    /** Moves up to limit jobs that ended before the cutoff and returns how many moved. */
+    @FunctionalInterface
+    public interface JobArchiver
+    {
+        int archive(Instant endedBefore, int limit) throws TapisException;
+    }
+}
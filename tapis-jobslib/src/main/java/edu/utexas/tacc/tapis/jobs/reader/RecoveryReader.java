@@ -12,6 +12,7 @@ import com.google.gson.JsonParseException;
 import com.rabbitmq.client.BuiltinExchangeType;
 
 import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.jobs.dao.JobArchiveDao;
 import edu.utexas.tacc.tapis.jobs.dao.JobRecoveryDao;
 import edu.utexas.tacc.tapis.jobs.dao.JobsDao;
 import edu.utexas.tacc.tapis.jobs.events.JobEventManager;
@@ -102,6 +103,9 @@ public final class RecoveryReader
     private final ThreadGroup     _recoveryThreadGroup;
     private RecoveryReaderThread  _recoveryReaderThread;
     
+    // Periodic partition creation and job archiving.
+    private JobMaintenanceTask    _maintenanceTask;
+    
     // The queue the reader thread writes and the recover thread reads.
     private final LinkedBlockingQueue<JobRecovery> _recoverQueue;
     
@@ -190,6 +194,9 @@ public final class RecoveryReader
       // Initialize the recovery framework.
       initRecoveryReaderThread();
       
+      // Start periodic database maintenance.
+      initMaintenanceTask();
+      
       // Start reading the queue.
       readQueue();
       
@@ -465,6 +472,31 @@ public final class RecoveryReader
         _recoveryReaderThread.start();
     }
     
+    /* ---------------------------------------------------------------------- */
+    /* initMaintenanceTask:                                                   */
+    /* ---------------------------------------------------------------------- */
+    private void initMaintenanceTask()
+      throws JobException
+    {
+        // Create the dao used by the task.
+        JobArchiveDao archiveDao;
+        try {archiveDao = new JobArchiveDao();}
+            catch (Exception e) {
+                String msg = MsgUtils.getMsg("DB_FAILED_DATASOURCE");
+                _log.error(msg, e);
+                throw new JobException(msg, e);
+            }
+        
+        // Create and start the task.
+        var parms = RuntimeParameters.getInstance();
+        _maintenanceTask = new JobMaintenanceTask(archiveDao::createEventPartitions,
+                                                  archiveDao::archiveTerminalJobs,
+                                                  parms.getJobsArchiveAgeDays(),
+                                                  parms.getJobsArchiveBatchSize(),
+                                                  TimeUnit.MINUTES.toMillis(parms.getMaintenanceIntervalMinutes()));
+        _maintenanceTask.start();
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* initThreadRestartThrottle:                                             */
     /* ---------------------------------------------------------------------- */
@@ -493,6 +525,7 @@ public final class RecoveryReader
        // Interrupt the recovery manager thread
        // and any threads it may have started.
        _recoveryThreadGroup.interrupt();
+       if (_maintenanceTask != null) _maintenanceTask.shutdown();
       
        // Close the queue connection.
        JobQueueManager.getInstance().closeConnections(JobQueueManager.DEFAULT_CONN_CLOSE_TIMEOUT_MS);
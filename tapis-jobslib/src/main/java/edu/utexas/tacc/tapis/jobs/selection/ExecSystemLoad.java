@@ -0,0 +1,77 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** A snapshot of the number of active jobs on execution systems in a tenant,
+ * including the number owned by a single user.  Systems not in the snapshot
+ * have no active jobs.
+ *
+ * Snapshots are cached for a short time, so each selection made using a
+ * snapshot is recorded in it.  This keeps submissions that arrive before the
+ * next refresh from all landing on the same system.
+ */
+public final class ExecSystemLoad
+{
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Active job counts keyed by system id.
+    private final Map<String,Integer> _systemJobs;
+    private final Map<String,Integer> _userJobs;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Create an empty snapshot. */
+    public ExecSystemLoad()
+    {
+        _systemJobs = new ConcurrentHashMap<>();
+        _userJobs   = new ConcurrentHashMap<>();
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Create a snapshot from active job counts.
+     *
+     * @param systemJobs active jobs keyed by system id
+     * @param userJobs active jobs owned by the user keyed by system id
+     */
+    public ExecSystemLoad(Map<String,Integer> systemJobs, Map<String,Integer> userJobs)
+    {
+        _systemJobs = new ConcurrentHashMap<>(systemJobs);
+        _userJobs   = new ConcurrentHashMap<>(userJobs);
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getSystemJobs:                                                         */
+    /* ---------------------------------------------------------------------- */
+    public int getSystemJobs(String systemId)
+    {return _systemJobs.getOrDefault(systemId, 0);}
+
+    /* ---------------------------------------------------------------------- */
+    /* getUserJobs:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public int getUserJobs(String systemId)
+    {return _userJobs.getOrDefault(systemId, 0);}
+
+    /* ---------------------------------------------------------------------- */
+    /* recordSelection:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** Count a job that was just assigned to the system.
+     *
+     * @param systemId the selected system
+     */
+    public void recordSelection(String systemId)
+    {
+        _systemJobs.merge(systemId, 1, Integer::sum);
+        _userJobs.merge(systemId, 1, Integer::sum);
+    }
+}
@@ -0,0 +1,128 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Short-lived cache of execution system load snapshots keyed by tenant and
+ * user.  A snapshot is read at most once per time-to-live period for each key,
+ * so selecting a system doesn't add a database query to every submission.
+ *
+ * When a read fails, an empty snapshot is cached in its place.  Selection then
+ * proceeds without load information rather than failing the submission.
+ */
+public final class ExecSystemLoadCache
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(ExecSystemLoadCache.class);
+
+    // Default snapshot lifetime.
+    public static final long DEFAULT_TTL_MILLIS = 5000;
+
+    // Expired snapshots are purged when the cache grows beyond this size.
+    private static final int PURGE_THRESHOLD = 1000;
+
+    /* ********************************************************************** */
+    /*                               Interfaces                               */
+    /* ********************************************************************** */
+    /** Read the current load for a tenant and user. */
+    @FunctionalInterface
+    public interface LoadReader
+    {
+        ExecSystemLoad read(String tenantId, String owner) throws TapisException;
+    }
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Constructor input.
+    private final LoadReader   _reader;
+    private final long         _ttlMillis;
+    private final LongSupplier _clock;
+
+    // Cached snapshots keyed by tenant and owner.
+    private final ConcurrentHashMap<String,Entry> _snapshots = new ConcurrentHashMap<>();
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public ExecSystemLoadCache(LoadReader reader, long ttlMillis)
+    {
+        this(reader, ttlMillis, System::currentTimeMillis);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Test constructor with a replaceable clock. */
+    ExecSystemLoadCache(LoadReader reader, long ttlMillis, LongSupplier clock)
+    {
+        _reader    = reader;
+        _ttlMillis = ttlMillis;
+        _clock     = clock;
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getLoad:                                                               */
+    /* ---------------------------------------------------------------------- */
+    /** Return the cached snapshot for the tenant and user, reading a new one if
+     * the cached snapshot has expired.  Concurrent callers may occasionally
+     * read the same snapshot twice, which is harmless.
+     *
+     * @param tenantId the tenant of the candidate systems
+     * @param owner the job owner
+     * @return a non-null snapshot
+     */
+    public ExecSystemLoad getLoad(String tenantId, String owner)
+    {
+        String key = tenantId + "|" + owner;
+        long now = _clock.getAsLong();
+        var entry = _snapshots.get(key);
+        if (entry != null && now < entry._expires) return entry._load;
+
+        // Read a new snapshot.
+        ExecSystemLoad load;
+        try {load = _reader.read(tenantId, owner);}
+        catch (Exception e) {
+            // The reader has already logged the problem.
+            if (_log.isDebugEnabled()) _log.debug(e.getMessage(), e);
+            load = new ExecSystemLoad();
+        }
+
+        // Don't let expired snapshots of inactive users accumulate.
+        if (_snapshots.size() >= PURGE_THRESHOLD)
+            _snapshots.values().removeIf(e -> now >= e._expires);
+        _snapshots.put(key, new Entry(load, now + _ttlMillis));
+        return load;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* clear:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    public void clear() {_snapshots.clear();}
+
+    /* ********************************************************************** */
+    /*                             Entry Class                                */
+    /* ********************************************************************** */
+    private static final class Entry
+    {
+        private final ExecSystemLoad _load;
+        private final long           _expires;
+
+        private Entry(ExecSystemLoad load, long expires)
+        {_load = load; _expires = expires;}
+    }
+}
@@ -0,0 +1,20 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+/** A strategy for choosing the execution system of a job from the systems that
+ * satisfied the job's constraints.  Implementations are shared by concurrent
+ * submissions and must be thread-safe.
+ */
+public interface ExecSystemSelectionPolicy
+{
+    /** Choose one of the candidate systems.
+     *
+     * @param request the job information used in selection
+     * @param candidates a non-empty list of systems that meet the job's constraints
+     * @return one of the candidates
+     */
+    TapisSystem select(ExecSystemSelectionRequest request, List<TapisSystem> candidates);
+}
@@ -0,0 +1,77 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.jobs.dao.JobsDao;
+
+/** All supported execution system selection policies are instantiated using
+ * this class.  The configured policy is created once and shared by all
+ * submissions so that its load snapshots and rotation state are shared too.
+ */
+public final class ExecSystemSelectionPolicyFactory
+{
+    /* ********************************************************************** */
+    /*                                 Enums                                  */
+    /* ********************************************************************** */
+    // The supported policies.
+    public enum PolicyType {RANDOM, LEAST_ACTIVE_JOBS, WEIGHTED_ROUND_ROBIN, QUOTA_AWARE}
+
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // The policy used when none is configured.
+    public static final PolicyType DEFAULT_POLICY = PolicyType.QUOTA_AWARE;
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // The configured policy, created on first use.
+    private static ExecSystemSelectionPolicy _policy;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private ExecSystemSelectionPolicyFactory() {}
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getPolicy:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Return the shared instance of the policy configured in the runtime
+     * parameters.  Load snapshots are read from the jobs table.
+     *
+     * @return the configured policy
+     */
+    public static synchronized ExecSystemSelectionPolicy getPolicy()
+    {
+        if (_policy == null) {
+            var parms = RuntimeParameters.getInstance();
+            var loadCache = new ExecSystemLoadCache(
+                (tenantId, owner) -> new JobsDao().getActiveSystemLoad(tenantId, owner),
+                parms.getExecSystemLoadCacheMillis());
+            _policy = getInstance(parms.getExecSystemSelectionPolicy(), loadCache);
+        }
+        return _policy;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getInstance:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Create a new policy of the specified type.
+     *
+     * @param type the policy type
+     * @param loadCache the source of load snapshots for policies that use them
+     * @return the new policy
+     */
+    public static ExecSystemSelectionPolicy getInstance(PolicyType type,
+                                                        ExecSystemLoadCache loadCache)
+    {
+        return switch (type) {
+            case RANDOM               -> new RandomSelectionPolicy();
+            case LEAST_ACTIVE_JOBS    -> new LeastActiveJobsSelectionPolicy(loadCache);
+            case WEIGHTED_ROUND_ROBIN -> new WeightedRoundRobinSelectionPolicy();
+            case QUOTA_AWARE          -> new QuotaAwareSelectionPolicy(loadCache);
+        };
+    }
+}
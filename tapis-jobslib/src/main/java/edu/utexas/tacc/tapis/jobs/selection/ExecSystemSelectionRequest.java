@@ -0,0 +1,39 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+/** The job information available to selection policies.  The application
+ * limits are null or non-positive when the application does not restrict the
+ * number of jobs.
+ */
+public final class ExecSystemSelectionRequest
+{
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    private final String  _tenantId;
+    private final String  _owner;
+    private final Integer _appMaxJobs;
+    private final Integer _appMaxJobsPerUser;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public ExecSystemSelectionRequest(String tenantId, String owner,
+                                      Integer appMaxJobs, Integer appMaxJobsPerUser)
+    {
+        _tenantId = tenantId;
+        _owner = owner;
+        _appMaxJobs = appMaxJobs;
+        _appMaxJobsPerUser = appMaxJobsPerUser;
+    }
+
+    /* ********************************************************************** */
+    /*                               Accessors                                */
+    /* ********************************************************************** */
+    public String getTenantId() {return _tenantId;}
+    public String getOwner() {return _owner;}
+    public Integer getAppMaxJobs() {return _appMaxJobs;}
+    public Integer getAppMaxJobsPerUser() {return _appMaxJobsPerUser;}
+}
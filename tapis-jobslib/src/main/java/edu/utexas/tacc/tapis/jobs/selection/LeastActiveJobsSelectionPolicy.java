@@ -0,0 +1,66 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.List;
+
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+/** Choose the candidate with the fewest active jobs in the tenant.  Ties go to
+ * the candidate listed first.
+ */
+public final class LeastActiveJobsSelectionPolicy
+ implements ExecSystemSelectionPolicy
+{
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    private final ExecSystemLoadCache _loadCache;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public LeastActiveJobsSelectionPolicy(ExecSystemLoadCache loadCache)
+    {
+        _loadCache = loadCache;
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* select:                                                                */
+    /* ---------------------------------------------------------------------- */
+    @Override
+    public TapisSystem select(ExecSystemSelectionRequest request, List<TapisSystem> candidates)
+    {
+        var load = _loadCache.getLoad(request.getTenantId(), request.getOwner());
+        var selected = leastActive(load, candidates);
+        load.recordSelection(selected.getId());
+        return selected;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* leastActive:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Return the first candidate with the fewest active jobs.
+     *
+     * @param load the current load
+     * @param candidates non-empty list of systems
+     * @return the least loaded system
+     */
+    static TapisSystem leastActive(ExecSystemLoad load, List<TapisSystem> candidates)
+    {
+        TapisSystem selected = null;
+        int selectedJobs = Integer.MAX_VALUE;
+        for (var system : candidates) {
+            int jobs = load.getSystemJobs(system.getId());
+            if (selected == null || jobs < selectedJobs) {
+                selected = system;
+                selectedJobs = jobs;
+            }
+        }
+        return selected;
+    }
+}
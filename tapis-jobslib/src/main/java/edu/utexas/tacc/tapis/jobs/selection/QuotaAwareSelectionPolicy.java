@@ -0,0 +1,77 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+/** Prefer candidates on which the job would not exceed its maximum jobs or
+ * maximum jobs per user quotas.  These are the same limits that QuotaChecker
+ * enforces before a job is submitted: the smaller of the application and
+ * system values, where non-positive or missing values mean no limit.  Jobs
+ * placed on a system already at its quota would just wait in recovery.
+ *
+ * The least loaded candidate below quota is chosen.  If every candidate is at
+ * its quota, the least loaded candidate overall is chosen.
+ */
+public final class QuotaAwareSelectionPolicy
+ implements ExecSystemSelectionPolicy
+{
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    private final ExecSystemLoadCache _loadCache;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public QuotaAwareSelectionPolicy(ExecSystemLoadCache loadCache)
+    {
+        _loadCache = loadCache;
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* select:                                                                */
+    /* ---------------------------------------------------------------------- */
+    @Override
+    public TapisSystem select(ExecSystemSelectionRequest request, List<TapisSystem> candidates)
+    {
+        // Find the candidates with room for another job.
+        var load = _loadCache.getLoad(request.getTenantId(), request.getOwner());
+        var belowQuota = new ArrayList<TapisSystem>(candidates.size());
+        for (var system : candidates) {
+            int maxJobs = getLimit(request.getAppMaxJobs(), system.getJobMaxJobs());
+            int maxJobsPerUser = getLimit(request.getAppMaxJobsPerUser(),
+                                          system.getJobMaxJobsPerUser());
+            if (load.getSystemJobs(system.getId()) < maxJobs &&
+                load.getUserJobs(system.getId()) < maxJobsPerUser)
+                belowQuota.add(system);
+        }
+
+        // Choose the least loaded.
+        var selected = LeastActiveJobsSelectionPolicy.leastActive(load,
+                           belowQuota.isEmpty() ? candidates : belowQuota);
+        load.recordSelection(selected.getId());
+        return selected;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getLimit:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Return the effective limit using the same rules as QuotaChecker. */
+    private static int getLimit(Integer appLimit, Integer systemLimit)
+    {
+        if (appLimit == null || appLimit <= 0) appLimit = Integer.MAX_VALUE;
+        if (systemLimit == null || systemLimit <= 0) systemLimit = Integer.MAX_VALUE;
+        return Math.min(appLimit, systemLimit);
+    }
+}
@@ -0,0 +1,22 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+/** Choose any candidate with equal probability.  This was the only policy
+ * before load information was considered.
+ */
+public final class RandomSelectionPolicy
+ implements ExecSystemSelectionPolicy
+{
+    /* ---------------------------------------------------------------------- */
+    /* select:                                                                */
+    /* ---------------------------------------------------------------------- */
+    @Override
+    public TapisSystem select(ExecSystemSelectionRequest request, List<TapisSystem> candidates)
+    {
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+}
@@ -0,0 +1,99 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+/** Rotate through the candidates in proportion to their weights using smooth
+ * weighted round-robin, which interleaves selections rather than choosing the
+ * heaviest candidate several times in a row.  The rotation state is kept per
+ * tenant and system, so candidate lists that vary between requests still
+ * receive their share.
+ *
+ * By default a system's weight is its maximum number of jobs capped at
+ * MAX_WEIGHT, and systems without a limit get MAX_WEIGHT.  No load information
+ * is used.
+ */
+public final class WeightedRoundRobinSelectionPolicy
+ implements ExecSystemSelectionPolicy
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Largest weight assigned by the default weight function.
+    public static final int MAX_WEIGHT = 100;
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Weight assigned to each system, at least 1.
+    private final ToIntFunction<TapisSystem> _weigher;
+
+    // The current weight of each system keyed by tenant and system id.
+    private final HashMap<String,Integer> _currentWeights = new HashMap<>();
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public WeightedRoundRobinSelectionPolicy()
+    {
+        this(WeightedRoundRobinSelectionPolicy::getCapacityWeight);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public WeightedRoundRobinSelectionPolicy(ToIntFunction<TapisSystem> weigher)
+    {
+        _weigher = weigher;
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* select:                                                                */
+    /* ---------------------------------------------------------------------- */
+    @Override
+    public synchronized TapisSystem select(ExecSystemSelectionRequest request,
+                                           List<TapisSystem> candidates)
+    {
+        // Raise each candidate's current weight by its weight and
+        // choose the candidate with the highest current weight.
+        TapisSystem selected = null;
+        String selectedKey = null;
+        int selectedWeight = 0;
+        int totalWeight = 0;
+        for (var system : candidates) {
+            int weight = Math.max(1, _weigher.applyAsInt(system));
+            String key = request.getTenantId() + "|" + system.getId();
+            int current = _currentWeights.merge(key, weight, Integer::sum);
+            totalWeight += weight;
+            if (selected == null || current > selectedWeight) {
+                selected = system;
+                selectedKey = key;
+                selectedWeight = current;
+            }
+        }
+
+        // Lower the chosen candidate by the total weight.
+        _currentWeights.put(selectedKey, selectedWeight - totalWeight);
+        return selected;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getCapacityWeight:                                                     */
+    /* ---------------------------------------------------------------------- */
+    /** The default weight function. */
+    public static int getCapacityWeight(TapisSystem system)
+    {
+        Integer maxJobs = system.getJobMaxJobs();
+        if (maxJobs == null || maxJobs <= 0) return MAX_WEIGHT;
+        return Math.min(maxJobs, MAX_WEIGHT);
+    }
+}
@@ -0,0 +1,408 @@
+package edu.utexas.tacc.tapis.jobs.stagers.zip;
+
+import static edu.utexas.tacc.tapis.shared.utils.TapisUtils.alwaysSingleQuote;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** A content-addressed cache of extracted ZIP runtime application archives on
+ * an execution host.  Each cache entry is identified by a key derived from the
+ * archive url and a version token, such as a checksum, ETag or size and
+ * modification time, so a changed archive always maps to a new entry.  An
+ * archive is transferred and extracted into the cache only once; each job then
+ * populates its exec directory with hard links to the cached files, so jobs 
+ * neither transfer nor copy the archive content.  Cached files are read-only,
+ * so a job cannot change a shared file in place, while removing or replacing
+ * files in its exec directory affects no other job.  Apps that write to their
+ * own files in place can instead be given writable copies.  Where hard links
+ * cannot be made, such as when the cache and exec directory are on different
+ * file systems, the files are copied.
+ *
+ * The cache directory layout for an entry with key K created by job J is:
+ *
+ *  K            - symbolic link to the extracted content, present only when complete
+ *  K.d.J        - the extracted content
+ *  K.lock       - lock directory held while an entry is being staged
+ *  K.stage.J    - temporary directory into which the archive is transferred
+ *
+ * Concurrent jobs that miss the cache serialize on the lock directory, which
+ * is created atomically with mkdir.  The lock records its owner so a restarted
+ * job reacquires its own lock, and a lock older than the stale limit is
+ * reclaimed.  Correctness does not depend on the lock: each job extracts into
+ * its own content directory and the entry is published by atomically creating
+ * the K link.  A job that loses the publishing race discards its content and
+ * uses the winner's.  When the lock cannot be acquired in the allotted time
+ * the job stages the archive without it.
+ *
+ * All interaction with the host and Files is performed through CacheOps.
+ */
+public final class ZipAppCache
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(ZipAppCache.class);
+
+    // The default cache directory relative to the exec system's rootDir.
+    public static final String DEFAULT_CACHE_DIR = ".tapis/zipcache";
+
+    // Lock defaults.
+    public static final int  DEFAULT_LOCK_STALE_MINUTES = 60;
+    public static final long DEFAULT_LOCK_WAIT_MILLIS   = 30 * 60 * 1000L;
+    public static final long DEFAULT_POLL_MILLIS        = 10 * 1000L;
+
+    // Remote command exit codes.
+    public static final int EXIT_OK     = 0;
+    public static final int EXIT_MISS   = 3;
+    public static final int EXIT_LOCKED = 4;
+
+    // Cache entry name components.
+    private static final String CONTENT_INFIX = ".d.";
+    private static final String STAGE_INFIX   = ".stage.";
+    private static final String STALE_INFIX   = ".stale.";
+    private static final String LOCK_SUFFIX   = ".lock";
+    private static final String OWNER_FILE    = "owner";
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Host and Files operations.
+    private final CacheOps _ops;
+
+    // The absolute cache directory path on the host.
+    private final String   _cacheDir;
+
+    // The cache entry key.
+    private final String   _key;
+
+    // The job uuid, which identifies the job's temporary files and lock.
+    private final String   _owner;
+
+    // Used in messages.
+    private final String   _host;
+
+    // Whether exec directories are populated with hard links or copies.
+    private final boolean  _link;
+
+    // Locking configuration.
+    private final int      _lockStaleMinutes;
+    private final long     _lockWaitMillis;
+    private final long     _pollMillis;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public ZipAppCache(CacheOps ops, String cacheDir, String key, String owner, String host,
+                       boolean link)
+    {
+        this(ops, cacheDir, key, owner, host, link, DEFAULT_LOCK_STALE_MINUTES,
+             DEFAULT_LOCK_WAIT_MILLIS, DEFAULT_POLL_MILLIS);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public ZipAppCache(CacheOps ops, String cacheDir, String key, String owner, String host,
+                       boolean link, int lockStaleMinutes, long lockWaitMillis, long pollMillis)
+    {
+        _ops = ops;
+        _cacheDir = cacheDir;
+        _key = key;
+        _owner = owner;
+        _host = host;
+        _link = link;
+        _lockStaleMinutes = Math.max(1, lockStaleMinutes);
+        _lockWaitMillis = Math.max(0, lockWaitMillis);
+        _pollMillis = Math.max(1, pollMillis);
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* makeCacheKey:                                                          */
+    /* ---------------------------------------------------------------------- */
+    /** Derive the cache key from the archive url and a version token that
+     * changes whenever the archive content changes.
+     *
+     * @param url the archive url
+     * @param version a checksum, ETag or similar content version token
+     * @return the lowercase hex sha-256 digest of the url and version
+     */
+    public static String makeCacheKey(String url, String version)
+    {
+        MessageDigest md;
+        try {md = MessageDigest.getInstance("SHA-256");}
+            catch (NoSuchAlgorithmException e) {throw new IllegalStateException(e);}
+        md.update(url.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) '\n');
+        md.update(version.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isTrustedArchiveHost:                                                  */
+    /* ---------------------------------------------------------------------- */
+    /** Determine whether an http or https archive url refers to one of the 
+     * trusted hosts that Jobs may query for version information.  Urls with
+     * embedded credentials are never trusted.
+     *
+     * @param uri the archive url
+     * @param trustedHosts the lowercase names of the trusted hosts
+     * @return true if the url's host is trusted
+     */
+    public static boolean isTrustedArchiveHost(URI uri, List<String> trustedHosts)
+    {
+        var scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) return false;
+        if (uri.getHost() == null || uri.getRawUserInfo() != null) return false;
+        return trustedHosts.contains(uri.getHost().toLowerCase());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* populate:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Populate the exec directory from the cache, staging and extracting the
+     * archive into the cache first if necessary.
+     *
+     * @param execDir the absolute exec directory path on the host
+     * @param archiveFileName the name of the archive file
+     * @param isZip true to extract with unzip, false to use tar
+     * @return true if the entry was already cached, false if this job staged it
+     * @throws TapisException on error
+     */
+    public boolean populate(String execDir, String archiveFileName, boolean isZip)
+     throws TapisException
+    {
+        // The common case.
+        if (tryPopulate(execDir)) return true;
+
+        // Serialize staging with other jobs that miss on the same entry.
+        boolean locked = false;
+        long deadline = System.currentTimeMillis() + _lockWaitMillis;
+        while (true) {
+            String cmd = makeLockCmd(_cacheDir, _key, _owner, _lockStaleMinutes);
+            var result = execute(cmd);
+            if (result.exitStatus == EXIT_OK) {locked = true; break;}
+            if (result.exitStatus != EXIT_LOCKED) throw makeException(cmd, result);
+            if (System.currentTimeMillis() >= deadline) {
+                _log.warn("Job " + _owner + " could not lock ZIP app cache entry " + _key + 
+                          " on host " + _host + " within " + _lockWaitMillis + 
+                          " milliseconds, staging without the lock.");
+                break;
+            }
+
+            // Wait for the lock holder, who may publish the entry in the meantime.
+            try {Thread.sleep(_pollMillis);}
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TapisException(MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", e.getMessage()), e);
+            }
+            if (tryPopulate(execDir)) return true;
+        }
+
+        // Stage, extract and publish the entry unless the previous lock holder did.
+        try {
+            if (locked && tryPopulate(execDir)) return true;
+            _ops.stageArchive(makeStageDirName(_key, _owner), archiveFileName);
+            String cmd = makeExtractCmd(_cacheDir, _key, _owner, archiveFileName, isZip);
+            var result = execute(cmd);
+            if (result.exitStatus != EXIT_OK) throw makeException(cmd, result);
+            if (!tryPopulate(execDir))
+                throw makeException(makePopulateCmd(_cacheDir, _key, execDir, _link),
+                                    new CmdResult(EXIT_MISS, ""));
+            return false;
+        }
+        finally {
+            // Best effort, a lock left behind eventually becomes stale.
+            if (locked)
+                try {execute(makeUnlockCmd(_cacheDir, _key, _owner));}
+                catch (Exception e) {_log.error(e.getMessage(), e);}
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                            Package Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* makePopulateCmd:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** Link or copy the entry's content into the exec directory, exiting with
+     * EXIT_MISS if the entry has not been published.  When hard links can't be
+     * made the files are copied; a partially linked file is replaced rather
+     * than written through since the cached files are read-only.  Copies are
+     * made writable by their job.
+     */
+    static String makePopulateCmd(String cacheDir, String key, String execDir, boolean link)
+    {
+        String entry   = alwaysSingleQuote(makePath(cacheDir, key));
+        String content = alwaysSingleQuote(makePath(cacheDir, key) + "/.");
+        String target  = alwaysSingleQuote(execDir + "/");
+        String copy    = "cp -Rf " + content + " " + target;
+        String cmd = "[ -d " + entry + " ] || exit " + EXIT_MISS + "; ";
+        if (link) return cmd + "cp -Rlf " + content + " " + target + " 2>/dev/null || " + copy;
+        return cmd + copy + " && " +
+               "( cd " + entry + " && find . -type f -print0 ) | " +
+               "( cd " + alwaysSingleQuote(execDir) + " && xargs -0 -r chmod u+w )";
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeLockCmd:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Atomically create the lock directory, exiting with EXIT_LOCKED if it is
+     * held by another job.  A stale lock is moved aside and removed so that the
+     * next attempt can succeed.
+     */
+    static String makeLockCmd(String cacheDir, String key, String owner, int staleMinutes)
+    {
+        String lock  = alwaysSingleQuote(makePath(cacheDir, key + LOCK_SUFFIX));
+        String ownerFile = alwaysSingleQuote(makePath(cacheDir, key + LOCK_SUFFIX, OWNER_FILE));
+        String stale = alwaysSingleQuote(makePath(cacheDir, key + LOCK_SUFFIX + STALE_INFIX + owner));
+        String qowner = alwaysSingleQuote(owner);
+        return "mkdir -p " + alwaysSingleQuote(cacheDir) + " || exit 1; " +
+               "if mkdir " + lock + " 2>/dev/null; then echo " + qowner + " > " + ownerFile + "; exit 0; fi; " +
+               "[ \"$(cat " + ownerFile + " 2>/dev/null)\" = " + qowner + " ] && exit 0; " +
+               "if [ -n \"$(find " + lock + " -maxdepth 0 -mmin +" + staleMinutes + " 2>/dev/null)\" ]; " +
+               "then mv " + lock + " " + stale + " 2>/dev/null && rm -rf " + stale + "; fi; " +
+               "exit " + EXIT_LOCKED;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeUnlockCmd:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** Remove the lock directory if it is owned by this job. */
+    static String makeUnlockCmd(String cacheDir, String key, String owner)
+    {
+        String lock = alwaysSingleQuote(makePath(cacheDir, key + LOCK_SUFFIX));
+        String ownerFile = alwaysSingleQuote(makePath(cacheDir, key + LOCK_SUFFIX, OWNER_FILE));
+        return "[ \"$(cat " + ownerFile + " 2>/dev/null)\" = " + alwaysSingleQuote(owner) + " ] && " +
+               "rm -rf " + lock + "; exit 0";
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeExtractCmd:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Extract the staged archive into this job's content directory, make its
+     * files read-only and publish it by creating the entry link.  If another
+     * job published the entry first our content is discarded.  The command
+     * succeeds only if the entry exists when it completes.
+     */
+    static String makeExtractCmd(String cacheDir, String key, String owner,
+                                 String archiveFileName, boolean isZip)
+    {
+        String contentName = key + CONTENT_INFIX + owner;
+        String content = alwaysSingleQuote(makePath(cacheDir, contentName));
+        String stage   = alwaysSingleQuote(makePath(cacheDir, makeStageDirName(key, owner)));
+        String archive = alwaysSingleQuote(makePath(cacheDir, makeStageDirName(key, owner), archiveFileName));
+        String entry   = alwaysSingleQuote(makePath(cacheDir, key));
+        String extract = isZip ? "unzip -q " + archive : "tar -xf " + archive;
+        return "rm -rf " + content + " && mkdir -p " + content + " && " +
+               "( cd " + content + " && " + extract + " ) && " +
+               "find " + content + " -type f -exec chmod a-w {} + " +
+               "|| { rm -rf " + content + " " + stage + "; exit 1; }; " +
+               "rm -rf " + stage + "; " +
+               "[ -L " + entry + " ] && [ ! -e " + entry + " ] && rm -f " + entry + "; " +
+               "ln -sn " + alwaysSingleQuote(contentName) + " " + entry + " 2>/dev/null || " +
+               "rm -rf " + content + "; " +
+               "[ -d " + entry + " ]";
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeStageDirName:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** The name of the cache subdirectory into which a job transfers the archive. */
+    static String makeStageDirName(String key, String owner)
+    {
+        return key + STAGE_INFIX + owner;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* tryPopulate:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** @return true if the exec directory was populated, false on a cache miss */
+    private boolean tryPopulate(String execDir) throws TapisException
+    {
+        String cmd = makePopulateCmd(_cacheDir, _key, execDir, _link);
+        var result = execute(cmd);
+        if (result.exitStatus == EXIT_OK) return true;
+        if (result.exitStatus == EXIT_MISS) return false;
+        throw makeException(cmd, result);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* execute:                                                               */
+    /* ---------------------------------------------------------------------- */
+    private CmdResult execute(String cmd) throws TapisException
+    {
+        // The cache takes the place of the extract command.
+        if (_log.isDebugEnabled())
+            _log.debug(MsgUtils.getMsg("JOBS_ZIP_EXTRACT_CMD", _owner, _host, cmd));
+        var result = _ops.execute(cmd);
+        if (_log.isDebugEnabled())
+            _log.debug(MsgUtils.getMsg("JOBS_ZIP_EXTRACT_EXIT", _owner, _host, cmd,
+                                       result.exitStatus, result.output));
+        return result;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeException:                                                         */
+    /* ---------------------------------------------------------------------- */
+    private TapisException makeException(String cmd, CmdResult result)
+    {
+        return new TapisException(MsgUtils.getMsg("JOBS_ZIP_EXTRACT_ERROR", _owner, _host, cmd,
+                                                  result.exitStatus, result.output));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makePath:                                                              */
+    /* ---------------------------------------------------------------------- */
+    private static String makePath(String first, String... more)
+    {
+        return Paths.get(first, more).toString();
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** The result of a remote command. */
+    public static final class CmdResult
+    {
+        public final int    exitStatus;
+        public final String output;
+
+        public CmdResult(int exitStatus, String output)
+        {
+            this.exitStatus = exitStatus;
+            this.output = output;
+        }
+    }
+
+    /** The host and Files operations used by the cache. */
+    public interface CacheOps
+    {
+        /** Run a shell command on the execution host. */
+        CmdResult execute(String cmd) throws TapisException;
+
+        /** Transfer the archive into the named subdirectory of the cache directory
+         * and block until the transfer completes. */
+        void stageArchive(String stageDirName, String archiveFileName) throws TapisException;
+    }
+}
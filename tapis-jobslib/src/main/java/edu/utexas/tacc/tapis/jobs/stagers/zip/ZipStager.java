@@ -1,5 +1,6 @@
 package edu.utexas.tacc.tapis.jobs.stagers.zip;
 
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.jobs.exceptions.JobException;
 import edu.utexas.tacc.tapis.jobs.model.submit.JobFileInput;
 import edu.utexas.tacc.tapis.jobs.stagers.AbstractJobExecStager;
@@ -79,6 +80,7 @@ public class ZipStager
      *  2. Stage the zip/tar file. Will be a no-op if containerImage is an absolute path,
      *     otherwise it will be a file transfer.
      *  3. Run command to extract the zip/tar file into the execSystemExecDir
+     *     (steps 2 and 3 use the host's app cache for urls when it is enabled)
      *  4. Run command to determine the app executable.
      *  5. Create and install the wrapper script tapisjob.sh
      *  6. Create and install the environment variable file tapisjob.env
@@ -92,11 +94,14 @@ public class ZipStager
         // 1. If archive file is to be processed using unzip then make sure it is available on the exec host
         if (_hasZipExtension) jobFileManager.checkForCommand(UNZIP_COMMAND);
 
-        // 2. Stage the app archive. This may involve a transfer
-        jobFileManager.stageAppAssets(_containerImage, _containerImageIsUrl, _zipFileName);
+        // 2-3. Populate execSystemExecDir from the host's app cache when possible.
+        if (!stageFromAppCache(jobFileManager)) {
+            // 2. Stage the app archive. This may involve a transfer
+            jobFileManager.stageAppAssets(_containerImage, _containerImageIsUrl, _zipFileName);
 
-        // 3. Run a remote command to extract the application archive file into execSystemExecDir.
-        jobFileManager.extractZipArchive(_zipFullPath, _hasZipExtension);
+            // 3. Run a remote command to extract the application archive file into execSystemExecDir.
+            jobFileManager.extractZipArchive(_zipFullPath, _hasZipExtension);
+        }
 
         // Now that app archive is unpacked, we can determine the app executable
         // 4. Get the relative path to the app executable.
@@ -219,6 +224,53 @@ public class ZipStager
             """;
     }
 
+    /* ---------------------------------------------------------------------- */
+    /* stageFromAppCache:                                                     */
+    /* ---------------------------------------------------------------------- */
+    /** Populate the exec directory from the exec host's ZIP app cache, staging
+     * the archive into the cache if it's not already there.  The cache is only
+     * used for url archives whose version can be determined and when the exec
+     * directory is not shared.  If the cache fails, the failure is logged and
+     * the archive is staged and extracted without the cache.
+     *
+     * @param jobFileManager the job's file manager
+     * @return true if the exec directory was populated, false if the cache was not used
+     * @throws TapisException on error
+     */
+    private boolean stageFromAppCache(JobFileManager jobFileManager)
+     throws TapisException
+    {
+        // See if the cache applies to this job.
+        var parms = RuntimeParameters.getInstance();
+        if (!parms.isZipAppCacheEnabled() || !_containerImageIsUrl) return false;
+        if (!StringUtils.isBlank(_jobCtx.getJobSharedAppCtx().getSharingExecSystemExecDirAppOwner()))
+            return false;
+
+        // The cache key changes whenever the archive changes.
+        String version = jobFileManager.getAppArchiveVersion(_containerImage);
+        if (version == null) return false;
+        String key = ZipAppCache.makeCacheKey(_containerImage, version);
+
+        // Populate the exec directory.
+        String rootDir = Optional.ofNullable(_jobCtx.getExecutionSystem().getRootDir()).orElse("/");
+        String cacheDir = Paths.get(rootDir, parms.getZipAppCacheDir()).toString();
+        var cache = new ZipAppCache(jobFileManager.makeZipAppCacheOps(_containerImage, parms.getZipAppCacheDir()),
+                                    cacheDir, key, _job.getUuid(), _jobCtx.getExecutionSystem().getHost(),
+                                    parms.isZipAppCacheLink());
+        boolean hit;
+        try {hit = cache.populate(JobExecutionUtils.getExecDir(_jobCtx, _job), _zipFileName, _hasZipExtension);}
+        catch (TapisException e) {
+            _log.warn("Job " + _job.getUuid() + " could not use ZIP app cache entry " + key + 
+                      " in " + cacheDir + ", staging the app archive without the cache: " + 
+                      e.getMessage(), e);
+            return false;
+        }
+        if (_log.isDebugEnabled())
+            _log.debug("Job " + _job.getUuid() + " populated its exec directory from ZIP app cache entry " +
+                       key + " in " + cacheDir + (hit ? " (hit)." : " (miss)."));
+        return true;
+    }
+
     /* ---------------------------------------------------------------------- */
     /* configureRunCmd:                                                       */
     /* ---------------------------------------------------------------------- */
@@ -1,5 +1,11 @@
 package edu.utexas.tacc.tapis.jobs.statemachine;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.statefulj.fsm.model.State;
@@ -12,6 +18,10 @@ import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
  * so that calling code does not have to know anything about
  * the state machine.
  * 
+ * The FSM is consulted once for every pair of statuses when this class is
+ * loaded, and the resulting transitions are saved in an immutable table.
+ * Transition checks read the table without locking.
+ * 
  * @author rcardone
  */
 public final class JobFSMUtils
@@ -34,10 +44,13 @@ public final class JobFSMUtils
     // Stateful entity object that holds state variable.
     private static JobFSMStatefulEntity _entity;
     
+    // Immutable map of each status to the statuses it can transition to.
+    private static Map<JobStatusType,Set<JobStatusType>> _transitions;
+    
     /* ********************************************************************** */
     /*                              Initializer                               */
     /* ********************************************************************** */
-    static {initFSM();}
+    static {initFSM(); initTransitions();}
 
     /* ********************************************************************** */
     /*                             Public Methods                             */
@@ -46,8 +59,44 @@ public final class JobFSMUtils
     /* hasTransition:                                                         */
     /* ---------------------------------------------------------------------- */
     /** Validate that a transition from the current state to the proposed new
-     * state has been defined.  We can only process one check at a time since
-     * we use a single FSM for all validation.
+     * state has been defined.  The answer comes from the transition table 
+     * computed from the FSM when this class was loaded, so concurrent calls
+     * don't contend with each other.  Null parameters are tolerated and cause 
+     * a false result.
+     * 
+     * @param fromStatus the current job status
+     * @param newState the proposed new job status
+     * @return true if the transition is legal, false otherwise
+     */
+    public static boolean hasTransition(JobStatusType fromStatus, JobStatusType toStatus)
+    {
+        // Garbage in, garbage out.
+        if (fromStatus == null || toStatus == null) return false;
+        return _transitions.get(fromStatus).contains(toStatus);
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* getTransitions:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Return the immutable set of statuses that the specified status can 
+     * transition to.
+     * 
+     * @param fromStatus the current job status
+     * @return the legal next statuses, empty for null input
+     */
+    public static Set<JobStatusType> getTransitions(JobStatusType fromStatus)
+    {
+        if (fromStatus == null) return Collections.emptySet();
+        return _transitions.get(fromStatus);
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* hasFSMTransition:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Validate that a transition from the current state to the proposed new
+     * state has been defined by walking the state machine.  We can only process 
+     * one check at a time since we use a single FSM for all validation.  This
+     * method populates the transition table and is available to tests.
      * 
      * All runtime exceptions thrown by lower level routines are captured and
      * returned as a false result.  IllegalArgumentExceptions may represent a 
@@ -58,8 +107,8 @@ public final class JobFSMUtils
      * @param newState the proposed new job status
      * @return true if the transition is legal, false otherwise
      */
-    public static synchronized boolean hasTransition(JobStatusType fromStatus, 
-                                                     JobStatusType toStatus)
+    static synchronized boolean hasFSMTransition(JobStatusType fromStatus, 
+                                                 JobStatusType toStatus)
     {
         // Garbage in, garbage out.
         if (fromStatus == null || toStatus == null) return false;
@@ -175,4 +224,20 @@ public final class JobFSMUtils
         // Create the entity
         _entity = new JobFSMStatefulEntity();
     }
+    
+    /* ---------------------------------------------------------------------- */
+    /* initTransitions:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** Probe the FSM with every pair of statuses and save the legal transitions. */
+    private static void initTransitions()
+    {
+        var transitions = new EnumMap<JobStatusType,Set<JobStatusType>>(JobStatusType.class);
+        for (var from : JobStatusType.values()) {
+            var targets = EnumSet.noneOf(JobStatusType.class);
+            for (var to : JobStatusType.values())
+                if (hasFSMTransition(from, to)) targets.add(to);
+            transitions.put(from, Collections.unmodifiableSet(targets));
+        }
+        _transitions = Collections.unmodifiableMap(transitions);
+    }
 }
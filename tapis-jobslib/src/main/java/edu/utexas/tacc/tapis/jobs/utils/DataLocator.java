@@ -1,5 +1,6 @@
 package edu.utexas.tacc.tapis.jobs.utils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
@@ -27,6 +28,9 @@ public class DataLocator {
     // HTTP codes defined here so we don't reference jax-rs classes on the backend.
     public static final int HTTP_INTERNAL_SERVER_ERROR = 500;
     
+    // Number of files requested per call when retrieving complete listings.
+    public static final int COMPLETE_LISTING_PAGE_SIZE = 1000;
+    
     /* ********************************************************************** */
     /*                                 Fields                                 */
     /* ********************************************************************** */
@@ -109,6 +113,34 @@ public class DataLocator {
     	return outputList;
      }
      
+     /* ---------------------------------------------------------------------- */
+     /* getCompleteJobOutputListing:                                           */
+     /* ---------------------------------------------------------------------- */
+     /** Retrieve all files of a job output directory by paging through the Files
+      * service listing.  Retrieval stops as soon as the listing is known to 
+      * exceed the maximum number of files.
+      * 
+      * @param maxFiles the maximum number of files to retrieve
+      * @return the complete listing or null if it has more than maxFiles files
+      */
+     public JobOutputListCache.Listing getCompleteJobOutputListing(
+                                                JobOutputInfo jobOutputInfo, String tenant, 
+                                                String user, String impersonationId, 
+                                                String sharedAppCtx, boolean recursiveFlag,
+                                                int maxFiles) 
+      throws TapisImplException
+     {
+         var files = new ArrayList<FileInfo>();
+         while (true) {
+             var page = getJobOutputListings(jobOutputInfo, tenant, user, COMPLETE_LISTING_PAGE_SIZE, 
+                                             files.size(), impersonationId, sharedAppCtx, recursiveFlag);
+             if (page != null) files.addAll(page);
+             if (files.size() > maxFiles) return null;
+             if (page == null || page.size() < COMPLETE_LISTING_PAGE_SIZE) break;
+         }
+         return new JobOutputListCache.Listing(files);
+     }
+     
      /* ---------------------------------------------------------------------- */
      /* getJobOutputDownload:                                                  */
      /* ---------------------------------------------------------------------- */
@@ -0,0 +1,127 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException.Condition;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** The position of a client in the stream of a user's job changes.  Jobs are
+ * ordered by the id of the database transaction that last wrote them and then
+ * by job id, so a watermark records the (xid, id) pair of the last job a client
+ * has seen.  Jobs written by the same transaction are never skipped or repeated
+ * across pages because the job id breaks the tie.
+ *
+ * Watermarks are exchanged with clients as opaque, URL safe strings.  Clients
+ * may also start from an ISO-8601 instant, which selects the jobs last updated
+ * after that instant, or from nothing, which selects all jobs.  Watermarks 
+ * issued before jobs were ordered by transaction start over from the instant
+ * they recorded.
+ */
+public final class JobChangeWatermark
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Encoded content prefixes and separator.
+    private static final String PREFIX     = "jc2";
+    private static final String OLD_PREFIX = "jc1";
+    private static final char   SEP        = ':';
+
+    // The position before all jobs.
+    public static final JobChangeWatermark START = new JobChangeWatermark(0, 0);
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    private final long    _xid;
+    private final long    _id;
+    private final Instant _updatedAfter;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /**
+     * @param xid the id of the transaction that last wrote the last job seen
+     * @param id the id of the last job seen
+     */
+    public JobChangeWatermark(long xid, long id)
+    {
+        this(xid, id, null);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    private JobChangeWatermark(long xid, long id, Instant updatedAfter)
+    {
+        _xid = xid;
+        _id = id;
+        _updatedAfter = updatedAfter;
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* encode:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Create the opaque string form of this watermark. */
+    public String encode()
+    {
+        String s = PREFIX + SEP + _xid + SEP + _id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* decode:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Convert a since parameter into a watermark.
+     *
+     * @param since an encoded watermark, an ISO-8601 instant or blank
+     * @return the watermark after which jobs are selected
+     * @throws TapisImplException with BAD_REQUEST if since is malformed
+     */
+    public static JobChangeWatermark decode(String since)
+     throws TapisImplException
+    {
+        // Start from the beginning.
+        if (StringUtils.isBlank(since)) return START;
+
+        // Start with the jobs updated after the instant.
+        try {return new JobChangeWatermark(0, 0, Instant.parse(since.trim()));}
+        catch (Exception e) {/* try the opaque form */}
+
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(since.trim()), StandardCharsets.UTF_8);
+            String[] parts = s.split(String.valueOf(SEP), -1);
+            if (parts.length == 3 && PREFIX.equals(parts[0])) {
+                long xid = Long.parseLong(parts[1]);
+                long id  = Long.parseLong(parts[2]);
+                if (xid >= 0 && id >= 0) return new JobChangeWatermark(xid, id);
+            }
+            else if (parts.length == 4 && OLD_PREFIX.equals(parts[0]) && Long.parseLong(parts[3]) >= 0) 
+                return new JobChangeWatermark(0, 0, 
+                    Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+        }
+        catch (Exception e) {/* reported below */}
+
+        String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "getJobChanges", "since", since);
+        throw new TapisImplException(msg, Condition.BAD_REQUEST);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* accessors:                                                             */
+    /* ---------------------------------------------------------------------- */
+    public long getXid() {return _xid;}
+    public long getId() {return _id;}
+    /** The instant after which selected jobs were last updated, or null. */
+    public Instant getUpdatedAfter() {return _updatedAfter;}
+}
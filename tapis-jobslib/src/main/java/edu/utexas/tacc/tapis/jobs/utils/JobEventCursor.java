@@ -0,0 +1,78 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException.Condition;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** Encode and decode the opaque startAfter cursors used to page through a job's
+ * history.  A cursor records the job and the id of the last event returned so
+ * the next page can be selected with a keyset query.  Clients should treat
+ * cursors as opaque strings; the encoding is URL safe and may change.
+ */
+public final class JobEventCursor
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Encoded content prefix and separator.
+    private static final String PREFIX = "je1";
+    private static final char   SEP    = ':';
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private JobEventCursor() {}
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* encode:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Create the cursor that selects the events following eventId.
+     *
+     * @param jobUuid the job whose history is paged
+     * @param eventId the id of the last event on the current page
+     * @return the opaque cursor
+     */
+    public static String encode(String jobUuid, long eventId)
+    {
+        String s = PREFIX + SEP + jobUuid + SEP + eventId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* decode:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Extract the event id from a cursor previously created for the same job.
+     *
+     * @param jobUuid the job whose history is paged
+     * @param cursor a cursor returned by encode()
+     * @return the id after which the next page starts
+     * @throws TapisImplException with BAD_REQUEST if the cursor is malformed or
+     *         was created for a different job
+     */
+    public static long decode(String jobUuid, String cursor)
+     throws TapisImplException
+    {
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(cursor.trim()),
+                                  StandardCharsets.UTF_8);
+            int first = s.indexOf(SEP);
+            int last  = s.lastIndexOf(SEP);
+            if (first > 0 && last > first && PREFIX.equals(s.substring(0, first))
+                && s.substring(first + 1, last).equals(jobUuid))
+            {
+                long id = Long.parseLong(s.substring(last + 1));
+                if (id >= 0) return id;
+            }
+        }
+        catch (Exception e) {/* reported below */}
+
+        String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "getJobHistory", "startAfter", cursor);
+        throw new TapisImplException(msg, Condition.BAD_REQUEST);
+    }
+}
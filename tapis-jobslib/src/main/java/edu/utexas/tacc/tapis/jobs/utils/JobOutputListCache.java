@@ -0,0 +1,291 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+
+/** Cache of complete output listings of terminated jobs whose outputs have been
+ * archived.  Such outputs don't change, so a listing retrieved from the Files
+ * service once can serve every later page request for the same directory.
+ *
+ * Listings are keyed by the requesting user as well as by job, directory and
+ * recursion, since the Files service authorizes each listing on behalf of the
+ * user.  Each listing records the version of the job record it was retrieved
+ * for.  When a request presents a different version, such as after the job's
+ * outputs were archived again, all listings of the job are discarded.  There
+ * is no time-based expiration; the least recently used listings are evicted
+ * when the cache is full.
+ *
+ * Listings with too many files are not cached.  Only the fact that they are
+ * too large is recorded, so later requests can page through the Files service
+ * without first trying to retrieve the complete listing again.
+ */
+public final class JobOutputListCache
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Default maximum number of cached listings.
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    // Listings with more files are not cached.
+    public static final int MAX_LISTING_FILES = 10000;
+
+    // Shared instance, created on first use.
+    private static JobOutputListCache _instance;
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Constructor input.
+    private final int _maxEntries;
+
+    // Listings in least recently used order, guarded by the map itself.
+    private final LinkedHashMap<Key,Entry> _entries;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /**
+     * @param maxEntries the maximum number of listings, 0 disables caching
+     */
+    public JobOutputListCache(int maxEntries)
+    {
+        _maxEntries = Math.max(0, maxEntries);
+        _entries = new LinkedHashMap<Key,Entry>(64, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key,Entry> eldest)
+            {return size() > _maxEntries;}
+        };
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getInstance:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public static synchronized JobOutputListCache getInstance()
+    {
+        if (_instance == null)
+            _instance = new JobOutputListCache(RuntimeParameters.getInstance().getOutputListCacheSize());
+        return _instance;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isEnabled:                                                             */
+    /* ---------------------------------------------------------------------- */
+    public boolean isEnabled() {return _maxEntries > 0;}
+
+    /* ---------------------------------------------------------------------- */
+    /* get:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Return the cached listing if it was retrieved for the given version of
+     * the job.  A listing of another version invalidates all of the job's
+     * listings.
+     *
+     * @param key the listing's identity
+     * @param version the current version of the job record
+     * @return the listing or null if it isn't cached or is too large
+     */
+    public Listing get(Key key, Object version)
+    {
+        var entry = getEntry(key, version);
+        return entry == null ? null : entry._listing;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isOversized:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Has the listing been found to be too large to cache?
+     *
+     * @param key the listing's identity
+     * @param version the current version of the job record
+     * @return true if the listing is known to exceed MAX_LISTING_FILES
+     */
+    public boolean isOversized(Key key, Object version)
+    {
+        var entry = getEntry(key, version);
+        return entry != null && entry._listing == null;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* put:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Save a complete listing.  Listings that are too large, or null listings,
+     * are only recorded as oversized.
+     *
+     * @param key the listing's identity
+     * @param version the version of the job record the listing belongs to
+     * @param listing the complete listing or null if it's too large
+     */
+    public void put(Key key, Object version, Listing listing)
+    {
+        if (!isEnabled()) return;
+        if (listing != null && listing.size() > MAX_LISTING_FILES) listing = null;
+        synchronized (_entries) {
+            // Discard the job's listings of other versions.
+            for (var entry : _entries.entrySet())
+                if (entry.getKey()._jobUuid.equals(key._jobUuid) &&
+                    !Objects.equals(entry.getValue()._version, version)) {
+                    invalidate(key._jobUuid);
+                    break;
+                }
+            _entries.put(key, new Entry(listing, version));
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* invalidate:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Discard all listings of a job.
+     *
+     * @param jobUuid the job
+     * @return the number of discarded listings
+     */
+    public int invalidate(String jobUuid)
+    {
+        synchronized (_entries) {
+            int before = _entries.size();
+            _entries.keySet().removeIf(k -> k._jobUuid.equals(jobUuid));
+            return before - _entries.size();
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* size:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    public int size() {synchronized (_entries) {return _entries.size();}}
+
+    /* ---------------------------------------------------------------------- */
+    /* clear:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    public void clear() {synchronized (_entries) {_entries.clear();}}
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getEntry:                                                              */
+    /* ---------------------------------------------------------------------- */
+    private Entry getEntry(Key key, Object version)
+    {
+        synchronized (_entries) {
+            var entry = _entries.get(key);
+            if (entry == null) return null;
+            if (Objects.equals(entry._version, version)) return entry;
+            invalidate(key._jobUuid);
+            return null;
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                               Key Class                                */
+    /* ********************************************************************** */
+    /** Identifies a listing of a job output directory on behalf of a user. */
+    public static final class Key
+    {
+        private final String  _tenant;
+        private final String  _user;
+        private final String  _jobUuid;
+        private final String  _systemUrl;
+        private final boolean _recurse;
+
+        /**
+         * @param tenant the requestor's tenant
+         * @param user the requestor
+         * @param jobUuid the job
+         * @param systemUrl the listed directory on the archive system
+         * @param recurse whether subdirectories are listed
+         */
+        public Key(String tenant, String user, String jobUuid, String systemUrl, boolean recurse)
+        {
+            _tenant = tenant;
+            _user = user;
+            _jobUuid = jobUuid;
+            _systemUrl = systemUrl;
+            _recurse = recurse;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            var that = (Key) obj;
+            return _recurse == that._recurse && Objects.equals(_tenant, that._tenant) &&
+                   Objects.equals(_user, that._user) && Objects.equals(_jobUuid, that._jobUuid) &&
+                   Objects.equals(_systemUrl, that._systemUrl);
+        }
+
+        @Override
+        public int hashCode() {return Objects.hash(_tenant, _user, _jobUuid, _systemUrl, _recurse);}
+
+        @Override
+        public String toString()
+        {return _jobUuid + ":" + _systemUrl + (_recurse ? " (recursive)" : "") + "@" + _user + "@" + _tenant;}
+    }
+
+    /* ********************************************************************** */
+    /*                             Listing Class                              */
+    /* ********************************************************************** */
+    /** A complete directory listing in the order returned by the Files service.
+     * Pages can start at an offset or after a named file, so a client paging
+     * with the path of the last file it received never causes the listing to be
+     * traversed from the start.
+     */
+    public static final class Listing
+    {
+        private final List<FileInfo>       _files;
+        private final Map<String,Integer>  _positions;
+
+        public Listing(List<FileInfo> files)
+        {
+            _files = Collections.unmodifiableList(files);
+            _positions = new HashMap<>(Math.max(16, files.size() * 2));
+            for (int i = 0; i < files.size(); i++)
+                _positions.putIfAbsent(files.get(i).getPath(), i);
+        }
+
+        public int size() {return _files.size();}
+
+        /** Return the position following the named file or -1 if the file
+         * isn't in the listing.
+         */
+        public int indexAfter(String path)
+        {
+            Integer pos = _positions.get(path);
+            return pos == null ? -1 : pos + 1;
+        }
+
+        /** Return a page of at most limit files starting at the offset. */
+        public List<FileInfo> getPage(int offset, int limit)
+        {
+            int from = Math.min(Math.max(0, offset), _files.size());
+            int to = limit < 0 ? _files.size() : (int) Math.min((long) from + limit, _files.size());
+            return _files.subList(from, to);
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                              Entry Class                               */
+    /* ********************************************************************** */
+    private static final class Entry
+    {
+        // Null if the listing is too large to cache.
+        private final Listing _listing;
+        private final Object  _version;
+
+        private Entry(Listing listing, Object version) {_listing = listing; _version = version;}
+    }
+}
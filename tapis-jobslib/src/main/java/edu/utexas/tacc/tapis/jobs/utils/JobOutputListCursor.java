@@ -0,0 +1,76 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException.Condition;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** Encode and decode the opaque startAfter cursors used to page through a job's
+ * output listing.  A cursor records the job and the path of the last file
+ * returned so the next page can be located in a complete listing without 
+ * counting from the start.  Clients should treat cursors as opaque strings; 
+ * the encoding is URL safe and may change.
+ */
+public final class JobOutputListCursor
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Encoded content prefix and separator.
+    private static final String PREFIX = "jo1";
+    private static final char   SEP    = ':';
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private JobOutputListCursor() {}
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* encode:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Create the cursor that selects the files following path.
+     *
+     * @param jobUuid the job whose output is listed
+     * @param path the path of the last file on the current page
+     * @return the opaque cursor
+     */
+    public static String encode(String jobUuid, String path)
+    {
+        String s = PREFIX + SEP + jobUuid + SEP + path;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* decode:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Extract the file path from a cursor previously created for the same job.
+     * Job uuids don't contain the separator but paths may, so the path is
+     * everything after the second separator.
+     *
+     * @param jobUuid the job whose output is listed
+     * @param cursor a cursor returned by encode()
+     * @return the path after which the next page starts
+     * @throws TapisImplException with BAD_REQUEST if the cursor is malformed or
+     *         was created for a different job
+     */
+    public static String decode(String jobUuid, String cursor)
+     throws TapisImplException
+    {
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(cursor.trim()),
+                                  StandardCharsets.UTF_8);
+            String prefix = PREFIX + SEP + jobUuid + SEP;
+            if (s.startsWith(prefix) && s.length() > prefix.length()) 
+                return s.substring(prefix.length());
+        }
+        catch (Exception e) {/* reported below */}
+
+        String msg = MsgUtils.getMsg("TAPIS_INVALID_PARAMETER", "getJobOutputList", "startAfter", cursor);
+        throw new TapisImplException(msg, Condition.BAD_REQUEST);
+    }
+}
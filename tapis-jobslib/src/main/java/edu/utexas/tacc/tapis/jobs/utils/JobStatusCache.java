@@ -0,0 +1,191 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobStatusDTO;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+
+/** Cache of the status records of jobs in a terminal state.  Clients poll the
+ * status endpoint frequently, and a terminal job's status, condition, owner and
+ * tenant never change, so these lookups don't need to reach the database.
+ *
+ * Only the visibility of a terminal job can change.  Hiding or unhiding a job
+ * through this service instance invalidates its entry immediately; entries
+ * also expire after a few minutes so changes made through other instances are
+ * eventually seen.  The cache holds only database rows: authorization is
+ * still checked on every request.
+ */
+public final class JobStatusCache
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Default maximum number of cached status records.
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    // Entry lifetime, which bounds how long a visibility change can go unseen.
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+
+    // Shared instance, created on first use.
+    private static JobStatusCache _instance;
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Constructor input.
+    private final int          _maxEntries;
+    private final long         _ttlMillis;
+    private final LongSupplier _clock;
+
+    // Status records in least recently used order, guarded by the map itself.
+    private final LinkedHashMap<String,Entry> _entries;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /**
+     * @param maxEntries the maximum number of records, 0 disables caching
+     */
+    public JobStatusCache(int maxEntries)
+    {
+        this(maxEntries, DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Test constructor with a replaceable clock. */
+    JobStatusCache(int maxEntries, long ttlMillis, LongSupplier clock)
+    {
+        _maxEntries = Math.max(0, maxEntries);
+        _ttlMillis = ttlMillis;
+        _clock = clock;
+        _entries = new LinkedHashMap<String,Entry>(64, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,Entry> eldest)
+            {return size() > _maxEntries;}
+        };
+    }
+
+    /* ********************************************************************** */
+    /*                             Public Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* getInstance:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public static synchronized JobStatusCache getInstance()
+    {
+        if (_instance == null)
+            _instance = new JobStatusCache(RuntimeParameters.getInstance().getStatusCacheSize());
+        return _instance;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isEnabled:                                                             */
+    /* ---------------------------------------------------------------------- */
+    public boolean isEnabled() {return _maxEntries > 0;}
+
+    /* ---------------------------------------------------------------------- */
+    /* get:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Return a copy of a cached status record.
+     *
+     * @param jobUuid the job
+     * @return the record or null if it isn't cached or has expired
+     */
+    public JobStatusDTO get(String jobUuid)
+    {
+        if (!isEnabled() || jobUuid == null) return null;
+        synchronized (_entries) {
+            var entry = _entries.get(jobUuid);
+            if (entry == null) return null;
+            if (_clock.getAsLong() - entry._cachedAt >= _ttlMillis) {
+                _entries.remove(jobUuid);
+                return null;
+            }
+            return copy(entry._status);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* put:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Save a copy of a status record if the job is in a terminal state.
+     *
+     * @param status the record read from the database
+     * @return true if the record was cached
+     */
+    public boolean put(JobStatusDTO status)
+    {
+        if (!isEnabled() || status == null || status.getJobUuid() == null ||
+            !JobStatusType.isTerminal(status.getStatus()))
+           return false;
+        synchronized (_entries) {
+            _entries.put(status.getJobUuid(), new Entry(copy(status), _clock.getAsLong()));
+        }
+        return true;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* invalidate:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Discard a job's record.
+     *
+     * @param jobUuid the job
+     * @return true if a record was discarded
+     */
+    public boolean invalidate(String jobUuid)
+    {
+        synchronized (_entries) {return _entries.remove(jobUuid) != null;}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* size:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    public int size() {synchronized (_entries) {return _entries.size();}}
+
+    /* ---------------------------------------------------------------------- */
+    /* clear:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    public void clear() {synchronized (_entries) {_entries.clear();}}
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* copy:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    private static JobStatusDTO copy(JobStatusDTO status)
+    {
+        var copy = new JobStatusDTO();
+        copy.setJobUuid(status.getJobUuid());
+        copy.setJobId(status.getJobId());
+        copy.setStatus(status.getStatus());
+        copy.setCondition(status.getCondition());
+        copy.setOwner(status.getOwner());
+        copy.setVisible(status.getVisible());
+        copy.setTenant(status.getTenant());
+        copy.setCreatedBy(status.getCreatedBy());
+        copy.setCreatedByTenant(status.getCreatedByTenant());
+        copy.setLastUpdated(status.getLastUpdated());
+        return copy;
+    }
+
+    /* ********************************************************************** */
+    /*                              Entry Class                               */
+    /* ********************************************************************** */
+    private static final class Entry
+    {
+        private final JobStatusDTO _status;
+        private final long         _cachedAt;
+
+        private Entry(JobStatusDTO status, long cachedAt) {_status = status; _cachedAt = cachedAt;}
+    }
+}
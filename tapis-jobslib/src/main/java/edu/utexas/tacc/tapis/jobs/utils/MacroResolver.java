@@ -28,7 +28,7 @@ public final class MacroResolver
     // The character sequence that indicates the beginning of a macro definition.
     public static final String MACRO_DELIMITER = "${";
     
-    // Maximum number top level iterations allowed when resolving macros.
+    // Maximum depth of nested macro values allowed when resolving macros.
     private static final int MAX_ITERATIONS = 16;
     
     // Host eval pattern. Group 1 = variable name, group 2 = suffix.
@@ -128,47 +128,28 @@ public final class MacroResolver
      */
     public String replaceMacros(String text)
     {
-        // Avoid crashing.
+        // Avoid crashing and needless work.
         if (text == null) return null;
-        String newText = "";
-        int startIndex = 0;
-        while (startIndex < text.length()) {
-            
-            // Find the beginning of the next macro.
-            int mstart = text.indexOf(MACRO_DELIMITER, startIndex);
-            if (mstart < 0) {
-                newText += text.substring(startIndex);
-                break;
-            }
-                
-            // Find the macro termination.
-            int mend = text.indexOf("}", mstart);
-            if (mend < 0) {
-                newText += text.substring(startIndex);
-                break;
-            }
-            
-            // Avoid empty macros.
-            if (mstart+2 == mend) {
-                newText += text.substring(startIndex, mend + 1);
-                startIndex = mend + 1;
-                continue;
-            }
-            
-            // Isolate the macro name.
-            String macroName = text.substring(mstart+2, mend);
-            String mvalue = _macros.get(macroName);
-            if (StringUtils.isBlank(mvalue)) {
-                newText += text.substring(startIndex, mend + 1);
-            } else {
-                newText += text.substring(startIndex, mstart) + mvalue; 
+        var template = MacroTemplate.compile(text);
+        if (!template.hasMacros()) return text;
+        
+        // Unknown macros and ill-formed definitions are left as is.
+        var buf = new StringBuilder(text.length() + 64);
+        for (int i = 0; i < template.size(); i++) {
+            String segment = template.getText(i);
+            switch (template.getKind(i)) {
+                case MACRO:
+                    String mvalue = _macros.get(segment);
+                    if (StringUtils.isBlank(mvalue)) 
+                        buf.append(MACRO_DELIMITER).append(segment).append('}');
+                      else buf.append(mvalue);
+                    break;
+                default:
+                    buf.append(segment);
             }
-            
-            // Start the next iteration right after the closing brace.
-            startIndex = mend + 1;
         }
         
-        return newText;
+        return buf.toString();
     }
     
     /* **************************************************************************** */
@@ -253,9 +234,10 @@ public final class MacroResolver
      * any values that may be referenced, directly or transitively, from macros
      * contained in the text.
      * 
-     * By calling a recursive routine, this method supports macros that resolve to 
-     * strings that themselves can contain macros.  The number of calls to the recursive
-     * routine are limited so as to avoid cycles not easily detected during recursion.  
+     * The text is compiled into a template and resolved in a single left-to-right
+     * pass.  Macro values that themselves contain macros are resolved recursively,
+     * and each macro's resolved value is computed only once per call.  The 
+     * recursion depth is limited and cycles are detected on every call chain.
      * 
      * @param text that non-empty text that may contain one or more macros
      * @return a string with all macro definitions replaced with their concrete values
@@ -269,94 +251,112 @@ public final class MacroResolver
             throw new TapisException(msg);
         }
         
-        // Set up recursive processing.
-        final String originalText = text;
-        var macrosResolved = new ArrayList<String>();
-        int iterations = 1;
+        // Most text doesn't contain macros.
+        var template = MacroTemplate.compile(text);
+        if (!template.hasMacros()) return text;
         
-        while (true) {
-            // Cut things off to avoid infinite loop.
-            if (iterations > MAX_ITERATIONS) {
-                String msg = MsgUtils.getMsg("JOBS_MACRO_TOO_COMPLEX", originalText, MAX_ITERATIONS);
-                throw new TapisException(msg);
+        // Resolve all segments.
+        var buf = new StringBuilder(text.length() + 64);
+        appendResolved(template, text, buf, new ArrayList<String>(), new HashMap<String,String>());
+        return buf.toString();
+    }
+    
+    /* ---------------------------------------------------------------------------- */
+    /* appendResolved:                                                              */
+    /* ---------------------------------------------------------------------------- */
+    /** Append the template's text to the buffer with all its macros replaced by 
+     * their fully resolved values.
+     * 
+     * @param template the compiled text
+     * @param originalText the text passed to resolve() for messages
+     * @param buf the output buffer
+     * @param macrosResolving the macros whose values are currently being resolved
+     * @param resolvedValues macro values already resolved during this call
+     * @throws TapisException if value replacement fails
+     */
+    private void appendResolved(MacroTemplate template, String originalText, StringBuilder buf,
+                                ArrayList<String> macrosResolving, 
+                                HashMap<String,String> resolvedValues)
+     throws TapisException
+    {
+        for (int i = 0; i < template.size(); i++) {
+            String segment = template.getText(i);
+            switch (template.getKind(i)) {
+                case LITERAL:
+                    buf.append(segment);
+                    break;
+                    
+                case MACRO:
+                    buf.append(resolveMacro(segment, originalText, macrosResolving, resolvedValues));
+                    break;
+                    
+                case EMPTY: {
+                    String msg = MsgUtils.getMsg("JOBS_MACRO_EMPTY", originalText);
+                    throw new TapisException(msg);
+                }
+                    
+                default: {
+                    String msg = MsgUtils.getMsg("JOBS_MACRO_ILL_FORMED", originalText);
+                    throw new TapisException(msg);
+                }
             }
-            
-            // Call the recursive method.
-            macrosResolved.clear();
-            String newText = replaceFirstMacro(text, macrosResolved);
-            if (newText == text) break;
-            
-            // Use the new text on the next iteration. 
-            text = newText;
-            iterations++;
         }
-        
-        return text;
     }
     
     /* ---------------------------------------------------------------------------- */
-    /* replaceFirstMacro:                                                           */
+    /* resolveMacro:                                                                */
     /* ---------------------------------------------------------------------------- */
-    /** Recursive method that replaces the first macro definition in the text with its 
-     * value.  The value can itself contain a macro definition, which causes this 
-     * method to recursively process the first macro of replacement strings.
-     * 
-     * Cycles are detected during any recursive call chain, but since this method
-     * only replaces the first (leftmost) macro in any string, it is possible for
-     * replacement strings containing multiple macros to escape cycle detection.  It
-     * is the caller's responsibility to detect such cycles or, at least, limit
-     * the number of times it calls this method to avoid infinite loops. 
+    /** Return the fully resolved value of a macro.  Values that contain macros
+     * are recursively resolved with cycle detection.
      * 
-     * @param text a string that may contain a macro definition
-     * @param macrosResolved the list of macro names already during recursion
-     * @return the string with its first macro replaced by its value
+     * @param macroName the macro to resolve
+     * @param originalText the text passed to resolve() for messages
+     * @param macrosResolving the macros whose values are currently being resolved
+     * @param resolvedValues macro values already resolved during this call
+     * @return the macro's value with no macro references
      * @throws TapisException if value replacement fails
      */
-    private String replaceFirstMacro(String text, ArrayList<String> macrosResolved)
+    private String resolveMacro(String macroName, String originalText, 
+                                ArrayList<String> macrosResolving, 
+                                HashMap<String,String> resolvedValues)
      throws TapisException
     {
-        // Find the beginning of the first macro.
-        int mstart = text.indexOf(MACRO_DELIMITER);
-        if (mstart < 0) return text;
-            
-        // Find the macro termination.
-        int mend = text.indexOf("}", mstart);
-        if (mend < 0) {
-            String msg = MsgUtils.getMsg("JOBS_MACRO_ILL_FORMED", text);
-            throw new TapisException(msg);
-        }
-            
-        // Avoid empty macros or out-of-bounds indexing.  
-        if (mstart+2 >= mend) {
-            String msg = MsgUtils.getMsg("JOBS_MACRO_EMPTY", text);
+        // Have we already computed this value?
+        String mvalue = resolvedValues.get(macroName);
+        if (mvalue != null) return mvalue;
+        
+        // Detect cycles.
+        if (macrosResolving.contains(macroName)) {
+            String flatList = String.join(", ", macrosResolving);
+            String msg = MsgUtils.getMsg("JOBS_MACRO_CYCLE_DETECTED", originalText, macroName, flatList);
             throw new TapisException(msg);
         }
-            
-        // Split the string into constituent parts.
-        String prefix = text.substring(0, mstart);
-        String macroName = text.substring(mstart+2, mend);
-        String suffix = text.substring(mend+1);
-            
-        // Detect cycles.
-        if (macrosResolved.contains(macroName)) {
-            String flatList = String.join(", ", macrosResolved);
-            String msg = MsgUtils.getMsg("JOBS_MACRO_CYCLE_DETECTED", text, macroName, flatList);
+        
+        // Cut things off to avoid excessive recursion.
+        if (macrosResolving.size() >= MAX_ITERATIONS) {
+            String msg = MsgUtils.getMsg("JOBS_MACRO_TOO_COMPLEX", originalText, MAX_ITERATIONS);
             throw new TapisException(msg);
         }
-            
+        
         // Look up the macro's value.
-        String mvalue = _macros.get(macroName);
+        mvalue = _macros.get(macroName);
         if (StringUtils.isBlank(mvalue)) {
-            String msg = MsgUtils.getMsg("JOBS_MACRO_MISSING_VALUE", text, macroName);
+            String msg = MsgUtils.getMsg("JOBS_MACRO_MISSING_VALUE", originalText, macroName);
             throw new TapisException(msg);
         }
-            
-        // Maybe the returned value contains a macro.
-        // Recursively call this method with cycle detection.
-        macrosResolved.add(macroName);
-        mvalue = replaceFirstMacro(mvalue, macrosResolved);
-            
-        // Substitute the value in for the macro.
-        return prefix + mvalue + suffix;
+        
+        // Maybe the value contains macros.
+        var template = MacroTemplate.compile(mvalue);
+        if (template.hasMacros()) {
+            var buf = new StringBuilder(mvalue.length() + 64);
+            macrosResolving.add(macroName);
+            appendResolved(template, originalText, buf, macrosResolving, resolvedValues);
+            macrosResolving.remove(macrosResolving.size() - 1);
+            mvalue = buf.toString();
+        }
+        
+        // Save the resolved value.
+        resolvedValues.put(macroName, mvalue);
+        return mvalue;
     }
 }
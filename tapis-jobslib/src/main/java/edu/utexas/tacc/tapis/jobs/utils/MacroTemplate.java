@@ -0,0 +1,162 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** A string parsed into literal text and ${name} macro references.  Templates
+ * are immutable and shared through a bounded cache keyed by source string, so
+ * paths and arguments that apps reuse across jobs are only parsed once.
+ *
+ * Parsing follows the rules MacroResolver has always used: a macro begins at
+ * the ${ delimiter and ends at the first closing brace after it.  Delimiters
+ * without a closing brace and empty macro definitions are kept as segments of
+ * their own so that callers can decide whether they are errors.
+ */
+public final class MacroTemplate
+{
+    /* **************************************************************************** */
+    /*                                   Constants                                  */
+    /* **************************************************************************** */
+    // Maximum number of compiled templates retained.
+    public static final int MAX_CACHED_TEMPLATES = 2048;
+
+    // Shared compiled templates in least recently used order.
+    private static final Map<String,MacroTemplate> _cache =
+        Collections.synchronizedMap(new LinkedHashMap<String,MacroTemplate>(256, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,MacroTemplate> eldest)
+            {return size() > MAX_CACHED_TEMPLATES;}
+        });
+
+    /* **************************************************************************** */
+    /*                                     Enums                                    */
+    /* **************************************************************************** */
+    // LITERAL is plain text, MACRO is a macro name, EMPTY is a ${} definition and
+    // UNTERMINATED is the remainder of the text starting at a delimiter that has no
+    // closing brace.
+    public enum SegmentKind {LITERAL, MACRO, EMPTY, UNTERMINATED}
+
+    /* **************************************************************************** */
+    /*                                    Fields                                    */
+    /* **************************************************************************** */
+    // The parsed segments, the text of a MACRO segment is the macro name.
+    private final SegmentKind[] _kinds;
+    private final String[]      _texts;
+
+    // True if any segment is not a literal.
+    private final boolean       _hasMacros;
+
+    /* **************************************************************************** */
+    /*                                Constructors                                  */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* constructor:                                                                 */
+    /* ---------------------------------------------------------------------------- */
+    private MacroTemplate(SegmentKind[] kinds, String[] texts)
+    {
+        _kinds = kinds;
+        _texts = texts;
+
+        boolean hasMacros = false;
+        for (var kind : kinds) if (kind != SegmentKind.LITERAL) {hasMacros = true; break;}
+        _hasMacros = hasMacros;
+    }
+
+    /* **************************************************************************** */
+    /*                                Public Methods                                */
+    /* **************************************************************************** */
+    /* ---------------------------------------------------------------------------- */
+    /* compile:                                                                     */
+    /* ---------------------------------------------------------------------------- */
+    /** Return the compiled template for the text, parsing it only if it's not
+     * already cached.  Text without a macro delimiter is compiled into a single
+     * literal segment and not cached.
+     *
+     * @param text non-null text that may contain macros
+     * @return the compiled template
+     */
+    public static MacroTemplate compile(String text)
+    {
+        if (text.indexOf(MacroResolver.MACRO_DELIMITER) < 0) return parse(text);
+
+        var template = _cache.get(text);
+        if (template == null) {
+            template = parse(text);
+            _cache.put(text, template);
+        }
+        return template;
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* parse:                                                                       */
+    /* ---------------------------------------------------------------------------- */
+    /** Parse the text into segments in a single pass without consulting the cache.
+     *
+     * @param text non-null text that may contain macros
+     * @return a new template
+     */
+    public static MacroTemplate parse(String text)
+    {
+        var kinds = new ArrayList<SegmentKind>();
+        var texts = new ArrayList<String>();
+
+        int startIndex = 0;
+        while (startIndex < text.length()) {
+            // Find the beginning of the next macro.
+            int mstart = text.indexOf(MacroResolver.MACRO_DELIMITER, startIndex);
+            if (mstart < 0) {
+                kinds.add(SegmentKind.LITERAL);
+                texts.add(text.substring(startIndex));
+                break;
+            }
+            if (mstart > startIndex) {
+                kinds.add(SegmentKind.LITERAL);
+                texts.add(text.substring(startIndex, mstart));
+            }
+
+            // Find the macro termination.
+            int mend = text.indexOf("}", mstart);
+            if (mend < 0) {
+                kinds.add(SegmentKind.UNTERMINATED);
+                texts.add(text.substring(mstart));
+                break;
+            }
+
+            // Record empty macros or the macro name.
+            if (mstart+2 == mend) {
+                kinds.add(SegmentKind.EMPTY);
+                texts.add(text.substring(mstart, mend + 1));
+            } else {
+                kinds.add(SegmentKind.MACRO);
+                texts.add(text.substring(mstart+2, mend));
+            }
+
+            // Continue right after the closing brace.
+            startIndex = mend + 1;
+        }
+
+        return new MacroTemplate(kinds.toArray(new SegmentKind[kinds.size()]),
+                                 texts.toArray(new String[texts.size()]));
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* clearCache:                                                                  */
+    /* ---------------------------------------------------------------------------- */
+    public static void clearCache() {_cache.clear();}
+
+    /* ---------------------------------------------------------------------------- */
+    /* getCacheSize:                                                                */
+    /* ---------------------------------------------------------------------------- */
+    public static int getCacheSize() {return _cache.size();}
+
+    /* **************************************************************************** */
+    /*                                   Accessors                                  */
+    /* **************************************************************************** */
+    public int size() {return _kinds.length;}
+    public SegmentKind getKind(int index) {return _kinds[index];}
+    public String getText(int index) {return _texts[index];}
+    public boolean hasMacros() {return _hasMacros;}
+}
@@ -173,6 +173,15 @@ final class JobQueueProcessor
     	  throw new JobException(msg);
       }
       
+      // Discard messages for jobs that have already ended, such as pending jobs
+      // cancelled while they waited in the queue.  No context, topic thread or
+      // remote resources are needed to dispose of them.
+      if (job.getStatus().isTerminal()) {
+          String msg = MsgUtils.getMsg("JOBS_INACTIVE_JOB_REMOVED", job.getUuid(), job.getStatus());
+          _log.warn(msg);
+          return false;
+      }
+      
       // Create the execution context used for the remainder of job processing.
       // Threadlocal fields are set here and reference to the context is also
       // stored in the job.  
@@ -215,6 +224,11 @@ final class JobQueueProcessor
         // to check again.  Cancellation takes precedence over recovery.
         if (jobCtx.checkForCancelBeforeRecovery()) { setFinalMessageToNull(jobCtx); return false; }
         
+        // Check whether the job was terminated by another process while this
+        // worker held it, such as a pending job cancelled before this worker
+        // could change its status.  There's nothing left to do in that case.
+        if (isTerminatedElsewhere(job)) { setFinalMessageToNull(jobCtx); return false; }
+        
         // ------------ Recoverable Job Exception
         // See if we caught a recoverable exception or one that can be turned into a recoverable exception.
         if (e instanceof TapisException) {
@@ -331,6 +345,38 @@ final class JobQueueProcessor
     }
   }
   
+  /* ---------------------------------------------------------------------- */
+  /* isTerminatedElsewhere:                                                 */
+  /* ---------------------------------------------------------------------- */
+  /** Determine whether the job's status in the database is terminal even though
+   * the in-memory job is not.  This happens when a job is cancelled while still
+   * pending after this worker read it, so that the worker's attempt to advance
+   * the job fails.  The in-memory job is updated to the database status.  
+   * 
+   * @param job the job being processed
+   * @return true if the job has ended in the database, false otherwise
+   */
+  private boolean isTerminatedElsewhere(Job job)
+  {
+      // Nothing to check if we already know the job has ended.
+      if (job.getStatus().isTerminal()) return false;
+      
+      // Get the current status.
+      JobStatusType status;
+      try {status = job.getJobCtx().getJobsDao().getStatusByUUID(job.getUuid());}
+          catch (Exception e) {
+              _log.error(e.getMessage(), e);
+              return false;
+          }
+      if (status == null || !status.isTerminal()) return false;
+      
+      // Update the in-memory job and discard the message.
+      job.setStatus(status);
+      String msg = MsgUtils.getMsg("JOBS_INACTIVE_JOB_REMOVED", job.getUuid(), status);
+      _log.warn(msg);
+      return true;
+  }
+  
   /* ---------------------------------------------------------------------- */
   /* setFinalMessageToNull:                                                */
   /* ---------------------------------------------------------------------- */
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
+import edu.utexas.tacc.tapis.jobs.events.JobEventManager;
 import edu.utexas.tacc.tapis.jobs.exceptions.JobException;
 import edu.utexas.tacc.tapis.jobs.impl.JobsImpl;
 import edu.utexas.tacc.tapis.jobs.queue.JobQueueManager;
@@ -489,6 +490,9 @@ public final class JobWorker
         // Shutdown the connections to the queue broker.
         qm.closeConnections(JobQueueManager.DEFAULT_CONN_CLOSE_TIMEOUT_MS);
         
+        // Write any queued job events while the database is still available.
+        JobEventManager.getInstance().shutdown();
+        
         // Shutdown the database connections.
         TapisDataSource.close();
     }
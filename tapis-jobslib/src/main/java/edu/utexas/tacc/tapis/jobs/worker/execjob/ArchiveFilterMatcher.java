@@ -0,0 +1,445 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/** Compiled form of a job's archive includes and excludes filters.  The
+ * filters are compiled once per job and then applied to every output file
+ * path, so no per-file compilation, cache lookup or Path object creation
+ * takes place.
+ *
+ * Each filter list is compiled into a small automaton consisting of:
+ *
+ *  - a hash set of literal filters that can only match one exact path,
+ *  - a literal-prefix trie that quickly rejects paths that cannot match
+ *    any of the remaining filters, and
+ *  - a single merged regex that contains all the remaining filters as
+ *    alternatives.
+ *
+ * Glob filters are translated to regular expressions using the same rules
+ * as the default file system's "glob:" path matcher, so the results are
+ * identical to those of the original per-filter matching in JobFileManager.
+ * Regex filters (those with the REGEX: prefix) are used as written.  Regexes
+ * that contain back references or named groups are matched separately since
+ * merging them would renumber their groups or could define the same group
+ * name twice.  If the merged regex fails to compile for any other reason, all
+ * of its alternatives are matched separately.
+ *
+ * The semantics of the original filtering are preserved:  a path is archived
+ * if it matches no excludes filter and either the includes list is empty,
+ * contains a match-all filter or contains a filter that matches the path.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public final class ArchiveFilterMatcher
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Filters are interpreted as globs unless they have this prefix.
+    public static final String REGEX_FILTER_PREFIX = JobFileManager.REGEX_FILTER_PREFIX;
+
+    // Glob translation characters.
+    private static final String REGEX_META_CHARS = ".^$+{[]|()";
+    private static final String GLOB_META_CHARS  = "\\*?[{";
+    private static final char   EOL = 0;
+
+    // Characters that end a regex's literal prefix.
+    private static final String REGEX_SPECIAL_CHARS = "\\^$.|?*+()[]{}";
+    private static final String REGEX_QUANTIFIERS   = "?*+{";
+
+    // Back reference and named group detection.
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+    private static final Pattern NAMED_GROUP    = Pattern.compile("\\(\\?<[a-zA-Z]");
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Compiled filter lists.  A null includes field means everything is included.
+    private final CompiledFilterList _includes;
+    private final CompiledFilterList _excludes;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    private ArchiveFilterMatcher(CompiledFilterList includes, CompiledFilterList excludes)
+    {
+        _includes = includes;
+        _excludes = excludes;
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* compile:                                                               */
+    /* ---------------------------------------------------------------------- */
+    /** Compile the includes and excludes filters.  Null lists are treated as
+     * empty lists.
+     *
+     * @param includes the includes filters
+     * @param excludes the excludes filters
+     * @return the compiled matcher
+     * @throws PatternSyntaxException if any filter is malformed
+     */
+    public static ArchiveFilterMatcher compile(List<String> includes, List<String> excludes)
+    {
+        // No includes or a match-all include means everything is included.
+        CompiledFilterList compiledIncludes = null;
+        if (includes != null && !includes.isEmpty() && !matchesAll(includes))
+            compiledIncludes = new CompiledFilterList(includes);
+
+        // No excludes means nothing is excluded.
+        CompiledFilterList compiledExcludes = null;
+        if (excludes != null && !excludes.isEmpty())
+            compiledExcludes = new CompiledFilterList(excludes);
+
+        return new ArchiveFilterMatcher(compiledIncludes, compiledExcludes);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isArchived:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Determine whether a file should be archived.
+     *
+     * @param relativePath the path relative to the job output directory
+     * @return true if the path passes both the excludes and includes filters
+     */
+    public boolean isArchived(String relativePath)
+    {
+        var path = normalize(relativePath);
+        if (_excludes != null && _excludes.matches(path)) return false;
+        if (_includes != null && !_includes.matches(path)) return false;
+        return true;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isExcluded:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Determine whether a path matches any excludes filter.
+     *
+     * @param relativePath the path relative to the job output directory
+     * @return true if an excludes filter matches the path
+     */
+    public boolean isExcluded(String relativePath)
+    {
+        return _excludes != null && _excludes.matches(normalize(relativePath));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* hasExcludes:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** @return true if at least one excludes filter is defined */
+    public boolean hasExcludes() {return _excludes != null;}
+
+    /* ---------------------------------------------------------------------- */
+    /* includesAll:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** @return true if the includes filters don't filter out any path */
+    public boolean includesAll() {return _includes == null;}
+
+    /* ---------------------------------------------------------------------- */
+    /* matchesAll:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Determine if the filter list will match any string using the same
+     * simple test as JobFileManager.
+     *
+     * @param filters the list of glob or regex filters
+     * @return true if list contains a filter that will match all strings
+     */
+    public static boolean matchesAll(List<String> filters)
+    {
+        // Check the most common ways to express all strings using glob.
+        if (filters.contains("**/*")) return true;
+
+        // Check the common way to express all strings using a regex.
+        if (filters.contains("REGEX(.*)")) return true;
+
+        // No no-op filters found.
+        return false;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* globToRegex:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Translate a glob into a regular expression using the rules of the
+     * default unix file system's "glob:" path matcher.
+     *
+     * @param glob the glob expression
+     * @return the anchored regular expression
+     * @throws PatternSyntaxException if the glob is malformed
+     */
+    public static String globToRegex(String glob)
+    {
+        boolean inGroup = false;
+        var regex = new StringBuilder("^");
+
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i++);
+            switch (c) {
+                case '\\':
+                    // Escape special characters.
+                    if (i == glob.length())
+                        throw new PatternSyntaxException("No character to escape", glob, i - 1);
+                    char next = glob.charAt(i);
+                    if (isGlobMeta(next) || isRegexMeta(next)) regex.append('\\');
+                    regex.append(next);
+                    i++;
+                    break;
+                case '/':
+                    regex.append(c);
+                    break;
+                case '[':
+                    // Don't match name separator in class.
+                    regex.append("[[^/]&&[");
+                    if (next(glob, i) == '^') {
+                        // Escape the regex negation char if it appears.
+                        regex.append("\\^");
+                        i++;
+                    } else {
+                        // Negation.
+                        if (next(glob, i) == '!') {regex.append('^'); i++;}
+                        // Hyphen allowed at start.
+                        if (next(glob, i) == '-') {regex.append('-'); i++;}
+                    }
+                    boolean hasRangeStart = false;
+                    char last = 0;
+                    while (i < glob.length()) {
+                        c = glob.charAt(i++);
+                        if (c == ']') break;
+                        if (c == '/')
+                            throw new PatternSyntaxException("Explicit 'name separator' in class", glob, i - 1);
+                        if (c == '\\' || c == '[' || c == '&' && next(glob, i) == '&')
+                            regex.append('\\');
+                        regex.append(c);
+                        if (c == '-') {
+                            if (!hasRangeStart)
+                                throw new PatternSyntaxException("Invalid range", glob, i - 1);
+                            if ((c = next(glob, i++)) == EOL || c == ']') break;
+                            if (c < last)
+                                throw new PatternSyntaxException("Invalid range", glob, i - 3);
+                            regex.append(c);
+                            hasRangeStart = false;
+                        } else {
+                            hasRangeStart = true;
+                            last = c;
+                        }
+                    }
+                    if (c != ']') throw new PatternSyntaxException("Missing ']", glob, i - 1);
+                    regex.append("]]");
+                    break;
+                case '{':
+                    if (inGroup) throw new PatternSyntaxException("Cannot nest groups", glob, i - 1);
+                    regex.append("(?:(?:");
+                    inGroup = true;
+                    break;
+                case '}':
+                    if (inGroup) {regex.append("))"); inGroup = false;}
+                      else regex.append('}');
+                    break;
+                case ',':
+                    if (inGroup) regex.append(")|(?:");
+                      else regex.append(',');
+                    break;
+                case '*':
+                    if (next(glob, i) == '*') {regex.append(".*"); i++;}
+                      else regex.append("[^/]*");
+                    break;
+                case '?':
+                    regex.append("[^/]");
+                    break;
+                default:
+                    if (isRegexMeta(c)) regex.append('\\');
+                    regex.append(c);
+            }
+        }
+
+        if (inGroup) throw new PatternSyntaxException("Missing '}", glob, i - 1);
+        return regex.append('$').toString();
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* normalize:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Apply the same redundant slash removal that Paths.get() performs on
+     * unix so glob results don't change.  Well-formed paths are returned as is.
+     */
+    private static String normalize(String path)
+    {
+        if (path.indexOf("//") < 0 && (path.length() < 2 || !path.endsWith("/")))
+            return path;
+
+        var buf = new StringBuilder(path.length());
+        char prev = EOL;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' && prev == '/') continue;
+            buf.append(c);
+            prev = c;
+        }
+        if (buf.length() > 1 && buf.charAt(buf.length() - 1) == '/')
+            buf.setLength(buf.length() - 1);
+        return buf.toString();
+    }
+
+    private static boolean isRegexMeta(char c) {return REGEX_META_CHARS.indexOf(c) != -1;}
+    private static boolean isGlobMeta(char c) {return GLOB_META_CHARS.indexOf(c) != -1;}
+    private static char next(String glob, int i) {return i < glob.length() ? glob.charAt(i) : EOL;}
+
+    /* ---------------------------------------------------------------------- */
+    /* globLiteralPrefix:                                                     */
+    /* ---------------------------------------------------------------------- */
+    /** Return the leading characters of a glob that must appear literally at the
+     * beginning of any matching path.  The entire glob is returned if it contains
+     * no special characters.
+     */
+    private static String globLiteralPrefix(String glob)
+    {
+        for (int i = 0; i < glob.length(); i++)
+            if (isGlobMeta(glob.charAt(i))) return glob.substring(0, i);
+        return glob;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* regexLiteralPrefix:                                                    */
+    /* ---------------------------------------------------------------------- */
+    /** Return the leading characters of a regex that must appear literally at the
+     * beginning of any matching path.  The entire regex is returned if it contains
+     * no special characters.  Top level alternation makes the prefix empty.
+     */
+    private static String regexLiteralPrefix(String regex)
+    {
+        if (regex.indexOf('|') >= 0) return "";
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (REGEX_SPECIAL_CHARS.indexOf(c) != -1) {
+                // A quantifier applies to the preceding character.
+                if (REGEX_QUANTIFIERS.indexOf(c) != -1 && i > 0) return regex.substring(0, i - 1);
+                return regex.substring(0, i);
+            }
+        }
+        return regex;
+    }
+
+    /* ********************************************************************** */
+    /*                          CompiledFilterList Class                      */
+    /* ********************************************************************** */
+    /** The compiled form of one filter list. */
+    private static final class CompiledFilterList
+    {
+        // Filters that can only match one exact path.
+        private final HashSet<String> _literals = new HashSet<>();
+
+        // Literal prefixes of the remaining filters, null if any prefix is empty.
+        private final PrefixTrie      _prefixes;
+
+        // The remaining filters merged into one regex, null if there are none.
+        private final Pattern         _merged;
+
+        // Regexes that can't be merged.
+        private final List<Pattern>   _separate = new ArrayList<>();
+
+        private CompiledFilterList(List<String> filters)
+        {
+            var mergedBuf = new StringBuilder();
+            var alternatives = new ArrayList<Pattern>();
+            var prefixTrie = new PrefixTrie();
+            boolean prunable = true;
+
+            for (var filter : filters) {
+                // Get the regex and literal prefix for the filter.
+                String regex, prefix;
+                Pattern p;
+                if (filter.startsWith(REGEX_FILTER_PREFIX)) {
+                    regex  = filter.substring(REGEX_FILTER_PREFIX.length());
+                    prefix = regexLiteralPrefix(regex);
+                    if (prefix.equals(regex)) {_literals.add(regex); continue;}
+
+                    // Validate now so errors are reported against the user's filter.
+                    p = Pattern.compile(regex);
+                    if (BACK_REFERENCE.matcher(regex).find() || NAMED_GROUP.matcher(regex).find()) {
+                        _separate.add(p);
+                        continue;
+                    }
+                } else {
+                    prefix = globLiteralPrefix(filter);
+                    if (prefix.equals(filter)) {_literals.add(filter); continue;}
+                    regex  = globToRegex(filter);
+                    p = Pattern.compile(regex);
+                }
+
+                // Merge the regex as an alternative.
+                if (!alternatives.isEmpty()) mergedBuf.append('|');
+                mergedBuf.append("(?:").append(regex).append(')');
+                alternatives.add(p);
+
+                // Track whether all merged filters have literal prefixes.
+                if (prefix.isEmpty()) prunable = false;
+                  else prefixTrie.add(prefix);
+            }
+
+            // Each alternative compiled on its own, so a failure here is caused
+            // by the merge.  In that case match the alternatives one at a time.
+            Pattern merged = null;
+            if (!alternatives.isEmpty()) {
+                try {merged = Pattern.compile(mergedBuf.toString());}
+                    catch (PatternSyntaxException e) {_separate.addAll(alternatives);}
+            }
+            _merged = merged;
+            _prefixes = merged != null && prunable ? prefixTrie : null;
+        }
+
+        private boolean matches(String path)
+        {
+            if (_literals.contains(path)) return true;
+            if (_merged != null && (_prefixes == null || _prefixes.hasPrefixOf(path)) &&
+                _merged.matcher(path).matches())
+                return true;
+            for (var p : _separate) if (p.matcher(path).matches()) return true;
+            return false;
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                              PrefixTrie Class                          */
+    /* ********************************************************************** */
+    /** A character trie used to determine whether any of a set of prefixes
+     * starts a path.  Only one pass over the path is made regardless of the
+     * number of prefixes.
+     */
+    private static final class PrefixTrie
+    {
+        private final HashMap<Character,PrefixTrie> _children = new HashMap<>();
+        private boolean _terminal;
+
+        private void add(String prefix)
+        {
+            var node = this;
+            for (int i = 0; i < prefix.length(); i++)
+                node = node._children.computeIfAbsent(prefix.charAt(i), k -> new PrefixTrie());
+            node._terminal = true;
+        }
+
+        private boolean hasPrefixOf(String path)
+        {
+            var node = this;
+            for (int i = 0; i < path.length(); i++) {
+                if (node._terminal) return true;
+                node = node._children.get(path.charAt(i));
+                if (node == null) return false;
+            }
+            return node._terminal;
+        }
+    }
+}
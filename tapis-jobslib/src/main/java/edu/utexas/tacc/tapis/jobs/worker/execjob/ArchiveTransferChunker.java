@@ -0,0 +1,525 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.files.client.gen.model.ReqTransferElement;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
+
+/** This class splits the elements of a large archive request into chunks and
+ * transfers each chunk as a separate Files transfer task.  Chunks are limited
+ * both by element count and by the estimated number of bytes they transfer.
+ * At most a configured number of chunk transfers are active at any time.
+ *
+ * Chunks can be transferred as they are produced.  A ChunkBuilder groups
+ * elements into chunks as the output directory is listed, and each chunk is
+ * handed to add(), which blocks while the maximum number of chunk transfers
+ * are active.  The caller's memory use is therefore bounded by the chunk size
+ * and concurrency limits rather than by the number of output files.  When a
+ * DTN is used, each chunk first moves its files to the DTN in a separate
+ * transfer and then archives them from there.
+ *
+ * The progress of each chunk is saved in an ArchiveTransferState object after
+ * every change, so a job that is interrupted and later resumed only restarts
+ * the chunks that did not complete.  A chunk's transfer id is kept until the
+ * transfer is known to have failed, so a chunk whose monitoring ended without
+ * a terminal status, such as on a monitoring timeout, is reattached to its 
+ * original transfer rather than copied a second time.  
+ * 
+ * When a chunk fails, the other chunks are allowed to finish before the 
+ * first failure is thrown to the caller.  Runtime
+ * exceptions, such as those caused by asynchronous cancel or pause commands,
+ * cause all in-flight chunk transfers to be cancelled.
+ *
+ * All interaction with Files and the database is performed through the
+ * ChunkTransferOps interface.
+ */
+public final class ArchiveTransferChunker
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(ArchiveTransferChunker.class);
+
+    // Thread name prefix.
+    private static final String THREAD_NAME_PREFIX = "JobArchiveChunk-";
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Unique thread number suffix.
+    private static final AtomicInteger _threadSeqno = new AtomicInteger();
+
+    // The Files and database operations.
+    private final ChunkTransferOps _ops;
+
+    // The maximum number of chunk transfers in flight at once.
+    private final int              _maxConcurrency;
+
+    // The transfer ids of chunks currently being monitored.
+    private final Set<String>      _inFlight = Collections.synchronizedSet(new HashSet<>());
+
+    // Set when all processing should stop.
+    private volatile boolean       _aborted;
+
+    // The state of the transfer started by start().
+    private ArchiveTransferState   _state;
+
+    // The chunk processing threads.
+    private ExecutorService        _executor;
+
+    // Limits the number of chunks being processed.
+    private Semaphore              _slots;
+
+    // The results of the chunks started since start().
+    private final List<Future<Exception>> _futures = new ArrayList<>();
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public ArchiveTransferChunker(ChunkTransferOps ops, int maxConcurrency)
+    {
+        _ops = ops;
+        _maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* makeChunks:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Split the elements into consecutive chunks.  A chunk is closed when
+     * adding the next element would exceed either the element or byte limit.
+     * An element whose size alone exceeds the byte limit is placed in its own
+     * chunk.  Element order is preserved within and across chunks.
+     *
+     * @param elements the complete transfer elements
+     * @param sizes the estimated size in bytes of each element, null entries or
+     *              a null or short list mean the size is unknown (zero)
+     * @param maxElements the maximum number of elements in a chunk
+     * @param maxBytes the maximum estimated bytes in a chunk, zero or less for no limit
+     * @return the non-null list of chunks
+     */
+    public static List<TransferChunk> makeChunks(List<ReqTransferElement> elements,
+                                                 List<Long> sizes,
+                                                 int maxElements, long maxBytes)
+    {
+        var chunks = new ArrayList<TransferChunk>();
+        var builder = new ChunkBuilder(maxElements, maxBytes, 0, chunks::add);
+        try {
+            for (int i = 0; i < elements.size(); i++) {
+                Long size = sizes != null && i < sizes.size() ? sizes.get(i) : null;
+                builder.add(elements.get(i), null, size);
+            }
+            builder.flush();
+        }
+        catch (TapisException e) {
+            // Adding to a list never fails.
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return chunks;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* transfer:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Transfer all chunks not marked complete in the state object and block
+     * until they finish.  Chunks that already have a transfer id are monitored
+     * rather than resubmitted.
+     *
+     * @param chunks the chunks described by the state object
+     * @param state the progress of the chunk transfers, updated as chunks progress
+     * @throws TapisException the first failure encountered
+     */
+    public void transfer(List<TransferChunk> chunks, ArchiveTransferState state)
+     throws TapisException
+    {
+        start(state);
+        try {for (var chunk : chunks) if (!schedule(chunk)) break;}
+        catch (TapisException | RuntimeException e) {shutdown(); throw e;}
+        await();
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* start:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Prepare to transfer chunks whose progress is recorded in the state 
+     * object.  Chunks are then passed to add() or transfer() and await() is 
+     * called to wait for them to finish.
+     *
+     * @param state the progress of the chunk transfers, updated as chunks progress
+     */
+    public void start(ArchiveTransferState state)
+    {
+        _state = state;
+        _slots = new Semaphore(_maxConcurrency);
+        _futures.clear();
+        _executor = Executors.newFixedThreadPool(_maxConcurrency, r -> {
+            var thread = new Thread(r, THREAD_NAME_PREFIX + _threadSeqno.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* add:                                                                   */
+    /* ---------------------------------------------------------------------- */
+    /** Record a new chunk in the state, save the state and start transferring
+     * the chunk.  This method blocks while the maximum number of chunks are
+     * being transferred.  Since the chunk is saved before its transfer starts,
+     * an interrupted job transfers it on resume without listing it again.
+     *
+     * @param chunk the next chunk in index order
+     * @return false if processing has been aborted and no more chunks should be added
+     * @throws TapisException if the state cannot be saved or the thread is interrupted
+     */
+    public boolean add(TransferChunk chunk) throws TapisException
+    {
+        if (_aborted) return false;
+        _state.addChunk(chunk);
+        saveState(_state);
+        return schedule(chunk);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* await:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Wait for all started chunks to finish and release the processing 
+     * threads.
+     *
+     * @throws TapisException the first failure encountered
+     */
+    public void await() throws TapisException
+    {
+        // Wait for all chunks to finish.
+        var failures = new ArrayList<Exception>();
+        try {
+            for (var future : _futures) {
+                Exception failure;
+                try {failure = future.get();}
+                catch (ExecutionException e) {failure = new TapisException(e.getMessage(), e);}
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    abort();
+                    failure = new TapisException(MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION",
+                                                                 e.getMessage()), e);
+                }
+                if (failure != null) failures.add(failure);
+            }
+        }
+        finally {shutdown();}
+
+        // Throw the first failure after the other chunks have had a chance to finish.
+        if (failures.isEmpty()) return;
+        var first = failures.get(0);
+        if (first instanceof RuntimeException) throw (RuntimeException) first;
+        throw (TapisException) first;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* shutdown:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Stop monitoring chunks without waiting for them.  This is used when 
+     * chunks can no longer be produced, such as when listing fails.  The
+     * interrupted chunks keep their transfer ids in the saved state so that
+     * they are reattached to on resume.
+     */
+    public void shutdown()
+    {
+        if (_executor != null) _executor.shutdownNow();
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* schedule:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Start processing a chunk as soon as fewer than the maximum number of
+     * chunks are being processed.  Chunks already complete are skipped.
+     *
+     * @return false if processing has been aborted
+     */
+    private boolean schedule(TransferChunk chunk) throws TapisException
+    {
+        if (_state.getChunk(chunk.index).complete) return !_aborted;
+        try {_slots.acquire();}
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort();
+            throw new TapisException(MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", e.getMessage()), e);
+        }
+        if (_aborted) {_slots.release(); return false;}
+        _futures.add(_executor.submit(() -> {
+            try {return processChunk(chunk, _state);}
+            finally {_slots.release();}
+        }));
+        return true;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* processChunk:                                                          */
+    /* ---------------------------------------------------------------------- */
+    /** Move the chunk to the DTN if necessary and then archive it.
+     *
+     * @return null on success, otherwise the exception that ended processing
+     */
+    private Exception processChunk(TransferChunk chunk, ArchiveTransferState state)
+    {
+        // Don't start new work after an abort.
+        if (_aborted) return null;
+        var cs = state.getChunk(chunk.index);
+
+        try {
+            // The files of DTN jobs are moved before they're archived.
+            boolean moved;
+            synchronized (state) {moved = cs.move == null || cs.move.complete;}
+            if (!moved) {
+                if (!runTransfer(cs.move, state, tag -> _ops.submitMove(chunk, tag))) return null;
+                state.setMoveComplete(chunk.index);
+                saveState(state);
+            }
+
+            // Archive the chunk.
+            if (!runTransfer(cs, state, tag -> _ops.submit(chunk, tag))) return null;
+            state.setComplete(chunk.index);
+            saveState(state);
+            return null;
+        }
+        catch (RuntimeException e) {
+            // Asynchronous commands stop all chunks.
+            _log.error(e.getMessage(), e);
+            abort();
+            return e;
+        }
+        catch (Exception e) {
+            // The transfer id remains in the saved state.  On resume, a failed 
+            // transfer is resubmitted and any other transfer is monitored again.
+            _log.error(e.getMessage(), e);
+            return e;
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* runTransfer:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Submit, if necessary, and monitor one transfer of a chunk.
+     *
+     * @param ts the chunk state or the chunk's move state
+     * @param state the state that contains ts
+     * @param submitter submits a new transfer with the given tag
+     * @return true if the transfer completed, false if processing was aborted
+     */
+    private boolean runTransfer(ArchiveTransferState.ChunkState ts, ArchiveTransferState state,
+                                Submitter submitter)
+     throws TapisException
+    {
+        // A saved transfer that terminated unsuccessfully is replaced by a
+        // new one.  Otherwise, we reattach to the saved transfer since it 
+        // may have completed or may still be running.
+        String transferId;
+        synchronized (state) {transferId = ts.transferId;}
+        if (!StringUtils.isBlank(transferId) && _ops.isFailed(transferId)) transferId = null;
+        
+        // Submit a new transfer if there's no outstanding one for this chunk.
+        // The tag is saved before submission so events can be correlated.
+        String tag;
+        synchronized (state) {
+            if (StringUtils.isBlank(transferId)) {
+                ts.tag = UUID.randomUUID().toString();
+                ts.transferId = null;
+            }
+            tag = ts.tag;
+        }
+        if (StringUtils.isBlank(transferId)) {
+            saveState(state);
+            transferId = submitter.submit(tag);
+            synchronized (state) {ts.transferId = transferId;}
+            saveState(state);
+        }
+
+        // Block until the transfer terminates.
+        _inFlight.add(transferId);
+        try {
+            if (_aborted) {_ops.cancel(transferId); return false;}
+            _ops.monitor(transferId, tag);
+            return true;
+        }
+        finally {_inFlight.remove(transferId);}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* saveState:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Serialize and save the state while holding its lock so that concurrent
+     * saves cannot be written out of order.
+     */
+    private void saveState(ArchiveTransferState state) throws TapisException
+    {
+        synchronized (state) {_ops.saveState(state);}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* abort:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Stop new chunks from starting and cancel all in-flight transfers. */
+    private void abort()
+    {
+        _aborted = true;
+        ArrayList<String> ids;
+        synchronized (_inFlight) {ids = new ArrayList<>(_inFlight);}
+        for (var id : ids) _ops.cancel(id);
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** A consecutive range of archive elements transferred as one Files task.
+     * When a DTN is used, the move elements transfer the same files from the
+     * execution system to the DTN and are otherwise null. */
+    public static final class TransferChunk
+    {
+        public final int                      index;
+        public final List<ReqTransferElement> elements;
+        public final List<ReqTransferElement> moveElements;
+        public final long                     bytes;
+
+        public TransferChunk(int index, List<ReqTransferElement> elements, long bytes)
+        {
+            this(index, elements, null, bytes);
+        }
+
+        public TransferChunk(int index, List<ReqTransferElement> elements, 
+                             List<ReqTransferElement> moveElements, long bytes)
+        {
+            this.index = index;
+            this.elements = elements;
+            this.moveElements = moveElements;
+            this.bytes = bytes;
+        }
+    }
+
+    /** Groups elements into chunks as they are produced.  A chunk is closed 
+     * when adding the next element would exceed either the element or byte 
+     * limit.  An element whose size alone exceeds the byte limit is placed in
+     * its own chunk.  Element order is preserved within and across chunks.
+     */
+    public static final class ChunkBuilder
+    {
+        private final int       _maxElements;
+        private final long      _maxBytes;
+        private final ChunkSink _sink;
+        private int             _nextIndex;
+        private long            _bytes;
+        private List<ReqTransferElement> _elements = new ArrayList<>();
+        private List<ReqTransferElement> _moveElements;
+
+        /**
+         * @param maxElements the maximum number of elements in a chunk
+         * @param maxBytes the maximum estimated bytes in a chunk, zero or less for no limit
+         * @param firstIndex the index of the first chunk produced
+         * @param sink receives each chunk when it's closed
+         */
+        public ChunkBuilder(int maxElements, long maxBytes, int firstIndex, ChunkSink sink)
+        {
+            _maxElements = Math.max(1, maxElements);
+            _maxBytes = maxBytes <= 0 ? Long.MAX_VALUE : maxBytes;
+            _nextIndex = firstIndex;
+            _sink = sink;
+        }
+
+        /** Add an element, passing the current chunk to the sink first if the
+         * element doesn't fit in it.
+         *
+         * @param element the archive transfer element
+         * @param moveElement the DTN move element for the same file or null
+         * @param size the estimated size in bytes, null if unknown
+         */
+        public void add(ReqTransferElement element, ReqTransferElement moveElement, Long size)
+         throws TapisException
+        {
+            long bytes = size == null ? 0 : Math.max(0, size);
+            int count = _elements.size();
+            if (count > 0 && (count >= _maxElements || _bytes + bytes > _maxBytes)) flush();
+            _elements.add(element);
+            if (moveElement != null) {
+                if (_moveElements == null) _moveElements = new ArrayList<>();
+                _moveElements.add(moveElement);
+            }
+            _bytes += bytes;
+        }
+
+        /** Pass the current chunk, if it has any elements, to the sink. */
+        public void flush() throws TapisException
+        {
+            if (_elements.isEmpty()) return;
+            var chunk = new TransferChunk(_nextIndex++, _elements, _moveElements, _bytes);
+            _elements = new ArrayList<>();
+            _moveElements = null;
+            _bytes = 0;
+            _sink.accept(chunk);
+        }
+
+        /** @return the index of the next chunk to be produced */
+        public int getNextIndex() {return _nextIndex;}
+    }
+
+    /** Receives the chunks produced by a ChunkBuilder. */
+    @FunctionalInterface
+    public interface ChunkSink
+    {
+        void accept(TransferChunk chunk) throws TapisException;
+    }
+
+    /** Submits one transfer of a chunk. */
+    @FunctionalInterface
+    private interface Submitter
+    {
+        String submit(String tag) throws TapisException;
+    }
+
+    /** The Files and database operations used to transfer chunks. */
+    public interface ChunkTransferOps
+    {
+        /** Submit the chunk as a new transfer task with the given tag and
+         * return the transfer id. */
+        String submit(TransferChunk chunk, String tag) throws TapisException;
+
+        /** Submit the chunk's move elements as a new DTN move transfer task with
+         * the given tag and return the transfer id. */
+        String submitMove(TransferChunk chunk, String tag) throws TapisException;
+
+        /** Block until the transfer completes, throwing an exception if it fails. */
+        void monitor(String transferId, String tag) throws TapisException;
+
+        /** Determine whether a transfer terminated unsuccessfully.  False is 
+         * returned if the transfer's status cannot be determined. */
+        boolean isFailed(String transferId);
+
+        /** Best effort cancellation of a transfer. */
+        void cancel(String transferId);
+
+        /** Persist the current state. */
+        void saveState(ArchiveTransferState state) throws TapisException;
+    }
+}
@@ -0,0 +1,274 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.files.client.gen.model.ReqTransferElement;
+import edu.utexas.tacc.tapis.shared.utils.TapisGsonUtils;
+
+/** The progress of a chunked archive transfer as recorded in the job's
+ * archive_transfer_state field.  Each chunk of archive elements is submitted
+ * to Files as its own transfer task.  The state records, for each chunk, the
+ * tag (correlation id) and transfer id of the most recent submission and
+ * whether that transfer completed.  A resumed job uses this information to
+ * submit or monitor only the chunks that did not complete.
+ *
+ * The transfer elements of each chunk are saved until the chunk completes.
+ * A resumed job transfers its unfinished chunks from these saved elements
+ * rather than listing the output directory again, which is necessary when 
+ * a DTN is used since the output files have already been moved off the 
+ * execution system.  Dropping the elements of completed chunks keeps the
+ * saved state small as the transfer progresses.
+ *
+ * Chunks can be added while the output directory is still being listed, so
+ * transfers start before the listing finishes.  The listingComplete flag
+ * records whether every chunk has been added.  A resumed job whose listing
+ * did not complete first finishes its saved chunks and then lists the
+ * output directory again, skipping the listed subtrees.  These are the 
+ * output directories whose archived files are all in saved chunks; only 
+ * the outermost such directories are kept.  When a DTN is used, each chunk
+ * also records the state of the transfer that moves its files to the DTN, 
+ * which always precedes the chunk's archive transfer.
+ *
+ * Instances are serialized as json and are synchronized on by the code that
+ * updates them concurrently.
+ */
+public final class ArchiveTransferState
+{
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // The correlation id of the archive phase as a whole.
+    private String           tag;
+
+    // The state of each chunk in chunk index order.
+    private List<ChunkState> chunks = new ArrayList<>();
+
+    // Whether all chunks have been added.
+    private boolean          listingComplete;
+
+    // The relative paths of the output directories whose archived files are 
+    // all in saved chunks, excluding those within other listed subtrees.
+    private List<String>     listedSubtrees = new ArrayList<>();
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public ArchiveTransferState() {}
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Create the initial state of a transfer whose chunks are added as the
+     * output directory is listed.
+     *
+     * @param tag the archive phase correlation id
+     */
+    public ArchiveTransferState(String tag)
+    {
+        this.tag = tag;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Create the initial state for a list of chunks, none of which have been
+     * submitted.
+     *
+     * @param tag the archive phase correlation id
+     * @param chunkList the chunks to be transferred
+     */
+    public ArchiveTransferState(String tag, List<ArchiveTransferChunker.TransferChunk> chunkList)
+    {
+        this.tag = tag;
+        for (var chunk : chunkList) addChunk(chunk);
+        listingComplete = true;
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* fromJson:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Parse the json saved in the database.
+     *
+     * @param json the saved state or null
+     * @return the state object or null if json is blank
+     */
+    public static ArchiveTransferState fromJson(String json)
+    {
+        if (StringUtils.isBlank(json)) return null;
+        return TapisGsonUtils.getGson().fromJson(json, ArchiveTransferState.class);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* toJson:                                                                */
+    /* ---------------------------------------------------------------------- */
+    public synchronized String toJson()
+    {
+        return TapisGsonUtils.getGson().toJson(this);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* addChunk:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Add the state of a new chunk.  Chunks are added in index order, so
+     * a chunk's index is its position in the chunk list.
+     *
+     * @param chunk a chunk that has not been submitted
+     */
+    public synchronized void addChunk(ArchiveTransferChunker.TransferChunk chunk)
+    {
+        var cs = new ChunkState();
+        cs.index = chunk.index;
+        cs.bytes = chunk.bytes;
+        cs.elements = new ArrayList<>(chunk.elements);
+        if (chunk.moveElements != null) {
+            cs.move = new ChunkState();
+            cs.move.index = chunk.index;
+            cs.move.bytes = chunk.bytes;
+            cs.move.elements = new ArrayList<>(chunk.moveElements);
+        }
+        chunks.add(cs);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getSavedChunks:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Recreate the chunks from their saved elements.  Completed chunks have
+     * no elements since they will not be transferred again.
+     *
+     * @return the chunks in index order
+     */
+    public synchronized List<ArchiveTransferChunker.TransferChunk> getSavedChunks()
+    {
+        var chunkList = new ArrayList<ArchiveTransferChunker.TransferChunk>(chunks.size());
+        for (var cs : chunks) {
+            List<ReqTransferElement> elements = cs.elements;
+            if (cs.complete || elements == null) elements = new ArrayList<>(0);
+            List<ReqTransferElement> moveElements = null;
+            if (cs.move != null && !cs.move.complete && cs.move.elements != null) 
+                moveElements = cs.move.elements;
+            chunkList.add(new ArchiveTransferChunker.TransferChunk(cs.index, elements, 
+                                                                   moveElements, cs.bytes));
+        }
+        return chunkList;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* setComplete:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Mark a chunk complete and release its saved elements. */
+    public synchronized void setComplete(int index)
+    {
+        var cs = chunks.get(index);
+        cs.complete = true;
+        cs.elements = null;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* setMoveComplete:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** Mark a chunk's DTN move complete and release its saved move elements. */
+    public synchronized void setMoveComplete(int index)
+    {
+        var move = chunks.get(index).move;
+        move.complete = true;
+        move.elements = null;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isComplete:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** @return true if every chunk has been added and successfully transferred */
+    public synchronized boolean isComplete()
+    {
+        if (!listingComplete) return false;
+        for (var cs : chunks) if (!cs.complete) return false;
+        return true;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* addListedSubtree:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Record that every archived file in an output directory's subtree is in
+     * a saved chunk.  The listed subtrees within the directory are dropped
+     * since they are covered by it.
+     *
+     * @param relDir the directory path relative to the output directory
+     */
+    public synchronized void addListedSubtree(String relDir)
+    {
+        if (listedSubtrees == null) listedSubtrees = new ArrayList<>();
+        if (isSubtreeListed(relDir)) return;
+        listedSubtrees.removeIf(p -> isWithin(p, relDir));
+        listedSubtrees.add(relDir);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isSubtreeListed:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** @return true if the directory is in a listed subtree */
+    public synchronized boolean isSubtreeListed(String relDir)
+    {
+        if (listedSubtrees == null) return false;
+        for (var p : listedSubtrees) if (isWithin(relDir, p)) return true;
+        return false;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getCompletedCount:                                                     */
+    /* ---------------------------------------------------------------------- */
+    public synchronized int getCompletedCount()
+    {
+        int count = 0;
+        for (var cs : chunks) if (cs.complete) count++;
+        return count;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* isWithin:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** @return true if the relative path is the directory or is below it */
+    private static boolean isWithin(String relPath, String relDir)
+    {
+        return relDir.isEmpty() || relPath.equals(relDir) || relPath.startsWith(relDir + "/");
+    }
+
+    /* ********************************************************************** */
+    /*                               Accessors                                */
+    /* ********************************************************************** */
+    public String getTag() {return tag;}
+    public List<ChunkState> getChunks() {return chunks;}
+    public synchronized List<String> getListedSubtrees() {return listedSubtrees;}
+    public synchronized ChunkState getChunk(int index) {return chunks.get(index);}
+    public synchronized int getChunkCount() {return chunks.size();}
+    public synchronized boolean isListingComplete() {return listingComplete;}
+    public synchronized void setListingComplete(boolean listingComplete) {this.listingComplete = listingComplete;}
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** The persisted state of one chunk.  The elements are null once the
+     * chunk is complete.  The move field holds the state of the chunk's DTN
+     * move transfer and is null when no DTN is used. */
+    public static final class ChunkState
+    {
+        public int        index;
+        public long       bytes;
+        public String     tag;
+        public String     transferId;
+        public boolean    complete;
+        public List<ReqTransferElement> elements;
+        public ChunkState move;
+    }
+}
@@ -0,0 +1,323 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/** Reduce the list of archived output files to the smallest list of transfer
+ * entries that copies exactly the same files.  When every file in a directory
+ * subtree passes the archive filters, the subtree is transferred as a single
+ * directory entry and Files performs a recursive copy.  The analysis is a
+ * pure function of the output directory listing and the filter results.
+ *
+ * A directory can be collapsed only if its recursive copy creates nothing that
+ * the per-file transfers would not create.  A directory is therefore blocked,
+ * along with all of its ancestors, when it directly contains a file that was
+ * rejected by the filters or when its subtree contains no archived files at all
+ * (per-file transfers would not create it).  Each archived file is then
+ * transferred by way of its shallowest unblocked ancestor directory, or by
+ * itself if all of its ancestors are blocked.
+ *
+ * All paths are relative to the job output directory, which is represented by
+ * the empty string.  When the output directory itself is unblocked the result
+ * is a single entry for the whole directory.
+ *
+ * The Incremental class performs the same analysis on a depth first listing
+ * as it is read, so that entries can be transferred before the listing ends.
+ */
+public final class ArchiveTreeCollapser
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // The relative path of the output directory itself.
+    public static final String ROOT = "";
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    private ArchiveTreeCollapser() {}
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* collapse:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Calculate the transfer entries for the archived files.  The order of
+     * entries follows the order in which each entry is first needed by the
+     * archived files list.
+     *
+     * @param archivedFiles the relative paths of files that passed the filters
+     * @param sizes the size of each archived file in the same order, can be null
+     * @param rejectedParents the parent directory of each file that did not pass
+     *                        the filters (ROOT for files in the output directory)
+     * @param directories the relative paths of all directories in the listing
+     * @return the non-null list of file and directory entries
+     */
+    public static List<Entry> collapse(List<String> archivedFiles, List<Long> sizes,
+                                       Collection<String> rejectedParents,
+                                       Collection<String> directories)
+    {
+        // Directories that will be created by per-file transfers.
+        var covered = new HashSet<String>();
+        for (var file : archivedFiles) addAncestors(parentOf(file), covered);
+
+        // Directories that cannot be transferred as a whole.
+        var blocked = new HashSet<String>();
+        for (var dir : rejectedParents) addAncestors(normalizeDir(dir), blocked);
+        for (var dir : directories) {
+            var d = normalizeDir(dir);
+            if (!covered.contains(d)) addAncestors(d, blocked);
+        }
+
+        // Assign each file to its shallowest unblocked ancestor.
+        var entries = new LinkedHashMap<String,Entry>();
+        for (int i = 0; i < archivedFiles.size(); i++) {
+            var file = archivedFiles.get(i);
+            long size = 0;
+            if (sizes != null && i < sizes.size() && sizes.get(i) != null) size = sizes.get(i);
+
+            String path = null;
+            boolean isDir = true;
+            if (!blocked.contains(ROOT)) path = ROOT;
+            else {
+                int slash = file.indexOf('/');
+                while (slash > 0) {
+                    var ancestor = file.substring(0, slash);
+                    if (!blocked.contains(ancestor)) {path = ancestor; break;}
+                    slash = file.indexOf('/', slash + 1);
+                }
+            }
+            if (path == null) {path = file; isDir = false;}
+
+            var entry = entries.get(path);
+            if (entry == null) entries.put(path, entry = new Entry(path, isDir));
+            entry.bytes += size;
+            entry.fileCount++;
+        }
+
+        return new ArrayList<>(entries.values());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* parentOf:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** @return the relative path of the directory containing the relative path */
+    public static String parentOf(String relPath)
+    {
+        int slash = relPath.lastIndexOf('/');
+        return slash < 0 ? ROOT : relPath.substring(0, slash);
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* addAncestors:                                                          */
+    /* ---------------------------------------------------------------------- */
+    /** Add the directory and all of its ancestors, including ROOT, to the set. */
+    private static void addAncestors(String dir, Set<String> set)
+    {
+        while (set.add(dir) && !ROOT.equals(dir)) dir = parentOf(dir);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* normalizeDir:                                                          */
+    /* ---------------------------------------------------------------------- */
+    private static String normalizeDir(String dir)
+    {
+        if (dir == null) return ROOT;
+        int end = dir.length();
+        while (end > 0 && dir.charAt(end - 1) == '/') end--;
+        return dir.substring(0, end);
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** The streaming form of collapse().  Files are added in the order that a
+     * depth first listing produces them and each directory is completed once
+     * its whole subtree has been listed.  An entry is passed to the sink as 
+     * soon as it's final, so only the entries of directories that may still
+     * be collapsed are held in memory.  For the same listing and filter results,
+     * the entries produced are the same as those returned by collapse(), though
+     * their order can differ.
+     *
+     * The number of entries held is capped.  When adding an entry exceeds the
+     * cap, all open directories are blocked and their entries are released,
+     * as though each contained a rejected file.  The open directories are then
+     * transferred by way of their files and completed subdirectories, which
+     * copies the same files with more entries.  Directories opened later are
+     * collapsed as usual until the cap is reached again.
+     *
+     * Every directory in the listing must be completed or skipped, including 
+     * empty ones, and a directory must be completed after all of its 
+     * subdirectories.  The
+     * parent of an added file must not have been completed.  The output 
+     * directory is completed by finish() if it hasn't already been completed.
+     */
+    public static final class Incremental
+    {
+        // The default maximum number of entries held.
+        public static final int DEFAULT_MAX_PENDING = 10000;
+        
+        // Receives each final entry.
+        private final Consumer<Entry>      _sink;
+
+        // The maximum number of entries held in pending lists.
+        private final int                  _maxPending;
+        
+        // Directories that have not been completed, keyed by relative path.
+        private final HashMap<String,Node> _open = new HashMap<>();
+        
+        // The number of entries in all pending lists.
+        private int                        _pendingCount;
+
+        public Incremental(Consumer<Entry> sink) {this(sink, DEFAULT_MAX_PENDING);}
+        
+        /**
+         * @param sink receives each final entry
+         * @param maxPending the maximum number of entries held, at least 1
+         */
+        public Incremental(Consumer<Entry> sink, int maxPending) 
+        {
+            _sink = sink;
+            _maxPending = Math.max(1, maxPending);
+        }
+
+        /** Add a file from the listing.
+         *
+         * @param relPath the path relative to the output directory
+         * @param size the file size or null if unknown
+         * @param archived whether the file passed the archive filters
+         */
+        public void addFile(String relPath, Long size, boolean archived)
+        {
+            var node = getNode(parentOf(relPath));
+            if (!archived) {block(node); return;}
+
+            var entry = new Entry(relPath, false);
+            if (size != null) entry.bytes = size;
+            entry.fileCount = 1;
+            node.covered = true;
+            if (node.blocked) _sink.accept(entry);
+              else addPending(node, entry);
+        }
+
+        /** Complete a directory after its whole subtree has been added.
+         *
+         * @param relDir the directory path relative to the output directory
+         * @return true if every entry of the subtree has been passed to the 
+         *         sink, false if the directory's entry is held by its parent
+         */
+        public boolean completeDirectory(String relDir)
+        {
+            var dir = normalizeDir(relDir);
+            var node = getNode(dir);
+            _open.remove(dir);
+
+            // Directories without archived files would be created by a 
+            // recursive copy but not by per-file transfers.
+            if (!node.covered) block(node);
+              else if (node.parent != null) node.parent.covered = true;
+            if (node.blocked) return true;
+
+            // Replace the directory's pending entries with the directory.
+            var entry = new Entry(dir, true);
+            for (var e : node.pending) {entry.bytes += e.bytes; entry.fileCount += e.fileCount;}
+            _pendingCount -= node.pending.size();
+            node.pending = null;
+            if (node.parent == null || node.parent.blocked) _sink.accept(entry);
+              else addPending(node.parent, entry);
+            return node.parent == null || node.parent.blocked;
+        }
+
+        /** Account for a directory whose subtree was transferred earlier and
+         * is not listed.  Its parent can no longer be transferred as a whole,
+         * so the parent and its ancestors are blocked.
+         *
+         * @param relDir the directory path relative to the output directory
+         */
+        public void skipDirectory(String relDir)
+        {
+            var dir = normalizeDir(relDir);
+            if (!ROOT.equals(dir)) block(getNode(parentOf(dir)));
+        }
+
+        /** Complete all remaining directories, deepest first. */
+        public void finish()
+        {
+            var dirs = new ArrayList<String>(_open.keySet());
+            dirs.sort(Comparator.comparingInt(String::length).reversed());
+            for (var dir : dirs) completeDirectory(dir);
+        }
+
+        // Get or create the node for an open directory and its ancestors.
+        private Node getNode(String dir)
+        {
+            var node = _open.get(dir);
+            if (node == null) {
+                var parent = ROOT.equals(dir) ? null : getNode(parentOf(dir));
+                node = new Node(parent);
+                _open.put(dir, node);
+            }
+            return node;
+        }
+
+        // Hold an entry in an open directory, releasing all held entries if
+        // there are too many.
+        private void addPending(Node node, Entry entry)
+        {
+            node.pending.add(entry);
+            if (++_pendingCount > _maxPending) 
+                for (var n : _open.values()) block(n);
+        }
+        
+        // Block a directory and its ancestors and release their pending entries.
+        private void block(Node node)
+        {
+            for (var n = node; n != null && !n.blocked; n = n.parent) {
+                n.blocked = true;
+                _pendingCount -= n.pending.size();
+                for (var e : n.pending) _sink.accept(e);
+                n.pending = null;
+            }
+        }
+
+        /** An open directory. */
+        private static final class Node
+        {
+            private final Node  parent;
+            private boolean     blocked;
+            private boolean     covered;
+            private List<Entry> pending = new ArrayList<>();
+
+            private Node(Node parent) {this.parent = parent;}
+        }
+    }
+
+    /** A file or directory to be transferred. */
+    public static final class Entry
+    {
+        public final String  path;
+        public final boolean isDirectory;
+        public long          bytes;
+        public int           fileCount;
+
+        private Entry(String path, boolean isDirectory)
+        {
+            this.path = path;
+            this.isDirectory = isDirectory;
+        }
+
+        @Override
+        public String toString() {return (isDirectory ? "dir:" : "file:") + path;}
+    }
+}
@@ -0,0 +1,272 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.files.client.FilesClient;
+import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
+import edu.utexas.tacc.tapis.files.client.gen.model.FileTypeEnum;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Iterate through the files in a directory subtree one page at a time.  Only
+ * a single page of file information objects and the paths of the directories
+ * not yet visited are held in memory at any point, unlike FilesListSubtree 
+ * which accumulates the whole subtree before returning.
+ *
+ * Each directory is listed non-recursively and paged with limit and offset
+ * values, so every page costs Files a single directory read rather than a
+ * walk of the whole subtree.  Subdirectories are visited depth first after 
+ * their parent's listing is exhausted.  Directory entries are skipped by 
+ * default since only files are archived individually.  A short page indicates
+ * the end of a directory's listing.
+ *
+ * An optional listener is told when each directory has been completely read
+ * and when each directory's whole subtree has been read.  The notifications 
+ * are made from hasNext() after the last entry in question has been returned
+ * by next().  The listener can also skip a directory's subtree before it is
+ * listed.
+ *
+ * The hasNext() method may call Files and can therefore throw a checked
+ * exception, which is why this class does not implement java.util.Iterator.
+ */
+public final class FilesSubtreeIterator
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // The number of entries requested on each Files call.
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Retrieves one page of the listing.
+    private final PageFetcher    _fetcher;
+    private final int            _pageSize;
+
+    // Directories waiting to be listed and those whose subtrees are being listed.
+    private final ArrayDeque<PendingDir> _pending = new ArrayDeque<>();
+
+    // Iteration state.
+    private String               _dir;
+    private List<FileInfo>       _page = Collections.emptyList();
+    private int                  _pageIndex;
+    private int                  _offset;
+    private boolean              _exhausted = true;
+    private long                 _pagesRead;
+    
+    // Whether directory entries are returned.
+    private boolean              _includeDirectories;
+    
+    // Optional listing progress callbacks.
+    private Listener             _listener;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Iterate over a subtree using a Files client.
+     *
+     * @param filesClient the client used to list files
+     * @param systemId the system on which the directory resides
+     * @param path the root of the subtree
+     * @param sharedAppCtx the sharing context or null
+     */
+    public FilesSubtreeIterator(FilesClient filesClient, String systemId, String path,
+                                String sharedAppCtx)
+    {
+        this((dir, limit, offset) -> filesClient.listFiles(systemId, dir, null, limit, offset,
+                                                           false, null, sharedAppCtx),
+             path, DEFAULT_PAGE_SIZE);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Iterate over the pages returned by an arbitrary fetcher.
+     *
+     * @param fetcher the page retrieval function
+     * @param path the root of the subtree
+     * @param pageSize the maximum number of entries in each page
+     */
+    public FilesSubtreeIterator(PageFetcher fetcher, String path, int pageSize)
+    {
+        _fetcher  = fetcher;
+        _pageSize = Math.max(1, pageSize);
+        _pending.push(new PendingDir(path, false));
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* hasNext:                                                               */
+    /* ---------------------------------------------------------------------- */
+    /** Determine if another file is available, fetching the next page if necessary.
+     *
+     * @return true if next() will return a file
+     * @throws TapisClientException on a Files error
+     * @throws TapisException on a listener error
+     */
+    public boolean hasNext() throws TapisClientException, TapisException
+    {
+        while (true) {
+            // Skip directories in the current page.
+            while (_pageIndex < _page.size()) {
+                var info = _page.get(_pageIndex);
+                if (!isDirectory(info)) return true;
+                if (_includeDirectories && !isSameDir(info.getPath(), _dir)) return true;
+                _pageIndex++;
+            }
+
+            // Get the next page of the current directory.
+            if (!_exhausted) {fetchPage(); continue;}
+            
+            // The current directory has been completely read.
+            if (_dir != null) {
+                if (_listener != null) _listener.directoryListed(_dir);
+                _dir = null;
+            }
+            
+            // Report the subtrees that have been completely read and
+            // start on the next directory if there is one.  A marker
+            // for the directory's subtree is placed below its children.
+            PendingDir next;
+            while ((next = _pending.poll()) != null && next.listed)
+                if (_listener != null) _listener.subtreeListed(next.path);
+            if (next == null) return false;
+            if (_listener != null && _listener.skipSubtree(next.path)) continue;
+            _pending.push(new PendingDir(next.path, true));
+            _dir = next.path;
+            _offset = 0;
+            _exhausted = false;
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* next:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    /** Return the next file.  The hasNext() method must be called first.
+     *
+     * @return the next file information object
+     */
+    public FileInfo next()
+    {
+        if (_pageIndex >= _page.size()) throw new NoSuchElementException();
+        return _page.get(_pageIndex++);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* getPagesRead:                                                          */
+    /* ---------------------------------------------------------------------- */
+    /** @return the number of Files calls made so far */
+    public long getPagesRead() {return _pagesRead;}
+    
+    /* ---------------------------------------------------------------------- */
+    /* setIncludeDirectories:                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Return directory entries as well as files.  Must be called before the 
+     * first call to hasNext(). 
+     */
+    public void setIncludeDirectories(boolean includeDirectories) 
+    {_includeDirectories = includeDirectories;}
+    
+    /* ---------------------------------------------------------------------- */
+    /* setListener:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Receive listing progress notifications.  Must be called before the 
+     * first call to hasNext(). 
+     */
+    public void setListener(Listener listener) {_listener = listener;}
+    
+    /* ---------------------------------------------------------------------- */
+    /* isDirectory:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** @return true if the entry describes a directory */
+    public static boolean isDirectory(FileInfo info)
+    {
+        return info.getType() == FileTypeEnum.DIR;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* fetchPage:                                                             */
+    /* ---------------------------------------------------------------------- */
+    private void fetchPage() throws TapisClientException
+    {
+        // Release the previous page before getting the next one.
+        _page = Collections.emptyList();
+        _pageIndex = 0;
+
+        List<FileInfo> page = _fetcher.fetch(_dir, _pageSize, _offset);
+        _pagesRead++;
+        if (page == null) page = Collections.emptyList();
+        if (page.size() < _pageSize) _exhausted = true;
+        _offset += page.size();
+        _page = page;
+
+        // Queue the subdirectories of this page to be listed after the
+        // current directory.  Some Files versions include the listed 
+        // directory itself, which must not be revisited.
+        for (var info : page)
+            if (isDirectory(info) && !isSameDir(info.getPath(), _dir)) 
+                _pending.push(new PendingDir(info.getPath(), false));
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* isSameDir:                                                             */
+    /* ---------------------------------------------------------------------- */
+    private static boolean isSameDir(String path1, String path2)
+    {
+        if (path1 == null || path2 == null) return true;
+        return StringUtils.strip(path1, "/").equals(StringUtils.strip(path2, "/"));
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** A directory waiting to be listed or, once listed, the marker that 
+     * indicates the end of its subtree. */
+    private static final class PendingDir
+    {
+        private final String  path;
+        private final boolean listed;
+        
+        private PendingDir(String path, boolean listed) 
+        {
+            this.path = path;
+            this.listed = listed;
+        }
+    }
+    
+    /** Listing progress notifications.  The paths are those of the listed
+     * directories as passed to the page fetcher. */
+    public interface Listener
+    {
+        /** All pages of the directory have been read. */
+        void directoryListed(String path) throws TapisException;
+        
+        /** The directory and all of its subdirectories have been read. */
+        void subtreeListed(String path) throws TapisException;
+        
+        /** Return true if the directory's subtree should not be listed.  A 
+         * skipped subtree is not reported as listed. */
+        default boolean skipSubtree(String path) throws TapisException {return false;}
+    }
+    
+    /** Retrieve one page of a non-recursive directory listing. */
+    @FunctionalInterface
+    public interface PageFetcher
+    {
+        List<FileInfo> fetch(String path, int limit, int offset) throws TapisClientException;
+    }
+}
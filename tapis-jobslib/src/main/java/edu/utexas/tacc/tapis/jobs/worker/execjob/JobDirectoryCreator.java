@@ -0,0 +1,280 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+
+/** This class creates the set of directories a job needs before input staging
+ * begins.  Each directory creation is a separate call to the Files service,
+ * which in turn opens its own connection to the target system, so the calls
+ * are issued concurrently using a small, bounded thread pool.
+ *
+ * Before any calls are made, the requested directories are collapsed so that
+ * only leaf directories are created.  Files creates directories with mkdir -p
+ * semantics, so creating a leaf also creates all of its ancestors.  A directory
+ * is collapsed into a descendant only when both are on the same system and use
+ * the same sharing context, which guarantees that authorization is unchanged.
+ *
+ * Every directory is attempted even if some fail, so that each failure can be
+ * reported with its own host and path information.
+ */
+public final class JobDirectoryCreator
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Tracing.
+    private static final Logger _log = LoggerFactory.getLogger(JobDirectoryCreator.class);
+
+    // The maximum number of concurrent mkdir calls issued for a single job.
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    // Thread name prefix.
+    private static final String THREAD_NAME_PREFIX = "JobMkdir-";
+
+    /* ********************************************************************** */
+    /*                                Fields                                  */
+    /* ********************************************************************** */
+    // Unique thread number suffix.
+    private static final AtomicInteger _threadSeqno = new AtomicInteger();
+
+    // The function that actually creates a directory.
+    private final MkdirFunction _mkdirFunction;
+
+    // The maximum number of mkdir calls in flight at once.
+    private final int           _maxConcurrency;
+
+    /* ********************************************************************** */
+    /*                              Constructors                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public JobDirectoryCreator(MkdirFunction mkdirFunction)
+    {
+        this(mkdirFunction, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* constructor:                                                           */
+    /* ---------------------------------------------------------------------- */
+    public JobDirectoryCreator(MkdirFunction mkdirFunction, int maxConcurrency)
+    {
+        _mkdirFunction  = mkdirFunction;
+        _maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /* ********************************************************************** */
+    /*                            Public Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* createDirectories:                                                     */
+    /* ---------------------------------------------------------------------- */
+    /** Collapse the requested directories and create the remaining leaf
+     * directories concurrently.  The returned list contains one entry for each
+     * directory that could not be created, in request order.  An empty list
+     * means all directories were created.
+     *
+     * @param requests the directories to create in the order they were requested
+     * @return the non-null list of failures
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public List<MkdirFailure> createDirectories(List<MkdirRequest> requests)
+     throws InterruptedException
+    {
+        // Remove duplicates and ancestors.
+        var leaves = collapse(requests);
+        var failures = new ArrayList<MkdirFailure>();
+        if (leaves.isEmpty()) return failures;
+
+        // Don't bother with threads when there's only one call to make.
+        if (leaves.size() == 1 || _maxConcurrency == 1) {
+            for (var req : leaves) {
+                var failure = mkdir(req);
+                if (failure != null) failures.add(failure);
+            }
+            return failures;
+        }
+
+        // Issue the calls concurrently.
+        int poolSize = Math.min(leaves.size(), _maxConcurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, r -> {
+            var thread = new Thread(r, THREAD_NAME_PREFIX + _threadSeqno.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Submit all requests.
+            var futures = new ArrayList<Future<MkdirFailure>>(leaves.size());
+            for (var req : leaves) {
+                Callable<MkdirFailure> call = () -> mkdir(req);
+                futures.add(executor.submit(call));
+            }
+
+            // Collect the results in request order.
+            for (int i = 0; i < futures.size(); i++) {
+                MkdirFailure failure;
+                try {failure = futures.get(i).get();}
+                catch (ExecutionException e) {
+                    // Only errors escape the mkdir method.
+                    failure = new MkdirFailure(leaves.get(i), e);
+                }
+                if (failure != null) failures.add(failure);
+            }
+        }
+        finally {
+            // Interrupted threads abandon their calls.
+            executor.shutdownNow();
+        }
+
+        return failures;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* collapse:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Return the subset of requests that need to be issued to create all the
+     * requested directories.  Exact duplicates (same system and directory) are
+     * removed keeping the first occurrence, which is the same treatment the
+     * original serial code gave them.  A directory is also removed when another
+     * request on the same system with the same sharing context specifies one of
+     * its descendants.  The relative order of the retained requests is preserved.
+     *
+     * @param requests the requested directories
+     * @return the leaf directories that need to be created
+     */
+    public static List<MkdirRequest> collapse(List<MkdirRequest> requests)
+    {
+        // Remove exact duplicates first.
+        var dupSet = new HashSet<String>();
+        var unique = new ArrayList<MkdirRequest>(requests.size());
+        for (var req : requests)
+            if (dupSet.add(req.systemId + "|" + normalize(req.dir))) unique.add(req);
+
+        // Remove ancestors of other requested directories.
+        var leaves = new ArrayList<MkdirRequest>(unique.size());
+        for (var req : unique) {
+            boolean isAncestor = false;
+            for (var other : unique) {
+                if (req == other) continue;
+                if (isAncestor(req, other)) {isAncestor = true; break;}
+            }
+            if (!isAncestor) leaves.add(req);
+        }
+        return leaves;
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* mkdir:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    /** Create a single directory and return a failure record if there was a
+     * problem, null otherwise.
+     */
+    private MkdirFailure mkdir(MkdirRequest req)
+    {
+        try {_mkdirFunction.mkdir(req.systemId, req.dir, req.sharedAppCtx);}
+        catch (Exception e) {
+            _log.error(e.getMessage(), e);
+            return new MkdirFailure(req, e);
+        }
+        return null;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* isAncestor:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** Is the candidate directory a proper ancestor of the other directory
+     * on the same system using the same sharing context?
+     */
+    private static boolean isAncestor(MkdirRequest candidate, MkdirRequest other)
+    {
+        if (!Objects.equals(candidate.systemId, other.systemId)) return false;
+        if (!StringUtils.defaultString(candidate.sharedAppCtx).equals(
+             StringUtils.defaultString(other.sharedAppCtx))) return false;
+
+        var ancestor = normalize(candidate.dir);
+        var descendant = normalize(other.dir);
+        if (ancestor.equals(descendant)) return false;
+        var prefix = ancestor.endsWith("/") ? ancestor : ancestor + "/";
+        return descendant.startsWith(prefix);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* normalize:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Remove redundant trailing slashes without turning the root into an
+     * empty string.
+     */
+    private static String normalize(String dir)
+    {
+        if (dir == null) return "";
+        var s = StringUtils.stripEnd(dir, "/");
+        if (s.isEmpty() && dir.startsWith("/")) return "/";
+        return s;
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** The call that actually creates a directory, usually FilesClient.mkdir. */
+    @FunctionalInterface
+    public interface MkdirFunction
+    {
+        void mkdir(String systemId, String dir, String sharedAppCtx)
+         throws TapisClientException;
+    }
+
+    /** A directory to be created along with the information needed to report errors. */
+    public static final class MkdirRequest
+    {
+        public final String systemId;
+        public final String host;
+        public final String dir;
+        public final String sharedAppCtx;
+
+        public MkdirRequest(String systemId, String host, String dir, String sharedAppCtx)
+        {
+            this.systemId = systemId;
+            this.host = host;
+            this.dir = dir;
+            this.sharedAppCtx = sharedAppCtx;
+        }
+    }
+
+    /** A directory that could not be created and the reason why. */
+    public static final class MkdirFailure
+    {
+        public final MkdirRequest request;
+        public final Exception    cause;
+
+        public MkdirFailure(MkdirRequest request, Exception cause)
+        {
+            this.request = request;
+            this.cause = cause;
+        }
+
+        // Use the client's http code when available.
+        public int getCode()
+        {
+            if (cause instanceof TapisClientException)
+                return ((TapisClientException)cause).getCode();
+            return 0;
+        }
+    }
+}
@@ -46,6 +46,9 @@ public final class JobExecutionUtils
     private static final String DOCKER_ID = "docker ps -a --no-trunc -f \"%s\" --format \"{{.ID}}\"";
     private static final String DOCKER_STATUS = "docker ps -a --no-trunc -f \"name=%s\" --format \"{{.Status}}\"";
     private static final String DOCKER_RM = "docker rm -f %s";
+    
+    // Docker remove command text that precedes one or more container names.
+    public static final String DOCKER_RM_PREFIX = "docker rm -f ";
 
     // Docker status return values.
     public static final String DOCKER_ACTIVE_STATUS_PREFIX = "Up ";
@@ -79,7 +82,7 @@ public final class JobExecutionUtils
     public static final String ZIP_UNTAR_CMD_FMT = "cd %s; tar -xf %s";
     public static final String ZIP_STATUS_CMD_FMT = "ps -o pid,ppid,stat,euser,cmd -p %s";
     public static final String ZIP_SETEXEC_CMD_FMT = "cd %s; ./%s";
-    public static final String ZIP_FILE_RM_FROM_EXECDIR_FMT = "cd %s; /bin/rm %s";
+    public static final String ZIP_FILE_RM_FROM_EXECDIR_FMT = "cd %s; /bin/rm -f %s";
 
     /* ********************************************************************** */
     /*                            Public Methods                              */
@@ -6,20 +6,22 @@ import static edu.utexas.tacc.tapis.jobs.worker.execjob.JobExecutionUtils.ZIP_UN
 import static edu.utexas.tacc.tapis.jobs.worker.execjob.JobExecutionUtils.ZIP_UNZIP_CMD_FMT;
 import static edu.utexas.tacc.tapis.shared.utils.TapisUtils.alwaysSingleQuote;
 
-import java.nio.file.FileSystems;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFilePermission;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -28,11 +30,12 @@ import org.slf4j.LoggerFactory;
 
 import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
 import edu.utexas.tacc.tapis.files.client.FilesClient;
-import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
 import edu.utexas.tacc.tapis.files.client.gen.model.ReqTransfer;
 import edu.utexas.tacc.tapis.files.client.gen.model.ReqTransferElement;
 import edu.utexas.tacc.tapis.files.client.gen.model.ReqTransferElement.TransferTypeEnum;
+import edu.utexas.tacc.tapis.files.client.gen.model.TransferStatusEnum;
 import edu.utexas.tacc.tapis.files.client.gen.model.TransferTask;
+import edu.utexas.tacc.tapis.jobs.config.RuntimeParameters;
 import edu.utexas.tacc.tapis.jobs.dao.JobsDao.TransferValueType;
 import edu.utexas.tacc.tapis.jobs.exceptions.JobException;
 import edu.utexas.tacc.tapis.jobs.filesmonitor.TransferMonitorFactory;
@@ -42,6 +45,10 @@ import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
 import edu.utexas.tacc.tapis.jobs.model.enumerations.JobRemoteOutcome;
 import edu.utexas.tacc.tapis.jobs.model.submit.JobFileInput;
 import edu.utexas.tacc.tapis.jobs.recover.RecoveryUtils;
+import edu.utexas.tacc.tapis.jobs.stagers.zip.ZipAppCache;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.ArchiveTransferChunker.TransferChunk;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.JobDirectoryCreator.MkdirFailure;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.JobDirectoryCreator.MkdirRequest;
 import edu.utexas.tacc.tapis.shared.TapisConstants;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
 import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
@@ -50,7 +57,6 @@ import edu.utexas.tacc.tapis.shared.i18n.MsgUtils;
 import edu.utexas.tacc.tapis.shared.ssh.apache.SSHScpClient;
 import edu.utexas.tacc.tapis.shared.uri.TapisLocalUrl;
 import edu.utexas.tacc.tapis.shared.uri.TapisUrl;
-import edu.utexas.tacc.tapis.shared.utils.FilesListSubtree;
 import edu.utexas.tacc.tapis.shared.utils.TapisUtils;
 import edu.utexas.tacc.tapis.systems.client.gen.model.SystemTypeEnum;
 
@@ -65,9 +71,21 @@ public final class JobFileManager
     // Special transfer id value indicating no files to stage.
     private static final String NO_FILE_INPUTS = "no inputs";
     
+    // Special transfer id value indicating archiving used multiple transfers.
+    private static final String CHUNKED_TRANSFERS = "chunked transfers";
+    
     // Filters are interpreted as globs unless they have this prefix.
     public static final String REGEX_FILTER_PREFIX = "REGEX:";
     
+    // Timeout for retrieving http app archive headers.
+    private static final int APP_ARCHIVE_HEAD_TIMEOUT_SECS = 30;
+    
+    // Shared by all jobs for app archive HEAD requests.  Redirects are not
+    // followed so that only trusted hosts are ever contacted.
+    private static final HttpClient _appArchiveHttpClient = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(APP_ARCHIVE_HEAD_TIMEOUT_SECS)).build();
+    
     // Various useful posix permission settings.
     public static final List<PosixFilePermission> RWRW   = SSHScpClient.RWRW_PERMS;
     public static final List<PosixFilePermission> RWXRWX = SSHScpClient.RWXRWX_PERMS;
@@ -82,9 +100,6 @@ public final class JobFileManager
     // We transfer files in these phases of job processing.
     private enum JobTransferPhase {INPUT, ARCHIVE, STAGE_APP, DTN_IN, DTN_OUT}
     
-    // Archive filter types.
-    private enum FilterType {INCLUDES, EXCLUDES}
-    
     /* ********************************************************************** */
     /*                                Fields                                  */
     /* ********************************************************************** */
@@ -132,6 +147,12 @@ public final class JobFileManager
     /** Create the directories used for I/O on this job.  The directories may
      * already exist.
      * 
+     * Each directory is created with a separate call to Files.  Duplicate 
+     * directories and directories that are ancestors of other job directories 
+     * are collapsed so that only leaf directories are created, and the remaining
+     * calls are issued concurrently.  Every directory is attempted; all failures
+     * are logged and the first one is thrown.
+     * 
      * @throws TapisImplException
      * @throws TapisServiceConnectionException
      */
@@ -144,137 +165,69 @@ public final class JobFileManager
         // Get the IO targets for the job and check that the systems are enabled.
         var ioTargets = _jobCtx.getJobIOTargets();
         
-        // Create a set to that records the directories already created.
-        var createdSet = new HashSet<String>();
-        
-        // ---------------------- Exec System Exec Dir ----------------------
-        // Create the directory on the system.
-        try {
-            filesClient.mkdir(ioTargets.getExecTarget().systemId, 
-                              ioTargets.getExecTarget().dir, _shareExecSystemExecDirAppOwner);
-        } catch (TapisClientException e) {
-            String msg = MsgUtils.getMsg("FILES_REMOTE_MKDIRS_ERROR", 
-                                         ioTargets.getExecTarget().host,
-                                         _job.getOwner(), _job.getTenant(),
-                                         ioTargets.getExecTarget().dir, e.getCode());
-            throw new TapisImplException(msg, e, e.getCode());
-        }
-        
-        // Save the created directory key to avoid attempts to recreate it.
-        createdSet.add(getDirectoryKey(ioTargets.getExecTarget().systemId, 
-                                       ioTargets.getExecTarget().dir));
-        
-        // ---------------------- Exec System Output Dir ----------------- 
-        // See if the output dir is the same as the exec dir.
-        var execSysOutputDirKey = getDirectoryKey(ioTargets.getOutputTarget().systemId, 
-                                                  ioTargets.getOutputTarget().dir);
-        if (!createdSet.contains(execSysOutputDirKey)) {
-            // Create the directory on the system.
-            try {
-                filesClient.mkdir(ioTargets.getOutputTarget().systemId, 
-                                  _job.getExecSystemOutputDir(), _shareExecSystemOutputDirAppOwner);
-            } catch (TapisClientException e) {
-                String msg = MsgUtils.getMsg("FILES_REMOTE_MKDIRS_ERROR", 
-                                             ioTargets.getOutputTarget().host,
-                                             _job.getOwner(), _job.getTenant(),
-                                             ioTargets.getOutputTarget().dir, e.getCode());
-                throw new TapisImplException(msg, e, e.getCode());
-            }
-            
-            // Save the created directory key to avoid attempts to recreate it.
-            createdSet.add(execSysOutputDirKey);
-        }
-        
-        // ---------------------- Exec System Input Dir ------------------ 
-        // See if the input dir is the same as any previously created dir.
-        var execSysInputDirKey = getDirectoryKey(ioTargets.getInputTarget().systemId, 
-                                                 ioTargets.getInputTarget().dir);
-        if (!createdSet.contains(execSysInputDirKey)) {
-            // Create the directory on the system.
-            try {
-                filesClient.mkdir(ioTargets.getInputTarget().systemId, 
-                                  ioTargets.getInputTarget().dir, _shareExecSystemInputDirAppOwner);
-            } catch (TapisClientException e) {
-                String msg = MsgUtils.getMsg("FILES_REMOTE_MKDIRS_ERROR", 
-                                             ioTargets.getInputTarget().host,
-                                             _job.getOwner(), _job.getTenant(),
-                                             ioTargets.getInputTarget().dir, e.getCode());
-                throw new TapisImplException(msg, e, e.getCode());
-            }
-            
-            // Save the created directory key to avoid attempts to recreate it.
-            createdSet.add(execSysInputDirKey);
-        }
+        // Collect the directories in the same order they were historically created.
+        var requests = new ArrayList<MkdirRequest>();
         
-        // ---------------------- DTN System Input Dir ------------------- 
-        // Most jobs don't use a dtn.
-        if (ioTargets.getDtnInputTarget() != null) {
-        	// See if the input dir is the same as any previously created dir.
-        	var dtnSysInputDirKey = getDirectoryKey(ioTargets.getDtnInputTarget().systemId, 
-                                                 	ioTargets.getDtnInputTarget().dir);
-        	if (!createdSet.contains(dtnSysInputDirKey)) {
-        		// Create the directory on the system.
-        		try {
-        			filesClient.mkdir(ioTargets.getDtnInputTarget().systemId, 
-                                 	  ioTargets.getDtnInputTarget().dir, _shareDtnSystemInputDirAppOwner);
-        		} catch (TapisClientException e) {
-        			String msg = MsgUtils.getMsg("FILES_REMOTE_MKDIRS_ERROR", 
-                                             	 ioTargets.getDtnInputTarget().host,
-                                             	 _job.getOwner(), _job.getTenant(),
-                                             	 ioTargets.getDtnInputTarget().dir, e.getCode());
-        			throw new TapisImplException(msg, e, e.getCode());
-        		}
-            
-        		// Save the created directory key to avoid attempts to recreate it.
-        		createdSet.add(dtnSysInputDirKey);
-        	}
-        }
+        // ---------------------- Exec System Dirs -----------------------
+        requests.add(new MkdirRequest(ioTargets.getExecTarget().systemId, 
+                                      ioTargets.getExecTarget().host,
+                                      ioTargets.getExecTarget().dir, 
+                                      _shareExecSystemExecDirAppOwner));
+        requests.add(new MkdirRequest(ioTargets.getOutputTarget().systemId, 
+                                      ioTargets.getOutputTarget().host,
+                                      ioTargets.getOutputTarget().dir, 
+                                      _shareExecSystemOutputDirAppOwner));
+        requests.add(new MkdirRequest(ioTargets.getInputTarget().systemId, 
+                                      ioTargets.getInputTarget().host,
+                                      ioTargets.getInputTarget().dir, 
+                                      _shareExecSystemInputDirAppOwner));
         
-        // ---------------------- DTN System Output Dir ------------------ 
+        // ---------------------- DTN System Dirs ------------------------
         // Most jobs don't use a dtn.
-        if (ioTargets.getDtnOutputTarget() != null) {
-        	// See if the output dir is the same as any previously created dir.
-        	var dtnSysOutputDirKey = getDirectoryKey(ioTargets.getDtnOutputTarget().systemId, 
-                                                 	ioTargets.getDtnOutputTarget().dir);
-        	if (!createdSet.contains(dtnSysOutputDirKey)) {
-        		// Create the directory on the system.
-        		try {
-        			filesClient.mkdir(ioTargets.getDtnOutputTarget().systemId, 
-                                 	  ioTargets.getDtnOutputTarget().dir, _shareDtnSystemOutputDirAppOwner);
-        		} catch (TapisClientException e) {
-        			String msg = MsgUtils.getMsg("FILES_REMOTE_MKDIRS_ERROR", 
-                                             	 ioTargets.getDtnOutputTarget().host,
-                                             	 _job.getOwner(), _job.getTenant(),
-                                             	 ioTargets.getDtnOutputTarget().dir, e.getCode());
-        			throw new TapisImplException(msg, e, e.getCode());
-        		}
-            
-        		// Save the created directory key to avoid attempts to recreate it.
-        		createdSet.add(dtnSysOutputDirKey);
-        	}
-        }
+        if (ioTargets.getDtnInputTarget() != null) 
+            requests.add(new MkdirRequest(ioTargets.getDtnInputTarget().systemId, 
+                                          ioTargets.getDtnInputTarget().host,
+                                          ioTargets.getDtnInputTarget().dir, 
+                                          _shareDtnSystemInputDirAppOwner));
+        if (ioTargets.getDtnOutputTarget() != null) 
+            requests.add(new MkdirRequest(ioTargets.getDtnOutputTarget().systemId, 
+                                          ioTargets.getDtnOutputTarget().host,
+                                          ioTargets.getDtnOutputTarget().dir, 
+                                          _shareDtnSystemOutputDirAppOwner));
         
         // ---------------------- Archive System Dir ---------------------
-        // See if the archive dir is the same as any previously created dir.
         // There is no mkdir command on S3 systems, so we skip those systems. 
-        var archiveSysDirKey = getDirectoryKey(_job.getArchiveSystemId(), 
-                                               _job.getArchiveSystemDir());
-        if (!createdSet.contains(archiveSysDirKey) && 
-        	_jobCtx.getArchiveSystem().getSystemType() != SystemTypeEnum.S3) 
-        {
-            // Create the directory on the system.
-            try {
-                var sharedAppCtx = _jobCtx.getJobSharedAppCtx().getSharingArchiveSystemDirAppOwner();
-                filesClient.mkdir(_job.getArchiveSystemId(), 
-                                  _job.getArchiveSystemDir(), sharedAppCtx);
-            } catch (TapisClientException e) {
-                String msg = MsgUtils.getMsg("FILES_REMOTE_MKDIRS_ERROR", 
-                                             _jobCtx.getArchiveSystem().getHost(),
-                                             _job.getOwner(), _job.getTenant(),
-                                             _job.getArchiveSystemDir(), e.getCode());
-                throw new TapisImplException(msg, e, e.getCode());
-            }
+        if (_jobCtx.getArchiveSystem().getSystemType() != SystemTypeEnum.S3) 
+            requests.add(new MkdirRequest(_job.getArchiveSystemId(), 
+                                          _jobCtx.getArchiveSystem().getHost(),
+                                          _job.getArchiveSystemDir(), 
+                                          _shareArchiveSystemDirAppOwner));
+        
+        // ---------------------- Create Directories ---------------------
+        // Issue the mkdirs concurrently and wait for them all to complete.
+        var creator = new JobDirectoryCreator(
+            (systemId, dir, sharedAppCtx) -> filesClient.mkdir(systemId, dir, sharedAppCtx));
+        List<MkdirFailure> failures;
+        try {failures = creator.createDirectories(requests);}
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String msg = MsgUtils.getMsg("TAPIS_RUNTIME_EXCEPTION", e.getMessage());
+            throw new JobException(msg, e);
         }
+        if (failures.isEmpty()) return;
+        
+        // Report every failure, then throw the first one.
+        TapisImplException firstException = null;
+        for (var failure : failures) {
+            String msg = MsgUtils.getMsg("FILES_REMOTE_MKDIRS_ERROR", 
+                                         failure.request.host,
+                                         _job.getOwner(), _job.getTenant(),
+                                         failure.request.dir, failure.getCode());
+            _log.error(msg);
+            if (firstException == null)
+                firstException = new TapisImplException(msg, failure.cause, failure.getCode());
+        }
+        throw firstException;
     }
 
     /* ---------------------------------------------------------------------- */
@@ -293,24 +246,102 @@ public final class JobFileManager
         if (!containerImageIsUrl) return;
         
         // If a url, then start or restart a file transfer and wait for it to finish.
-        // Create the transfer request. sourceUrl is the containerImage
-        String sourceUrl = containerImage;
         // Build destUrl from exec system and path = execSystemExecDir
         String destUrl = makeSystemUrl(_job.getExecSystemId(), _job.getExecSystemExecDir(), appArchiveFile);
+        stageAppArchive(containerImage, destUrl, _shareExecSystemExecDirAppOwner);
+    }
 
-        // Determine sharing info for sourceUrl and destinationUrl
-        String sharingOwnerSourceUrl = _jobCtx.getJobSharedAppCtx().getSharingContainerImageUrlAppOwner();;
-        String sharingOwnerDestUrl   = _shareExecSystemExecDirAppOwner;
+    /* ---------------------------------------------------------------------- */
+    /* getAppArchiveVersion:                                                  */
+    /* ---------------------------------------------------------------------- */
+    /** Determine a token that changes whenever the content of the app archive
+     * at the url changes.  For tapis urls the token is the file's size and last
+     * modified time as reported by Files.  
+     * 
+     * Http and https urls are only versioned when their host is one of the 
+     * configured trusted app archive hosts, since the url comes from a user
+     * defined app and Jobs must not be used to probe arbitrary servers.  For 
+     * these urls the ETag response header of a HEAD request is used if present,
+     * otherwise the Last-Modified and Content-Length headers are used.  
+     * Redirects are not followed.
+     *
+     * @param containerImage the app archive url
+     * @return the version token or null if none could be determined
+     */
+    public String getAppArchiveVersion(String containerImage)
+    {
+        Matcher matcher = JobFileInput.URL_PATTERN.matcher(containerImage);
+        if (!matcher.find()) return null;
+        try {
+            if (containerImage.startsWith(TapisUrl.TAPIS_PROTOCOL_PREFIX)) {
+                // List the single file without recursion.
+                String path = "/" + Optional.ofNullable(matcher.group(3)).orElse("");
+                String sharingOwner = _jobCtx.getJobSharedAppCtx().getSharingContainerImageUrlAppOwner();
+                FilesClient filesClient = _jobCtx.getServiceClient(FilesClient.class);
+                var list = filesClient.listFiles(matcher.group(2), path, null, 1, 0, false, null, sharingOwner);
+                if (list == null || list.size() != 1 || FilesSubtreeIterator.isDirectory(list.get(0))) return null;
+                var info = list.get(0);
+                if (info.getSize() == null || info.getLastModified() == null) return null;
+                return "size=" + info.getSize() + ";lastModified=" + info.getLastModified();
+            }
 
-        var reqTransfer = new ReqTransfer();
-        var task = new ReqTransferElement().sourceURI(sourceUrl).destinationURI(destUrl);
-        task.setOptional(false);
-        task.setSrcSharedCtx(sharingOwnerSourceUrl);
-        task.setDestSharedCtx(sharingOwnerDestUrl);
-        reqTransfer.addElementsItem(task);
-        // Transfer the app archive file. This method will start or restart the transfer and monitor
-        //   it until it completes.
-        stageAppZipFile(reqTransfer);
+            // Only trusted web servers are contacted.
+            var uri = URI.create(containerImage);
+            var trustedHosts = RuntimeParameters.getInstance().getZipAppCacheHttpHosts();
+            if (!ZipAppCache.isTrustedArchiveHost(uri, trustedHosts)) return null;
+            
+            // Ask the web server without downloading the archive.
+            var request = HttpRequest.newBuilder(uri)
+                              .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                              .timeout(Duration.ofSeconds(APP_ARCHIVE_HEAD_TIMEOUT_SECS)).build();
+            var response = _appArchiveHttpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) return null;
+            var headers = response.headers();
+            var etag = headers.firstValue("ETag");
+            if (etag.isPresent() && !etag.get().startsWith("W/")) return "etag=" + etag.get();
+            var lastModified = headers.firstValue("Last-Modified");
+            var length = headers.firstValue("Content-Length");
+            if (lastModified.isPresent() && length.isPresent())
+                return "size=" + length.get() + ";lastModified=" + lastModified.get();
+            return null;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (Exception e) {
+            // The archive will be staged without the cache.
+            _log.warn(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeZipAppCacheOps:                                                    */
+    /* ---------------------------------------------------------------------- */
+    /** Create the host and Files operations used by a ZipAppCache.
+     *
+     * @param containerImage the app archive url
+     * @param cacheDir the cache directory relative to the exec system's rootDir
+     * @return the operations object
+     */
+    public ZipAppCache.CacheOps makeZipAppCacheOps(String containerImage, String cacheDir)
+    {
+        return new ZipAppCache.CacheOps() {
+            @Override
+            public ZipAppCache.CmdResult execute(String cmd) throws TapisException {
+                var runCmd = _jobCtx.getExecSystemTapisSSH().getRunCommand();
+                int exitStatus = runCmd.execute(cmd);
+                return new ZipAppCache.CmdResult(exitStatus, runCmd.getOutAsTrimmedString());
+            }
+            @Override
+            public void stageArchive(String stageDirName, String archiveFileName) throws TapisException {
+                // The cache is private to the job owner so no destination sharing applies.
+                String destUrl = makeSystemUrl(_job.getExecSystemId(), makePath(cacheDir, stageDirName),
+                                               archiveFileName);
+                stageAppArchive(containerImage, destUrl, null);
+            }
+        };
     }
 
     /* ---------------------------------------------------------------------- */
@@ -377,6 +408,22 @@ public final class JobFileManager
         String transferId = transferInfo.archiveTransactionId;
         String corrId     = transferInfo.archiveCorrelationId;
         
+        // A chunked archive transfer records its progress separately.  When 
+        // resuming, only the chunks that did not complete are processed using
+        // the elements saved with each chunk.  DTN outputs that have already 
+        // been moved are not moved again.  If the job was interrupted before
+        // the output directory listing completed, the directory is listed 
+        // again to produce the remaining chunks, skipping the subtrees whose
+        // files are already in saved chunks.
+        var chunkState = ArchiveTransferState.fromJson(transferInfo.archiveTransferState);
+        if (chunkState != null) {
+            if (!chunkState.isComplete()) {
+                transferChunks(chunkState.getSavedChunks(), chunkState.getTag(), chunkState);
+                if (!chunkState.isListingComplete()) archiveNewOutputs(chunkState.getTag(), chunkState);
+            }
+            return;
+        }
+        
         // See if the transfer id has been set for this job (this implies the
         // correlation id has also been set).  If so, then the job had already 
         // submitted its transfer request and we are now in recovery processing.  
@@ -386,11 +433,11 @@ public final class JobFileManager
         // was saved.  In this case, we simply generate a new corrId.
         if (StringUtils.isBlank(transferId)) {
             corrId = UUID.randomUUID().toString();
-            transferId = archiveNewOutputs(corrId);
+            transferId = archiveNewOutputs(corrId, null);
         }
         
-        // Is there anything to transfer?
-        if (transferId.equals(NO_FILE_INPUTS)) return;
+        // Is there anything to transfer?  Chunked transfers have already completed.
+        if (transferId.equals(NO_FILE_INPUTS) || transferId.equals(CHUNKED_TRANSFERS)) return;
         _log.info(MsgUtils.getMsg("JOBS_FILE_TRANSFER_INFO", _job.getUuid(), 
                                   _job.getStatus().name(), transferId, corrId));
 
@@ -422,6 +469,31 @@ public final class JobFileManager
             catch (Exception e) {_log.error(e.getMessage(), e);}
     }
     
+    /* ---------------------------------------------------------------------- */
+    /* isTransferFailed:                                                      */
+    /* ---------------------------------------------------------------------- */
+    /** Best effort determination of whether a transfer terminated without 
+     * completing.  If the transfer's status cannot be retrieved, false is
+     * returned so that the caller continues to monitor the transfer.
+     * 
+     * @param transferId the transfer's uuid
+     * @return true if the transfer failed or was cancelled
+     */
+    public boolean isTransferFailed(String transferId)
+    {
+        try {
+            var filesClient = _jobCtx.getServiceClient(FilesClient.class);
+            var task = filesClient.getTransferTask(transferId);
+            if (task == null) return false;
+            return task.getStatus() == TransferStatusEnum.FAILED || 
+                   task.getStatus() == TransferStatusEnum.CANCELLED;
+        }
+        catch (Exception e) {
+            _log.error(e.getMessage(), e);
+            return false;
+        }
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* installExecFile:                                                       */
     /* ---------------------------------------------------------------------- */
@@ -771,6 +843,36 @@ public final class JobFileManager
     /* ********************************************************************** */
     /*                            Private Methods                             */
     /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* stageAppArchive:                                                       */
+    /* ---------------------------------------------------------------------- */
+    /** Transfer the app archive from its url to the destination url.
+     *
+     * @param containerImage the app archive url
+     * @param destUrl the tapis url of the destination file
+     * @param sharingOwnerDestUrl the destination sharing context or null
+     * @throws TapisException on error
+     */
+    private void stageAppArchive(String containerImage, String destUrl, String sharingOwnerDestUrl)
+     throws TapisException
+    {
+        // Create the transfer request. sourceUrl is the containerImage
+        String sourceUrl = containerImage;
+
+        // Determine sharing info for sourceUrl
+        String sharingOwnerSourceUrl = _jobCtx.getJobSharedAppCtx().getSharingContainerImageUrlAppOwner();
+
+        var reqTransfer = new ReqTransfer();
+        var task = new ReqTransferElement().sourceURI(sourceUrl).destinationURI(destUrl);
+        task.setOptional(false);
+        task.setSrcSharedCtx(sharingOwnerSourceUrl);
+        task.setDestSharedCtx(sharingOwnerDestUrl);
+        reqTransfer.addElementsItem(task);
+        // Transfer the app archive file. This method will start or restart the transfer and monitor
+        //   it until it completes.
+        stageAppZipFile(reqTransfer);
+    }
+
     /* ---------------------------------------------------------------------- */
     /* stageAppZipFile:                                                       */
     /* ---------------------------------------------------------------------- */
@@ -807,20 +909,6 @@ public final class JobFileManager
         monitor.monitorTransfer(_job, transferId, corrId);
     }
 
-    /* ---------------------------------------------------------------------- */
-    /* getDirectoryKey:                                                       */
-    /* ---------------------------------------------------------------------- */
-    /** Create a hash key for a system/directory combination.
-     * 
-     * @param systemId the system id
-     * @param directory the directory path
-     * @return a string to use as a hash key to identify the system/directory
-     */
-    private String getDirectoryKey(String systemId, String directory)
-    {
-        return systemId + "|" + directory;
-    }
-    
     /* ---------------------------------------------------------------------- */
     /* stageNewInputs:                                                        */
     /* ---------------------------------------------------------------------- */
@@ -883,12 +971,20 @@ public final class JobFileManager
      * Launch files, if archived, are always transfered directly from the 
      * execution system's execSystemExecDir whether or not a dtn is specified.
      * 
+     * Requests that exceed the configured chunk limits are split into multiple
+     * transfer tasks that are run and monitored here (see transferChunks()).
+     * When output files are filtered, chunks are transferred while the output
+     * directory is still being listed (see archiveFilteredOutputs()).  In these
+     * cases CHUNKED_TRANSFERS is returned after all chunks have completed.
+     * 
      * @param tag the Jobs generated correlation id
-     * @return the Files generated transfer id
+     * @param priorState the state of a chunked transfer whose listing was 
+     *                   interrupted or null
+     * @return the Files generated transfer id, NO_FILE_INPUTS or CHUNKED_TRANSFERS
      * @throws TapisException
      * @throws TapisClientException
      */
-    private String archiveNewOutputs(String tag) 
+    private String archiveNewOutputs(String tag, ArchiveTransferState priorState) 
      throws TapisException, TapisClientException
     {
         // -------------------- Assess Work ------------------------------
@@ -954,29 +1050,10 @@ public final class JobFileManager
             } 
             else 
             {
-            	// We need to filter each and every file, so we need to retrieve 
-            	// the output directory file listing.  Get the client from the 
-            	// context now to catch errors early.  We initialize the unfiltered list.
-            	FilesClient filesClient = _jobCtx.getServiceClient(FilesClient.class);
-            	var listSubtree = new FilesListSubtree(filesClient, _job.getExecSystemId(), 
-            			                               _job.getExecSystemOutputDir());
-            	listSubtree.setSharedAppCtx(_shareExecSystemOutputDirAppOwner);
-            	var fileInfoList = listSubtree.list(); // Replace empty r/o list
-                
-            	// Apply the excludes list first since it has precedence, then
-            	// the includes list.  The fileList can be modified in both calls.
-            	applyArchiveFilters(excludes, fileInfoList, FilterType.EXCLUDES);
-            	applyArchiveFilters(includes, fileInfoList, FilterType.INCLUDES);
-            
-            	// Size the list of names relative to the execSystemOutputDir
-            	// to be what's left after filtering when using a DTN.  Otherwise,
-            	// leave it as null so that it won't get populated.
-            	if (useDtn && fileInfoList.size() > 0) {
-            		mvOutputFileList = new ArrayList<>(fileInfoList.size());
-            	}
-             
-            	// Create a task entry for each of the filtered output files.
-            	addOutputFiles(tasks, fileInfoList, mvOutputFileList);
+            	// We need to filter each and every file, so the output directory
+            	// is listed and its files are transferred as they are filtered.
+            	return archiveFilteredOutputs(tag, tasks, mvLaunchFileList, includes, excludes,
+            			                      useDtn, priorState);
             }
         }
         
@@ -994,10 +1071,224 @@ public final class JobFileManager
         // placeholders and assigning shared context values.
         completeArchiveTransferTasks(tasks, useDtn, launchTaskCount);
         
+        // Split large requests into chunks.  A single chunk is submitted as 
+        // an ordinary transfer.
+        var parms = RuntimeParameters.getInstance();
+        var chunks = ArchiveTransferChunker.makeChunks(tasks.getElements(), null,
+                                                       parms.getArchiveChunkMaxElements(),
+                                                       parms.getArchiveChunkMaxBytes());
+        if (chunks.size() > 1) {
+            transferChunks(chunks, tag, null);
+            return CHUNKED_TRANSFERS;
+        }
+        
         // Return a transfer id if tasks is not empty.
         return submitTransferTask(tasks, tag, JobTransferPhase.ARCHIVE);
     }
     
+    /* ---------------------------------------------------------------------- */
+    /* transferChunks:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Transfer each chunk of archive elements as a separate Files transfer
+     * task and block until all of them complete.  The archive correlation id
+     * is set to the tag that identifies the whole chunked transfer and each
+     * chunk's own tag and transfer id are saved in the job's archive transfer 
+     * state as the chunk progresses.
+     * 
+     * When a prior state is provided, the chunks are those saved in that state.
+     * Chunks that already completed are skipped and submitted chunks are
+     * reattached to their transfers.  Otherwise, a new state that saves the 
+     * chunks' elements is created and all chunks are transferred.
+     * 
+     * @param chunks the completed archive elements split into chunks
+     * @param tag the correlation id of the whole archive transfer
+     * @param priorState the state of an interrupted chunked transfer or null
+     * @throws TapisException on error, after all started chunks have finished
+     */
+    private void transferChunks(List<TransferChunk> chunks, String tag, 
+                                ArchiveTransferState priorState)
+     throws TapisException
+    {
+        // Resume the saved chunks or start a new chunked transfer.
+        ArchiveTransferState state = priorState;
+        if (state == null) state = new ArchiveTransferState(tag, chunks);
+        saveArchiveTransferState(state);
+        
+        // Block until all chunks are done.
+        newArchiveTransferChunker().transfer(chunks, state);
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* archiveFilteredOutputs:                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Archive the launch files and the output files that pass the archive
+     * filters.  The output directory is listed one directory page at a time
+     * and the files that pass the filters are grouped into chunks as they are
+     * found.  Each chunk is transferred as soon as it's produced, so neither 
+     * the listing nor the complete list of transfer elements is ever held in 
+     * memory.  Fully archived subtrees are transferred as single directory 
+     * elements (see ArchiveTreeCollapser.Incremental).  At most one chunk's 
+     * worth of entries is held while subtrees are being collapsed; when more
+     * would be needed, the open directories are archived by their contents.
+     * 
+     * When a DTN is used, each chunk first moves its files to the DTN and
+     * then archives them from there.  Moves change the directory being listed, 
+     * so the chunks produced while a directory is being paged are held until
+     * that directory's listing is complete.  Without a DTN, a request that 
+     * fits in a single chunk is submitted as an ordinary transfer.
+     * 
+     * The state of a chunked transfer records whether the listing completed
+     * and which subtrees have had all their archived files saved in chunks.
+     * When the listing of a prior state is resumed, the directory is listed 
+     * again without those subtrees and new chunks are added after the saved 
+     * ones.  Only the files directly in directories whose listing had not 
+     * completed, and those in subtrees whose last chunk had not been saved, 
+     * can be archived again.
+     * 
+     * @param tag the Jobs generated correlation id
+     * @param launchTasks placeholder elements for the launch files, if any
+     * @param launchFileList the launch file names when a DTN is used
+     * @param includes the include filters
+     * @param excludes the exclude filters
+     * @param useDtn whether the outputs are moved to a DTN
+     * @param priorState the state of a chunked transfer whose listing was 
+     *                   interrupted or null
+     * @return the Files generated transfer id, NO_FILE_INPUTS or CHUNKED_TRANSFERS
+     */
+    private String archiveFilteredOutputs(String tag, ReqTransfer launchTasks, 
+                                          List<String> launchFileList,
+                                          List<String> includes, List<String> excludes,
+                                          boolean useDtn, ArchiveTransferState priorState)
+     throws TapisException
+    {
+        // Get the client from the context now to catch errors early.  
+        // The filters are compiled only once.
+        FilesClient filesClient = _jobCtx.getServiceClient(FilesClient.class);
+        var fileIterator = new FilesSubtreeIterator(filesClient, _job.getExecSystemId(), 
+                                                    _job.getExecSystemOutputDir(),
+                                                    _shareExecSystemOutputDirAppOwner);
+        var matcher = ArchiveFilterMatcher.compile(includes, excludes);
+        var archive = new FilteredArchive(tag, useDtn, priorState);
+        fileIterator.setListener(archive);
+        
+        try {
+            // Output files with the same paths as launch files are skipped.
+            // The launch files are in the first chunk, so they are only added 
+            // if no chunks were saved before an interruption.
+            var launchElements = launchTasks.getElements();
+            for (var task : launchElements) archive._launchSourceURIs.add(task.getSourceURI());
+            if (priorState == null || priorState.getChunkCount() == 0) 
+                for (int i = 0; i < launchElements.size(); i++) {
+                    var task = launchElements.get(i);
+                    completeArchiveTransferElement(task, useDtn, true);
+                    ReqTransferElement move = null;
+                    if (useDtn) move = makeMoveDtnOutputElement(launchFileList.get(i), true);
+                    archive.add(task, move, null);
+                }
+            
+            // Filter the paths relative to the output directory.
+            while (!archive._stopped && fileIterator.hasNext()) {
+                var fileInfo = fileIterator.next();
+                var relativePath = getOutputRelativePath(fileInfo.getPath());
+                archive._collapser.addFile(relativePath, fileInfo.getSize(), 
+                                           matcher.isArchived(relativePath));
+                archive.drain();
+            }
+            archive.finish();
+        }
+        catch (TapisClientException e) {
+            archive.shutdown();
+            String msg = MsgUtils.getMsg("FILES_REMOTE_FILESLIST_ERROR", 
+                                         _job.getExecSystemId(), _job.getExecSystemOutputDir(),
+                                         FilesSubtreeIterator.DEFAULT_PAGE_SIZE, 0, 
+                                         _job.getOwner(), _job.getTenant(), e.getCode());
+            throw new TapisImplException(msg, e, e.getCode());
+        }
+        catch (TapisException | RuntimeException e) {
+            archive.shutdown();
+            throw e;
+        }
+        
+        // Everything fit in one chunk or there was nothing to archive.
+        if (archive._state == null) {
+            if (archive._first == null) return NO_FILE_INPUTS;
+            var tasks = new ReqTransfer();
+            tasks.setElements(new ArrayList<>(archive._first.elements));
+            return submitTransferTask(tasks, tag, JobTransferPhase.ARCHIVE);
+        }
+        
+        // Record that all chunks have been added and wait for them to finish.
+        // The listing is incomplete if the chunker stopped accepting chunks,
+        // in which case waiting throws the exception that stopped it.
+        if (!archive._stopped) 
+            synchronized (archive._state) {
+                archive._state.setListingComplete(true);
+                _jobCtx.getJobsDao().updateTransferValue(_job, archive._state.toJson(), 
+                                                         TransferValueType.ArchiveTransferState);
+            }
+        archive._chunker.await();
+        return CHUNKED_TRANSFERS;
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* saveArchiveTransferState:                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Save the overall tag and the state of a chunked archive transfer before
+     * its chunks are transferred. */
+    private void saveArchiveTransferState(ArchiveTransferState state) throws TapisException
+    {
+        _jobCtx.getJobsDao().updateTransferValue(_job, state.getTag(), 
+                                                 TransferValueType.ArchiveCorrelationId);
+        _jobCtx.getJobsDao().updateTransferValue(_job, state.toJson(), 
+                                                 TransferValueType.ArchiveTransferState);
+        _log.info(MsgUtils.getMsg("JOBS_FILE_TRANSFER_INFO", _job.getUuid(), 
+                                  _job.getStatus().name(), 
+                                  state.getChunkCount() + " chunks (" + state.getCompletedCount() + " complete)",
+                                  state.getTag()));
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* newArchiveTransferChunker:                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Create a chunker that submits, monitors, cancels and records progress 
+     * for this job.  A client is retrieved for each submission so that JWTs 
+     * stay fresh.
+     */
+    private ArchiveTransferChunker newArchiveTransferChunker()
+    {
+        var ops = new ArchiveTransferChunker.ChunkTransferOps() {
+            @Override
+            public String submit(TransferChunk chunk, String chunkTag) throws TapisException {
+                var req = new ReqTransfer();
+                req.setElements(new ArrayList<>(chunk.elements));
+                req.setTag(chunkTag);
+                return createTransferTask(_jobCtx.getServiceClient(FilesClient.class), req);
+            }
+            @Override
+            public String submitMove(TransferChunk chunk, String chunkTag) throws TapisException {
+                var req = new ReqTransfer();
+                req.setElements(new ArrayList<>(chunk.moveElements));
+                req.setTag(chunkTag);
+                return createTransferTask(_jobCtx.getServiceClient(FilesClient.class), req);
+            }
+            @Override
+            public void monitor(String transferId, String chunkTag) throws TapisException {
+                TransferMonitorFactory.getMonitor().monitorTransfer(_job, transferId, chunkTag);
+            }
+            @Override
+            public boolean isFailed(String transferId) {return isTransferFailed(transferId);}
+            @Override
+            public void cancel(String transferId) {cancelTransfer(transferId);}
+            @Override
+            public void saveState(ArchiveTransferState s) throws TapisException {
+                _jobCtx.getJobsDao().updateTransferValue(_job, s.toJson(), 
+                                                         TransferValueType.ArchiveTransferState);
+            }
+        };
+        int concurrency = RuntimeParameters.getInstance().getArchiveChunkConcurrency();
+        return new ArchiveTransferChunker(ops, concurrency);
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* moveNewDtnInputs:                                                      */
     /* ---------------------------------------------------------------------- */
@@ -1069,47 +1360,43 @@ public final class JobFileManager
     	var tasks = new ReqTransfer();
     	
     	// Are there launch files that need to be gathered?
-    	if (!launchFileList.isEmpty()) {
-    		final boolean isLaunchFile = true;
-    		for (var path : launchFileList) {
-        		// Create a url for the file in the execSystemExecDir.
-        		var srcUrl = makeSystemUrl(_job.getExecSystemId(), _job.getExecSystemExecDir(), 
-        				                   path);
-    			
-        		// Create a url for the file in the mounted dtn directory.
-        		var tgtUrl = makeSystemUrl(_job.getExecSystemId(), _job.getDtnSystemOutputDir(),
-		                                   path);
-         		
-        		// Accumulate task elements.
-        		tasks.addElementsItem(getMoveDtnOutputElement(srcUrl, tgtUrl, isLaunchFile));
-    		}
-    	}
+    	for (var path : launchFileList) 
+    		tasks.addElementsItem(makeMoveDtnOutputElement(path, true));
     	
     	// Generate a move task for each archive task. Since we are moving
     	// to a locally mounted directory, we allow the user's sharing privileges
     	// associated with the execSystemOutputDir to apply to the dtn directory.
     	// Only files from the execSystemOutputDir should be in the list.
-    	final boolean isLaunchFile = false;
-    	for (var path : outputFileList) {
-    		// Create a url for the file in the execSystemOutputDir.
-    		var srcUrl = makeSystemUrl(_job.getExecSystemId(), _job.getExecSystemOutputDir(), 
-    				                   path);
-    		
-    		// Create a url for the file in the mounted dtn directory.  Note that the dtn
-    		// and exec systems have the same root directory.  The exec system mounts the
-    		// dtn's output directory under its root.  The result is that the dtn output
-    		// directory has the SAME absolute path on both systems. 
-    		var tgtUrl = makeSystemUrl(_job.getExecSystemId(), _job.getDtnSystemOutputDir(),
-    								   path);
-     		
-    		// Accumulate task elements.
-    		tasks.addElementsItem(getMoveDtnOutputElement(srcUrl, tgtUrl, isLaunchFile));
-    	}
+    	for (var path : outputFileList) 
+    		tasks.addElementsItem(makeMoveDtnOutputElement(path, false));
         
         // Return the transfer id.
         return submitTransferTask(tasks, tag, JobTransferPhase.DTN_OUT);
     }
 
+    /* ---------------------------------------------------------------------- */
+    /* makeMoveDtnOutputElement:                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Create the local move element for a launch file in the execSystemExecDir
+     * or an output file or directory in the execSystemOutputDir.  
+     * 
+     * The target is in the mounted dtn directory.  Note that the dtn and exec 
+     * systems have the same root directory.  The exec system mounts the dtn's 
+     * output directory under its root.  The result is that the dtn output 
+     * directory has the SAME absolute path on both systems. 
+     * 
+     * @param path the path relative to the exec or output directory
+     * @param isLaunchFile source path determinant
+     * @return the complete transfer element
+     */
+    private ReqTransferElement makeMoveDtnOutputElement(String path, boolean isLaunchFile)
+    {
+    	var srcDir = isLaunchFile ? _job.getExecSystemExecDir() : _job.getExecSystemOutputDir();
+    	var srcUrl = makeSystemUrl(_job.getExecSystemId(), srcDir, path);
+    	var tgtUrl = makeSystemUrl(_job.getExecSystemId(), _job.getDtnSystemOutputDir(), path);
+    	return getMoveDtnOutputElement(srcUrl, tgtUrl, isLaunchFile);
+    }
+    
     /* ---------------------------------------------------------------------- */
     /* getMoveDtnOutputElement:                                               */
     /* ---------------------------------------------------------------------- */
@@ -1251,51 +1538,6 @@ public final class JobFileManager
         return launchFileList;
     }
 
-    /* ---------------------------------------------------------------------- */
-    /* addOutputFiles:                                                        */
-    /* ---------------------------------------------------------------------- */
-    /** Add each output file in the fileInfoList to the archive tasks.  This
-     * method also adds the relative path names to the outputFileList when that
-     * list is non-null.  The outputFileList is only used during dtn move operations.
-     * 
-     * The tasks object may already be populated with launch files that have
-     * placeholders embedded in their paths.  The fileInfoList contains all the
-     * files other than launch files that have been includes/excludes filtered.
-     * It's possible when the execSystemOutputDir and execSystemExecDir are the
-     * same to end up with duplicate launch file entries in tasks.  Though generally
-     * not harmful, if Files concurrently copies sets of files it's possible that
-     * launch files could get corrupted.  
-     * 
-     * @param tasks (i/o) the archive tasks
-     * @param fileInfoList (input) the filtered list of files from the job output directory
-     * @param outputFileList (i/o) the list of relative file names, can be null
-     */
-    private void addOutputFiles(ReqTransfer tasks, List<FileInfo> fileInfoList,
-    		                    List<String> outputFileList) 
-     throws TapisException
-    {
-    	// Use a set to detect duplicates. Populate the dupSet with 
-    	// any launch files that might already be in tasks.
-    	var dupSet = new HashSet<String>(2*fileInfoList.size()+1);
-    	for (var task : tasks.getElements()) dupSet.add(task.getSourceURI());
-    	    	
-        // Add each output file as a placeholder task element,
-    	// skipping those we detect as duplicates.
-    	for (var f : fileInfoList) {
-    		// Avoid placing duplicate source files in tasks.
-    		var relativePath = getOutputRelativePath(f.getPath());
-    		var srcURI = makePlaceholderUrl(relativePath);
-    		if (!dupSet.add(srcURI)) continue;
-    	  
-    		// Create and record the task.
-    		var task = new ReqTransferElement().
-    			  			sourceURI(srcURI).
-    			  			destinationURI(makePlaceholderUrl(relativePath));
-    		tasks.addElementsItem(task);
-    		if (outputFileList != null) outputFileList.add(relativePath);
-      }
-    }
-    
     /* ---------------------------------------------------------------------- */
     /* matchesAll:                                                            */
     /* ---------------------------------------------------------------------- */
@@ -1311,70 +1553,9 @@ public final class JobFileManager
      */
     private boolean matchesAll(List<String> filters)
     {
-        // Check the most common ways to express all strings using glob.
-        if (filters.contains("**/*")) return true;
-        
-        // Check the common way to express all strings using a regex.
-        if (filters.contains("REGEX(.*)")) return true;
-        
-        // No no-op filters found.
-        return false;
+        return ArchiveFilterMatcher.matchesAll(filters);
     }
     
-    /* ---------------------------------------------------------------------- */
-    /* applyArchiveFilters:                                                   */
-    /* ---------------------------------------------------------------------- */
-    /** Apply either the includes or excludes list to the file list.  In either
-     * case, the file list can be modified by having items deleted.
-     * 
-     * The filter items can either be in glob or regex format.  Each item is 
-     * applied to the path of a file info object.  When a match occurs the 
-     * appropriate action is taken based on the filter type being processed.
-     * 
-     * @param filterList the includes or excludes list as identified by the filterType 
-     * @param fileList the file list that may have items deleted
-     * @param filterType filter indicator
-     */
-    private void applyArchiveFilters(List<String> filterList, List<FileInfo> fileList, 
-                                     FilterType filterType)
-    {
-        // Is there any work to do?
-        if (filterType == FilterType.EXCLUDES) {
-            if (filterList.isEmpty()) return;
-        } else 
-            if (filterList.isEmpty() || matchesAll(filterList)) return;
-        
-        // Local cache of compiled regexes.  The keys are the filters
-        // exactly as defined by users and the values are the compiled 
-        // form of those filters.
-        HashMap<String,Pattern> regexes   = new HashMap<>();
-        HashMap<String,PathMatcher> globs = new HashMap<>();
-        
-        // Iterate through the file list.
-        final int lastFilterIndex = filterList.size() - 1;
-        var fileIt = fileList.listIterator();
-        while (fileIt.hasNext()) {
-            var fileInfo = fileIt.next();
-            var path = getOutputRelativePath(fileInfo.getPath());
-            for (int i = 0; i < filterList.size(); i++) {
-                // Get the current filter.
-                String filter = filterList.get(i);
-                
-                // Use cached filters to match paths.
-                boolean matches = matchFilter(filter, path, globs, regexes);
-                
-                // Removal depends on matches and the filter type.
-                if (filterType == FilterType.EXCLUDES) {
-                    if (matches) {fileIt.remove(); break;}
-                } else {
-                    // Remove item only after all include filters have failed to match.
-                    if (matches) break; // keep in list 
-                    if (!matches && (i == lastFilterIndex)) fileIt.remove();
-                }
-            }
-        }
-    }
-
     /* ---------------------------------------------------------------------- */
     /* getOutputRelativePath:                                                 */
     /* ---------------------------------------------------------------------- */
@@ -1417,44 +1598,6 @@ public final class JobFileManager
         return _filterIgnoreOutputPrefix;
     }
     
-    /* ---------------------------------------------------------------------- */
-    /* matchFilter:                                                           */
-    /* ---------------------------------------------------------------------- */
-    /** Determine if the path matches the filter, which can be either a glob
-     * or regex.  In each case, the appropriate cache is consulted and, if
-     * necessary, updated so that each filter is only compiled once per call
-     * to applyArchiveFilters().
-     * 
-     * @param filter the glob or regex
-     * @param path the path to be matched
-     * @param globs the glob cache
-     * @param regexes the regex cache
-     * @return true if the path matches the filter, false otherwise
-     */
-    private boolean matchFilter(String filter, String path, 
-                                HashMap<String,PathMatcher> globs,
-                                HashMap<String,Pattern> regexes)
-    {
-        // Check the cache for glob and regex filters.
-        if (filter.startsWith(REGEX_FILTER_PREFIX)) {
-            Pattern p = regexes.get(filter);
-            if (p == null) {
-                p = Pattern.compile(filter.substring(REGEX_FILTER_PREFIX.length()));
-                regexes.put(filter, p);
-            }
-            var m = p.matcher(path);
-            return m.matches();
-        } else {
-            PathMatcher m = globs.get(filter);
-            if (m == null) {
-                m = FileSystems.getDefault().getPathMatcher("glob:"+filter);
-                globs.put(filter, m);
-            }
-            var pathObj = Paths.get(path);
-            return m.matches(pathObj);
-        }
-    }
-    
     /* ---------------------------------------------------------------------- */
     /* createTransferTask:                                                    */
     /* ---------------------------------------------------------------------- */
@@ -1638,10 +1781,24 @@ public final class JobFileManager
     private void completeArchiveTransferTasks(ReqTransfer tasks, boolean useDtn, 
     		                                  int launchTaskCount)
     {
-    	// Get the elements to be transfered.
+    	// Complete each transfer task, launch files first.
     	var elements = tasks.getElements();
-    	if (elements.isEmpty()) return;
-    	
+    	for (int i = 0; i < elements.size(); i++)
+    		completeArchiveTransferElement(elements.get(i), useDtn, i < launchTaskCount);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* completeArchiveTransferElement:                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Substitute values for the placeholders in a single archive element.
+     * 
+     * @param task - a transfer element with placeholders  
+     * @param useDtn - whether we are using a dtn
+     * @param isLaunchFile - whether the element transfers a launch file
+     */
+    private void completeArchiveTransferElement(ReqTransferElement task, boolean useDtn,
+    		                                    boolean isLaunchFile)
+    {
     	// -------------- Assign source/destination values -------------- 
     	// The final destination is always the archive system on the second
     	// transfer (i.e., the transfer after the local move transfer).
@@ -1652,79 +1809,38 @@ public final class JobFileManager
 		final String dstPath     = StringUtils.stripStart(_job.getArchiveSystemDir(), "/");
 		final String dstShareCtx = _shareArchiveSystemDirAppOwner;
 		
-		// -------------- Complete each transfer task -------------------
-    	// ---- Complete the launch file transfers.
-    	int i = 0;
-    	if (launchTaskCount > 0) {
-    		
-    		// File/directory source information.
-    	    final String srcSysId;
-    		final String srcPath;
-    		final String srcShareCtx;
-
-    		// Values are assigned based on whether this is a remote
-    		// transfer that uses a DTN or not. 
-    		if (useDtn ) {
-    			srcSysId    = _job.getDtnSystemId();
-    			srcPath     = StringUtils.stripStart(_job.getDtnSystemOutputDir(), "/");
-    			srcShareCtx = _shareDtnSystemOutputDirAppOwner;
-    		} else {
-    			srcSysId    = _job.getExecSystemId();
-    			srcPath     = StringUtils.stripStart(_job.getExecSystemExecDir(), "/");
-    			srcShareCtx = _shareExecSystemExecDirAppOwner;
-    		}
-    		
-    		// Update each launch task's fields so that the task is complete.
-    		for (; i < launchTaskCount; i++) {
-    			var task = elements.get(i);
-    			
-    			var srcUri = task.getSourceURI().replace(SYSTEM_PLACEHOLER, srcSysId);
-    			srcUri = srcUri.replace(PATH_PLACEHOLER, srcPath);
-    			task.setSourceURI(srcUri);
-    			task.setSrcSharedCtx(srcShareCtx);
-    			
-    			var dstUri = task.getDestinationURI().replace(SYSTEM_PLACEHOLER, dstSysId);
-    			dstUri = dstUri.replace(PATH_PLACEHOLER, dstPath);
-    			task.setDestinationURI(dstUri);
-    			task.setDestSharedCtx(dstShareCtx);
-    		}
-    	}
-    	
-    	// ---- Complete the non-launch file transfers.
-    	if (i < elements.size()) {
-    		
-    		// File/directory source information.
-    	    final String srcSysId;
-    		final String srcPath;
-    		final String srcShareCtx;
+		// File/directory source information.
+	    final String srcSysId;
+		final String srcPath;
+		final String srcShareCtx;
 
-    		// Values are assigned based on whether this is a remote
-    		// transfer that uses a DTN or not.
-    		if (useDtn ) {
-    			srcSysId    = _job.getDtnSystemId();
-    			srcPath     = StringUtils.stripStart(_job.getDtnSystemOutputDir(), "/");
-    			srcShareCtx = _shareDtnSystemOutputDirAppOwner;
-    		} else {
-    			srcSysId    = _job.getExecSystemId();
-    			srcPath     = StringUtils.stripStart(_job.getExecSystemOutputDir(), "/");
-    			srcShareCtx = _shareExecSystemOutputDirAppOwner;
-    		}
-    		
-    		// Update each launch task's fields so that the task is complete.
-    		for (; i < elements.size(); i++) {
-    			var task = elements.get(i);
-			
-    			var srcUri = task.getSourceURI().replace(SYSTEM_PLACEHOLER, srcSysId);
-    			srcUri = srcUri.replace(PATH_PLACEHOLER, srcPath);
-    			task.setSourceURI(srcUri);
-    			task.setSrcSharedCtx(srcShareCtx);
-			
-    			var dstUri = task.getDestinationURI().replace(SYSTEM_PLACEHOLER, dstSysId);
-    			dstUri = dstUri.replace(PATH_PLACEHOLER, dstPath);
-    			task.setDestinationURI(dstUri);
-    			task.setDestSharedCtx(dstShareCtx);
-    		}
-    	}
+		// Values are assigned based on whether this is a remote transfer 
+		// that uses a DTN or not.  Without a DTN, launch files are read from
+		// the execSystemExecDir and all other files from the execSystemOutputDir.
+		if (useDtn) {
+			srcSysId    = _job.getDtnSystemId();
+			srcPath     = StringUtils.stripStart(_job.getDtnSystemOutputDir(), "/");
+			srcShareCtx = _shareDtnSystemOutputDirAppOwner;
+		} else if (isLaunchFile) {
+			srcSysId    = _job.getExecSystemId();
+			srcPath     = StringUtils.stripStart(_job.getExecSystemExecDir(), "/");
+			srcShareCtx = _shareExecSystemExecDirAppOwner;
+		} else {
+			srcSysId    = _job.getExecSystemId();
+			srcPath     = StringUtils.stripStart(_job.getExecSystemOutputDir(), "/");
+			srcShareCtx = _shareExecSystemOutputDirAppOwner;
+		}
+		
+		// Update the task's fields so that the task is complete.
+		var srcUri = task.getSourceURI().replace(SYSTEM_PLACEHOLER, srcSysId);
+		srcUri = srcUri.replace(PATH_PLACEHOLER, srcPath);
+		task.setSourceURI(srcUri);
+		task.setSrcSharedCtx(srcShareCtx);
+		
+		var dstUri = task.getDestinationURI().replace(SYSTEM_PLACEHOLER, dstSysId);
+		dstUri = dstUri.replace(PATH_PLACEHOLER, dstPath);
+		task.setDestinationURI(dstUri);
+		task.setDestSharedCtx(dstShareCtx);
     }
 
     /* ---------------------------------------------------------------------- */
@@ -1811,4 +1927,221 @@ public final class JobFileManager
         }
         return buf.toString();
     }
+    
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** The listing, filtering and chunking state of archiveFilteredOutputs().
+     * Collapsed entries become completed transfer elements that are grouped
+     * into chunks and handed to the chunker.  The chunked transfer is started
+     * with the second chunk so that small requests can be submitted as an
+     * ordinary transfer; DTN jobs and resumed listings always use chunks.
+     */
+    private final class FilteredArchive
+     implements FilesSubtreeIterator.Listener, ArchiveTransferChunker.ChunkSink
+    {
+        private final String                       _tag;
+        private final boolean                      _useDtn;
+        private final ArchiveTransferChunker       _chunker = newArchiveTransferChunker();
+        private final ArchiveTransferChunker.ChunkBuilder _builder;
+        private final ArchiveTreeCollapser.Incremental    _collapser;
+        
+        // Entries released by the collapser and not yet added to a chunk.
+        private final ArrayDeque<ArchiveTreeCollapser.Entry> _entries = new ArrayDeque<>();
+        
+        // The placeholder source urls of the launch files.
+        private final HashSet<String>              _launchSourceURIs = new HashSet<>();
+        
+        // DTN chunks waiting for the current directory to be listed.
+        private final List<TransferChunk>          _held = new ArrayList<>();
+        
+        // Listed subtrees waiting for the chunks holding their elements to be saved.
+        private final ArrayDeque<ListedSubtree>    _listed = new ArrayDeque<>();
+        
+        // The number of elements added to chunks and the number in saved chunks.
+        private long                               _addedCount;
+        private long                               _savedCount;
+        
+        // The first chunk when it might be the only one.
+        private TransferChunk                      _first;
+        
+        // The chunked transfer state once chunked transfers have started.
+        private ArchiveTransferState               _state;
+        
+        // Set when the chunker stops accepting chunks.
+        private boolean                            _stopped;
+        
+        private FilteredArchive(String tag, boolean useDtn, ArchiveTransferState priorState)
+         throws TapisException
+        {
+            _tag = tag;
+            _useDtn = useDtn;
+            
+            // Entries awaiting collapse are capped at one chunk's worth.
+            // New chunks of a resumed listing follow the saved chunks.
+            var parms = RuntimeParameters.getInstance();
+            _collapser = new ArchiveTreeCollapser.Incremental(_entries::add, 
+                                                              parms.getArchiveChunkMaxElements());
+            int firstIndex = priorState == null ? 0 : priorState.getChunkCount();
+            _builder = new ArchiveTransferChunker.ChunkBuilder(parms.getArchiveChunkMaxElements(),
+                                                               parms.getArchiveChunkMaxBytes(),
+                                                               firstIndex, this);
+            if (priorState != null) startChunks(priorState);
+        }
+        
+        @Override
+        public void accept(TransferChunk chunk) throws TapisException
+        {
+            if (_useDtn) _held.add(chunk);
+              else send(chunk);
+        }
+        
+        @Override
+        public void directoryListed(String path) throws TapisException
+        {
+            // The moves in held chunks can no longer change the listing.
+            for (var chunk : _held) send(chunk);
+            _held.clear();
+        }
+        
+        @Override
+        public void subtreeListed(String path) throws TapisException
+        {
+            // A subtree whose entries have all been released is listed once 
+            // they are saved.  A subtree held by its parent is listed when its
+            // own or an ancestor's directory entry is saved.
+            var relDir = getRelativeDir(path);
+            boolean released = _collapser.completeDirectory(relDir);
+            drain();
+            if (released) addListed(relDir);
+        }
+        
+        @Override
+        public boolean skipSubtree(String path) throws TapisException
+        {
+            // Only the state of a resumed listing has listed subtrees.
+            if (_state == null) return false;
+            var relDir = getRelativeDir(path);
+            if (!_state.isSubtreeListed(relDir)) return false;
+            _collapser.skipDirectory(relDir);
+            return true;
+        }
+        
+        /** Add an element to the current chunk. */
+        private void add(ReqTransferElement task, ReqTransferElement move, Long bytes)
+         throws TapisException
+        {
+            _builder.add(task, move, bytes);
+            _addedCount++;
+        }
+        
+        /** Add the entries released by the collapser to chunks. */
+        private void drain() throws TapisException
+        {
+            ArchiveTreeCollapser.Entry entry;
+            while ((entry = _entries.poll()) != null) {
+                // Avoid placing duplicate source files in tasks.
+                var srcURI = makePlaceholderUrl(entry.path);
+                if (_launchSourceURIs.contains(srcURI)) continue;
+                
+                var task = new ReqTransferElement().
+                               sourceURI(srcURI).
+                               destinationURI(makePlaceholderUrl(entry.path));
+                completeArchiveTransferElement(task, _useDtn, false);
+                ReqTransferElement move = null;
+                if (_useDtn) move = makeMoveDtnOutputElement(entry.path, false);
+                add(task, move, entry.bytes);
+                if (entry.isDirectory) addListed(entry.path);
+            }
+        }
+        
+        /** Record a subtree whose elements have all been added to chunks.  
+         * The subtrees recorded within it are dropped. */
+        private void addListed(String relDir)
+        {
+            var prefix = relDir + "/";
+            while (!_listed.isEmpty() && 
+                   (relDir.isEmpty() || _listed.peekLast().path.startsWith(prefix)))
+                _listed.pollLast();
+            _listed.add(new ListedSubtree(relDir, _addedCount));
+            saveListed();
+        }
+        
+        /** Move the subtrees whose elements are all in saved chunks to the 
+         * state, which persists them with its next save. */
+        private void saveListed()
+        {
+            if (_state == null) return;
+            while (!_listed.isEmpty() && _listed.peekFirst().elementCount <= _savedCount)
+                _state.addListedSubtree(_listed.pollFirst().path);
+        }
+        
+        /** Add a chunk to the chunked transfer. */
+        private boolean addChunk(TransferChunk chunk) throws TapisException
+        {
+            if (!_chunker.add(chunk)) return false;
+            _savedCount += chunk.elements.size();
+            saveListed();
+            return true;
+        }
+        
+        /** @return the output relative path of a listed directory without a trailing slash */
+        private String getRelativeDir(String path)
+        {
+            var relDir = getOutputRelativePath(StringUtils.appendIfMissing(path, "/"));
+            return StringUtils.stripEnd(relDir, "/");
+        }
+        
+        /** Release all remaining entries and chunks after the listing ends. */
+        private void finish() throws TapisException
+        {
+            _collapser.finish();
+            drain();
+            _builder.flush();
+            directoryListed(null);
+        }
+        
+        /** Transfer a chunk, starting chunked transfers if necessary. */
+        private void send(TransferChunk chunk) throws TapisException
+        {
+            if (_stopped) return;
+            if (_state == null && !_useDtn && _first == null) {_first = chunk; return;}
+            if (_state == null) startChunks(new ArchiveTransferState(_tag));
+            if (_first != null) {
+                var first = _first;
+                _first = null;
+                if (!addChunk(first)) {_stopped = true; return;}
+            }
+            if (!addChunk(chunk)) _stopped = true;
+        }
+        
+        /** Save the state and start the chunker. */
+        private void startChunks(ArchiveTransferState state) throws TapisException
+        {
+            _state = state;
+            saveArchiveTransferState(state);
+            _chunker.start(state);
+        }
+        
+        /** Stop monitoring the started chunks after a listing failure. */
+        private void shutdown()
+        {
+            if (_state != null) _chunker.shutdown();
+        }
+    }
+    
+    /** A listed subtree and the number of elements that must be in saved
+     * chunks before all of its elements are. */
+    private static final class ListedSubtree
+    {
+        private final String path;
+        private final long   elementCount;
+        
+        private ListedSubtree(String path, long elementCount)
+        {
+            this.path = path;
+            this.elementCount = elementCount;
+        }
+    }
 }
+
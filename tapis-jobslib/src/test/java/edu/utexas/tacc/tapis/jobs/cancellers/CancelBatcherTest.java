@@ -0,0 +1,170 @@
+package edu.utexas.tacc.tapis.jobs.cancellers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.cancellers.CancelBatcher.CommandRunner;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+@Test(groups={"unit"})
+public class CancelBatcherTest
+{
+    // Runs the concurrent cancellers.
+    private final ExecutorService _executor = Executors.newFixedThreadPool(8);
+
+    @AfterClass
+    public void shutdown() {_executor.shutdownNow();}
+
+    /* ---------------------------------------------------------------------- */
+    /* groupingTest:                                                          */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void groupingTest() throws Exception
+    {
+        // Ids are combined per group and split into chunks of 3.
+        var batcher = new CancelBatcher(500, 3, 30000);
+        var commands = Collections.synchronizedList(new ArrayList<String>());
+        CommandRunner runner = cmd -> {commands.add(cmd); return 0;};
+
+        var results = new ArrayList<Future<Integer>>();
+        var start = new CountDownLatch(1);
+        for (int i = 1; i <= 4; i++)
+            results.add(submit(start, batcher, "sys1|host1|bud", "1" + i, runner));
+        for (int i = 1; i <= 2; i++)
+            results.add(submit(start, batcher, "sys2|host2|bud", "2" + i, runner));
+        start.countDown();
+
+        for (var result : results) Assert.assertEquals(result.get(30, TimeUnit.SECONDS).intValue(), 0);
+        Assert.assertEquals(commands.size(), 3, commands.toString());
+        Assert.assertEquals(countIds(commands, "1"), 4);
+        Assert.assertEquals(countIds(commands, "2"), 2);
+        for (String cmd : commands) {
+            Assert.assertTrue(cmd.startsWith("scancel "));
+            Assert.assertTrue(cmd.split(" ").length <= 4, cmd);
+        }
+        Assert.assertEquals(batcher.pendingGroups(), 0);
+
+        // A zero window issues every command individually.
+        commands.clear();
+        var disabled = new CancelBatcher(0, 3, 30000);
+        Assert.assertEquals(disabled.cancel("sys1|host1|bud", "scancel ", "99", runner), 0);
+        Assert.assertEquals(commands, List.of("scancel 99"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* partialFailureTest:                                                    */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void partialFailureTest() throws Exception
+    {
+        // Commands that include the unknown id 13 fail, and
+        // commands with more than 2 ids throw an exception.
+        var batcher = new CancelBatcher(500, 2, 30000);
+        var commands = Collections.synchronizedList(new ArrayList<String>());
+        CommandRunner runner = cmd -> {
+            commands.add(cmd);
+            if (cmd.split(" ").length > 3) throw new TapisException("connection lost");
+            return cmd.contains("13") ? 1 : 0;
+        };
+
+        var results = new ArrayList<Future<Integer>>();
+        var start = new CountDownLatch(1);
+        for (int i = 1; i <= 4; i++)
+            results.add(submit(start, batcher, "sys1|host1|bud", "1" + i, runner));
+        start.countDown();
+
+        // Only the job with the bad id reports the failure of its own command.
+        int failed = 0;
+        for (var result : results) failed += result.get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(failed, 1);
+        Assert.assertTrue(commands.contains("scancel 13"), commands.toString());
+
+        // The chunk without the bad id isn't retried, the other chunk is.
+        int singles = 0;
+        for (String cmd : commands) if (cmd.split(" ").length == 2) singles++;
+        Assert.assertEquals(commands.size(), 4, commands.toString());
+        Assert.assertEquals(singles, 2, commands.toString());
+
+        // A failed single command is reported to its caller.
+        try {
+            new CancelBatcher(0, 2, 30000).cancel("k", "scancel ", "1 2 3", runner);
+            Assert.fail("Expected exception");
+        }
+        catch (TapisException e) {Assert.assertEquals(e.getMessage(), "connection lost");}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* hungLeaderTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void hungLeaderTest() throws Exception
+    {
+        // The combined command hangs until released, single-id commands succeed.
+        var batcher = new CancelBatcher(100, 10, 200);
+        var release = new CountDownLatch(1);
+        var commands = Collections.synchronizedList(new ArrayList<String>());
+        CommandRunner runner = cmd -> {
+            commands.add(cmd);
+            if (cmd.split(" ").length > 2)
+                try {release.await();} catch (InterruptedException e) {}
+            return 0;
+        };
+
+        var results = new ArrayList<Future<Integer>>();
+        var start = new CountDownLatch(1);
+        for (int i = 1; i <= 3; i++)
+            results.add(submit(start, batcher, "sys1|host1|bud", "1" + i, runner));
+        start.countDown();
+
+        // The waiting members give up on the leader and cancel their own jobs.
+        int done = 0;
+        for (var result : results)
+            try {Assert.assertEquals(result.get(2, TimeUnit.SECONDS).intValue(), 0); done++;}
+            catch (TimeoutException e) {}
+        Assert.assertEquals(done, 2);
+        Assert.assertEquals(commands.size(), 3, commands.toString());
+
+        // The leader completes once its command returns.
+        release.countDown();
+        for (var result : results) Assert.assertEquals(result.get(5, TimeUnit.SECONDS).intValue(), 0);
+        Assert.assertEquals(batcher.pendingGroups(), 0);
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* submit:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private Future<Integer> submit(CountDownLatch start, CancelBatcher batcher, String groupKey,
+                                   String id, CommandRunner runner)
+    {
+        return _executor.submit(() -> {
+            start.await();
+            return batcher.cancel(groupKey, "scancel ", id, runner);
+        });
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* countIds:                                                              */
+    /* ---------------------------------------------------------------------- */
+    private static int countIds(List<String> commands, String prefix)
+    {
+        int count = 0;
+        for (String cmd : commands)
+            for (String id : cmd.substring("scancel ".length()).split(" "))
+                if (id.startsWith(prefix)) count++;
+        return count;
+    }
+}
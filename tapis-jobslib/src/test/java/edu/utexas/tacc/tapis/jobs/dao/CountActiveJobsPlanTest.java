@@ -0,0 +1,164 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/** Check that the quota checks' active job counts are served by index-only scans
+ * of the jobs_active_quota_idx partial index.  The jobs table is seeded with a 
+ * large number of terminal jobs and a few active ones so that a sequential scan
+ * would be noticeably more expensive, then the plan of every count query variant
+ * is examined.
+ */
+@Test(groups={"integration"})
+public class CountActiveJobsPlanTest 
+{
+    /* ********************************************************************** */
+    /*                               Constants                                */
+    /* ********************************************************************** */
+    // Seeded jobs are isolated in their own tenant.
+    private static final String TENANT = "planTestTenant";
+    private static final int    NUM_JOBS = 50000;
+    
+    // The expected plan node.
+    private static final String INDEX_ONLY_SCAN = "Index Only Scan using jobs_active_quota_idx";
+    
+    // One in fifty jobs is active, spread over systems, queues and owners.
+    private static final String SEED_JOBS =
+        "INSERT INTO jobs (name, owner, tenant, description, status, last_message, uuid, "
+        + "app_id, app_version, exec_system_id, exec_system_logical_queue, archive_system_id, "
+        + "node_count, cores_per_node, memory_mb, max_minutes, file_inputs, parameter_set, "
+        + "subscriptions, tapis_queue, createdby, createdby_tenant, ended) "
+        + "SELECT 'planTestJob', 'owner' || (g % 20), ?, 'Seeded plan test job', "
+        + "(CASE WHEN g % 50 = 0 THEN 'RUNNING' WHEN g % 50 = 1 THEN 'PENDING' "
+        + "ELSE 'FINISHED' END)::job_status_enum, 'seeded', 'planTest-' || g, "
+        + "'planTestApp', '1.0', 'system' || (g % 5), 'queue' || (g % 3), 'system0', "
+        + "1, 1, 100, 10, '[]', '{}', '[]', 'planTestQueue', 'owner0', ?, "
+        + "CASE WHEN g % 50 > 1 THEN now() ELSE NULL END "
+        + "FROM generate_series(1, ?) g";
+    
+    private static final String DELETE_JOBS = "DELETE FROM jobs WHERE tenant = ?";
+    
+    /* ********************************************************************** */
+    /*                            Setup/Teardown                              */
+    /* ********************************************************************** */
+    @BeforeClass
+    public void seed() throws Exception
+    {
+        try (Connection conn = AbstractDao.getDataSource().getConnection()) {
+            conn.setAutoCommit(true);
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETE_JOBS)) {
+                pstmt.setString(1, TENANT);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(SEED_JOBS)) {
+                pstmt.setString(1, TENANT);
+                pstmt.setString(2, TENANT);
+                pstmt.setInt(3, NUM_JOBS);
+                pstmt.executeUpdate();
+            }
+            
+            // Set the visibility map and statistics as autovacuum eventually would.
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("VACUUM ANALYZE jobs");
+            }
+        }
+    }
+    
+    @AfterClass(alwaysRun=true)
+    public void cleanup() throws Exception
+    {
+        try (Connection conn = AbstractDao.getDataSource().getConnection()) {
+            conn.setAutoCommit(true);
+            try (PreparedStatement pstmt = conn.prepareStatement(DELETE_JOBS)) {
+                pstmt.setString(1, TENANT);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+    
+    /* ********************************************************************** */
+    /*                                 Tests                                  */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* planTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void planTest() throws Exception
+    {
+        try (Connection conn = AbstractDao.getDataSource().getConnection()) {
+            for (boolean pendingActive : new boolean[] {true, false}) 
+                for (boolean hasOwner : new boolean[] {false, true})
+                    for (boolean hasQueue : new boolean[] {false, true}) {
+                        String sql = JobsDao.getCountActiveJobsSql(hasOwner, hasQueue, pendingActive);
+                        String plan = explain(conn, sql, hasOwner, hasQueue);
+                        Assert.assertTrue(plan.contains(INDEX_ONLY_SCAN), sql + "\n" + plan);
+                        Assert.assertFalse(plan.contains("Seq Scan"), sql + "\n" + plan);
+                    }
+            conn.rollback();
+        }
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* countTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void countTest() throws Exception
+    {
+        // Active counts over the seeded jobs.
+        var dao = new JobsDao();
+        Assert.assertEquals(dao.countActiveSystemJobs(TENANT, "system0", true), 
+                            countSeeded(true, "system0", null, null));
+        Assert.assertEquals(dao.countActiveSystemJobs(TENANT, "system0", false), 
+                            countSeeded(false, "system0", null, null));
+        Assert.assertEquals(dao.countActiveSystemUserQueueJobs(TENANT, "system0", "owner0", "queue0", true),
+                            countSeeded(true, "system0", "owner0", "queue0"));
+    }
+    
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* explain:                                                               */
+    /* ---------------------------------------------------------------------- */
+    private String explain(Connection conn, String sql, boolean hasOwner, boolean hasQueue)
+     throws Exception
+    {
+        var buf = new StringBuilder();
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            int i = 1;
+            pstmt.setString(i++, TENANT);
+            pstmt.setString(i++, "system0");
+            if (hasOwner) pstmt.setString(i++, "owner0");
+            if (hasQueue) pstmt.setString(i++, "queue0");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) buf.append(rs.getString(1)).append('\n');
+            }
+        }
+        return buf.toString();
+    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* countSeeded:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** Compute the expected count from the seeding formula. */
+    private int countSeeded(boolean pendingActive, String system, String owner, String queue)
+    {
+        int count = 0;
+        for (int g = 1; g <= NUM_JOBS; g++) {
+            int m = g % 50;
+            boolean active = m == 0 || (m == 1 && pendingActive);
+            if (!active || !system.equals("system" + (g % 5))) continue;
+            if (owner != null && !owner.equals("owner" + (g % 20))) continue;
+            if (queue != null && !queue.equals("queue" + (g % 3))) continue;
+            count++;
+        }
+        return count;
+    }
+}
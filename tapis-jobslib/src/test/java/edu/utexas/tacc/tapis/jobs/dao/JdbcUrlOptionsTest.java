@@ -0,0 +1,45 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** Test the addition of statement caching options to jdbc urls. */
+@Test(groups={"unit"})
+public class JdbcUrlOptionsTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* addOptionsTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void addOptionsTest()
+    {
+        // No existing query string.
+        Assert.assertEquals(JdbcUrlOptions.addStatementCacheOptions("jdbc:postgresql://db:5432/tapisjobsdb", 3, 512, 10),
+            "jdbc:postgresql://db:5432/tapisjobsdb?prepareThreshold=3&preparedStatementCacheQueries=512&preparedStatementCacheSizeMiB=10");
+
+        // Existing parameters are kept and appended to.
+        Assert.assertEquals(JdbcUrlOptions.addStatementCacheOptions("jdbc:postgresql://db/jobs?ssl=true", 1, 256, 5),
+            "jdbc:postgresql://db/jobs?ssl=true&prepareThreshold=1&preparedStatementCacheQueries=256&preparedStatementCacheSizeMiB=5");
+        Assert.assertEquals(JdbcUrlOptions.addStatementCacheOptions("jdbc:postgresql://db/jobs?", 0, 256, 5),
+            "jdbc:postgresql://db/jobs?prepareThreshold=0&preparedStatementCacheQueries=256&preparedStatementCacheSizeMiB=5");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* skipOptionsTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void skipOptionsTest()
+    {
+        // Negative values leave the driver defaults.
+        String url = "jdbc:postgresql://db/jobs";
+        Assert.assertEquals(JdbcUrlOptions.addStatementCacheOptions(url, -1, -1, -1), url);
+        Assert.assertEquals(JdbcUrlOptions.addStatementCacheOptions(url, -1, 100, -1),
+                            url + "?preparedStatementCacheQueries=100");
+
+        // Options configured on the url are never overridden.
+        url = "jdbc:postgresql://db/jobs?PrepareThreshold=0&ssl=true";
+        Assert.assertEquals(JdbcUrlOptions.addStatementCacheOptions(url, 3, 512, 10),
+                            url + "&preparedStatementCacheQueries=512&preparedStatementCacheSizeMiB=10");
+        Assert.assertNull(JdbcUrlOptions.addStatementCacheOptions(null, 3, 512, 10));
+    }
+}
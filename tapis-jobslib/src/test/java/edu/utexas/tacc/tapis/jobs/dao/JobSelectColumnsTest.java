@@ -0,0 +1,189 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.dao.JobSelectColumns.SelectMode;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+
+/** Test the translation of search and list select lists into the columns that
+ * are retrieved, and that rows containing only those columns map to the same
+ * results as full rows.
+ */
+@Test(groups={"unit"})
+public class JobSelectColumnsTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* selectModeTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void selectModeTest()
+    {
+        Assert.assertEquals(JobSelectColumns.getSelectMode(null), SelectMode.SUMMARY);
+        Assert.assertEquals(JobSelectColumns.getSelectMode(Collections.emptyList()), SelectMode.SUMMARY);
+        Assert.assertEquals(JobSelectColumns.getSelectMode(List.of("summaryAttributes")), SelectMode.SUMMARY);
+        Assert.assertEquals(JobSelectColumns.getSelectMode(List.of("name", "summaryAttributes")), SelectMode.SUMMARY);
+        Assert.assertEquals(JobSelectColumns.getSelectMode(List.of("allAttributes")), SelectMode.ALL);
+        Assert.assertEquals(JobSelectColumns.getSelectMode(List.of("summaryAttributes", "allAttributes")), SelectMode.ALL);
+        Assert.assertEquals(JobSelectColumns.getSelectMode(List.of("name")), SelectMode.CUSTOM);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* selectClauseTest:                                                      */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void selectClauseTest()
+    {
+        // All attributes.
+        Assert.assertNull(JobSelectColumns.getColumns(List.of("allAttributes")));
+        Assert.assertEquals(JobSelectColumns.makeSelectClause(null), "*");
+
+        // Summary attributes never include the large text columns.
+        String summary = JobSelectColumns.makeSelectClause(JobSelectColumns.getColumns(null));
+        Assert.assertEquals(summary, "uuid, tenant, name, owner, status, condition, created, ended, "
+                            + "last_updated, app_id, app_version, exec_system_id, archive_system_id, "
+                            + "remote_started");
+        Assert.assertEquals(JobSelectColumns.getColumns(List.of("summaryAttributes")),
+                            JobSelectColumns.SUMMARY_COLUMNS);
+        for (var big : List.of("parameter_set", "file_inputs", "exec_system_constraints", "notes"))
+            Assert.assertFalse(summary.contains(big), big);
+
+        // Custom lists start with the key columns and contain no duplicates.
+        var columns = JobSelectColumns.getColumns(List.of("name", "parameterSet", "uuid", "name", "execSystemId"));
+        Assert.assertEquals(JobSelectColumns.makeSelectClause(columns),
+                            "uuid, name, parameter_set, exec_system_id");
+        columns = JobSelectColumns.getColumns(List.of("notes"));
+        Assert.assertEquals(JobSelectColumns.makeSelectClause(columns), "uuid, notes");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* summaryMappingTest:                                                    */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void summaryMappingTest() throws SQLException
+    {
+        // A terminal and a non-terminal job.
+        for (var row : List.of(makeRow(true), makeRow(false))) {
+            // A row with every column and a row with only the summary columns
+            // in a different order produce the same listing.
+            var fullDto = JobSelectColumns.populateSummary(makeResultSet(row));
+            var projected = new LinkedHashMap<String,Object>();
+            var summaryColumns = new ArrayList<>(JobSelectColumns.SUMMARY_COLUMNS);
+            Collections.reverse(summaryColumns);
+            for (var col : summaryColumns) projected.put(col, row.get(col));
+            var summaryDto = JobSelectColumns.populateSummary(makeResultSet(projected));
+            Assert.assertEquals(toList(summaryDto), toList(fullDto));
+
+            // The values are those of the row.
+            Assert.assertEquals(summaryDto.getUuid(), row.get("uuid"));
+            Assert.assertEquals(summaryDto.getStatus().name(), row.get("status"));
+            Assert.assertEquals(summaryDto.getCreated(), ((Timestamp)row.get("created")).toInstant());
+            if (row.get("condition") == null) {
+                Assert.assertNull(summaryDto.getCondition());
+                Assert.assertNull(summaryDto.getEnded());
+            }
+            else Assert.assertEquals(summaryDto.getCondition(), JobConditionCode.NORMAL_COMPLETION);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* customMappingTest:                                                     */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void customMappingTest()
+    {
+        // Every selected attribute's column is retrieved so the attributes that
+        // are displayed have the same values as when all columns are retrieved.
+        var row = makeRow(true);
+        var selects = List.of(List.of("name"), List.of("status", "lastUpdated"),
+                              List.of("remoteStarted", "appId", "appVersion", "archiveSystemId"));
+        for (var select : selects) {
+            var columns = JobSelectColumns.getColumns(select);
+            Assert.assertTrue(columns.containsAll(JobSelectColumns.KEY_COLUMNS));
+            for (var attr : select) {
+                var col = attr.replaceAll("([A-Z])", "_$1").toLowerCase();
+                Assert.assertTrue(columns.contains(col), col);
+                Assert.assertTrue(row.containsKey(col), col);
+            }
+            Assert.assertEquals(columns.size(), select.size() + JobSelectColumns.KEY_COLUMNS.size());
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* makeRow:                                                               */
+    /* ---------------------------------------------------------------------- */
+    /** Create a jobs table row that includes columns beyond the summary. */
+    private static Map<String,Object> makeRow(boolean terminal)
+    {
+        var row = new LinkedHashMap<String,Object>();
+        row.put("id", 7);
+        row.put("uuid", "9c8f6a6e-7b1e-4e3c-9a1e-9f0b7c6d5e4f-007");
+        row.put("tenant", "dev");
+        row.put("name", "sleeper");
+        row.put("owner", "testuser");
+        row.put("status", terminal ? JobStatusType.FINISHED.name() : JobStatusType.RUNNING.name());
+        row.put("condition", terminal ? JobConditionCode.NORMAL_COMPLETION.name() : null);
+        row.put("created", Timestamp.valueOf("2024-05-01 10:00:00"));
+        row.put("ended", terminal ? Timestamp.valueOf("2024-05-01 11:00:00") : null);
+        row.put("last_updated", Timestamp.valueOf("2024-05-01 10:30:00"));
+        row.put("app_id", "sleep");
+        row.put("app_version", "0.1");
+        row.put("exec_system_id", "exec.tapis");
+        row.put("archive_system_id", "archive.tapis");
+        row.put("remote_started", Timestamp.valueOf("2024-05-01 10:05:00"));
+        row.put("parameter_set", "{\"appArgs\":[]}");
+        row.put("file_inputs", "[]");
+        row.put("exec_system_constraints", null);
+        row.put("notes", "{}");
+        return row;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* makeResultSet:                                                         */
+    /* ---------------------------------------------------------------------- */
+    /** Create a result set positioned on the single row.  As with a real
+     * result set, accessing a column that wasn't selected fails. */
+    private static ResultSet makeResultSet(Map<String,Object> row)
+    {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                if (args == null || args.length != 1 || !(args[0] instanceof String))
+                    throw new UnsupportedOperationException(method.getName());
+                String col = (String) args[0];
+                if (!row.containsKey(col)) throw new SQLException("column " + col + " not selected");
+                Object value = row.get(col);
+                switch (method.getName()) {
+                    case "getString":    return value == null ? null : value.toString();
+                    case "getTimestamp": return value;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* toList:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private static List<Object> toList(JobListDTO dto)
+    {
+        return Arrays.asList(dto.getUuid(), dto.getTenant(), dto.getName(), dto.getOwner(),
+                             dto.getStatus(), dto.getCondition(), dto.getCreated(), dto.getEnded(),
+                             dto.getLastUpdated(), dto.getAppId(), dto.getAppVersion(),
+                             dto.getExecSystemId(), dto.getArchiveSystemId(), dto.getRemoteStarted());
+    }
+}
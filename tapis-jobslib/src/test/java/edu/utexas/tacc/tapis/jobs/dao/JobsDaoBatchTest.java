@@ -0,0 +1,96 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.model.Job;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Exercise the array parameter and JDBC batch paths of JobsDao against the
+ * configured database.
+ */
+@Test(groups={"integration"})
+public class JobsDaoBatchTest 
+{
+    /* ---------------------------------------------------------------------- */
+    /* batchTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+	@Test
+	public void batchTest() throws TapisException
+	{
+		// Access the database.
+		var dao = new JobsDao();
+		
+		// Create a few pending jobs.
+		var uuids = new ArrayList<String>();
+		for (int i = 0; i < 3; i++) {
+		    Job job = initJob(i);
+		    dao.createJob(job);
+		    uuids.add(job.getUuid());
+		}
+		
+		// Unknown jobs are not returned.
+		var requested = new ArrayList<String>(uuids);
+		requested.add(UUID.randomUUID().toString() + "-007");
+		List<Job> jobs = dao.getJobsByUUIDs(requested);
+		Assert.assertEquals(jobs.size(), uuids.size());
+		for (var job : jobs) Assert.assertTrue(uuids.contains(job.getUuid()));
+		Assert.assertTrue(dao.getJobsByUUIDs(List.of()).isEmpty());
+		
+		// Move all jobs forward in one call.
+		var updated = dao.setStatusBatch("fakeTenant", requested, JobStatusType.PROCESSING_INPUTS, null, null);
+		Assert.assertEquals(updated.size(), uuids.size());
+		for (var job : dao.getJobsByUUIDs(uuids)) 
+		    Assert.assertEquals(job.getStatus(), JobStatusType.PROCESSING_INPUTS);
+		
+		// Illegal transitions are skipped.
+		updated = dao.setStatusBatch("fakeTenant", uuids, JobStatusType.PENDING, null, null);
+		Assert.assertTrue(updated.isEmpty());
+		
+		// Jobs in other tenants are not touched.
+		updated = dao.setStatusBatch("otherTenant", uuids, JobStatusType.CANCELLED, null, null);
+		Assert.assertTrue(updated.isEmpty());
+		
+		// Terminal transitions set the ended time and condition.
+		updated = dao.setStatusBatch("fakeTenant", uuids.subList(0, 2), JobStatusType.CANCELLED, 
+		                             "Cancelled by batch test.", null);
+		Assert.assertEquals(updated.size(), 2);
+		for (var job : dao.getJobsByUUIDs(uuids)) 
+		    if (job.getUuid().equals(uuids.get(2))) {
+		        Assert.assertEquals(job.getStatus(), JobStatusType.PROCESSING_INPUTS);
+		        Assert.assertNull(job.getEnded());
+		    } else {
+		        Assert.assertEquals(job.getStatus(), JobStatusType.CANCELLED);
+		        Assert.assertEquals(job.getCondition(), JobConditionCode.CANCELLED_BY_USER);
+		        Assert.assertEquals(job.getLastMessage(), "Cancelled by batch test.");
+		        Assert.assertNotNull(job.getEnded());
+		    }
+	}
+	
+	/* ********************************************************************** */
+	/*                            Private Methods                             */
+	/* ********************************************************************** */
+	private Job initJob(int i)
+	{
+		var job = new Job();
+		
+		// Required fields
+		job.setName("batchjob" + i);
+		job.setOwner("bud");
+		job.setTenant("fakeTenant");
+		job.setDescription("This is a fake job that will never run");
+	    job.setAppId("fakeAppId");
+	    job.setAppVersion("1.0");
+	    job.setExecSystemId("fakeExecSystemId");
+	    job.setTapisQueue("fakeTapisQueue");
+	    job.setCreatedby("mary");
+	    job.setCreatedbyTenant("maryTenant");
+		return job;
+	}
+}
@@ -0,0 +1,144 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.exceptions.JobException;
+import edu.utexas.tacc.tapis.jobs.model.Job;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Exercise the cancel fast path for pending jobs against the configured
+ * database, including its race with a worker claiming the job.
+ */
+@Test(groups={"integration"})
+public class JobsDaoCancelPendingTest
+{
+    // Runs the competing cancel and claim calls.
+    private final ExecutorService _executor = Executors.newFixedThreadPool(2);
+
+    @AfterClass
+    public void shutdown() {_executor.shutdownNow();}
+
+    /* ---------------------------------------------------------------------- */
+    /* cancelFirstTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void cancelFirstTest() throws TapisException
+    {
+        // The cancel succeeds on a pending job.
+        var dao = new JobsDao();
+        Job job = createJob(dao, 0);
+        Assert.assertTrue(dao.cancelPendingJob(job, null));
+        Assert.assertEquals(job.getStatus(), JobStatusType.CANCELLED);
+
+        Job dbJob = dao.getJobByUUID(job.getUuid());
+        Assert.assertEquals(dbJob.getStatus(), JobStatusType.CANCELLED);
+        Assert.assertEquals(dbJob.getCondition(), JobConditionCode.CANCELLED_BY_USER);
+        Assert.assertNotNull(dbJob.getEnded());
+
+        // A worker holding the stale pending job can't claim it.
+        Job workerJob = createJob(dao, 1);
+        Job apiJob = dao.getJobByUUID(workerJob.getUuid());
+        Assert.assertTrue(dao.cancelPendingJob(apiJob, null));
+        try {
+            dao.setStatus(workerJob, JobStatusType.PROCESSING_INPUTS, null);
+            Assert.fail("Expected claim of cancelled job to fail");
+        }
+        catch (JobException e) {}
+        Assert.assertEquals(dao.getStatusByUUID(workerJob.getUuid()), JobStatusType.CANCELLED);
+
+        // Cancelling again is a no-op.
+        Assert.assertFalse(dao.cancelPendingJob(dao.getJobByUUID(job.getUuid()), null));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* claimFirstTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void claimFirstTest() throws TapisException
+    {
+        // Once a worker has claimed the job the fast path doesn't apply.
+        var dao = new JobsDao();
+        Job workerJob = createJob(dao, 2);
+        Job apiJob = dao.getJobByUUID(workerJob.getUuid());
+        dao.setStatus(workerJob, JobStatusType.PROCESSING_INPUTS, null);
+
+        Assert.assertFalse(dao.cancelPendingJob(apiJob, null));
+        Job dbJob = dao.getJobByUUID(workerJob.getUuid());
+        Assert.assertEquals(dbJob.getStatus(), JobStatusType.PROCESSING_INPUTS);
+        Assert.assertNull(dbJob.getEnded());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* raceTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void raceTest() throws Exception
+    {
+        // Start the cancel and the claim at the same time and
+        // check that exactly one of them takes effect.
+        var dao = new JobsDao();
+        for (int i = 0; i < 10; i++) {
+            Job job = createJob(dao, 10 + i);
+            Job workerJob = dao.getJobByUUID(job.getUuid());
+            Job apiJob = dao.getJobByUUID(job.getUuid());
+
+            var start = new CountDownLatch(1);
+            Future<Boolean> claimed = submit(start, () -> {
+                try {dao.setStatus(workerJob, JobStatusType.PROCESSING_INPUTS, null); return true;}
+                catch (JobException e) {return false;}
+            });
+            Future<Boolean> cancelled = submit(start, () -> dao.cancelPendingJob(apiJob, null));
+            start.countDown();
+
+            boolean claimWon  = claimed.get(30, TimeUnit.SECONDS);
+            boolean cancelWon = cancelled.get(30, TimeUnit.SECONDS);
+            Assert.assertTrue(claimWon ^ cancelWon, "claim " + claimWon + ", cancel " + cancelWon);
+            Assert.assertEquals(dao.getStatusByUUID(job.getUuid()),
+                                cancelWon ? JobStatusType.CANCELLED : JobStatusType.PROCESSING_INPUTS);
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* submit:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private <T> Future<T> submit(CountDownLatch start, Callable<T> call)
+    {
+        return _executor.submit(() -> {start.await(); return call.call();});
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* createJob:                                                             */
+    /* ---------------------------------------------------------------------- */
+    private Job createJob(JobsDao dao, int i) throws TapisException
+    {
+        var job = new Job();
+
+        // Required fields
+        job.setName("cancelpendingjob" + i);
+        job.setOwner("bud");
+        job.setTenant("fakeTenant");
+        job.setDescription("This is a fake job that will never run");
+        job.setAppId("fakeAppId");
+        job.setAppVersion("1.0");
+        job.setExecSystemId("fakeExecSystemId");
+        job.setTapisQueue("fakeTapisQueue");
+        job.setCreatedby("mary");
+        job.setCreatedbyTenant("maryTenant");
+        dao.createJob(job);
+        return job;
+    }
+}
@@ -0,0 +1,207 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.sql.Connection;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.model.Job;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobChangesDTO;
+import edu.utexas.tacc.tapis.jobs.model.dto.JobListDTO;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Page through a user's job changes against the configured database with
+ * many jobs sharing the same last update time.
+ */
+@Test(groups={"integration"})
+public class JobsDaoChangesTest
+{
+    private static final String TENANT = "fakeTenant";
+
+    /* ---------------------------------------------------------------------- */
+    /* tiedTimestampsTest:                                                    */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void tiedTimestampsTest() throws TapisException
+    {
+        // Seven jobs share one timestamp and three share the next.
+        var dao = new JobsDao();
+        String owner = "changes" + System.nanoTime();
+        Instant t1 = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        Instant t2 = t1.plusMillis(1);
+        var created = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) created.add(createJob(dao, owner, i, i < 7 ? t1 : t2).getUuid());
+
+        // Every page size visits each job exactly once, in the order written.
+        for (int limit : new int[] {1, 2, 3, 7, 10, 11}) {
+            var seen = new ArrayList<JobListDTO>();
+            var watermark = page(dao, owner, 0, 0, limit, seen);
+            Assert.assertEquals(uuids(seen), created, "limit " + limit);
+
+            // Nothing follows the final watermark.
+            var rest = dao.getJobsChangedSince(TENANT, owner, watermark.getLastXid(), 
+                                               watermark.getLastId(), null, limit);
+            Assert.assertTrue(rest.getJobs().isEmpty());
+            Assert.assertEquals(rest.getLastXid(), watermark.getLastXid());
+            Assert.assertEquals(rest.getLastId(), watermark.getLastId());
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* updateTest:                                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void updateTest() throws TapisException
+    {
+        // Start from the watermark after all of the user's jobs.
+        var dao = new JobsDao();
+        String owner = "changes" + System.nanoTime();
+        Instant t1 = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        var jobs = new ArrayList<Job>();
+        for (int i = 0; i < 4; i++) jobs.add(createJob(dao, owner, i, t1));
+        var watermark = page(dao, owner, 0, 0, 2, new ArrayList<>());
+
+        // Only the updated job follows the watermark.
+        dao.setStatus(jobs.get(1), JobStatusType.PROCESSING_INPUTS, null);
+        var changes = dao.getJobsChangedSince(TENANT, owner, watermark.getLastXid(), 
+                                              watermark.getLastId(), null, 10);
+        Assert.assertEquals(uuids(changes.getJobs()), List.of(jobs.get(1).getUuid()));
+        Assert.assertEquals(changes.getJobs().get(0).getStatus(), JobStatusType.PROCESSING_INPUTS);
+
+        // Starting from an instant selects the jobs last updated after it.
+        var recent = dao.getJobsChangedSince(TENANT, owner, 0, 0, t1.plusSeconds(1), 10);
+        Assert.assertEquals(uuids(recent.getJobs()), List.of(jobs.get(1).getUuid()));
+
+        // Hidden jobs and other users' jobs are excluded.
+        dao.setJobVisibility(jobs.get(2).getUuid(), TENANT, owner, false);
+        changes = dao.getJobsChangedSince(TENANT, owner, 0, 0, null, 10);
+        Assert.assertEquals(changes.getJobs().size(), 3);
+        Assert.assertFalse(uuids(changes.getJobs()).contains(jobs.get(2).getUuid()));
+        Assert.assertTrue(dao.getJobsChangedSince(TENANT, owner + "x", 0, 0, null, 10)
+                             .getJobs().isEmpty());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* laggingClockTest:                                                      */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void laggingClockTest() throws TapisException
+    {
+        // Start from the watermark after a job written with the current time.
+        var dao = new JobsDao();
+        String owner = "changes" + System.nanoTime();
+        createJob(dao, owner, 0, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        var watermark = page(dao, owner, 0, 0, 10, new ArrayList<>());
+
+        // A host whose clock is a day behind writes the next job, 
+        // which still follows the watermark.
+        Instant lagging = Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        var job = createJob(dao, owner, 1, lagging);
+        var changes = dao.getJobsChangedSince(TENANT, owner, watermark.getLastXid(), 
+                                              watermark.getLastId(), null, 10);
+        Assert.assertEquals(uuids(changes.getJobs()), List.of(job.getUuid()));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* openTransactionTest:                                                   */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void openTransactionTest() throws Exception
+    {
+        var dao = new JobsDao();
+        String owner = "changes" + System.nanoTime();
+        Instant t1 = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+        var job = createJob(dao, owner, 0, t1);
+        var other = createJob(dao, owner + "x", 1, t1);
+        var watermark = page(dao, owner, 0, 0, 10, new ArrayList<>());
+
+        // An open transaction that has only read does not hold back updates.
+        Connection conn = dao.getConnection();
+        try {
+            conn.createStatement().execute("SELECT 1");
+            dao.setStatus(job, JobStatusType.PROCESSING_INPUTS, null);
+            var changes = dao.getJobsChangedSince(TENANT, owner, watermark.getLastXid(), 
+                                                  watermark.getLastId(), null, 10);
+            Assert.assertEquals(uuids(changes.getJobs()), List.of(job.getUuid()));
+            watermark = changes;
+        }
+        finally {conn.rollback(); conn.close();}
+
+        // Updates committed after an open transaction has written wait until it ends.
+        conn = dao.getConnection();
+        try {
+            var pstmt = conn.prepareStatement("UPDATE jobs SET last_message = last_message WHERE uuid = ?");
+            pstmt.setString(1, other.getUuid());
+            Assert.assertEquals(pstmt.executeUpdate(), 1);
+            dao.setStatus(job, JobStatusType.STAGING_INPUTS, null);
+            var changes = dao.getJobsChangedSince(TENANT, owner, watermark.getLastXid(), 
+                                                  watermark.getLastId(), null, 10);
+            Assert.assertTrue(changes.getJobs().isEmpty());
+        }
+        finally {conn.rollback(); conn.close();}
+
+        var changes = dao.getJobsChangedSince(TENANT, owner, watermark.getLastXid(), 
+                                              watermark.getLastId(), null, 10);
+        Assert.assertEquals(uuids(changes.getJobs()), List.of(job.getUuid()));
+        Assert.assertEquals(changes.getJobs().get(0).getStatus(), JobStatusType.STAGING_INPUTS);
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* page:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    /** Collect all changes after a watermark and return the final page. */
+    private JobChangesDTO page(JobsDao dao, String owner, long afterXid, long afterId, 
+                               int limit, List<JobListDTO> seen)
+     throws TapisException
+    {
+        while (true) {
+            var changes = dao.getJobsChangedSince(TENANT, owner, afterXid, afterId, null, limit);
+            seen.addAll(changes.getJobs());
+            Assert.assertTrue(changes.getJobs().size() <= limit);
+            if (changes.getJobs().size() < limit) return changes;
+            afterXid = changes.getLastXid();
+            afterId = changes.getLastId();
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* uuids:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    private static List<String> uuids(List<JobListDTO> jobs)
+    {
+        var uuids = new ArrayList<String>(jobs.size());
+        for (var job : jobs) uuids.add(job.getUuid());
+        return uuids;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* createJob:                                                             */
+    /* ---------------------------------------------------------------------- */
+    private Job createJob(JobsDao dao, String owner, int i, Instant lastUpdated) throws TapisException
+    {
+        var job = new Job();
+
+        // Required fields
+        job.setName("changesjob" + i);
+        job.setOwner(owner);
+        job.setTenant(TENANT);
+        job.setDescription("This is a fake job that will never run");
+        job.setAppId("fakeAppId");
+        job.setAppVersion("1.0");
+        job.setExecSystemId("fakeExecSystemId");
+        job.setTapisQueue("fakeTapisQueue");
+        job.setCreatedby("mary");
+        job.setCreatedbyTenant("maryTenant");
+        job.setLastUpdated(lastUpdated);
+        dao.createJob(job);
+        return job;
+    }
+}
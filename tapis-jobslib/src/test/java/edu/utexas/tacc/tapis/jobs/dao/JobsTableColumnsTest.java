@@ -0,0 +1,148 @@
+package edu.utexas.tacc.tapis.jobs.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/** Test the static jobs table column definitions and their comparison to a
+ * live schema.
+ */
+@Test(groups={"unit"})
+public class JobsTableColumnsTest
+{
+    // The migration scripts relative to this module's directory.
+    private static final Path MIGRATIONS = Paths.get("..", "tapis-jobsmigrate", "src", "main",
+        "resources", "edu", "utexas", "tacc", "tapis", "jobsmigrate", "sql");
+
+    // Migration statements that change the jobs table's columns.
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+        "ALTER TABLE jobs ADD COLUMN (?:IF NOT EXISTS )?(\\w+) ([^;]+);", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALTER_TYPE = Pattern.compile(
+        "ALTER TABLE jobs ALTER COLUMN (\\w+) TYPE ([^;]+);", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RENAME_COLUMN = Pattern.compile(
+        "ALTER TABLE jobs RENAME COLUMN (\\w+) TO (\\w+);", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_COLUMN = Pattern.compile(
+        "ALTER TABLE jobs DROP COLUMN (?:IF EXISTS )?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    /* ---------------------------------------------------------------------- */
+    /* mismatchTest:                                                          */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void mismatchTest()
+    {
+        // The static table matches itself.
+        var live = new HashMap<>(JobsTableColumns.COLUMNS);
+        Assert.assertTrue(JobsTableColumns.findMismatches(JobsTableColumns.COLUMNS, live).isEmpty());
+
+        // Missing, extra and retyped columns are all reported.
+        live.remove("notes");
+        live.put("new_column", "int4");
+        live.put("shared_app_ctx", "bool");
+        var diffs = JobsTableColumns.findMismatches(JobsTableColumns.COLUMNS, live);
+        Assert.assertEquals(diffs.keySet().stream().collect(Collectors.toList()),
+                            List.of("new_column", "notes", "shared_app_ctx"));
+        Assert.assertEquals(diffs.get("shared_app_ctx"), "expected varchar but found bool");
+
+        // Verification tolerates an unreadable schema.
+        Assert.assertTrue(JobsTableColumns.verify(HashMap::new).isEmpty());
+        Assert.assertTrue(JobsTableColumns.verify(() -> {throw new IllegalStateException("down");}).isEmpty());
+        Assert.assertEquals(JobsTableColumns.verify(() -> live), diffs);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* migrationsTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Replay the jobs table column changes in the migration scripts and
+     * compare the result to the static table. */
+    @Test
+    public void migrationsTest() throws IOException
+    {
+        if (!Files.isDirectory(MIGRATIONS))
+            throw new SkipException("Migration scripts not found at " + MIGRATIONS.toAbsolutePath());
+
+        // Migrations are applied in version order.
+        var scripts = Files.list(MIGRATIONS)
+                           .filter(p -> p.getFileName().toString().matches("V\\d+__.*\\.sql"))
+                           .sorted()
+                           .collect(Collectors.toList());
+        Assert.assertFalse(scripts.isEmpty());
+
+        var columns = new LinkedHashMap<String,String>();
+        for (var script : scripts) {
+            String sql = stripComments(Files.readString(script));
+            if (script.getFileName().toString().startsWith("V001__"))
+                parseCreateTable(sql, columns);
+
+            // Statements are applied in script order.
+            for (var stmt : sql.split(";")) {
+                stmt = stmt.trim().replaceAll("\\s+", " ") + ";";
+                Matcher m;
+                if ((m = RENAME_COLUMN.matcher(stmt)).find())
+                    columns.put(m.group(2), columns.remove(m.group(1)));
+                else if ((m = ADD_COLUMN.matcher(stmt)).find())
+                    columns.putIfAbsent(m.group(1), toUdtName(m.group(2)));
+                else if ((m = ALTER_TYPE.matcher(stmt)).find())
+                    columns.put(m.group(1), toUdtName(m.group(2)));
+                else if ((m = DROP_COLUMN.matcher(stmt)).find())
+                    columns.remove(m.group(1));
+            }
+        }
+
+        Assert.assertEquals(JobsTableColumns.findMismatches(JobsTableColumns.COLUMNS, columns),
+                            Map.of());
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* parseCreateTable:                                                      */
+    /* ---------------------------------------------------------------------- */
+    private static void parseCreateTable(String sql, Map<String,String> columns)
+    {
+        Matcher m = Pattern.compile("CREATE TABLE jobs\\s*\\((.*?)\\n\\);", Pattern.DOTALL).matcher(sql);
+        Assert.assertTrue(m.find(), "CREATE TABLE jobs not found");
+        for (var line : m.group(1).split(",\\s*\\n")) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            var parts = line.split("\\s+", 2);
+            columns.put(parts[0], toUdtName(parts[1]));
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* toUdtName:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** Convert a column definition to the type name information_schema reports. */
+    private static String toUdtName(String definition)
+    {
+        String def = definition.trim().toLowerCase();
+        if (def.startsWith("character varying")) return "varchar";
+        if (def.startsWith("timestamp without time zone")) return "timestamp";
+        if (def.startsWith("serial4") || def.startsWith("integer")) return "int4";
+        if (def.startsWith("boolean")) return "bool";
+        if (def.startsWith("bigint")) return "int8";
+        if (def.startsWith("text[]")) return "_text";
+        return def.split("\\s+")[0];
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* stripComments:                                                         */
+    /* ---------------------------------------------------------------------- */
+    private static String stripComments(String sql)
+    {
+        return sql.replaceAll("(?m)--.*$", "");
+    }
+}
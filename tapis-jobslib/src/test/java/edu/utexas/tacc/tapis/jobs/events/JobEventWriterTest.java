@@ -0,0 +1,225 @@
+package edu.utexas.tacc.tapis.jobs.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.model.JobEvent;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobEventType;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Test the batching, ordering, back-pressure and shutdown behavior of the
+ * JobEventWriter using an in-memory inserter.
+ */
+@Test(groups={"unit"})
+public class JobEventWriterTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* batchSizeTest:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void batchSizeTest() throws Exception
+    {
+        // Queue events before the writer starts so batches are as full as possible.
+        var db = new MemoryDb();
+        var writer = new JobEventWriter(db, 100, 10, 60000);
+        for (int i = 0; i < 25; i++) writer.write(makeEvent(i));
+        writer.start();
+
+        // The flush marker forces out the partial batch without waiting.
+        writer.flush();
+        Assert.assertEquals(db.batchSizes(), List.of(10, 10, 5));
+        Assert.assertEquals(db.ids(), range(0, 25));
+        writer.shutdown(1000);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* flushIntervalTest:                                                     */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void flushIntervalTest() throws Exception
+    {
+        // A partial batch is written once the interval expires.
+        var db = new MemoryDb();
+        var writer = new JobEventWriter(db, 100, 10, 100);
+        writer.start();
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) writer.write(makeEvent(i));
+        Assert.assertTrue(db.awaitCount(3, 5000));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertEquals(db.batchSizes(), List.of(3));
+        Assert.assertTrue(elapsedMillis >= 90, "elapsed " + elapsedMillis);
+        writer.shutdown(1000);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* syncTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void syncTest() throws Exception
+    {
+        // A synchronous write returns only after it and all earlier events commit
+        // and it doesn't wait for the flush interval.
+        var db = new MemoryDb();
+        var writer = new JobEventWriter(db, 100, 50, 60000);
+        writer.start();
+        writer.write(makeEvent(0));
+        writer.write(makeEvent(1));
+        writer.writeSync(makeEvent(2));
+        Assert.assertEquals(db.ids(), range(0, 3));
+
+        // A failed batch is retried event by event.  The bad synchronous event
+        // fails its caller and the others are still written.
+        writer.shutdown(1000);
+        var writer2 = new JobEventWriter(db, 100, 50, 60000);
+        writer2.write(makeEvent(3));
+        var bad = makeEvent(4);
+        bad.setDescription(MemoryDb.BAD);
+        var failure = new CompletableFuture<Exception>();
+        new Thread(() -> {
+            try {writer2.writeSync(bad); failure.complete(null);}
+            catch (Exception e) {failure.complete(e);}
+        }).start();
+        while (writer2.getQueuedCount() < 2) Thread.sleep(5);
+        writer2.write(makeEvent(5));
+        writer2.start();
+        Assert.assertTrue(failure.get(5, TimeUnit.SECONDS) instanceof TapisException);
+        writer2.flush();
+        Assert.assertEquals(db.ids(), List.of(0, 1, 2, 3, 5));
+        writer2.shutdown(1000);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* backPressureTest:                                                      */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void backPressureTest() throws Exception
+    {
+        // Block the writer thread in its first insert.
+        var db = new MemoryDb();
+        db.gate = new CountDownLatch(1);
+        var writer = new JobEventWriter(db, 2, 1, 0);
+        writer.start();
+        writer.write(makeEvent(0));
+        Assert.assertTrue(db.entered.await(5, TimeUnit.SECONDS));
+
+        // Fill the queue, then the next writer blocks.
+        writer.write(makeEvent(1));
+        writer.write(makeEvent(2));
+        var blocked = new CompletableFuture<Void>();
+        new Thread(() -> {
+            try {writer.write(makeEvent(3)); blocked.complete(null);}
+            catch (Exception e) {blocked.completeExceptionally(e);}
+        }).start();
+        Thread.sleep(200);
+        Assert.assertFalse(blocked.isDone());
+        Assert.assertEquals(writer.getQueuedCount(), 2);
+
+        // Releasing the database unblocks the producer.
+        db.gate.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        writer.flush();
+        Assert.assertEquals(db.ids(), range(0, 4));
+        writer.shutdown(1000);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* shutdownTest:                                                          */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void shutdownTest() throws Exception
+    {
+        // Queued events are drained on shutdown even with a long flush interval.
+        var db = new MemoryDb();
+        var writer = new JobEventWriter(db, 100, 10, 60000);
+        writer.start();
+        for (int i = 0; i < 35; i++) writer.write(makeEvent(i));
+        writer.shutdown(5000);
+        Assert.assertEquals(db.ids(), range(0, 35));
+        Assert.assertEquals(writer.getQueuedCount(), 0);
+
+        // Events written after shutdown are inserted on the calling thread.
+        writer.write(makeEvent(35));
+        writer.writeSync(makeEvent(36));
+        writer.flush();
+        Assert.assertEquals(db.ids(), range(0, 37));
+
+        // A writer that never started is drained by shutdown too.
+        db = new MemoryDb();
+        writer = new JobEventWriter(db, 100, 10, 60000);
+        for (int i = 0; i < 15; i++) writer.write(makeEvent(i));
+        writer.shutdown(100);
+        Assert.assertEquals(db.ids(), range(0, 15));
+        Assert.assertEquals(db.batchSizes(), List.of(10, 5));
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    private static JobEvent makeEvent(int id)
+    {
+        var event = new JobEvent();
+        event.setId(id);
+        event.setEvent(JobEventType.JOB_NEW_STATUS);
+        event.setJobUuid("job-" + id);
+        event.setTenant("dev");
+        event.setEventDetail("RUNNING");
+        event.setDescription("{}");
+        return event;
+    }
+
+    private static List<Integer> range(int from, int to)
+    {
+        var list = new ArrayList<Integer>();
+        for (int i = from; i < to; i++) list.add(i);
+        return list;
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** An inserter that records committed events and batch sizes. */
+    private static final class MemoryDb implements JobEventWriter.BatchInserter
+    {
+        private static final String BAD = "bad";
+
+        private final List<Integer>  _ids = new ArrayList<>();
+        private final List<Integer>  _batchSizes = new ArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+
+        @Override
+        public void insert(List<JobEvent> jobEvents) throws TapisException
+        {
+            entered.countDown();
+            if (gate != null)
+                try {gate.await();} catch (InterruptedException e) {throw new TapisException("interrupted");}
+            for (var e : jobEvents)
+                if (BAD.equals(e.getDescription())) throw new TapisException("bad event " + e.getId());
+            synchronized (this) {
+                for (var e : jobEvents) _ids.add((int) e.getId());
+                _batchSizes.add(jobEvents.size());
+                notifyAll();
+            }
+        }
+
+        private synchronized List<Integer> ids() {return new ArrayList<>(_ids);}
+        private synchronized List<Integer> batchSizes() {return new ArrayList<>(_batchSizes);}
+
+        private synchronized boolean awaitCount(int count, long millis) throws InterruptedException
+        {
+            long deadline = System.currentTimeMillis() + millis;
+            while (_ids.size() < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) return false;
+                wait(remaining);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package edu.utexas.tacc.tapis.jobs.reader;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Test the scheduling of partition creation and job archiving batches
+ * using in-memory database operations.
+ */
+@Test(groups={"unit"})
+public class JobMaintenanceTaskTest
+{
+    // A fixed current time.
+    private static final Instant NOW = Instant.parse("2024-06-15T12:00:00Z");
+
+    /* ---------------------------------------------------------------------- */
+    /* archiveBatchesTest:                                                    */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void archiveBatchesTest()
+    {
+        // 25 old jobs are moved in batches of 10 with the configured cutoff.
+        var db = new MemoryDb(25);
+        var task = new JobMaintenanceTask(db::createPartitions, db::archive, 30, 10, 60000);
+        Assert.assertEquals(task.runCycle(NOW), 25);
+        Assert.assertEquals(db.batches, List.of(10, 10, 5));
+        Assert.assertEquals(db.cutoff, NOW.minus(Duration.ofDays(30)));
+        Assert.assertEquals(db.monthsAhead, JobMaintenanceTask.PARTITION_MONTHS_AHEAD);
+
+        // An exact multiple needs one more call to find nothing is left.
+        db = new MemoryDb(20);
+        task = new JobMaintenanceTask(db::createPartitions, db::archive, 30, 10, 60000);
+        Assert.assertEquals(task.runCycle(NOW), 20);
+        Assert.assertEquals(db.batches, List.of(10, 10, 0));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* archiveDisabledTest:                                                   */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void archiveDisabledTest()
+    {
+        // Partitions are still maintained when archiving is off.
+        var db = new MemoryDb(25);
+        var task = new JobMaintenanceTask(db::createPartitions, db::archive, 0, 10, 60000);
+        Assert.assertEquals(task.runCycle(NOW), 0);
+        Assert.assertTrue(db.batches.isEmpty());
+        Assert.assertEquals(db.monthsAhead, JobMaintenanceTask.PARTITION_MONTHS_AHEAD);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* failureTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void failureTest()
+    {
+        // A partition failure doesn't prevent archiving.
+        var db = new MemoryDb(5);
+        var task = new JobMaintenanceTask(m -> {throw new TapisException("no partitions");},
+                                          db::archive, 1, 10, 60000);
+        Assert.assertEquals(task.runCycle(NOW), 5);
+
+        // An archive failure ends the cycle and keeps the jobs already moved.
+        db = new MemoryDb(25);
+        db.failAt = 2;
+        task = new JobMaintenanceTask(db::createPartitions, db::archive, 1, 10, 60000);
+        Assert.assertEquals(task.runCycle(NOW), 10);
+        Assert.assertEquals(db.remaining, 15);
+        Assert.assertEquals(db.monthsAhead, JobMaintenanceTask.PARTITION_MONTHS_AHEAD);
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** Database operations that record their calls. */
+    private static final class MemoryDb
+    {
+        private final List<Integer> batches = new ArrayList<>();
+        private int     remaining;
+        private int     monthsAhead = -1;
+        private int     failAt = -1;
+        private Instant cutoff;
+
+        private MemoryDb(int oldJobs) {remaining = oldJobs;}
+
+        private int createPartitions(int months)
+        {
+            monthsAhead = months;
+            return 0;
+        }
+
+        private int archive(Instant endedBefore, int limit) throws TapisException
+        {
+            if (batches.size() + 1 == failAt) throw new TapisException("archive failed");
+            cutoff = endedBefore;
+            int moved = Math.min(limit, remaining);
+            remaining -= moved;
+            batches.add(moved);
+            return moved;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package edu.utexas.tacc.tapis.jobs.selection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.exceptions.JobException;
+import edu.utexas.tacc.tapis.systems.client.gen.model.TapisSystem;
+
+@Test(groups={"unit"})
+public class ExecSystemSelectionPolicyTest
+{
+    // Request without app limits.
+    private static final ExecSystemSelectionRequest REQUEST =
+        new ExecSystemSelectionRequest("dev", "testuser", null, null);
+
+    /* ********************************************************************** */
+    /*                              Test Methods                              */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* randomTest:                                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void randomTest()
+    {
+        var candidates = List.of(makeSystem("a", null, null), makeSystem("b", null, null));
+        var policy = new RandomSelectionPolicy();
+        for (int i = 0; i < 20; i++)
+            Assert.assertTrue(candidates.contains(policy.select(REQUEST, candidates)));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* leastActiveJobsTest:                                                   */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void leastActiveJobsTest()
+    {
+        var candidates = List.of(makeSystem("a", null, null), makeSystem("b", null, null),
+                                 makeSystem("c", null, null));
+        var policy = new LeastActiveJobsSelectionPolicy(
+            fixedCache(Map.of("a", 5, "b", 2, "c", 3), Map.of()));
+
+        // Selections are counted until the snapshot is refreshed.
+        Assert.assertEquals(select(policy, REQUEST, candidates, 4), List.of("b", "b", "c", "b"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* weightedRoundRobinTest:                                                */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void weightedRoundRobinTest()
+    {
+        // Default weights come from the system's maximum jobs.
+        var candidates = List.of(makeSystem("a", 5, null), makeSystem("b", 1, null),
+                                 makeSystem("c", 1, null));
+        var policy = new WeightedRoundRobinSelectionPolicy();
+        Assert.assertEquals(select(policy, REQUEST, candidates, 7),
+                            List.of("a", "a", "b", "a", "c", "a", "a"));
+
+        // Unlimited systems get the maximum weight.
+        Assert.assertEquals(WeightedRoundRobinSelectionPolicy.getCapacityWeight(makeSystem("x", null, null)),
+                            WeightedRoundRobinSelectionPolicy.MAX_WEIGHT);
+
+        // Equal weights alternate.
+        policy = new WeightedRoundRobinSelectionPolicy(system -> 1);
+        Assert.assertEquals(select(policy, REQUEST, candidates, 6), List.of("a", "b", "c", "a", "b", "c"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* quotaAwareTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void quotaAwareTest()
+    {
+        // System a is full, b is full for this user, c has room.
+        var candidates = List.of(makeSystem("a", 4, null), makeSystem("b", null, 2),
+                                 makeSystem("c", 10, null));
+        var policy = new QuotaAwareSelectionPolicy(
+            fixedCache(Map.of("a", 4, "b", 2, "c", 8), Map.of("b", 2)));
+        Assert.assertEquals(select(policy, REQUEST, candidates, 3), List.of("c", "c", "b"));
+
+        // The app limit applies when lower than the system limit.
+        policy = new QuotaAwareSelectionPolicy(fixedCache(Map.of("a", 1, "c", 3), Map.of()));
+        var appLimited = new ExecSystemSelectionRequest("dev", "testuser", 3, null);
+        Assert.assertEquals(select(policy, appLimited, candidates, 3), List.of("b", "a", "b"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* loadCacheTest:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void loadCacheTest()
+    {
+        var reads = new AtomicInteger();
+        var now = new AtomicLong(1000);
+        var cache = new ExecSystemLoadCache((tenantId, owner) -> {
+            if (reads.incrementAndGet() == 3) throw new JobException("database down");
+            return new ExecSystemLoad(Map.of("a", reads.get()), Map.of());
+        }, 5000, now::get);
+
+        // Snapshots are reused until they expire and are kept per user.
+        Assert.assertEquals(cache.getLoad("dev", "u1").getSystemJobs("a"), 1);
+        now.addAndGet(4999);
+        Assert.assertEquals(cache.getLoad("dev", "u1").getSystemJobs("a"), 1);
+        Assert.assertEquals(cache.getLoad("dev", "u2").getSystemJobs("a"), 2);
+        Assert.assertEquals(reads.get(), 2);
+
+        // Read failures produce an empty snapshot.
+        now.addAndGet(1);
+        Assert.assertEquals(cache.getLoad("dev", "u1").getSystemJobs("a"), 0);
+        now.addAndGet(5000);
+        Assert.assertEquals(cache.getLoad("dev", "u1").getSystemJobs("a"), 4);
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* makeSystem:                                                            */
+    /* ---------------------------------------------------------------------- */
+    private static TapisSystem makeSystem(String id, Integer maxJobs, Integer maxJobsPerUser)
+    {
+        var system = new TapisSystem();
+        system.setId(id);
+        system.setTenant("dev");
+        system.setJobMaxJobs(maxJobs);
+        system.setJobMaxJobsPerUser(maxJobsPerUser);
+        return system;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* fixedCache:                                                            */
+    /* ---------------------------------------------------------------------- */
+    /** A cache whose single snapshot never expires. */
+    private static ExecSystemLoadCache fixedCache(Map<String,Integer> systemJobs,
+                                                  Map<String,Integer> userJobs)
+    {
+        var load = new ExecSystemLoad(new TreeMap<>(systemJobs), new TreeMap<>(userJobs));
+        return new ExecSystemLoadCache((tenantId, owner) -> load, Long.MAX_VALUE, () -> 0);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* select:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private static List<String> select(ExecSystemSelectionPolicy policy, ExecSystemSelectionRequest req,
+                                       List<TapisSystem> candidates, int count)
+    {
+        var ids = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) ids.add(policy.select(req, candidates).getId());
+        return ids;
+    }
+}
@@ -0,0 +1,311 @@
+package edu.utexas.tacc.tapis.jobs.stagers.zip;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.stagers.zip.ZipAppCache.CacheOps;
+import edu.utexas.tacc.tapis.jobs.stagers.zip.ZipAppCache.CmdResult;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Test the ZIP app cache key derivation and remote commands.  The race tests
+ * run the generated commands with the local bash shell against a temporary
+ * directory that plays the role of the exec host's file system.
+ */
+@Test(groups={"unit"})
+public class ZipAppCacheTest
+{
+    // The number of concurrent jobs in the race tests.
+    private static final int JOBS = 8;
+    
+    /* ---------------------------------------------------------------------- */
+    /* keyTest:                                                               */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void keyTest()
+    {
+        String url = "tapis://sys/apps/a.zip";
+        String key = ZipAppCache.makeCacheKey(url, "size=1;lastModified=x");
+        Assert.assertEquals(key, "b0190438bef33e6d0863ec443b47a04d0bddd495f7cbf417a6fec59e868194cb");
+
+        // Any change to the url or version changes the key.
+        Assert.assertNotEquals(ZipAppCache.makeCacheKey(url, "size=2;lastModified=x"), key);
+        Assert.assertNotEquals(ZipAppCache.makeCacheKey(url + "x", "size=1;lastModified=x"), key);
+        Assert.assertNotEquals(ZipAppCache.makeCacheKey("tapis://sys/apps/a.zip\nsize=1",
+                                                        "lastModified=x"), key);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* commandTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void commandTest()
+    {
+        Assert.assertEquals(ZipAppCache.makePopulateCmd("/home/u/.tapis/zipcache", "k", "/home/u/job 1", true),
+            "[ -d '/home/u/.tapis/zipcache/k' ] || exit 3; " +
+            "cp -Rlf '/home/u/.tapis/zipcache/k/.' '/home/u/job 1/' 2>/dev/null || " +
+            "cp -Rf '/home/u/.tapis/zipcache/k/.' '/home/u/job 1/'");
+        Assert.assertEquals(ZipAppCache.makePopulateCmd("/home/u/.tapis/zipcache", "k", "/home/u/job 1", false),
+            "[ -d '/home/u/.tapis/zipcache/k' ] || exit 3; " +
+            "cp -Rf '/home/u/.tapis/zipcache/k/.' '/home/u/job 1/' && " +
+            "( cd '/home/u/.tapis/zipcache/k' && find . -type f -print0 ) | " +
+            "( cd '/home/u/job 1' && xargs -0 -r chmod u+w )");
+
+        Assert.assertEquals(ZipAppCache.makeLockCmd("/c", "k", "j1", 60),
+            "mkdir -p '/c' || exit 1; " +
+            "if mkdir '/c/k.lock' 2>/dev/null; then echo 'j1' > '/c/k.lock/owner'; exit 0; fi; " +
+            "[ \"$(cat '/c/k.lock/owner' 2>/dev/null)\" = 'j1' ] && exit 0; " +
+            "if [ -n \"$(find '/c/k.lock' -maxdepth 0 -mmin +60 2>/dev/null)\" ]; " +
+            "then mv '/c/k.lock' '/c/k.lock.stale.j1' 2>/dev/null && rm -rf '/c/k.lock.stale.j1'; fi; " +
+            "exit 4");
+
+        Assert.assertEquals(ZipAppCache.makeUnlockCmd("/c", "k", "j1"),
+            "[ \"$(cat '/c/k.lock/owner' 2>/dev/null)\" = 'j1' ] && rm -rf '/c/k.lock'; exit 0");
+
+        String cmd = ZipAppCache.makeExtractCmd("/c", "k", "j1", "app.zip", true);
+        Assert.assertTrue(cmd.contains("( cd '/c/k.d.j1' && unzip -q '/c/k.stage.j1/app.zip' ) && " +
+                                       "find '/c/k.d.j1' -type f -exec chmod a-w {} + "), cmd);
+        Assert.assertTrue(cmd.contains("ln -sn 'k.d.j1' '/c/k'"), cmd);
+        Assert.assertTrue(cmd.endsWith("[ -d '/c/k' ]"), cmd);
+        cmd = ZipAppCache.makeExtractCmd("/c", "k", "j1", "app.tgz", false);
+        Assert.assertTrue(cmd.contains("tar -xf '/c/k.stage.j1/app.tgz'"), cmd);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* raceTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Many jobs miss the cache at the same time; the archive is staged once
+     * and the exec directories hold links to the read-only cached files. */
+    @Test
+    public void raceTest() throws Exception
+    {
+        var host = race(true);
+        Path cached = host.cacheDir.resolve("key1").resolve("bin").resolve("tapisjob_app.sh");
+        for (int i = 0; i < JOBS; i++) {
+            Path p = host.root.resolve("job" + i).resolve("bin").resolve("tapisjob_app.sh");
+            Assert.assertEquals(Files.readString(p), "echo hello\n");
+            Assert.assertEquals(Files.getAttribute(p, "unix:ino"), Files.getAttribute(cached, "unix:ino"));
+            Assert.assertFalse(Files.getPosixFilePermissions(p).contains(PosixFilePermission.OWNER_WRITE));
+        }
+
+        // A job that replaces or removes its files affects neither the cache nor other jobs.
+        Path replaced = host.root.resolve("job0").resolve("bin").resolve("tapisjob_app.sh");
+        Files.delete(replaced);
+        Files.writeString(replaced, "rm -rf /\n");
+        Files.delete(host.root.resolve("job1").resolve("bin").resolve("tapisjob_app.sh"));
+        Assert.assertEquals(Files.readString(cached), "echo hello\n");
+        Assert.assertEquals(Files.readString(host.root.resolve("job2").resolve("bin").resolve("tapisjob_app.sh")), 
+                            "echo hello\n");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* copyTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Jobs can instead be given their own writable copies of the files. */
+    @Test
+    public void copyTest() throws Exception
+    {
+        var host = race(false);
+        Path cached = host.cacheDir.resolve("key1").resolve("bin").resolve("tapisjob_app.sh");
+        for (int i = 0; i < JOBS; i++) {
+            Path p = host.root.resolve("job" + i).resolve("bin").resolve("tapisjob_app.sh");
+            Assert.assertEquals(Files.readString(p), "echo hello\n");
+            Assert.assertNotEquals(Files.getAttribute(p, "unix:ino"), Files.getAttribute(cached, "unix:ino"));
+            Assert.assertTrue(Files.getPosixFilePermissions(p).contains(PosixFilePermission.OWNER_WRITE));
+        }
+
+        // A job that changes its files affects neither the cache nor later jobs.
+        Files.writeString(host.root.resolve("job0").resolve("bin").resolve("tapisjob_app.sh"), "rm -rf /\n");
+        Assert.assertEquals(Files.readString(cached), "echo hello\n");
+        Path execDir = Files.createDirectories(host.root.resolve("jobN"));
+        var cache = new ZipAppCache(host, host.cacheDir.toString(), "key1", "jobN", "localhost", false, 60, 0, 20);
+        Assert.assertTrue(cache.populate(execDir.toString(), "app.tar", false));
+        Assert.assertEquals(Files.readString(execDir.resolve("bin").resolve("tapisjob_app.sh")), "echo hello\n");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* trustedHostTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void trustedHostTest()
+    {
+        var hosts = List.of("apps.example.org");
+        Assert.assertTrue(ZipAppCache.isTrustedArchiveHost(URI.create("https://apps.example.org/a.zip"), hosts));
+        Assert.assertTrue(ZipAppCache.isTrustedArchiveHost(URI.create("http://Apps.Example.org:8080/a.zip"), hosts));
+        Assert.assertFalse(ZipAppCache.isTrustedArchiveHost(URI.create("https://169.254.169.254/latest/meta-data"), hosts));
+        Assert.assertFalse(ZipAppCache.isTrustedArchiveHost(URI.create("https://apps.example.org.evil.com/a.zip"), hosts));
+        Assert.assertFalse(ZipAppCache.isTrustedArchiveHost(URI.create("https://u:p@apps.example.org/a.zip"), hosts));
+        Assert.assertFalse(ZipAppCache.isTrustedArchiveHost(URI.create("ftp://apps.example.org/a.zip"), hosts));
+        Assert.assertFalse(ZipAppCache.isTrustedArchiveHost(URI.create("https://apps.example.org/a.zip"), List.of()));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* lockTest:                                                              */
+    /* ---------------------------------------------------------------------- */
+    /** Stale locks are reclaimed, our own lock is reacquired after a restart
+     * and a job that can't get the lock in time stages without it. */
+    @Test
+    public void lockTest() throws Exception
+    {
+        var host = new LocalHost();
+        Path lock = Files.createDirectories(host.cacheDir.resolve("key1.lock"));
+        Files.writeString(lock.resolve("owner"), "other\n");
+        Path execDir = Files.createDirectories(host.root.resolve("job0"));
+
+        // A fresh lock held by another job and no time to wait.
+        var cache = new ZipAppCache(host, host.cacheDir.toString(), "key1", "job0", "localhost", true, 60, 0, 20);
+        Assert.assertFalse(cache.populate(execDir.toString(), "app.tar", false));
+        Assert.assertTrue(Files.exists(lock.resolve("owner")));
+        Assert.assertEquals(host.stageCount.get(), 1);
+
+        // A stale lock is reclaimed and released.
+        Assert.assertEquals(host.sh("touch -d '2 hours ago' '" + lock + "'").exitStatus, 0);
+        cache = new ZipAppCache(host, host.cacheDir.toString(), "key2", "job0", "localhost", true, 60, 60000, 20);
+        Files.move(lock, host.cacheDir.resolve("key2.lock"));
+        Assert.assertFalse(cache.populate(execDir.toString(), "app.tar", false));
+        Assert.assertFalse(Files.exists(host.cacheDir.resolve("key2.lock")));
+        Assert.assertEquals(host.stageCount.get(), 2);
+
+        // Our own lock left by a failed attempt is reacquired.
+        var own = Files.createDirectories(host.cacheDir.resolve("key3.lock"));
+        Files.writeString(own.resolve("owner"), "job0\n");
+        cache = new ZipAppCache(host, host.cacheDir.toString(), "key3", "job0", "localhost", true, 60, 0, 20);
+        Assert.assertFalse(cache.populate(execDir.toString(), "app.tar", false));
+        Assert.assertFalse(Files.exists(own));
+
+        // A dangling entry link is replaced.
+        Files.createSymbolicLink(host.cacheDir.resolve("key4"), Path.of("missing"));
+        cache = new ZipAppCache(host, host.cacheDir.toString(), "key4", "job0", "localhost", true, 60, 0, 20);
+        Assert.assertFalse(cache.populate(execDir.toString(), "app.tar", false));
+        Assert.assertTrue(cache.populate(execDir.toString(), "app.tar", false));
+        Assert.assertEquals(host.stageCount.get(), 4);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* failureTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    /** A bad archive leaves nothing behind but the released lock. */
+    @Test
+    public void failureTest() throws Exception
+    {
+        var host = new LocalHost();
+        host.corrupt = true;
+        Path execDir = Files.createDirectories(host.root.resolve("job0"));
+        var cache = new ZipAppCache(host, host.cacheDir.toString(), "key1", "job0", "localhost", true, 60, 0, 20);
+        try {
+            cache.populate(execDir.toString(), "app.tar", false);
+            Assert.fail("Expected exception");
+        }
+        catch (TapisException e) {/* expected */}
+        Assert.assertEquals(host.listCache(), "[]");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* race:                                                                  */
+    /* ---------------------------------------------------------------------- */
+    /** Populate JOBS exec directories concurrently from an empty cache and 
+     * check that the archive was staged once and left no temporary files. */
+    private static LocalHost race(boolean link) throws Exception
+    {
+        var host = new LocalHost();
+        var pool = Executors.newFixedThreadPool(JOBS);
+        try {
+            var futures = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < JOBS; i++) {
+                String owner = "job" + i;
+                Path execDir = Files.createDirectories(host.root.resolve(owner));
+                var cache = new ZipAppCache(host, host.cacheDir.toString(), "key1", owner, "localhost",
+                                            link, 60, 60000, 20);
+                futures.add(pool.submit((Callable<Boolean>) () ->
+                    cache.populate(execDir.toString(), "app.tar", false)));
+            }
+            int hits = 0;
+            for (var f : futures) if (f.get(60, TimeUnit.SECONDS)) hits++;
+            Assert.assertEquals(hits, JOBS - 1);
+        }
+        finally {pool.shutdownNow();}
+
+        // One transfer and one published content directory, no leftovers.
+        Assert.assertEquals(host.stageCount.get(), 1);
+        Assert.assertEquals(host.listCache(), "[key1, key1.d.job" + host.lastStager + "]");
+        return host;
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** Runs commands with the local shell in a temporary directory. */
+    private static final class LocalHost implements CacheOps
+    {
+        private final Path          root;
+        private final Path          cacheDir;
+        private final Path          archive;
+        private final AtomicInteger stageCount = new AtomicInteger();
+        private volatile String     lastStager;
+        private volatile boolean    corrupt;
+
+        private LocalHost() throws Exception
+        {
+            if (!new File("/bin/bash").canExecute()) throw new SkipException("bash not available");
+            root = Files.createTempDirectory("zipAppCacheTest");
+            root.toFile().deleteOnExit();
+            cacheDir = root.resolve("cache");
+
+            // Create the application archive.
+            Path src = Files.createDirectories(root.resolve("src").resolve("bin"));
+            Files.writeString(src.resolve("tapisjob_app.sh"), "echo hello\n");
+            archive = root.resolve("app.tar");
+            var result = sh("cd '" + root.resolve("src") + "' && tar -cf '" + archive + "' bin");
+            Assert.assertEquals(result.exitStatus, 0, result.output);
+        }
+
+        @Override
+        public CmdResult execute(String cmd) throws TapisException {return sh(cmd);}
+
+        @Override
+        public void stageArchive(String stageDirName, String archiveFileName) throws TapisException
+        {
+            stageCount.incrementAndGet();
+            lastStager = stageDirName.substring(stageDirName.lastIndexOf("job") + 3);
+            try {
+                Path dest = Files.createDirectories(cacheDir.resolve(stageDirName)).resolve(archiveFileName);
+                if (corrupt) Files.writeString(dest, "not a tar file");
+                  else Files.copy(archive, dest);
+                Thread.sleep(50);
+            }
+            catch (Exception e) {throw new TapisException(e.getMessage(), e);}
+        }
+
+        private CmdResult sh(String cmd) throws TapisException
+        {
+            try {
+                var proc = new ProcessBuilder("/bin/bash", "-c", cmd).redirectErrorStream(true).start();
+                String out = new String(proc.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                return new CmdResult(proc.waitFor(), out.trim());
+            }
+            catch (Exception e) {throw new TapisException(e.getMessage(), e);}
+        }
+
+        private String listCache() throws Exception
+        {
+            if (!Files.exists(cacheDir)) return "[]";
+            try (var s = Files.list(cacheDir)) {
+                return s.map(p -> p.getFileName().toString()).sorted().toList().toString();
+            }
+        }
+    }
+}
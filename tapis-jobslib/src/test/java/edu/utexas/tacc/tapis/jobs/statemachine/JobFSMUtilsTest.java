@@ -56,4 +56,28 @@ public class JobFSMUtilsTest
         result = JobFSMUtils.hasTransition(JobStatusType.FAILED, JobStatusType.FINISHED);
         Assert.assertFalse(result, "Failed to identify an illegal transaction!");
    }
+    
+    /* ---------------------------------------------------------------------- */
+    /* tableTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test(enabled=true)
+    public void tableTest()
+    {
+        // Every pair answered from the table must agree with the FSM.
+        for (var from : JobStatusType.values()) {
+            for (var to : JobStatusType.values()) 
+                Assert.assertEquals(JobFSMUtils.hasTransition(from, to), 
+                                    JobFSMUtils.hasFSMTransition(from, to),
+                                    "Table disagrees with FSM on " + from + " -> " + to + "!");
+            Assert.assertEquals(JobFSMUtils.hasTransition(from, null), 
+                                JobFSMUtils.hasFSMTransition(from, null));
+            Assert.assertEquals(JobFSMUtils.hasTransition(null, from), 
+                                JobFSMUtils.hasFSMTransition(null, from));
+        }
+        
+        // The table is immutable.
+        Assert.assertTrue(JobFSMUtils.getTransitions(null).isEmpty());
+        Assert.assertThrows(UnsupportedOperationException.class, 
+            () -> JobFSMUtils.getTransitions(JobStatusType.RUNNING).add(JobStatusType.PENDING));
+    }
 }
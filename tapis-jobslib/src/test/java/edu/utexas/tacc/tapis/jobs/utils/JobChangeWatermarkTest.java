@@ -0,0 +1,86 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException.Condition;
+
+@Test(groups={"unit"})
+public class JobChangeWatermarkTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* roundTripTest:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void roundTripTest() throws TapisImplException
+    {
+        long[] xids = {0, 1234567, Long.MAX_VALUE};
+        long[] ids = {0, 42, Long.MAX_VALUE};
+        for (long xid : xids)
+            for (long id : ids) {
+                String since = new JobChangeWatermark(xid, id).encode();
+                Assert.assertTrue(since.matches("[A-Za-z0-9_-]+"), since);
+                var watermark = JobChangeWatermark.decode(since);
+                Assert.assertEquals(watermark.getXid(), xid);
+                Assert.assertEquals(watermark.getId(), id);
+                Assert.assertNull(watermark.getUpdatedAfter());
+            }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* startTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void startTest() throws TapisImplException
+    {
+        // No watermark starts before all jobs.
+        Assert.assertSame(JobChangeWatermark.decode(null), JobChangeWatermark.START);
+        Assert.assertSame(JobChangeWatermark.decode(" "), JobChangeWatermark.START);
+
+        // An instant starts before all jobs updated after that instant.
+        var watermark = JobChangeWatermark.decode("2024-03-05T10:15:30Z");
+        Assert.assertEquals(watermark.getXid(), 0);
+        Assert.assertEquals(watermark.getId(), 0);
+        Assert.assertEquals(watermark.getUpdatedAfter(), Instant.parse("2024-03-05T10:15:30Z"));
+
+        // So do watermarks from the time ordered listing.
+        watermark = JobChangeWatermark.decode(encode("jc1:1709633730:123456000:42"));
+        Assert.assertEquals(watermark.getXid(), 0);
+        Assert.assertEquals(watermark.getId(), 0);
+        Assert.assertEquals(watermark.getUpdatedAfter(), Instant.parse("2024-03-05T10:15:30.123456Z"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* invalidTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void invalidTest()
+    {
+        // Other cursor kinds, tampered ids and garbage are all rejected.
+        String[] values = {encode("jc2:100:-1"), encode("jc2:-1:5"), encode("jc1:100:0:-1"), 
+                           encode("je1:100:5"), encode("jc2:100:0:5"), encode("jc2:x:5"), encode("jc1:100:5"),
+                           "!!!", "2024-03-05", JobEventCursor.encode("job", 5)};
+        for (String value : values) {
+            try {
+                JobChangeWatermark.decode(value);
+                Assert.fail("Expected exception for " + value);
+            }
+            catch (TapisImplException e) {
+                Assert.assertEquals(e.condition, Condition.BAD_REQUEST);
+            }
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* encode:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private static String encode(String s)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException.Condition;
+
+@Test(groups={"unit"})
+public class JobEventCursorTest
+{
+    private static final String JOB_UUID = "6e2a77d9-1d7e-4a0e-9a4b-3c5c7a4f1b2e-007";
+
+    /* ---------------------------------------------------------------------- */
+    /* roundTripTest:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void roundTripTest() throws TapisImplException
+    {
+        long[] ids = {0, 1, 42, Integer.MAX_VALUE + 1L, Long.MAX_VALUE};
+        for (long id : ids) {
+            String cursor = JobEventCursor.encode(JOB_UUID, id);
+            Assert.assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+            Assert.assertEquals(JobEventCursor.decode(JOB_UUID, cursor), id);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* invalidTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void invalidTest()
+    {
+        // Cursors from other jobs, tampered ids and garbage are all rejected.
+        String other = JobEventCursor.encode("other-job", 5);
+        String negative = JobEventCursor.encode(JOB_UUID, -1);
+        String[] cursors = {other, negative, "", "!!!", "MTIz", other.substring(1)};
+        for (String cursor : cursors) {
+            try {
+                JobEventCursor.decode(JOB_UUID, cursor);
+                Assert.fail("Expected exception for " + cursor);
+            }
+            catch (TapisImplException e) {
+                Assert.assertEquals(e.condition, Condition.BAD_REQUEST);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
+import edu.utexas.tacc.tapis.jobs.utils.JobOutputListCache.Key;
+import edu.utexas.tacc.tapis.jobs.utils.JobOutputListCache.Listing;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisImplException;
+
+@Test(groups={"unit"})
+public class JobOutputListCacheTest
+{
+    private static final String  JOB_UUID = "6e2a77d9-1d7e-4a0e-9a4b-3c5c7a4f1b2e-007";
+    private static final Instant V1 = Instant.ofEpochSecond(1000);
+    private static final Instant V2 = Instant.ofEpochSecond(2000);
+
+    /* ---------------------------------------------------------------------- */
+    /* keyTest:                                                               */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void keyTest()
+    {
+        var key = new Key("dev", "alice", JOB_UUID, "/archive/out/", false);
+        Assert.assertEquals(key, new Key("dev", "alice", JOB_UUID, "/archive/out/", false));
+        Assert.assertEquals(key.hashCode(), new Key("dev", "alice", JOB_UUID, "/archive/out/", false).hashCode());
+
+        // Every component distinguishes keys.
+        Assert.assertNotEquals(key, new Key("prod", "alice", JOB_UUID, "/archive/out/", false));
+        Assert.assertNotEquals(key, new Key("dev", "bob", JOB_UUID, "/archive/out/", false));
+        Assert.assertNotEquals(key, new Key("dev", "alice", "other-job", "/archive/out/", false));
+        Assert.assertNotEquals(key, new Key("dev", "alice", JOB_UUID, "/archive/out/sub/", false));
+        Assert.assertNotEquals(key, new Key("dev", "alice", JOB_UUID, "/archive/out/", true));
+
+        // Each user gets a separate listing.
+        var cache = new JobOutputListCache(10);
+        cache.put(key, V1, listing(3));
+        Assert.assertEquals(cache.get(key, V1).size(), 3);
+        Assert.assertNull(cache.get(new Key("dev", "bob", JOB_UUID, "/archive/out/", false), V1));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* invalidationTest:                                                      */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void invalidationTest()
+    {
+        var cache = new JobOutputListCache(10);
+        var top = new Key("dev", "alice", JOB_UUID, "/archive/out/", false);
+        var all = new Key("dev", "alice", JOB_UUID, "/archive/out/", true);
+        var other = new Key("dev", "alice", "other-job", "/archive/out/", false);
+        cache.put(top, V1, listing(2));
+        cache.put(all, V1, listing(5));
+        cache.put(other, V1, listing(1));
+
+        // A newer job version discards all of the job's listings but no others.
+        Assert.assertNull(cache.get(top, V2));
+        Assert.assertNull(cache.get(all, V1));
+        Assert.assertEquals(cache.get(other, V1).size(), 1);
+
+        // Storing a newer version has the same effect.
+        cache.put(top, V1, listing(2));
+        cache.put(all, V2, listing(6));
+        Assert.assertNull(cache.get(top, V1));
+        Assert.assertEquals(cache.get(all, V2).size(), 6);
+        Assert.assertEquals(cache.invalidate(JOB_UUID), 1);
+        Assert.assertEquals(cache.size(), 1);
+
+        // Oversized listings are remembered but not stored.
+        cache.put(top, V1, listing(JobOutputListCache.MAX_LISTING_FILES + 1));
+        Assert.assertNull(cache.get(top, V1));
+        Assert.assertTrue(cache.isOversized(top, V1));
+        Assert.assertFalse(cache.isOversized(top, V2));
+        Assert.assertFalse(cache.isOversized(top, V1));
+
+        // Least recently used listings are evicted.
+        var small = new JobOutputListCache(2);
+        small.put(top, V1, listing(1));
+        small.put(all, V1, listing(1));
+        small.get(top, V1);
+        small.put(other, V1, listing(1));
+        Assert.assertNotNull(small.get(top, V1));
+        Assert.assertNull(small.get(all, V1));
+
+        // A zero size disables caching.
+        var disabled = new JobOutputListCache(0);
+        disabled.put(top, V1, listing(1));
+        Assert.assertFalse(disabled.isEnabled());
+        Assert.assertNull(disabled.get(top, V1));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* pagingTest:                                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void pagingTest() throws TapisImplException
+    {
+        var listing = listing(5);
+        Assert.assertEquals(paths(listing.getPage(0, 2)), List.of("/f0", "/f1"));
+        Assert.assertEquals(paths(listing.getPage(4, 2)), List.of("/f4"));
+        Assert.assertTrue(listing.getPage(9, 2).isEmpty());
+        Assert.assertEquals(listing.getPage(1, -1).size(), 4);
+
+        // Pages can follow a named file carried in a cursor.
+        String cursor = JobOutputListCursor.encode(JOB_UUID, "/f1");
+        Assert.assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+        String path = JobOutputListCursor.decode(JOB_UUID, cursor);
+        Assert.assertEquals(paths(listing.getPage(listing.indexAfter(path), 2)), List.of("/f2", "/f3"));
+        Assert.assertEquals(listing.indexAfter("/f4"), 5);
+        Assert.assertEquals(listing.indexAfter("/missing"), -1);
+
+        // Paths may contain the cursor separator, cursors of other jobs are rejected.
+        Assert.assertEquals(JobOutputListCursor.decode(JOB_UUID, JobOutputListCursor.encode(JOB_UUID, "/a:b")), "/a:b");
+        try {
+            JobOutputListCursor.decode(JOB_UUID, JobOutputListCursor.encode("other-job", "/f1"));
+            Assert.fail("Expected exception");
+        }
+        catch (TapisImplException e) {}
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* listing:                                                               */
+    /* ---------------------------------------------------------------------- */
+    private static Listing listing(int count)
+    {
+        var files = new ArrayList<FileInfo>(count);
+        for (int i = 0; i < count; i++) {
+            var file = new FileInfo();
+            file.setPath("/f" + i);
+            files.add(file);
+        }
+        return new Listing(files);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* paths:                                                                 */
+    /* ---------------------------------------------------------------------- */
+    private static List<String> paths(List<FileInfo> files)
+    {
+        var paths = new ArrayList<String>();
+        for (var file : files) paths.add(file.getPath());
+        return paths;
+    }
+}
@@ -0,0 +1,114 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.model.dto.JobStatusDTO;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobConditionCode;
+import edu.utexas.tacc.tapis.jobs.model.enumerations.JobStatusType;
+
+@Test(groups={"unit"})
+public class JobStatusCacheTest
+{
+    private static final long TTL = 1000;
+
+    /* ---------------------------------------------------------------------- */
+    /* terminalOnlyTest:                                                      */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void terminalOnlyTest()
+    {
+        var cache = new JobStatusCache(10, TTL, () -> 0);
+
+        // Active jobs are always read from the database.
+        Assert.assertFalse(cache.put(status("job-1", JobStatusType.RUNNING)));
+        Assert.assertFalse(cache.put(status("job-2", JobStatusType.PENDING)));
+        Assert.assertNull(cache.get("job-1"));
+
+        // Terminal jobs are cached as copies.
+        var finished = status("job-3", JobStatusType.FINISHED);
+        finished.setCondition(JobConditionCode.NORMAL_COMPLETION);
+        Assert.assertTrue(cache.put(finished));
+        Assert.assertTrue(cache.put(status("job-4", JobStatusType.FAILED)));
+        Assert.assertTrue(cache.put(status("job-5", JobStatusType.CANCELLED)));
+        Assert.assertEquals(cache.size(), 3);
+
+        finished.setVisible(false);
+        var cached = cache.get("job-3");
+        Assert.assertEquals(cached.getStatus(), JobStatusType.FINISHED);
+        Assert.assertEquals(cached.getCondition(), JobConditionCode.NORMAL_COMPLETION);
+        Assert.assertEquals(cached.getOwner(), "alice");
+        Assert.assertEquals(cached.getLastUpdated(), Instant.ofEpochSecond(1000));
+        Assert.assertTrue(cached.getVisible());
+        cached.setOwner("mallory");
+        Assert.assertEquals(cache.get("job-3").getOwner(), "alice");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* expirationTest:                                                        */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void expirationTest()
+    {
+        var clock = new AtomicLong();
+        var cache = new JobStatusCache(10, TTL, clock::get);
+        cache.put(status("job-1", JobStatusType.FINISHED));
+
+        // Entries expire so visibility changes on other instances are seen.
+        clock.set(TTL - 1);
+        Assert.assertNotNull(cache.get("job-1"));
+        clock.set(TTL);
+        Assert.assertNull(cache.get("job-1"));
+        Assert.assertEquals(cache.size(), 0);
+
+        // Invalidation takes effect immediately.
+        cache.put(status("job-1", JobStatusType.FINISHED));
+        Assert.assertTrue(cache.invalidate("job-1"));
+        Assert.assertFalse(cache.invalidate("job-1"));
+        Assert.assertNull(cache.get("job-1"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* capacityTest:                                                          */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void capacityTest()
+    {
+        // The least recently used entry is evicted.
+        var cache = new JobStatusCache(2, TTL, () -> 0);
+        cache.put(status("job-1", JobStatusType.FINISHED));
+        cache.put(status("job-2", JobStatusType.FINISHED));
+        cache.get("job-1");
+        cache.put(status("job-3", JobStatusType.FINISHED));
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNotNull(cache.get("job-1"));
+        Assert.assertNull(cache.get("job-2"));
+        Assert.assertNotNull(cache.get("job-3"));
+
+        // A zero size disables the cache.
+        var disabled = new JobStatusCache(0, TTL, () -> 0);
+        Assert.assertFalse(disabled.isEnabled());
+        Assert.assertFalse(disabled.put(status("job-1", JobStatusType.FINISHED)));
+        Assert.assertNull(disabled.get("job-1"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* status:                                                                */
+    /* ---------------------------------------------------------------------- */
+    private static JobStatusDTO status(String uuid, JobStatusType type)
+    {
+        var status = new JobStatusDTO();
+        status.setJobUuid(uuid);
+        status.setStatus(type);
+        status.setOwner("alice");
+        status.setTenant("dev");
+        status.setCreatedBy("alice");
+        status.setCreatedByTenant("dev");
+        status.setVisible(true);
+        status.setLastUpdated(Instant.ofEpochSecond(1000));
+        return status;
+    }
+}
@@ -0,0 +1,93 @@
+package edu.utexas.tacc.tapis.jobs.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.utils.MacroTemplate.SegmentKind;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+@Test(groups={"unit"})
+public class MacroTemplateTest
+{
+    @Test
+    public void parseTest()
+    {
+        Assert.assertEquals(segments("abc"), List.of("LITERAL:abc"));
+        Assert.assertEquals(segments(""), List.of());
+        Assert.assertEquals(segments("x$xx${_banana}/${_apple}"),
+                            List.of("LITERAL:x$xx", "MACRO:_banana", "LITERAL:/", "MACRO:_apple"));
+        Assert.assertEquals(segments("${}1${a}${b"),
+                            List.of("EMPTY:${}", "LITERAL:1", "MACRO:a", "UNTERMINATED:${b"));
+        Assert.assertEquals(segments("${a${b}}"), List.of("MACRO:a${b", "LITERAL:}"));
+        Assert.assertFalse(MacroTemplate.parse("a$b{c}").hasMacros());
+        Assert.assertTrue(MacroTemplate.parse("${}").hasMacros());
+    }
+
+    @Test
+    public void cacheTest()
+    {
+        // Only text containing a delimiter is cached.
+        MacroTemplate.clearCache();
+        var t1 = MacroTemplate.compile("/work/${JobUUID}");
+        Assert.assertSame(MacroTemplate.compile("/work/${JobUUID}"), t1);
+        MacroTemplate.compile("/work/plain");
+        Assert.assertEquals(MacroTemplate.getCacheSize(), 1);
+
+        // The cache is bounded.
+        for (int i = 0; i < MacroTemplate.MAX_CACHED_TEMPLATES + 10; i++)
+            MacroTemplate.compile("${x}" + i);
+        Assert.assertEquals(MacroTemplate.getCacheSize(), MacroTemplate.MAX_CACHED_TEMPLATES);
+        MacroTemplate.clearCache();
+    }
+
+    @Test
+    public void resolveTest() throws TapisException
+    {
+        // Values that repeat and nest are resolved.
+        var macros = new HashMap<String,String>();
+        macros.put("a", "A");
+        macros.put("b", "${a}${a}");
+        macros.put("c", "${b}/${b}/${a}");
+        var resolver = new MacroResolver(null, macros);
+        Assert.assertEquals(resolver.resolve("${c}-${b}"), "AA/AA/A-AA");
+
+        // More macros than the nesting limit are fine.
+        var text = new StringBuilder();
+        for (int i = 0; i < 40; i++) text.append("${a}");
+        Assert.assertEquals(resolver.resolve(text.toString()), "A".repeat(40));
+
+        // Changes to the macro map are seen by later calls.
+        macros.put("a", "Z");
+        Assert.assertEquals(resolver.resolve("${b}"), "ZZ");
+        Assert.assertEquals(resolver.replaceMacros("${b}"), "${a}${a}");
+    }
+
+    @Test(expectedExceptions = TapisException.class)
+    public void cycleTest() throws TapisException
+    {
+        // A cycle not reached through the leftmost macro of a value.
+        var macros = new HashMap<String,String>();
+        macros.put("a", "x${b}");
+        macros.put("b", "y/${c}");
+        macros.put("c", "${b}");
+        new MacroResolver(null, macros).resolve("${a}");
+    }
+
+    /* ---------------------------------------------------------------------------- */
+    /* segments:                                                                    */
+    /* ---------------------------------------------------------------------------- */
+    private static List<String> segments(String text)
+    {
+        var template = MacroTemplate.parse(text);
+        var list = new ArrayList<String>();
+        for (int i = 0; i < template.size(); i++) {
+            SegmentKind kind = template.getKind(i);
+            list.add(kind.name() + ":" + template.getText(i));
+        }
+        return list;
+    }
+}
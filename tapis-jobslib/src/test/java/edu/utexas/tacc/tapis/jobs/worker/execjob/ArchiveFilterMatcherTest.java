@@ -0,0 +1,322 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.files.client.gen.model.FileInfo;
+import edu.utexas.tacc.tapis.files.client.gen.model.FileTypeEnum;
+
+/** Test that the compiled archive filters produce exactly the same results as
+ * the original per-file filtering code, and that the paged subtree iterator
+ * visits every file.  The original filtering algorithm from JobFileManager is
+ * reproduced here as the reference implementation.
+ *
+ * The benchmark test compares the original algorithm, which holds the complete
+ * listing in memory, with the streaming path over 10^5 and 10^6 synthetic paths.
+ * It runs only when the "performance" group is explicitly selected.
+ */
+@Test(groups={"unit"})
+public class ArchiveFilterMatcherTest
+{
+    // Output paths relative to the job output directory.
+    private static final String[] PATHS = {
+        "tapisjob.sh", "tapisjob.env", "tapisjob.out", "openfoam_v9.zip",
+        "inputDirectory/pisoFoam.log", "inputDirectory/blockMesh.log",
+        "inputDirectory/U.jpg", "inputDirectory/system/controlDict",
+        "inputDirectory/constant/polyMesh/blockMeshDict", "inputDirectory/0/p",
+        "results/run1/out.dat", "results/run2/out.DAT", "results/summary.csv",
+        "a.b", "axb", "x{y}", "file,with,commas", "[bracket]", "dir/", "dir//file",
+        "", "a", "ab", "abc", "abab", "log-2024.txt", "log-2025.txt",
+    };
+
+    // Filter lists in both glob and regex form.
+    private static final List<List<String>> FILTERS = Arrays.asList(
+        Arrays.asList(),
+        Arrays.asList("tapisjob.env"),
+        Arrays.asList("tapisjob.env", "openfoam_v9.zip", "inputDirectory/pisoFoam.log"),
+        Arrays.asList("*.log"),
+        Arrays.asList("**/*.log"),
+        Arrays.asList("**.log", "results/**"),
+        Arrays.asList("inputDirectory/*", "results/run?/*.dat"),
+        Arrays.asList("{tapisjob.*,*.zip}"),
+        Arrays.asList("log-202[0-4].txt", "[!a]*"),
+        Arrays.asList("a.b", "x{y}", "\\[bracket\\]"),
+        Arrays.asList("dir/*", "dir/"),
+        Arrays.asList("**/*"),
+        Arrays.asList("REGEX:.*\\.log"),
+        Arrays.asList("REGEX:results/run[0-9]+/out\\.(?i)dat"),
+        Arrays.asList("REGEX:a.b", "REGEX:abc?"),
+        Arrays.asList("REGEX:(ab)\\1", "REGEX:tapisjob\\.(sh|out)"),
+        Arrays.asList("REGEX:inputDirectory/.*|results/.*"),
+        Arrays.asList("REGEX:tapisjob.out", "*.csv", "REGEX:(?i)A"),
+        Arrays.asList("REGEX:(?<g>a)b", "REGEX:(?<g>x)ab", "*.csv"),
+        Arrays.asList("REGEX(.*)")
+    );
+
+    /* ---------------------------------------------------------------------- */
+    /* equivalenceTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void equivalenceTest()
+    {
+        // Try every combination of includes and excludes.
+        for (var includes : FILTERS)
+            for (var excludes : FILTERS) {
+                var expected = legacyFilter(includes, excludes, Arrays.asList(PATHS));
+                var matcher  = ArchiveFilterMatcher.compile(includes, excludes);
+                var actual   = new ArrayList<String>();
+                for (var path : PATHS) if (matcher.isArchived(path)) actual.add(path);
+                Assert.assertEquals(actual, expected,
+                                    "includes=" + includes + ", excludes=" + excludes);
+            }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* globToRegexTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void globToRegexTest()
+    {
+        Assert.assertEquals(ArchiveFilterMatcher.globToRegex("*.log"), "^[^/]*\\.log$");
+        Assert.assertEquals(ArchiveFilterMatcher.globToRegex("**/x?"), "^.*/x[^/]$");
+        Assert.assertEquals(ArchiveFilterMatcher.globToRegex("{a,b}"), "^(?:(?:a)|(?:b))$");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* iteratorTest:                                                          */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void iteratorTest() throws Exception
+    {
+        // A tree with 3310 files in 6 directories, one of which is empty.  
+        // The d0 listing also contains an entry for d0 itself.
+        var tree = new HashMap<String,List<FileInfo>>();
+        addFiles(tree, "/out", 1500);
+        addDir(tree, "/out", "/out/d0");
+        addDir(tree, "/out", "/out/d1");
+        addDir(tree, "/out", "/out/d2");
+        addFiles(tree, "/out/d0", 600);
+        addDir(tree, "/out/d0", "/out/d0");
+        addFiles(tree, "/out/d1", 600);
+        addDir(tree, "/out/d1", "/out/d1/e");
+        addFiles(tree, "/out/d1/e", 10);
+        addFiles(tree, "/out/d2", 600);
+        addDir(tree, "/out/d2", "/out/d2/empty");
+        tree.put("/out/d2/empty", new ArrayList<>());
+
+        // Serve each directory's listing in pages.
+        FilesSubtreeIterator.PageFetcher fetcher = (path, limit, offset) -> {
+            var listing = tree.get(path);
+            return listing.subList(Math.min(offset, listing.size()), 
+                                   Math.min(offset + limit, listing.size()));
+        };
+        var it = new FilesSubtreeIterator(fetcher, "/out", 1000);
+        int count = 0;
+        while (it.hasNext()) {
+            Assert.assertFalse(FilesSubtreeIterator.isDirectory(it.next()));
+            count++;
+        }
+        Assert.assertEquals(count, 3310);
+        Assert.assertEquals(it.getPagesRead(), 7); // 2 pages for /out, 1 per subdirectory
+        Assert.assertFalse(it.hasNext());
+
+        // Include directory entries and record the listing progress.
+        it = new FilesSubtreeIterator(fetcher, "/out", 1000);
+        it.setIncludeDirectories(true);
+        var events = new ArrayList<String>();
+        it.setListener(new FilesSubtreeIterator.Listener() {
+            @Override public void directoryListed(String path) {events.add("L:" + path);}
+            @Override public void subtreeListed(String path) {events.add("S:" + path);}
+        });
+        int dirs = 0;
+        while (it.hasNext()) if (FilesSubtreeIterator.isDirectory(it.next())) dirs++;
+        Assert.assertEquals(dirs, 5);
+        
+        // Subdirectories are listed depth first after their parent and each
+        // subtree is reported after all of its subdirectories.
+        Assert.assertEquals(events, Arrays.asList(
+            "L:/out", "L:/out/d2", "L:/out/d2/empty", "S:/out/d2/empty", "S:/out/d2",
+            "L:/out/d1", "L:/out/d1/e", "S:/out/d1/e", "S:/out/d1", "L:/out/d0", "S:/out/d0", 
+            "S:/out"));
+        
+        // Skipped subtrees are neither listed nor reported.
+        it = new FilesSubtreeIterator(fetcher, "/out", 1000);
+        events.clear();
+        it.setListener(new FilesSubtreeIterator.Listener() {
+            @Override public void directoryListed(String path) {events.add("L:" + path);}
+            @Override public void subtreeListed(String path) {events.add("S:" + path);}
+            @Override public boolean skipSubtree(String path) {return path.equals("/out/d1");}
+        });
+        count = 0;
+        while (it.hasNext()) {it.next(); count++;}
+        Assert.assertEquals(count, 3310 - 610);
+        Assert.assertEquals(it.getPagesRead(), 5);
+        Assert.assertEquals(events, Arrays.asList(
+            "L:/out", "L:/out/d2", "L:/out/d2/empty", "S:/out/d2/empty", "S:/out/d2",
+            "L:/out/d0", "S:/out/d0", "S:/out"));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* benchmarkTest:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test(groups={"performance"})
+    public void benchmarkTest() throws Exception
+    {
+        var includes = Arrays.asList("**/*.dat", "**/*.log", "results/**", "REGEX:.*summary.*");
+        var excludes = Arrays.asList("tapisjob.env", "**/scratch/**", "REGEX:.*\\.tmp");
+        for (int n : new int[] {100_000, 1_000_000}) benchmark(n, includes, excludes);
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* benchmark:                                                             */
+    /* ---------------------------------------------------------------------- */
+    private void benchmark(int n, List<String> includes, List<String> excludes) throws Exception
+    {
+        final String prefix = "/scratch1/06099/sal/tapis/1d0ede00-5b4e-4268-a78f-9a4458526fd3-007/";
+
+        // ----- Original: materialize the whole listing and filter it.
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        var fullList = new ArrayList<FileInfo>(n);
+        for (int i = 0; i < n; i++) fullList.add(syntheticFile(prefix, i));
+        long heapFull = usedHeap() - heapBefore;
+        var relPaths = new ArrayList<String>(n);
+        for (var f : fullList) relPaths.add(f.getPath().substring(prefix.length()));
+        fullList = null;
+        var legacyResult = legacyFilter(includes, excludes, relPaths);
+        long legacyNanos = System.nanoTime() - start;
+        relPaths = null;
+
+        // ----- Streaming: page through synthetic listing with the compiled matcher.
+        heapBefore = usedHeap();
+        start = System.nanoTime();
+        var matcher = ArchiveFilterMatcher.compile(includes, excludes);
+        var it = new FilesSubtreeIterator((path, limit, offset) -> {
+            var page = new ArrayList<FileInfo>(limit);
+            for (int i = offset; i < Math.min(n, offset + limit); i++) page.add(syntheticFile(prefix, i));
+            return page;
+        }, prefix, FilesSubtreeIterator.DEFAULT_PAGE_SIZE);
+        int streamCount = 0;
+        while (it.hasNext())
+            if (matcher.isArchived(it.next().getPath().substring(prefix.length()))) streamCount++;
+        long streamNanos = System.nanoTime() - start;
+        long heapPage = usedHeap() - heapBefore;
+
+        Assert.assertEquals(streamCount, legacyResult.size());
+        Reporter.log(String.format(
+            "n=%,d  legacy: %,d ms (%.0f paths/s), listing heap ~%,d KB;  " +
+            "streaming: %,d ms (%.0f paths/s), residual heap ~%,d KB;  archived=%,d",
+            n, legacyNanos / 1_000_000, n / (legacyNanos / 1e9), heapFull / 1024,
+            streamNanos / 1_000_000, n / (streamNanos / 1e9), Math.max(0, heapPage) / 1024,
+            streamCount));
+    }
+
+    private static void addFiles(Map<String,List<FileInfo>> tree, String dir, int count)
+    {
+        var listing = tree.computeIfAbsent(dir, k -> new ArrayList<>());
+        for (int i = 0; i < count; i++) {
+            var info = new FileInfo();
+            info.setPath(dir + "/f" + i);
+            info.setType(FileTypeEnum.FILE);
+            listing.add(info);
+        }
+    }
+
+    private static void addDir(Map<String,List<FileInfo>> tree, String dir, String subdir)
+    {
+        var info = new FileInfo();
+        info.setPath(subdir);
+        info.setType(FileTypeEnum.DIR);
+        tree.computeIfAbsent(dir, k -> new ArrayList<>()).add(info);
+    }
+
+    private static FileInfo syntheticFile(String prefix, int i)
+    {
+        var info = new FileInfo();
+        String name;
+        switch (i % 5) {
+            case 0:  name = "results/run" + (i % 97) + "/out" + i + ".dat"; break;
+            case 1:  name = "logs/step" + i + ".log"; break;
+            case 2:  name = "work/scratch/tmp" + i + ".bin"; break;
+            case 3:  name = "work/part" + i + ".tmp"; break;
+            default: name = "misc/summary" + i + ".txt";
+        }
+        info.setPath(prefix + name);
+        info.setSize((long) i);
+        return info;
+    }
+
+    private static long usedHeap()
+    {
+        System.gc();
+        var rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* legacyFilter:                                                          */
+    /* ---------------------------------------------------------------------- */
+    /** The original algorithm:  excludes are applied first, then includes, each
+     * filter being compiled into a per-call cache and globs being applied to
+     * Path objects.
+     */
+    private static List<String> legacyFilter(List<String> includes, List<String> excludes,
+                                             List<String> paths)
+    {
+        var result = new ArrayList<String>(paths);
+        applyFilters(excludes, result, true);
+        applyFilters(includes, result, false);
+        return result;
+    }
+
+    private static void applyFilters(List<String> filterList, List<String> fileList,
+                                     boolean isExcludes)
+    {
+        // Is there any work to do?
+        if (isExcludes) {
+            if (filterList.isEmpty()) return;
+        } else
+            if (filterList.isEmpty() || ArchiveFilterMatcher.matchesAll(filterList)) return;
+
+        HashMap<String,Pattern> regexes   = new HashMap<>();
+        HashMap<String,PathMatcher> globs = new HashMap<>();
+        final int lastFilterIndex = filterList.size() - 1;
+        var fileIt = fileList.listIterator();
+        while (fileIt.hasNext()) {
+            var path = fileIt.next();
+            for (int i = 0; i < filterList.size(); i++) {
+                String filter = filterList.get(i);
+                boolean matches;
+                if (filter.startsWith(JobFileManager.REGEX_FILTER_PREFIX)) {
+                    Pattern p = regexes.computeIfAbsent(filter,
+                        k -> Pattern.compile(k.substring(JobFileManager.REGEX_FILTER_PREFIX.length())));
+                    matches = p.matcher(path).matches();
+                } else {
+                    PathMatcher m = globs.computeIfAbsent(filter,
+                        k -> FileSystems.getDefault().getPathMatcher("glob:" + k));
+                    matches = m.matches(Paths.get(path));
+                }
+                if (isExcludes) {
+                    if (matches) {fileIt.remove(); break;}
+                } else {
+                    if (matches) break;
+                    if (i == lastFilterIndex) fileIt.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.files.client.gen.model.ReqTransferElement;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.ArchiveTransferChunker.ChunkBuilder;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.ArchiveTransferChunker.ChunkTransferOps;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.ArchiveTransferChunker.TransferChunk;
+import edu.utexas.tacc.tapis.shared.exceptions.TapisException;
+
+/** Test the splitting of archive elements into chunks, the bookkeeping used
+ * to resume chunked transfers, the transfer of chunks as they are produced,
+ * DTN moves and the handling of failed chunks.  A fake
+ * implementation of ChunkTransferOps stands in for Files and the database.
+ */
+@Test(groups={"unit"})
+public class ArchiveTransferChunkerTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* chunkByCountTest:                                                      */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void chunkByCountTest()
+    {
+        var elements = makeElements(25);
+        var chunks = ArchiveTransferChunker.makeChunks(elements, null, 10, 0);
+        Assert.assertEquals(chunks.size(), 3);
+        Assert.assertEquals(chunks.get(0).elements.size(), 10);
+        Assert.assertEquals(chunks.get(1).elements.size(), 10);
+        Assert.assertEquals(chunks.get(2).elements.size(), 5);
+        Assert.assertEquals(chunks.get(2).index, 2);
+
+        // Order is preserved across chunks.
+        var rejoined = new ArrayList<ReqTransferElement>();
+        for (var chunk : chunks) rejoined.addAll(chunk.elements);
+        Assert.assertEquals(rejoined, elements);
+
+        // Nothing in, nothing out.
+        Assert.assertTrue(ArchiveTransferChunker.makeChunks(new ArrayList<>(), null, 10, 0).isEmpty());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* chunkByBytesTest:                                                      */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void chunkByBytesTest()
+    {
+        // The third element is larger than the byte limit by itself, the
+        // last size is unknown.
+        var elements = makeElements(6);
+        List<Long> sizes = Arrays.asList(40L, 50L, 500L, 30L, 80L, null);
+        var chunks = ArchiveTransferChunker.makeChunks(elements, sizes, 100, 100);
+        Assert.assertEquals(chunks.size(), 4);
+        Assert.assertEquals(chunks.get(0).elements.size(), 2);
+        Assert.assertEquals(chunks.get(0).bytes, 90);
+        Assert.assertEquals(chunks.get(1).elements.size(), 1);
+        Assert.assertEquals(chunks.get(1).bytes, 500);
+        Assert.assertEquals(chunks.get(2).elements.size(), 1);
+        Assert.assertEquals(chunks.get(3).elements.size(), 2);
+        Assert.assertEquals(chunks.get(3).bytes, 80);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* stateTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void stateTest()
+    {
+        // The state survives a round trip through json.
+        var elements = makeElements(30);
+        var chunks = ArchiveTransferChunker.makeChunks(elements, null, 10, 0);
+        var state = new ArchiveTransferState("tag-1", chunks);
+        state.getChunk(1).transferId = "xfer-1";
+        state.setComplete(2);
+        var copy = ArchiveTransferState.fromJson(state.toJson());
+        Assert.assertEquals(copy.getTag(), "tag-1");
+        Assert.assertEquals(copy.getChunk(1).transferId, "xfer-1");
+        Assert.assertTrue(copy.getChunk(2).complete);
+        Assert.assertEquals(copy.getCompletedCount(), 1);
+        Assert.assertFalse(copy.isComplete());
+        Assert.assertNull(ArchiveTransferState.fromJson(" "));
+
+        // The unfinished chunks are recreated from their saved elements
+        // and the completed chunk's elements are no longer saved.
+        var saved = copy.getSavedChunks();
+        Assert.assertEquals(saved.size(), 3);
+        Assert.assertNull(copy.getChunk(2).elements);
+        Assert.assertTrue(saved.get(2).elements.isEmpty());
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(saved.get(i).index, i);
+            Assert.assertEquals(saved.get(i).elements.size(), 10);
+            for (int j = 0; j < 10; j++) {
+                Assert.assertEquals(saved.get(i).elements.get(j).getSourceURI(), 
+                                    elements.get(i * 10 + j).getSourceURI());
+                Assert.assertEquals(saved.get(i).elements.get(j).getDestinationURI(), 
+                                    elements.get(i * 10 + j).getDestinationURI());
+            }
+        }
+        
+        // A listed subtree replaces the listed subtrees within it and covers
+        // all of its directories.
+        state.addListedSubtree("a/b/c");
+        state.addListedSubtree("a/bc");
+        state.addListedSubtree("a/b");
+        state.addListedSubtree("a/b/d");
+        Assert.assertEquals(state.getListedSubtrees(), Arrays.asList("a/bc", "a/b"));
+        var listed = ArchiveTransferState.fromJson(state.toJson());
+        Assert.assertTrue(listed.isSubtreeListed("a/b"));
+        Assert.assertTrue(listed.isSubtreeListed("a/b/c"));
+        Assert.assertTrue(listed.isSubtreeListed("a/bc"));
+        Assert.assertFalse(listed.isSubtreeListed("a/bcd"));
+        Assert.assertFalse(listed.isSubtreeListed("a"));
+        listed.addListedSubtree(ArchiveTreeCollapser.ROOT);
+        Assert.assertTrue(listed.isSubtreeListed("a"));
+        Assert.assertEquals(listed.getListedSubtrees(), Arrays.asList(ArchiveTreeCollapser.ROOT));
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* concurrencyTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void concurrencyTest() throws TapisException
+    {
+        var chunks = ArchiveTransferChunker.makeChunks(makeElements(80), null, 10, 0);
+        var state = new ArchiveTransferState("tag", chunks);
+        var ops = new FakeOps();
+        ops.monitorMillis = 30;
+
+        new ArchiveTransferChunker(ops, 3).transfer(chunks, state);
+        Assert.assertEquals(ops.submitted.size(), 8);
+        Assert.assertTrue(state.isComplete());
+        Assert.assertTrue(ops.maxInFlight.get() <= 3, "Exceeded limit: " + ops.maxInFlight.get());
+        Assert.assertTrue(ops.maxInFlight.get() > 1, "No concurrency detected.");
+
+        // The last saved state shows every chunk complete with distinct tags.
+        var saved = ArchiveTransferState.fromJson(ops.lastSaved);
+        Assert.assertTrue(saved.isComplete());
+        var tags = new HashSet<String>();
+        for (var cs : saved.getChunks()) tags.add(cs.tag);
+        Assert.assertEquals(tags.size(), 8);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* resumeTest:                                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void resumeTest() throws TapisException
+    {
+        // Chunk 0 completed, chunk 1 was submitted, chunk 2 only has a tag
+        // (failure between saving the tag and getting the transfer id).
+        var chunks = ArchiveTransferChunker.makeChunks(makeElements(40), null, 10, 0);
+        var state = new ArchiveTransferState("tag", chunks);
+        state.getChunk(0).tag = "t0";
+        state.getChunk(0).transferId = "x0";
+        state.getChunk(0).complete = true;
+        state.getChunk(1).tag = "t1";
+        state.getChunk(1).transferId = "x1";
+        state.getChunk(2).tag = "t2";
+        var resumed = ArchiveTransferState.fromJson(state.toJson());
+
+        var ops = new FakeOps();
+        new ArchiveTransferChunker(ops, 2).transfer(chunks, resumed);
+
+        // Only chunks 2 and 3 are submitted, chunk 1 is only monitored.
+        Assert.assertEquals(new TreeSet<>(ops.submitted), new TreeSet<>(Arrays.asList(2, 3)));
+        Assert.assertTrue(ops.monitored.contains("x1"));
+        Assert.assertFalse(ops.monitored.contains("x0"));
+        Assert.assertEquals(resumed.getChunk(1).tag, "t1");
+        Assert.assertNotEquals(resumed.getChunk(2).tag, "t2");
+        Assert.assertTrue(resumed.isComplete());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* partialFailureTest:                                                    */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void partialFailureTest()
+    {
+        // The transfer for chunk 1 fails and chunk 3 cannot be submitted.
+        var chunks = ArchiveTransferChunker.makeChunks(makeElements(50), null, 10, 0);
+        var state = new ArchiveTransferState("tag", chunks);
+        var ops = new FakeOps();
+        ops.failMonitor.add(1);
+        ops.failSubmit.add(3);
+
+        TapisException thrown = null;
+        try {new ArchiveTransferChunker(ops, 2).transfer(chunks, state);}
+            catch (TapisException e) {thrown = e;}
+        Assert.assertNotNull(thrown);
+
+        // The remaining chunks still complete.
+        Assert.assertTrue(state.getChunk(0).complete);
+        Assert.assertTrue(state.getChunk(2).complete);
+        Assert.assertTrue(state.getChunk(4).complete);
+        Assert.assertFalse(state.getChunk(1).complete);
+        Assert.assertFalse(state.getChunk(3).complete);
+
+        // The failed transfer id is kept, but the chunk is resubmitted on 
+        // resume because its transfer failed.
+        var saved = ArchiveTransferState.fromJson(ops.lastSaved);
+        Assert.assertEquals(saved.getChunk(1).transferId, "x1");
+        Assert.assertEquals(saved.getCompletedCount(), 3);
+
+        // Resume resubmits only the failed chunks.
+        var ops2 = new FakeOps();
+        ops2.failed.addAll(ops.failed);
+        try {new ArchiveTransferChunker(ops2, 2).transfer(saved.getSavedChunks(), saved);}
+            catch (TapisException e) {Assert.fail("Resume failed", e);}
+        Assert.assertEquals(new TreeSet<>(ops2.submitted), new TreeSet<>(Arrays.asList(1, 3)));
+        Assert.assertTrue(saved.isComplete());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* monitorTimeoutTest:                                                    */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void monitorTimeoutTest()
+    {
+        // Monitoring chunk 1 times out while its transfer is still running.
+        var chunks = ArchiveTransferChunker.makeChunks(makeElements(30), null, 10, 0);
+        var state = new ArchiveTransferState("tag", chunks);
+        var ops = new FakeOps();
+        ops.timeoutMonitor.add(1);
+
+        TapisException thrown = null;
+        try {new ArchiveTransferChunker(ops, 2).transfer(chunks, state);}
+            catch (TapisException e) {thrown = e;}
+        Assert.assertNotNull(thrown);
+
+        // The transfer id is kept and the resumed job reattaches to the
+        // running transfer instead of starting a second copy.
+        var saved = ArchiveTransferState.fromJson(ops.lastSaved);
+        Assert.assertEquals(saved.getChunk(1).transferId, "x1");
+        var ops2 = new FakeOps();
+        try {new ArchiveTransferChunker(ops2, 2).transfer(saved.getSavedChunks(), saved);}
+            catch (TapisException e) {Assert.fail("Resume failed", e);}
+        Assert.assertTrue(ops2.submitted.isEmpty());
+        Assert.assertEquals(ops2.monitored, Arrays.asList("x1"));
+        Assert.assertTrue(saved.isComplete());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* streamingTest:                                                         */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void streamingTest() throws TapisException
+    {
+        // Chunks are transferred as the builder produces them, so at most
+        // the concurrency limit plus the chunk being built are in memory.
+        var state = new ArchiveTransferState("tag");
+        var ops = new FakeOps();
+        ops.monitorMillis = 20;
+        var chunker = new ArchiveTransferChunker(ops, 2);
+        chunker.start(state);
+        var builder = new ChunkBuilder(10, 0, state.getChunkCount(), chunker::add);
+        var elements = makeElements(95);
+        for (int i = 0; i < elements.size(); i++) {
+            builder.add(elements.get(i), null, 1L);
+
+            // Chunks start before the last element is produced.
+            if (i == 50) Assert.assertTrue(ops.submitted.size() >= 3, "Chunks not started: " + ops.submitted);
+        }
+        builder.flush();
+        state.setListingComplete(true);
+        chunker.await();
+
+        Assert.assertEquals(builder.getNextIndex(), 10);
+        Assert.assertEquals(ops.submitted.size(), 10);
+        Assert.assertTrue(ops.maxInFlight.get() <= 2, "Exceeded limit: " + ops.maxInFlight.get());
+        Assert.assertTrue(state.isComplete());
+        Assert.assertEquals(state.getChunk(9).bytes, 5);
+
+        // A state whose listing didn't finish is never complete.
+        var partial = new ArchiveTransferState("tag", new ArrayList<>());
+        Assert.assertTrue(partial.isComplete());
+        partial.setListingComplete(false);
+        Assert.assertFalse(ArchiveTransferState.fromJson(partial.toJson()).isComplete());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* dtnMoveTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void dtnMoveTest() throws TapisException
+    {
+        // Each chunk's files are moved to the DTN before they are archived.
+        var state = new ArchiveTransferState("tag");
+        var ops = new FakeOps();
+        ops.failMonitorIds.add("m1");
+        var chunker = new ArchiveTransferChunker(ops, 1);
+        chunker.start(state);
+        var builder = new ChunkBuilder(10, 0, 0, chunker::add);
+        var elements = makeElements(30);
+        var moves = makeElements(30);
+        for (int i = 0; i < elements.size(); i++) builder.add(elements.get(i), moves.get(i), null);
+        builder.flush();
+        state.setListingComplete(true);
+
+        TapisException thrown = null;
+        try {chunker.await();} catch (TapisException e) {thrown = e;}
+        Assert.assertNotNull(thrown);
+        Assert.assertEquals(ops.events, Arrays.asList("m0", "x0", "m1", "m2", "x2"));
+
+        // The failed move is resubmitted on resume, followed by its archive.  
+        // Completed moves are not repeated.
+        var saved = ArchiveTransferState.fromJson(ops.lastSaved);
+        Assert.assertTrue(saved.getChunk(0).move.complete);
+        Assert.assertNull(saved.getChunk(0).move.elements);
+        Assert.assertFalse(saved.getChunk(1).move.complete);
+        var savedChunks = saved.getSavedChunks();
+        Assert.assertNull(savedChunks.get(2).moveElements);
+        Assert.assertEquals(savedChunks.get(1).moveElements.size(), 10);
+        var ops2 = new FakeOps();
+        ops2.failed.addAll(ops.failed);
+        new ArchiveTransferChunker(ops2, 2).transfer(savedChunks, saved);
+        Assert.assertEquals(ops2.events, Arrays.asList("m1", "x1"));
+        Assert.assertTrue(saved.isComplete());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* abortTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void abortTest()
+    {
+        // A runtime exception (e.g., a cancel command) in one chunk's monitor
+        // cancels the in-flight transfers and prevents new chunks from starting.
+        var chunks = ArchiveTransferChunker.makeChunks(makeElements(100), null, 10, 0);
+        var state = new ArchiveTransferState("tag", chunks);
+        var ops = new FakeOps();
+        ops.monitorMillis = 100;
+        ops.abortMonitor.add(0);
+
+        RuntimeException thrown = null;
+        try {new ArchiveTransferChunker(ops, 2).transfer(chunks, state);}
+            catch (RuntimeException e) {thrown = e;}
+            catch (TapisException e) {Assert.fail("Unexpected exception", e);}
+        Assert.assertNotNull(thrown);
+        Assert.assertFalse(ops.cancelled.isEmpty());
+        Assert.assertTrue(ops.submitted.size() < chunks.size());
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    private static List<ReqTransferElement> makeElements(int n)
+    {
+        var list = new ArrayList<ReqTransferElement>(n);
+        for (int i = 0; i < n; i++)
+            list.add(new ReqTransferElement().
+                     sourceURI("tapis://exec/work/out/f" + i).
+                     destinationURI("tapis://archive/jobs/out/f" + i));
+        return list;
+    }
+
+    /* ********************************************************************** */
+    /*                             Nested Classes                             */
+    /* ********************************************************************** */
+    /** Simulate Files and the database.  Transfer ids are "x" + chunk index. */
+    private static final class FakeOps implements ChunkTransferOps
+    {
+        final List<Integer>        submitted   = Collections.synchronizedList(new ArrayList<>());
+        final List<String>         monitored   = Collections.synchronizedList(new ArrayList<>());
+        final List<String>         cancelled   = Collections.synchronizedList(new ArrayList<>());
+        final Set<Integer>         failSubmit  = ConcurrentHashMap.newKeySet();
+        final Set<Integer>         failMonitor = ConcurrentHashMap.newKeySet();
+        final Set<Integer>         abortMonitor = ConcurrentHashMap.newKeySet();
+        final Set<Integer>         timeoutMonitor = ConcurrentHashMap.newKeySet();
+        final Set<String>          failMonitorIds = ConcurrentHashMap.newKeySet();
+        final Set<String>          failed      = ConcurrentHashMap.newKeySet();
+        final List<String>         events      = Collections.synchronizedList(new ArrayList<>());
+        final Map<String,Integer>  idToChunk   = new ConcurrentHashMap<>();
+        final AtomicInteger        inFlight    = new AtomicInteger();
+        final AtomicInteger        maxInFlight = new AtomicInteger();
+        volatile long              monitorMillis;
+        volatile String            lastSaved;
+
+        @Override
+        public String submit(TransferChunk chunk, String tag) throws TapisException
+        {
+            if (failSubmit.remove(chunk.index)) throw new TapisException("submit failed: " + chunk.index);
+            submitted.add(chunk.index);
+            var id = "x" + chunk.index;
+            idToChunk.put(id, chunk.index);
+            events.add(id);
+            return id;
+        }
+
+        @Override
+        public String submitMove(TransferChunk chunk, String tag)
+        {
+            var id = "m" + chunk.index;
+            events.add(id);
+            return id;
+        }
+
+        @Override
+        public void monitor(String transferId, String tag) throws TapisException
+        {
+            monitored.add(transferId);
+            int n = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(n, Math::max);
+            try {
+                if (monitorMillis > 0)
+                    try {Thread.sleep(monitorMillis);} catch (InterruptedException e) {}
+                Integer index = idToChunk.get(transferId);
+                if (index != null && abortMonitor.remove(index))
+                    throw new IllegalStateException("cancelled: " + transferId);
+                if (cancelled.contains(transferId))
+                    throw new TapisException("transfer cancelled: " + transferId);
+                if (index != null && timeoutMonitor.remove(index))
+                    throw new TapisException("monitoring timed out: " + transferId);
+                if (failMonitorIds.remove(transferId) || index != null && failMonitor.remove(index)) {
+                    failed.add(transferId);
+                    throw new TapisException("transfer failed: " + transferId);
+                }
+            }
+            finally {inFlight.decrementAndGet();}
+        }
+
+        @Override
+        public boolean isFailed(String transferId) {return failed.contains(transferId);}
+
+        @Override
+        public void cancel(String transferId) {cancelled.add(transferId);}
+
+        @Override
+        public void saveState(ArchiveTransferState state) {lastSaved = state.toJson();}
+    }
+}
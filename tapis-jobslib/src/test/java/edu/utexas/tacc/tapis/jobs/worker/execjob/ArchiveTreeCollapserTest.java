@@ -0,0 +1,379 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.jobs.worker.execjob.ArchiveTreeCollapser.Entry;
+
+/** Test that collapsing fully archived subtrees into directory entries results
+ * in exactly the same files and directories being transferred as the per-file
+ * expansion.  Synthetic directory trees are generated and filtered, and the
+ * collapsed entries are expanded against the tree for comparison.
+ */
+@Test(groups={"unit"})
+public class ArchiveTreeCollapserTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* basicTest:                                                             */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void basicTest()
+    {
+        // Tree:  a.txt, b.log, data/x.dat, data/y.dat, logs/1.log, logs/2.tmp,
+        //        logs/old/3.log, empty/
+        var dirs = Arrays.asList("data", "logs", "logs/old", "empty");
+
+        // Everything but the .tmp file is archived.
+        var archived = Arrays.asList("a.txt", "b.log", "data/x.dat", "data/y.dat",
+                                     "logs/1.log", "logs/old/3.log");
+        var sizes = Arrays.asList(1L, 2L, 10L, 20L, 3L, 4L);
+        var rejected = new HashSet<>(Arrays.asList("logs"));
+        var entries = ArchiveTreeCollapser.collapse(archived, sizes, rejected, dirs);
+        Assert.assertEquals(entries.toString(),
+            "[file:a.txt, file:b.log, dir:data, file:logs/1.log, dir:logs/old]");
+        Assert.assertEquals(entries.get(2).bytes, 30);
+        Assert.assertEquals(entries.get(2).fileCount, 2);
+
+        // With nothing rejected, only the empty directory prevents collapsing the root.
+        archived = Arrays.asList("a.txt", "data/x.dat");
+        entries = ArchiveTreeCollapser.collapse(archived, null, new HashSet<>(), dirs.subList(0, 1));
+        Assert.assertEquals(entries.toString(), "[dir:]");
+        entries = ArchiveTreeCollapser.collapse(archived, null, new HashSet<>(), dirs);
+        Assert.assertEquals(entries.toString(), "[file:a.txt, dir:data]");
+
+        // Nothing archived.
+        Assert.assertTrue(ArchiveTreeCollapser.collapse(new ArrayList<>(), null,
+                                                        new HashSet<>(), dirs).isEmpty());
+
+        // Trailing slashes on directory names are ignored.
+        entries = ArchiveTreeCollapser.collapse(Arrays.asList("data/x.dat", "top"), null,
+                                                new HashSet<>(Arrays.asList("")),
+                                                Arrays.asList("data/", "logs/"));
+        Assert.assertEquals(entries.toString(), "[dir:data, file:top]");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* equivalenceTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void equivalenceTest()
+    {
+        var random = new Random(20240611L);
+        int collapsedTrees = 0;
+        for (int trial = 0; trial < 500; trial++) {
+            // Build a random tree and a random filter result.
+            var files = new ArrayList<String>();
+            var dirs  = new ArrayList<String>();
+            makeTree(random, "", 0, 1 + random.nextInt(4), files, dirs);
+            double acceptRate = trial % 5 == 0 ? 1.0 : random.nextDouble();
+
+            var archived = new ArrayList<String>();
+            var rejectedParents = new HashSet<String>();
+            for (var f : files)
+                if (random.nextDouble() < acceptRate) archived.add(f);
+                  else rejectedParents.add(ArchiveTreeCollapser.parentOf(f));
+
+            // Compare the per-file expansion with the collapsed expansion.
+            var entries = ArchiveTreeCollapser.collapse(archived, null, rejectedParents, dirs);
+            var expandedFiles = new TreeSet<String>();
+            var expandedDirs  = new TreeSet<String>();
+            for (var e : entries) expand(e, files, dirs, expandedFiles, expandedDirs);
+
+            var expectedDirs = new TreeSet<String>();
+            for (var f : archived) addAncestors(f, expectedDirs);
+            Assert.assertEquals(expandedFiles, new TreeSet<>(archived), "trial " + trial);
+            Assert.assertEquals(expandedDirs, expectedDirs, "trial " + trial);
+            Assert.assertTrue(entries.size() <= archived.size());
+            if (entries.size() < archived.size()) collapsedTrees++;
+        }
+
+        // Make sure the test actually exercised collapsing.
+        Assert.assertTrue(collapsedTrees > 50, "collapsed trees: " + collapsedTrees);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* incrementalTest:                                                       */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void incrementalTest()
+    {
+        var random = new Random(20240612L);
+        for (int trial = 0; trial < 500; trial++) {
+            // Build a random tree and a random filter result.
+            var files = new ArrayList<String>();
+            var dirs  = new ArrayList<String>();
+            makeTree(random, "", 0, 1 + random.nextInt(4), files, dirs);
+            double acceptRate = trial % 5 == 0 ? 1.0 : random.nextDouble();
+            var archivedSet = new HashSet<String>();
+            for (var f : files) if (random.nextDouble() < acceptRate) archivedSet.add(f);
+
+            // The batch result.
+            var archived = new ArrayList<String>();
+            var sizes = new ArrayList<Long>();
+            var rejectedParents = new HashSet<String>();
+            for (var f : files)
+                if (archivedSet.contains(f)) {archived.add(f); sizes.add((long) f.length());}
+                  else rejectedParents.add(ArchiveTreeCollapser.parentOf(f));
+            var expected = new TreeSet<String>();
+            for (var e : ArchiveTreeCollapser.collapse(archived, sizes, rejectedParents, dirs))
+                expected.add(e + "/" + e.bytes + "/" + e.fileCount);
+
+            // The incremental result from a depth first listing.
+            var actual = new TreeSet<String>();
+            var collapser = new ArchiveTreeCollapser.Incremental(
+                                e -> Assert.assertTrue(actual.add(e + "/" + e.bytes + "/" + e.fileCount)));
+            listDepthFirst(ArchiveTreeCollapser.ROOT, files, dirs, archivedSet, collapser);
+            collapser.finish();
+            Assert.assertEquals(actual, expected, "trial " + trial);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* capTest:                                                               */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void capTest()
+    {
+        // Nothing is rejected:  50 files in the output directory and 
+        // 20 subdirectories of 100 files each.
+        var files = new ArrayList<String>();
+        var dirs  = new ArrayList<String>();
+        for (int i = 0; i < 50; i++) files.add("f" + i);
+        for (int d = 0; d < 20; d++) {
+            dirs.add("d" + d);
+            for (int i = 0; i < 100; i++) files.add("d" + d + "/f" + i);
+        }
+        
+        // Holding at most 150 entries releases them before the listing ends.
+        var emitted = new ArrayList<Entry>();
+        var collapser = new ArchiveTreeCollapser.Incremental(emitted::add, 150);
+        listDepthFirst(ArchiveTreeCollapser.ROOT, files, dirs, new HashSet<>(files), collapser);
+        int beforeFinish = emitted.size();
+        collapser.finish();
+        Assert.assertEquals(beforeFinish, emitted.size());
+        
+        // The output directory and the first subdirectory listed were open when
+        // the cap was reached, so their files are sent individually.  The other
+        // subdirectories still collapse.
+        int dirEntries = 0;
+        for (var e : emitted) if (e.isDirectory) dirEntries++;
+        Assert.assertEquals(dirEntries, 19);
+        Assert.assertEquals(emitted.size(), 19 + 50 + 100);
+        assertSameTransfer(emitted, files, dirs, files);
+        
+        // Small caps on random trees still transfer exactly the archived files.
+        var random = new Random(20240613L);
+        for (int trial = 0; trial < 200; trial++) {
+            files = new ArrayList<String>();
+            dirs  = new ArrayList<String>();
+            makeTree(random, "", 0, 1 + random.nextInt(4), files, dirs);
+            var archivedSet = new HashSet<String>();
+            for (var f : files) if (trial % 2 == 0 || random.nextBoolean()) archivedSet.add(f);
+            
+            var entries = new ArrayList<Entry>();
+            collapser = new ArchiveTreeCollapser.Incremental(entries::add, 1 + trial % 5);
+            listDepthFirst(ArchiveTreeCollapser.ROOT, files, dirs, archivedSet, collapser);
+            collapser.finish();
+            assertSameTransfer(entries, files, dirs, archivedSet);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* resumeTest:                                                            */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void resumeTest()
+    {
+        var random = new Random(20240614L);
+        for (int trial = 0; trial < 300; trial++) {
+            var files = new ArrayList<String>();
+            var dirs  = new ArrayList<String>();
+            makeTree(random, "", 0, 1 + random.nextInt(4), files, dirs);
+            var archivedSet = new HashSet<String>();
+            for (var f : files) if (trial % 3 == 0 || random.nextBoolean()) archivedSet.add(f);
+            
+            // Interrupt the first listing after a random number of files and
+            // record the subtrees whose entries have all been released.
+            var state = new ArchiveTransferState("tag");
+            var first = new ArrayList<Entry>();
+            var collapser = new ArchiveTreeCollapser.Incremental(e -> {
+                first.add(e);
+                if (e.isDirectory) state.addListedSubtree(e.path);
+            }, 1 + trial % 7);
+            var budget = new int[] {random.nextInt(files.size() + 1)};
+            listUntil(ArchiveTreeCollapser.ROOT, files, dirs, archivedSet, collapser, state, budget);
+            var resumed = ArchiveTransferState.fromJson(state.toJson());
+            
+            // The resumed listing skips the listed subtrees.
+            var second = new ArrayList<Entry>();
+            collapser = new ArchiveTreeCollapser.Incremental(second::add, 1 + trial % 7);
+            listSkipping(ArchiveTreeCollapser.ROOT, files, dirs, archivedSet, collapser, resumed);
+            collapser.finish();
+            
+            // Together the listings transfer exactly the archived files and the
+            // resumed listing transfers none of the files in listed subtrees.
+            var firstFiles  = new TreeSet<String>();
+            var secondFiles = new TreeSet<String>();
+            var outDirs     = new TreeSet<String>();
+            for (var e : first) expand(e, files, dirs, firstFiles, outDirs);
+            for (var e : second) expand(e, files, dirs, secondFiles, outDirs);
+            var allFiles = new TreeSet<String>(firstFiles);
+            allFiles.addAll(secondFiles);
+            Assert.assertEquals(allFiles, new TreeSet<>(archivedSet), "trial " + trial);
+            for (var f : secondFiles) {
+                var dir = ArchiveTreeCollapser.parentOf(f);
+                while (!dir.isEmpty()) {
+                    Assert.assertFalse(resumed.isSubtreeListed(dir), "trial " + trial + ": " + f);
+                    dir = ArchiveTreeCollapser.parentOf(dir);
+                }
+            }
+        }
+    }
+
+    /* ********************************************************************** */
+    /*                            Private Methods                             */
+    /* ********************************************************************** */
+    /* ---------------------------------------------------------------------- */
+    /* makeTree:                                                              */
+    /* ---------------------------------------------------------------------- */
+    private static void makeTree(Random random, String dir, int depth, int maxDepth,
+                                 List<String> files, List<String> dirs)
+    {
+        String prefix = dir.isEmpty() ? "" : dir + "/";
+        int nfiles = random.nextInt(4);
+        for (int i = 0; i < nfiles; i++) files.add(prefix + "f" + i);
+        if (depth >= maxDepth) return;
+        int ndirs = random.nextInt(4);
+        for (int i = 0; i < ndirs; i++) {
+            var sub = prefix + "d" + i;
+            dirs.add(sub);
+            makeTree(random, sub, depth + 1, maxDepth, files, dirs);
+        }
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* listDepthFirst:                                                        */
+    /* ---------------------------------------------------------------------- */
+    /** Feed a directory's files to the collapser, then its subdirectories in 
+     * reverse order as FilesSubtreeIterator does, and then complete it.  The
+     * output directory is left for finish() to complete. */
+    private static void listDepthFirst(String dir, List<String> files, List<String> dirs,
+                                       Set<String> archived, ArchiveTreeCollapser.Incremental collapser)
+    {
+        var subdirs = new ArrayList<String>();
+        for (var f : files) 
+            if (ArchiveTreeCollapser.parentOf(f).equals(dir))
+                collapser.addFile(f, (long) f.length(), archived.contains(f));
+        for (var d : dirs) if (ArchiveTreeCollapser.parentOf(d).equals(dir)) subdirs.add(d);
+        for (int i = subdirs.size() - 1; i >= 0; i--) 
+            listDepthFirst(subdirs.get(i), files, dirs, archived, collapser);
+        if (!dir.isEmpty()) collapser.completeDirectory(dir);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* listUntil:                                                             */
+    /* ---------------------------------------------------------------------- */
+    /** List depth first until the budget of files is spent, recording the
+     * completed directories whose entries have all been released.
+     * 
+     * @return false if the listing was interrupted */
+    private static boolean listUntil(String dir, List<String> files, List<String> dirs,
+                                     Set<String> archived, ArchiveTreeCollapser.Incremental collapser,
+                                     ArchiveTransferState state, int[] budget)
+    {
+        var subdirs = new ArrayList<String>();
+        for (var f : files) 
+            if (ArchiveTreeCollapser.parentOf(f).equals(dir)) {
+                if (budget[0]-- <= 0) return false;
+                collapser.addFile(f, (long) f.length(), archived.contains(f));
+            }
+        for (var d : dirs) if (ArchiveTreeCollapser.parentOf(d).equals(dir)) subdirs.add(d);
+        for (int i = subdirs.size() - 1; i >= 0; i--) 
+            if (!listUntil(subdirs.get(i), files, dirs, archived, collapser, state, budget)) 
+                return false;
+        if (!dir.isEmpty() && collapser.completeDirectory(dir)) state.addListedSubtree(dir);
+        return true;
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* listSkipping:                                                          */
+    /* ---------------------------------------------------------------------- */
+    /** List depth first without the subtrees listed in the state. */
+    private static void listSkipping(String dir, List<String> files, List<String> dirs,
+                                     Set<String> archived, ArchiveTreeCollapser.Incremental collapser,
+                                     ArchiveTransferState state)
+    {
+        if (state.isSubtreeListed(dir)) {collapser.skipDirectory(dir); return;}
+        var subdirs = new ArrayList<String>();
+        for (var f : files) 
+            if (ArchiveTreeCollapser.parentOf(f).equals(dir))
+                collapser.addFile(f, (long) f.length(), archived.contains(f));
+        for (var d : dirs) if (ArchiveTreeCollapser.parentOf(d).equals(dir)) subdirs.add(d);
+        for (int i = subdirs.size() - 1; i >= 0; i--) 
+            listSkipping(subdirs.get(i), files, dirs, archived, collapser, state);
+        if (!dir.isEmpty()) collapser.completeDirectory(dir);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* expand:                                                                */
+    /* ---------------------------------------------------------------------- */
+    /** Simulate a Files copy of the entry, recording every file and directory
+     * created at the destination (excluding the destination root). */
+    private static void expand(Entry e, List<String> files, List<String> dirs,
+                               Set<String> outFiles, Set<String> outDirs)
+    {
+        if (!e.isDirectory) {
+            outFiles.add(e.path);
+            addAncestors(e.path, outDirs);
+            return;
+        }
+        var prefix = e.path.isEmpty() ? "" : e.path + "/";
+        if (!e.path.isEmpty()) {outDirs.add(e.path); addAncestors(e.path, outDirs);}
+        for (var f : files) if (f.startsWith(prefix)) {outFiles.add(f); addAncestors(f, outDirs);}
+        for (var d : dirs) if (d.startsWith(prefix)) outDirs.add(d);
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* assertSameTransfer:                                                    */
+    /* ---------------------------------------------------------------------- */
+    /** Check that the entries copy exactly the archived files and their
+     * directories, with no file sent twice. */
+    private static void assertSameTransfer(List<Entry> entries, List<String> files, 
+                                           List<String> dirs, Collection<String> archived)
+    {
+        var expandedFiles = new TreeSet<String>();
+        var expandedDirs  = new TreeSet<String>();
+        int fileCount = 0;
+        for (var e : entries) {
+            expand(e, files, dirs, expandedFiles, expandedDirs);
+            fileCount += e.fileCount;
+        }
+        var expectedDirs = new TreeSet<String>();
+        for (var f : archived) addAncestors(f, expectedDirs);
+        Assert.assertEquals(expandedFiles, new TreeSet<>(archived));
+        Assert.assertEquals(expandedDirs, expectedDirs);
+        Assert.assertEquals(fileCount, archived.size());
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* addAncestors:                                                          */
+    /* ---------------------------------------------------------------------- */
+    /** Add the proper ancestor directories of a path, excluding the root. */
+    private static void addAncestors(String path, Set<String> set)
+    {
+        int slash = path.indexOf('/');
+        while (slash > 0) {
+            set.add(path.substring(0, slash));
+            slash = path.indexOf('/', slash + 1);
+        }
+    }
+}
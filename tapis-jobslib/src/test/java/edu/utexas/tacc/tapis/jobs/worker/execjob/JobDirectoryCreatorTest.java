@@ -0,0 +1,117 @@
+package edu.utexas.tacc.tapis.jobs.worker.execjob;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import edu.utexas.tacc.tapis.client.shared.exceptions.TapisClientException;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.JobDirectoryCreator.MkdirFunction;
+import edu.utexas.tacc.tapis.jobs.worker.execjob.JobDirectoryCreator.MkdirRequest;
+
+/** Test directory collapsing and the concurrency limits of JobDirectoryCreator.
+ * A fake mkdir function stands in for FilesClient.mkdir().
+ */
+@Test(groups={"unit"})
+public class JobDirectoryCreatorTest
+{
+    /* ---------------------------------------------------------------------- */
+    /* collapseTest:                                                          */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void collapseTest()
+    {
+        // A typical job layout with input and output under the exec dir.
+        var requests = new ArrayList<MkdirRequest>();
+        requests.add(new MkdirRequest("exec", "host", "/jobs/abc", ""));
+        requests.add(new MkdirRequest("exec", "host", "/jobs/abc/output", ""));
+        requests.add(new MkdirRequest("exec", "host", "/jobs/abc/", ""));       // duplicate
+        requests.add(new MkdirRequest("exec", "host", "/jobs/abcdef", ""));     // not a child
+        requests.add(new MkdirRequest("archive", "ahost", "/jobs/abc", ""));   // other system
+
+        var leaves = JobDirectoryCreator.collapse(requests);
+        Assert.assertEquals(leaves.size(), 3);
+        Assert.assertEquals(leaves.get(0).dir, "/jobs/abc/output");
+        Assert.assertEquals(leaves.get(1).dir, "/jobs/abcdef");
+        Assert.assertEquals(leaves.get(2).systemId, "archive");
+
+        // Ancestors with a different sharing context must be created separately.
+        requests.clear();
+        requests.add(new MkdirRequest("exec", "host", "/jobs/abc", "appOwner"));
+        requests.add(new MkdirRequest("exec", "host", "/jobs/abc/output", ""));
+        leaves = JobDirectoryCreator.collapse(requests);
+        Assert.assertEquals(leaves.size(), 2);
+
+        // The root is an ancestor of everything.
+        requests.clear();
+        requests.add(new MkdirRequest("exec", "host", "/", ""));
+        requests.add(new MkdirRequest("exec", "host", "/a", ""));
+        leaves = JobDirectoryCreator.collapse(requests);
+        Assert.assertEquals(leaves.size(), 1);
+        Assert.assertEquals(leaves.get(0).dir, "/a");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* concurrencyLimitTest:                                                  */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void concurrencyLimitTest() throws InterruptedException
+    {
+        // Track the number of calls in flight.
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var calls = Collections.synchronizedList(new ArrayList<String>());
+        MkdirFunction fn = (systemId, dir, sharedAppCtx) -> {
+            int n = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(n, Math::max);
+            try {Thread.sleep(50);} catch (InterruptedException e) {}
+            calls.add(dir);
+            inFlight.decrementAndGet();
+        };
+
+        // Eight independent leaf directories.
+        var requests = new ArrayList<MkdirRequest>();
+        for (int i = 0; i < 8; i++)
+            requests.add(new MkdirRequest("sys" + i, "host", "/dir" + i, ""));
+
+        var creator = new JobDirectoryCreator(fn, 3);
+        var failures = creator.createDirectories(requests);
+        Assert.assertTrue(failures.isEmpty());
+        Assert.assertEquals(calls.size(), 8);
+        Assert.assertTrue(maxInFlight.get() <= 3, "Exceeded limit: " + maxInFlight.get());
+        Assert.assertTrue(maxInFlight.get() > 1, "No concurrency detected.");
+    }
+
+    /* ---------------------------------------------------------------------- */
+    /* failureTest:                                                           */
+    /* ---------------------------------------------------------------------- */
+    @Test
+    public void failureTest() throws InterruptedException
+    {
+        // Fail two of the directories.
+        var calls = Collections.synchronizedList(new ArrayList<String>());
+        MkdirFunction fn = (systemId, dir, sharedAppCtx) -> {
+            calls.add(dir);
+            if (dir.endsWith("bad")) throw new TapisClientException("mkdir failed: " + dir);
+        };
+
+        List<MkdirRequest> requests = new ArrayList<>();
+        requests.add(new MkdirRequest("exec", "host1", "/ok", ""));
+        requests.add(new MkdirRequest("exec", "host1", "/first/bad", ""));
+        requests.add(new MkdirRequest("dtn", "host2", "/second/bad", ""));
+
+        var failures = new JobDirectoryCreator(fn).createDirectories(requests);
+
+        // All directories are attempted and failures are reported in order.
+        Assert.assertEquals(calls.size(), 3);
+        Assert.assertEquals(failures.size(), 2);
+        Assert.assertEquals(failures.get(0).request.dir, "/first/bad");
+        Assert.assertEquals(failures.get(0).request.host, "host1");
+        Assert.assertEquals(failures.get(1).request.dir, "/second/bad");
+        Assert.assertEquals(failures.get(1).request.host, "host2");
+        Assert.assertTrue(failures.get(0).cause instanceof TapisClientException);
+    }
+}
@@ -0,0 +1,3 @@
+-- Record the progress of archive transfers that are split into multiple Files transfer tasks.
+
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS archive_transfer_state text;
@@ -0,0 +1,5 @@
+-- Support keyset pagination of a job's history (WHERE job_uuid = ? AND id > ? ORDER BY id).
+-- The composite index also serves lookups on job_uuid alone, so it replaces the single column index.
+
+CREATE INDEX IF NOT EXISTS job_events_job_uuid_id_idx ON job_events (job_uuid, id);
+DROP INDEX IF EXISTS job_events_job_uuid_idx;
@@ -0,0 +1,72 @@
+-- Convert job_events into a table that is range partitioned by month on created.
+-- Queries that restrict created only touch the relevant partitions and old months
+-- can be detached or dropped without bloating the active partitions' indexes.
+--
+-- The partition key must be part of the primary key, so the key becomes (id, created).
+-- The foreign key to jobs is not recreated so that events outlive jobs moved to the
+-- jobs_archive table.  New monthly partitions are created ahead of time by the jobs
+-- maintenance task using job_events_create_partitions(); rows outside all monthly
+-- partitions land in job_events_default.
+
+-- Move the existing table aside and keep its id sequence.
+ALTER TABLE job_events RENAME TO job_events_unpartitioned;
+ALTER SEQUENCE job_events_id_seq OWNED BY NONE;
+
+CREATE TABLE job_events
+(
+  id                          bigint NOT NULL DEFAULT nextval('job_events_id_seq'),
+  event                       job_event_enum NOT NULL,
+  created                     timestamp without time zone NOT NULL DEFAULT (now() at time zone 'utc'),
+  job_uuid                    character varying(64) NOT NULL,
+  event_detail                character varying(64) NOT NULL,
+  oth_uuid                    character varying(64),
+  description                 character varying(16384) NOT NULL,
+  tenant                      character varying(24) NOT NULL DEFAULT 'unknown',
+  PRIMARY KEY (id, created)
+) PARTITION BY RANGE (created);
+ALTER TABLE job_events OWNER TO tapis;
+
+CREATE TABLE job_events_default PARTITION OF job_events DEFAULT;
+ALTER TABLE job_events_default OWNER TO tapis;
+
+-- Create any missing monthly partitions from first_month through months_ahead
+-- months past the current month.  Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION job_events_create_partitions(first_month date, months_ahead integer)
+RETURNS integer AS $$
+DECLARE
+  month_start date := date_trunc('month', first_month)::date;
+  last_month  date := (date_trunc('month', now() at time zone 'utc')
+                       + make_interval(months => months_ahead))::date;
+  part_name   text;
+  num_created integer := 0;
+BEGIN
+  WHILE month_start <= last_month LOOP
+    part_name := 'job_events_' || to_char(month_start, 'YYYYMM');
+    IF to_regclass(part_name) IS NULL THEN
+      EXECUTE format('CREATE TABLE %I PARTITION OF job_events FOR VALUES FROM (%L) TO (%L)',
+                     part_name, month_start, (month_start + interval '1 month')::date);
+      num_created := num_created + 1;
+    END IF;
+    month_start := (month_start + interval '1 month')::date;
+  END LOOP;
+  RETURN num_created;
+END;
+$$ LANGUAGE plpgsql;
+ALTER FUNCTION job_events_create_partitions(date, integer) OWNER TO tapis;
+
+-- Partitions cover all existing events and the next few months.
+SELECT job_events_create_partitions(
+  (SELECT COALESCE(min(created), now() at time zone 'utc') FROM job_events_unpartitioned)::date, 3);
+
+-- Copy the events, drop the old table and reattach the sequence.
+INSERT INTO job_events (id, event, created, job_uuid, event_detail, oth_uuid, description, tenant)
+  SELECT id, event, created, job_uuid, event_detail, oth_uuid, description, tenant
+  FROM job_events_unpartitioned;
+DROP TABLE job_events_unpartitioned;
+ALTER SEQUENCE job_events_id_seq OWNED BY job_events.id;
+
+-- Indexes are created on every partition.
+CREATE INDEX job_events_event_idx ON job_events (event);
+CREATE INDEX job_events_created_idx ON job_events (created);
+CREATE INDEX job_events_event_detail_idx ON job_events (event_detail);
+CREATE INDEX job_events_job_uuid_id_idx ON job_events (job_uuid, id);
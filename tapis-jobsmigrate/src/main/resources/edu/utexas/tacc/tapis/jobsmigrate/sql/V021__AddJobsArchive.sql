@@ -0,0 +1,21 @@
+-- Index only the jobs that are still active.  Terminal jobs make up most of the
+-- table, so queries on active statuses use a much smaller index.
+CREATE INDEX IF NOT EXISTS jobs_active_status_idx ON jobs (status)
+  WHERE status NOT IN ('FINISHED', 'CANCELLED', 'FAILED');
+
+-- Terminal jobs older than a configured age are moved from jobs into jobs_archive
+-- by the jobs maintenance task.  The archive has the same columns in the same order
+-- as jobs, so columns added to jobs in later migrations must be added here too.
+CREATE TABLE IF NOT EXISTS jobs_archive (LIKE jobs);
+ALTER TABLE jobs_archive OWNER TO tapis;
+ALTER TABLE jobs_archive ADD PRIMARY KEY (id);
+CREATE UNIQUE INDEX IF NOT EXISTS jobs_archive_uuid_idx ON jobs_archive (uuid);
+CREATE INDEX IF NOT EXISTS jobs_archive_tenant_owner_idx ON jobs_archive (tenant, owner);
+CREATE INDEX IF NOT EXISTS jobs_archive_ended_idx ON jobs_archive (ended);
+
+-- Resubmission definitions remain available for archived jobs.
+ALTER TABLE job_resubmit DROP CONSTRAINT IF EXISTS job_resubmit_job_uuid_fkey;
+
+-- Find archival candidates without scanning active jobs.
+CREATE INDEX IF NOT EXISTS jobs_terminal_ended_idx ON jobs (ended)
+  WHERE status IN ('FINISHED', 'CANCELLED', 'FAILED');
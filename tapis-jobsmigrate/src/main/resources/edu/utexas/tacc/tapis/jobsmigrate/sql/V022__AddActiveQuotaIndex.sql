@@ -0,0 +1,9 @@
+-- Serve the quota checks' active job counts from a small index-only scan.  The key
+-- covers every combination of the tenant, system, queue and owner filters, and
+-- status is included so that counts that exclude PENDING need no heap access.
+-- The predicate lists the active statuses, including PENDING, in JobStatusType
+-- declaration order to match JobStatusType.getActiveWithPendingSQLString().
+CREATE INDEX IF NOT EXISTS jobs_active_quota_idx 
+  ON jobs (tenant, exec_system_id, exec_system_logical_queue, owner) INCLUDE (status)
+  WHERE status = ANY(ARRAY['PENDING', 'PROCESSING_INPUTS', 'STAGING_INPUTS', 'STAGING_JOB', 
+                           'SUBMITTING_JOB', 'QUEUED', 'RUNNING', 'ARCHIVING']::job_status_enum[]);
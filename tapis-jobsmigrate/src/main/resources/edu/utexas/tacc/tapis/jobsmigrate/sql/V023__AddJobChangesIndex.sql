@@ -0,0 +1,6 @@
+-- Serve the changes listing's keyset pages from an index range scan.  Each page
+-- selects one user's jobs whose (last_updated, id) follows the client's watermark
+-- in (last_updated, id) order, so the key matches the filter and the sort and
+-- no page needs to read or sort the rows that precede the watermark.
+CREATE INDEX IF NOT EXISTS jobs_tenant_owner_updated_idx 
+  ON jobs (tenant, owner, last_updated, id);
@@ -0,0 +1,51 @@
+-- Redefine job_events_create_partitions() so that it can create a monthly partition
+-- when job_events_default already holds rows for that month.  Postgres refuses to
+-- create a partition whose range matches rows in the default partition, which would
+-- otherwise stop all partition creation once any event landed in the default.
+--
+-- When the default holds rows for a missing month, the default is detached, the new
+-- partition is created, the month's rows are moved into it and the default is
+-- reattached, all in the caller's transaction.  Months without such rows are created
+-- directly as before.
+CREATE OR REPLACE FUNCTION job_events_create_partitions(first_month date, months_ahead integer)
+RETURNS integer AS $$
+DECLARE
+  month_start date := date_trunc('month', first_month)::date;
+  last_month  date := (date_trunc('month', now() at time zone 'utc')
+                       + make_interval(months => months_ahead))::date;
+  month_end   date;
+  part_name   text;
+  num_created integer := 0;
+BEGIN
+  WHILE month_start <= last_month LOOP
+    part_name := 'job_events_' || to_char(month_start, 'YYYYMM');
+    month_end := (month_start + interval '1 month')::date;
+    IF to_regclass(part_name) IS NULL THEN
+      IF EXISTS (SELECT 1 FROM job_events_default
+                 WHERE created >= month_start AND created < month_end) THEN
+        ALTER TABLE job_events DETACH PARTITION job_events_default;
+        EXECUTE format('CREATE TABLE %I PARTITION OF job_events FOR VALUES FROM (%L) TO (%L)',
+                       part_name, month_start, month_end);
+        WITH moved AS (
+          DELETE FROM job_events_default
+          WHERE created >= month_start AND created < month_end
+          RETURNING id, event, created, job_uuid, event_detail, oth_uuid, description, tenant)
+        INSERT INTO job_events (id, event, created, job_uuid, event_detail, oth_uuid, description, tenant)
+          SELECT id, event, created, job_uuid, event_detail, oth_uuid, description, tenant FROM moved;
+        ALTER TABLE job_events ATTACH PARTITION job_events_default DEFAULT;
+      ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF job_events FOR VALUES FROM (%L) TO (%L)',
+                       part_name, month_start, month_end);
+      END IF;
+      num_created := num_created + 1;
+    END IF;
+    month_start := month_end;
+  END LOOP;
+  RETURN num_created;
+END;
+$$ LANGUAGE plpgsql;
+ALTER FUNCTION job_events_create_partitions(date, integer) OWNER TO tapis;
+
+-- Give any months already stranded in the default partition their own partitions.
+SELECT job_events_create_partitions(
+  (SELECT COALESCE(min(created), now() at time zone 'utc') FROM job_events_default)::date, 3);
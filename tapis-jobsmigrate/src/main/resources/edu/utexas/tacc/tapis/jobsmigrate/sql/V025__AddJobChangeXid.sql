@@ -0,0 +1,30 @@
+-- Order the changes listing by the id of the transaction that last wrote each job
+-- rather than by last_updated.  last_updated is set from the clock of whichever host
+-- wrote the job, so a host whose clock lags could commit an update that sorts before
+-- a watermark a client already holds.  Transaction ids come from the database alone.
+--
+-- The trigger stamps every inserted or updated row with txid_current().  A listing
+-- only returns rows whose change_xid is below the xmin of its own snapshot: every
+-- transaction with a smaller id has ended, so no later commit can sort before the
+-- rows returned.  Transactions that have not written anything hold no id and do not
+-- delay the listing.  Existing rows start at 0 and are ordered by id.
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS change_xid bigint NOT NULL DEFAULT 0;
+ALTER TABLE jobs_archive ADD COLUMN IF NOT EXISTS change_xid bigint NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION jobs_set_change_xid()
+RETURNS trigger AS $$
+BEGIN
+  NEW.change_xid := txid_current();
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+ALTER FUNCTION jobs_set_change_xid() OWNER TO tapis;
+
+DROP TRIGGER IF EXISTS jobs_change_xid_trg ON jobs;
+CREATE TRIGGER jobs_change_xid_trg BEFORE INSERT OR UPDATE ON jobs
+  FOR EACH ROW EXECUTE PROCEDURE jobs_set_change_xid();
+
+-- Replace the (last_updated, id) keyset index from V023.
+DROP INDEX IF EXISTS jobs_tenant_owner_updated_idx;
+CREATE INDEX IF NOT EXISTS jobs_tenant_owner_xid_idx
+  ON jobs (tenant, owner, change_xid, id);